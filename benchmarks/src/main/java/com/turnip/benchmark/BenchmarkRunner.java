@@ -0,0 +1,72 @@
+package com.turnip.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * benchmarks.jar 的入口
+ * 在 JMH 命令行参数的基础上默认开启 GC/分配 profiler，并把结果写成 JSON。
+ * 结果默认写到 jar 所在目录（即 benchmarks/target）下的 jmh-result.json，与当前工作目录无关；
+ * 可以用 -Dturnip.benchmark.result=路径 或 JMH 的 -rff 参数改写。
+ *
+ * 一条命令运行全部基准：
+ *   mvn -B package -DskipTests && java -jar benchmarks/target/benchmarks.jar
+ * 只跑某一组并改结果路径（其余参数与 JMH 原生命令行一致）：
+ *   java -jar benchmarks/target/benchmarks.jar SortBenchmark -rff sort.json
+ */
+public class BenchmarkRunner {
+
+    private static final String RESULT_PROPERTY = "turnip.benchmark.result";
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args)
+            throws RunnerException, CommandLineOptionException, IOException, URISyntaxException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        // -h / -l / -lprof 等只查询信息的参数交给 JMH 原生入口
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams()
+                || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (cmd.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        Path result = cmd.getResult().hasValue() ? Path.of(cmd.getResult().get()) : defaultResultFile();
+        builder.result(result.toString());
+        // JMH 不会创建结果文件的目录，目录不存在时要等全部基准跑完写结果才失败
+        Path parent = result.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new Runner(builder.build()).run();
+    }
+
+    /**
+     * 系统属性优先；否则放在 jar 所在目录，从 IDE 直接运行 target/classes 时放在 target 下
+     */
+    private static Path defaultResultFile() throws URISyntaxException {
+        String property = System.getProperty(RESULT_PROPERTY);
+        if (property != null && !property.isBlank()) {
+            return Path.of(property);
+        }
+        Path location = Path.of(BenchmarkRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path dir = location.getParent() != null ? location.getParent() : location;
+        return dir.resolve(DEFAULT_RESULT_FILE);
+    }
+}
@@ -0,0 +1,90 @@
+package com.turnip.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NIO/AIO 示例中的缓冲区编解码路径：
+ * 读到的字节 -> String（handleRead 的写法 vs 复用 CharsetDecoder），
+ * 回显字符串 -> ByteBuffer（ByteBuffer.wrap(getBytes()) vs 复用直接缓冲区 + CharsetEncoder）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BufferCodecBenchmark {
+
+    @Param({"16", "1024"})
+    public int length;
+
+    private String message;
+    private ByteBuffer readBuffer;
+    private ByteBuffer directWriteBuffer;
+    private CharBuffer charBuffer;
+    private CharsetDecoder decoder;
+    private CharsetEncoder encoder;
+
+    @Setup
+    public void setup() {
+        message = "服务器回显: " + "x".repeat(length);
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        readBuffer = ByteBuffer.allocate(bytes.length);
+        readBuffer.put(bytes).flip();
+        directWriteBuffer = ByteBuffer.allocateDirect(bytes.length * 2);
+        charBuffer = CharBuffer.allocate(message.length() * 2);
+        decoder = StandardCharsets.UTF_8.newDecoder();
+        encoder = StandardCharsets.UTF_8.newEncoder();
+    }
+
+    @Benchmark
+    public String decodeCopyToArray() {
+        ByteBuffer buffer = readBuffer.duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public CharBuffer decodeReusedDecoder() {
+        ByteBuffer buffer = readBuffer.duplicate();
+        charBuffer.clear();
+        decoder.reset();
+        decoder.decode(buffer, charBuffer, true);
+        decoder.flush(charBuffer);
+        charBuffer.flip();
+        return charBuffer;
+    }
+
+    @Benchmark
+    public ByteBuffer encodeWrapBytes() {
+        return ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public ByteBuffer encodeReusedDirect() {
+        directWriteBuffer.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(message), directWriteBuffer, true);
+        encoder.flush(directWriteBuffer);
+        directWriteBuffer.flip();
+        return directWriteBuffer;
+    }
+}
@@ -0,0 +1,71 @@
+package com.turnip.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Stream1 风格的收集器：按奇偶分区、按取模分组计数，与手写循环对照。
+ * 配合 -prof gc 观察装箱和 ArrayList 扩容带来的分配量。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CollectorBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    private List<Integer> numbers;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        numbers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            numbers.add(random.nextInt(1_000_000));
+        }
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Integer>> partitioningBy() {
+        return numbers.stream().collect(Collectors.partitioningBy(n -> n % 2 == 0));
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Integer>> parallelPartitioningBy() {
+        return numbers.parallelStream().collect(Collectors.partitioningBy(n -> n % 2 == 0));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupingByCounting() {
+        return numbers.stream().collect(Collectors.groupingBy(n -> n % 16, Collectors.counting()));
+    }
+
+    @Benchmark
+    public long[] loopCounting() {
+        long[] counts = new long[16];
+        for (int i = 0, n = numbers.size(); i < n; i++) {
+            counts[numbers.get(i) % 16]++;
+        }
+        return counts;
+    }
+}
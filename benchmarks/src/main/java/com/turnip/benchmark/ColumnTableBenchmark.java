@@ -0,0 +1,104 @@
+package com.turnip.benchmark;
+
+import com.turnip.stream.column.ColumnTable;
+import com.turnip.stream.column.Compare;
+import com.turnip.stream.column.IntColumn;
+import com.turnip.stream.column.Selection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列式表的内核 vs Stream 流水线：条件求和、条件计数、最大值
+ * stream* 是 Stream1 那样的装箱流水线，intStream* 是 IntStream，scalar* 和 vector* 是 ColumnTable 的两种内核。
+ * 过滤结果写入预先分配的 Selection，不计入分配开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xmx4g", "--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ColumnTableBenchmark {
+
+    @Param({"100000000"})
+    public int rows;
+
+    @Param({"5000"})
+    public int threshold;
+
+    private int[] price;
+    private IntColumn scalar;
+    private IntColumn vector;
+    private Selection selection;
+
+    @Setup
+    public void setup() {
+        price = new SplittableRandom(42).ints(rows, 0, 10_000).toArray();
+        scalar = ColumnTable.scalar(rows).addColumn("price", price).intColumn("price");
+        vector = new ColumnTable(rows).addColumn("price", price).intColumn("price");
+        selection = new Selection(rows);
+    }
+
+    @Benchmark
+    public long streamFilterSum() {
+        return Arrays.stream(price).boxed().filter(p -> p < threshold).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long intStreamFilterSum() {
+        return Arrays.stream(price).filter(p -> p < threshold).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long scalarFilterSum() {
+        return scalar.sum(scalar.filterInto(Compare.LT, threshold, selection));
+    }
+
+    @Benchmark
+    public long vectorFilterSum() {
+        return vector.sum(vector.filterInto(Compare.LT, threshold, selection));
+    }
+
+    @Benchmark
+    public long streamCount() {
+        return Arrays.stream(price).boxed().filter(p -> p < threshold).count();
+    }
+
+    @Benchmark
+    public long scalarCount() {
+        return scalar.count(Compare.LT, threshold);
+    }
+
+    @Benchmark
+    public long vectorCount() {
+        return vector.count(Compare.LT, threshold);
+    }
+
+    @Benchmark
+    public int streamMax() {
+        return Arrays.stream(price).boxed().max(Integer::compare).orElseThrow();
+    }
+
+    @Benchmark
+    public int scalarMax() {
+        return scalar.max();
+    }
+
+    @Benchmark
+    public int vectorMax() {
+        return vector.max();
+    }
+}
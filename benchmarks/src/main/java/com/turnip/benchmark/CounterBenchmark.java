@@ -0,0 +1,64 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.ReentrantLockExample;
+import com.turnip.thread.SynchronizedExample;
+import com.turnip.thread.metrics.StripedCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * synchronized vs ReentrantLock vs 原子类的计数吞吐
+ * 默认 4 线程共享同一个计数器，可用 -t 覆盖线程数，例如 -t 1 / -t 16。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class CounterBenchmark {
+
+    private final SynchronizedExample synchronizedExample = new SynchronizedExample();
+    private final ReentrantLockExample reentrantLockExample = new ReentrantLockExample();
+    private final AtomicLong atomicLong = new AtomicLong();
+    private final LongAdder longAdder = new LongAdder();
+    private final StripedCounter stripedCounter = new StripedCounter();
+
+    @Benchmark
+    public void synchronizedIncrement() {
+        synchronizedExample.incrementWithLock();
+    }
+
+    @Benchmark
+    public void reentrantLockIncrement() {
+        reentrantLockExample.increment();
+    }
+
+    @Benchmark
+    public long atomicLongIncrement() {
+        return atomicLong.incrementAndGet();
+    }
+
+    @Benchmark
+    public void longAdderIncrement() {
+        longAdder.increment();
+    }
+
+    @Benchmark
+    public void stripedCounterIncrement() {
+        stripedCounter.increment();
+    }
+}
@@ -0,0 +1,68 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.AdaptiveSpinLock;
+import com.turnip.thread.FlatCombiningExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 短临界区 count++ 的吞吐：ReentrantLock 非公平/公平、自适应自旋锁、平面合并
+ * 公平性（各线程分到的次数是否平均）见 core 模块的 CriticalSectionComparison。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+@State(Scope.Benchmark)
+public class CriticalSectionBenchmark {
+
+    private final Lock nonFair = new ReentrantLock();
+    private final Lock fair = new ReentrantLock(true);
+    private final Lock adaptive = new AdaptiveSpinLock();
+    private final FlatCombiningExecutor<long[]> combiner = new FlatCombiningExecutor<>(new long[1]);
+
+    private long count;
+
+    private long increment(Lock lock) {
+        lock.lock();
+        try {
+            return ++count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public long reentrantLockNonFair() {
+        return increment(nonFair);
+    }
+
+    @Benchmark
+    public long reentrantLockFair() {
+        return increment(fair);
+    }
+
+    @Benchmark
+    public long adaptiveSpinLock() {
+        return increment(adaptive);
+    }
+
+    @Benchmark
+    public long flatCombining() {
+        return combiner.execute(c -> ++c[0]);
+    }
+}
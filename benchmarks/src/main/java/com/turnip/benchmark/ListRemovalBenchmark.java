@@ -0,0 +1,126 @@
+package com.turnip.benchmark;
+
+import com.turnip.listdemo.CompactingIntList;
+import com.turnip.listdemo.CompactingList;
+import com.turnip.listdemo.CompactingLongList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 遍历中按条件删除元素：ArrayList 的 Iterator.remove / removeIf vs CompactingList 及其原始类型版本
+ * ratio 为删除比例；每次调用前重新复制列表，复制不计时。
+ * ArrayList 的 Iterator.remove 是 O(n·k)，size 调大（如 -p size=1000000）时差距随之放大。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Thread)
+public class ListRemovalBenchmark {
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"0.5", "0.9"})
+    public double ratio;
+
+    private int[] data;
+    private List<Integer> source;
+    private int threshold;
+
+    private ArrayList<Integer> arrayList;
+    private CompactingList<Integer> compactingList;
+    private CompactingIntList intList;
+    private CompactingLongList longList;
+
+    @Setup
+    public void setup() {
+        data = new SplittableRandom(42).ints(size, 0, 1000).toArray();
+        source = new ArrayList<>(size);
+        for (int v : data) {
+            source.add(v);
+        }
+        threshold = (int) (ratio * 1000);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        arrayList = new ArrayList<>(source);
+        compactingList = new CompactingList<>(source);
+        intList = CompactingIntList.of(data);
+        longList = new CompactingLongList(size);
+        for (int v : data) {
+            longList.add(v);
+        }
+    }
+
+    @Benchmark
+    public int arrayListIterator() {
+        for (Iterator<Integer> it = arrayList.iterator(); it.hasNext(); ) {
+            if (it.next() < threshold) {
+                it.remove();
+            }
+        }
+        return arrayList.size();
+    }
+
+    @Benchmark
+    public int arrayListRemoveIf() {
+        arrayList.removeIf(v -> v < threshold);
+        return arrayList.size();
+    }
+
+    @Benchmark
+    public int compactingListIterator() {
+        for (Iterator<Integer> it = compactingList.iterator(); it.hasNext(); ) {
+            if (it.next() < threshold) {
+                it.remove();
+            }
+        }
+        return compactingList.size();
+    }
+
+    @Benchmark
+    public int compactingListRemoveIf() {
+        compactingList.removeIf(v -> v < threshold);
+        return compactingList.size();
+    }
+
+    @Benchmark
+    public int intListIterator() {
+        for (PrimitiveIterator.OfInt it = intList.iterator(); it.hasNext(); ) {
+            if (it.nextInt() < threshold) {
+                it.remove();
+            }
+        }
+        return intList.size();
+    }
+
+    @Benchmark
+    public int longListIterator() {
+        for (PrimitiveIterator.OfLong it = longList.iterator(); it.hasNext(); ) {
+            if (it.nextLong() < threshold) {
+                it.remove();
+            }
+        }
+        return longList.size();
+    }
+}
@@ -0,0 +1,145 @@
+package com.turnip.benchmark;
+
+import com.turnip.map.CompactStringMap;
+import com.turnip.map.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HashMap vs 开放寻址表：size 个条目的构建（put）和随机顺序的 size 次查找（get）
+ * 更大的规模：-p size=10000000,100000000，并按 OpenAddressingMapExample 的说明调大 -Xmx（-jvmArgsAppend）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xmx3g"})
+@State(Scope.Thread)
+public class OpenAddressingMapBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    private long[] longKeys;
+    private long[] longProbes;
+    private String[] stringKeys;
+    private String[] stringProbes;
+    private String[] values;
+
+    private Map<Long, Long> hashMapLong;
+    private LongLongHashMap longLong;
+    private Map<String, String> hashMapString;
+    private CompactStringMap compactString;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        longKeys = random.longs(size).toArray();
+        longProbes = new long[size];
+        stringKeys = new String[size];
+        stringProbes = new String[size];
+        values = new String[1024];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value-" + i;
+        }
+        for (int i = 0; i < size; i++) {
+            stringKeys[i] = "user:" + Long.toHexString(longKeys[i]);
+        }
+        // 查找顺序与插入顺序无关，避免顺着 Node 的分配顺序访问内存
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(size);
+            longProbes[i] = longKeys[j];
+            stringProbes[i] = stringKeys[j];
+        }
+        hashMapLong = hashMapLongPut();
+        longLong = longLongPut();
+        hashMapString = hashMapStringPut();
+        compactString = compactStringPut();
+    }
+
+    @Benchmark
+    public Map<Long, Long> hashMapLongPut() {
+        Map<Long, Long> map = new HashMap<>();
+        for (long k : longKeys) {
+            map.put(k, k);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public LongLongHashMap longLongPut() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long k : longKeys) {
+            map.put(k, k);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public long hashMapLongGet() {
+        long sum = 0;
+        for (long k : longProbes) {
+            sum += hashMapLong.get(k);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longLongGet() {
+        long sum = 0;
+        for (long k : longProbes) {
+            sum += longLong.get(k);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Map<String, String> hashMapStringPut() {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < stringKeys.length; i++) {
+            map.put(stringKeys[i], values[i & 1023]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public CompactStringMap compactStringPut() {
+        CompactStringMap map = new CompactStringMap();
+        for (int i = 0; i < stringKeys.length; i++) {
+            map.put(stringKeys[i], values[i & 1023]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public long hashMapStringGet() {
+        long sum = 0;
+        for (String k : stringProbes) {
+            sum += hashMapString.get(k).length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long compactStringGet() {
+        long sum = 0;
+        for (String k : stringProbes) {
+            sum += compactString.get(k).length();
+        }
+        return sum;
+    }
+}
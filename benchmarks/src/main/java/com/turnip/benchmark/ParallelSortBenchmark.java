@@ -0,0 +1,96 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.sort.ParallelMergeSort;
+import com.turnip.thread.sort.RadixSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并行归并排序、并行基数排序 vs Arrays.sort / Arrays.parallelSort
+ * 输入分布：均匀随机、已排序、逆序、大量重复（只有 16 个不同值）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ParallelSortBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"uniform", "sorted", "reversed", "duplicates"})
+    public String distribution;
+
+    private int[] source;
+    private int[] work;
+    private int[] payload;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        source = distribution.equals("duplicates") ? random.ints(size, 0, 16).toArray() : random.ints(size).toArray();
+        if (!distribution.equals("uniform") && !distribution.equals("duplicates")) {
+            Arrays.sort(source);
+        }
+        if (distribution.equals("reversed")) {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int t = source[i];
+                source[i] = source[j];
+                source[j] = t;
+            }
+        }
+        work = new int[size];
+        payload = new int[size];
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        System.arraycopy(source, 0, work, 0, size);
+        Arrays.sort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        System.arraycopy(source, 0, work, 0, size);
+        Arrays.parallelSort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        System.arraycopy(source, 0, work, 0, size);
+        ParallelMergeSort.sort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] radixSort() {
+        System.arraycopy(source, 0, work, 0, size);
+        RadixSort.sort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] radixSortWithPayload() {
+        System.arraycopy(source, 0, work, 0, size);
+        Arrays.setAll(payload, i -> i);
+        RadixSort.sort(work, payload);
+        return payload;
+    }
+}
@@ -0,0 +1,97 @@
+package com.turnip.benchmark;
+
+import com.turnip.stream.IntCollectors;
+import com.turnip.stream.IntGroups;
+import com.turnip.stream.IntList;
+import com.turnip.stream.IntLongTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 装箱的 Collectors vs IntCollectors：分区、按键分组、按键计数、按键求和
+ * 两边使用同一个 int[] 数据源，装箱版本经过 boxed()。配合 -prof gc 比较 gc.alloc.rate.norm。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class PrimitiveCollectorBenchmark {
+
+    @Param({"10000000"})
+    public int size;
+
+    private int[] data;
+
+    @Setup
+    public void setup() {
+        data = new SplittableRandom(42).ints(size, 0, 1_000_000).toArray();
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Integer>> boxedPartitioningBy() {
+        return Arrays.stream(data).boxed().collect(Collectors.partitioningBy(v -> v % 2 == 0));
+    }
+
+    @Benchmark
+    public Map<Boolean, IntList> primitivePartitioningBy() {
+        return IntCollectors.partitioningBy(v -> v % 2 == 0).collect(Arrays.stream(data));
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Integer>> boxedParallelPartitioningBy() {
+        return Arrays.stream(data).parallel().boxed().collect(Collectors.partitioningBy(v -> v % 2 == 0));
+    }
+
+    @Benchmark
+    public Map<Boolean, IntList> primitiveParallelPartitioningBy() {
+        return IntCollectors.partitioningBy(v -> v % 2 == 0).collect(Arrays.stream(data).parallel());
+    }
+
+    @Benchmark
+    public Map<Integer, List<Integer>> boxedGroupingBy() {
+        return Arrays.stream(data).boxed().collect(Collectors.groupingBy(v -> v % 1000));
+    }
+
+    @Benchmark
+    public IntGroups<IntList> primitiveGroupingBy() {
+        return IntCollectors.groupingBy(v -> v % 1000).collect(Arrays.stream(data));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> boxedCounting() {
+        return Arrays.stream(data).boxed().collect(Collectors.groupingBy(v -> v % 1000, Collectors.counting()));
+    }
+
+    @Benchmark
+    public IntLongTable primitiveCounting() {
+        return IntCollectors.countingBy(v -> v % 1000).collect(Arrays.stream(data));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> boxedSumming() {
+        return Arrays.stream(data).boxed().collect(Collectors.groupingBy(v -> v % 1000, Collectors.summingLong(v -> v)));
+    }
+
+    @Benchmark
+    public IntLongTable primitiveSumming() {
+        return IntCollectors.summingBy(v -> v % 1000).collect(Arrays.stream(data));
+    }
+}
@@ -0,0 +1,70 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.profiling.LockProfiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 监控锁相对裸 ReentrantLock 的额外开销（lock + count++ + unlock）
+ * 默认单线程测无竞争路径，-t 4 可以看竞争路径。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(1)
+@State(Scope.Benchmark)
+public class ProfiledLockBenchmark {
+
+    private final Lock plain = new ReentrantLock();
+    private final Lock sampled = new LockProfiler(64, TimeUnit.MILLISECONDS.toNanos(10), false, message -> {
+    }).newLock("sampled");
+    private final Lock sampledWithOrder = new LockProfiler(64, TimeUnit.MILLISECONDS.toNanos(10), true, message -> {
+    }).newLock("sampledWithOrder");
+    private final Lock everyAcquire = new LockProfiler(1, TimeUnit.MILLISECONDS.toNanos(10), true, message -> {
+    }).newLock("everyAcquire");
+
+    private long count;
+
+    private long increment(Lock lock) {
+        lock.lock();
+        try {
+            return ++count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public long reentrantLock() {
+        return increment(plain);
+    }
+
+    @Benchmark
+    public long profiledSampled() {
+        return increment(sampled);
+    }
+
+    @Benchmark
+    public long profiledSampledWithLockOrder() {
+        return increment(sampledWithOrder);
+    }
+
+    @Benchmark
+    public long profiledTimeEveryAcquire() {
+        return increment(everyAcquire);
+    }
+}
@@ -0,0 +1,84 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.ReadWriteLockExample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读写锁缓存（ReadWriteLockExample）在读多写少场景下的吞吐，
+ * 每组 3 个读线程 + 1 个写线程，ConcurrentHashMap 作为对照。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class ReadWriteLockCacheBenchmark {
+
+    @Param({"1024", "65536"})
+    public int keys;
+
+    private String[] keyNames;
+    private ReadWriteLockExample rwLockCache;
+    private ConcurrentHashMap<String, Object> concurrentMap;
+
+    @Setup
+    public void setup() {
+        keyNames = new String[keys];
+        rwLockCache = new ReadWriteLockExample(false);
+        concurrentMap = new ConcurrentHashMap<>();
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "key" + i;
+            rwLockCache.put(keyNames[i], "value" + i);
+            concurrentMap.put(keyNames[i], "value" + i);
+        }
+    }
+
+    private String randomKey() {
+        return keyNames[ThreadLocalRandom.current().nextInt(keys)];
+    }
+
+    @Benchmark
+    @Group("rwLock")
+    @GroupThreads(3)
+    public Object rwLockRead() {
+        return rwLockCache.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("rwLock")
+    @GroupThreads(1)
+    public void rwLockWrite() {
+        rwLockCache.put(randomKey(), "updated");
+    }
+
+    @Benchmark
+    @Group("concurrentHashMap")
+    @GroupThreads(3)
+    public Object chmRead() {
+        return concurrentMap.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("concurrentHashMap")
+    @GroupThreads(1)
+    public Object chmWrite() {
+        return concurrentMap.put(randomKey(), "updated");
+    }
+}
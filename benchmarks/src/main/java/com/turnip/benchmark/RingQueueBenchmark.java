@@ -0,0 +1,213 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.queue.MpmcRingQueue;
+import com.turnip.thread.queue.MpscRingQueue;
+import com.turnip.thread.queue.RingQueue;
+import com.turnip.thread.queue.SpscRingQueue;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 环形队列 vs ArrayBlockingQueue / LinkedBlockingQueue
+ * - handoff：一个线程 offer、一个线程 poll 的吞吐；看辅助计数 offered/polled（成功次数/微秒），失败时让出 CPU
+ * - roundTrip：两个队列一来一回的往返延迟，回声线程在 Setup 中启动
+ * 一对一的场景 SPSC/MPSC/MPMC 都适用，可以看到放宽并发约束各要付出多少。
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RingQueueBenchmark {
+
+    private static final Integer ITEM = 1;
+
+    /**
+     * 统一 offer/poll，每个 fork 只会用到一种实现
+     */
+    interface Handoff {
+        boolean offer(Integer e);
+
+        Integer poll();
+    }
+
+    static Handoff create(String type, int capacity) {
+        switch (type) {
+            case "spsc":
+                return ring(new SpscRingQueue<>(capacity));
+            case "mpsc":
+                return ring(new MpscRingQueue<>(capacity));
+            case "mpmc":
+                return ring(new MpmcRingQueue<>(capacity));
+            case "arrayBlocking":
+                return jdk(new ArrayBlockingQueue<>(capacity));
+            case "linkedBlocking":
+                return jdk(new LinkedBlockingQueue<>(capacity));
+            default:
+                throw new IllegalArgumentException(type);
+        }
+    }
+
+    private static Handoff ring(RingQueue<Integer> q) {
+        return new Handoff() {
+            @Override
+            public boolean offer(Integer e) {
+                return q.offer(e);
+            }
+
+            @Override
+            public Integer poll() {
+                return q.poll();
+            }
+        };
+    }
+
+    private static Handoff jdk(Queue<Integer> q) {
+        return new Handoff() {
+            @Override
+            public boolean offer(Integer e) {
+                return q.offer(e);
+            }
+
+            @Override
+            public Integer poll() {
+                return q.poll();
+            }
+        };
+    }
+
+    @State(Scope.Group)
+    public static class Shared {
+        @Param({"spsc", "mpsc", "mpmc", "arrayBlocking", "linkedBlocking"})
+        public String queue;
+
+        @Param({"1024"})
+        public int capacity;
+
+        Handoff q;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            q = create(queue, capacity);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class OfferCounters {
+        public long offered;
+        public long offerFailed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            offered = 0;
+            offerFailed = 0;
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class PollCounters {
+        public long polled;
+        public long pollFailed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            polled = 0;
+            pollFailed = 0;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("handoff")
+    @GroupThreads(1)
+    public void offer(Shared s, OfferCounters c) {
+        if (s.q.offer(ITEM)) {
+            c.offered++;
+        } else {
+            c.offerFailed++;
+            Thread.yield();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Group("handoff")
+    @GroupThreads(1)
+    public void poll(Shared s, PollCounters c) {
+        if (s.q.poll() != null) {
+            c.polled++;
+        } else {
+            c.pollFailed++;
+            Thread.yield();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PingPong {
+        @Param({"spsc", "mpsc", "mpmc", "arrayBlocking", "linkedBlocking"})
+        public String queue;
+
+        Handoff ping;
+        Handoff pong;
+        private volatile boolean running;
+        private Thread echo;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ping = create(queue, 1024);
+            pong = create(queue, 1024);
+            running = true;
+            echo = new Thread(() -> {
+                while (running) {
+                    Integer v = ping.poll();
+                    if (v == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    while (!pong.offer(v)) {
+                        Thread.yield();
+                    }
+                }
+            }, "echo");
+            echo.setDaemon(true);
+            echo.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            running = false;
+            echo.join();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public Integer roundTrip(PingPong s) {
+        s.ping.offer(ITEM);
+        Integer v;
+        while ((v = s.pong.poll()) == null) {
+            Thread.yield();
+        }
+        return v;
+    }
+}
@@ -0,0 +1,62 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.local.ScratchBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 取一块临时缓冲区：直接 ThreadLocal&lt;byte[]&gt;.get() vs ScratchBuffer.acquire vs 每次 new
+ * 三者都写一个字节，避免被消除。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xmx1g"})
+@State(Scope.Thread)
+public class ScratchBufferBenchmark {
+
+    @Param({"8192"})
+    public int size;
+
+    private ThreadLocal<byte[]> raw;
+    private ScratchBuffer scratch;
+
+    @Setup
+    public void setup() {
+        raw = ThreadLocal.withInitial(() -> new byte[size]);
+        scratch = new ScratchBuffer("bench", size, size * 4);
+    }
+
+    @Benchmark
+    public byte[] rawThreadLocal() {
+        byte[] buffer = raw.get();
+        buffer[0]++;
+        return buffer;
+    }
+
+    @Benchmark
+    public byte[] scratchBuffer() {
+        byte[] buffer = scratch.acquire(size);
+        buffer[0]++;
+        return buffer;
+    }
+
+    @Benchmark
+    public byte[] allocate() {
+        byte[] buffer = new byte[size];
+        buffer[0]++;
+        return buffer;
+    }
+}
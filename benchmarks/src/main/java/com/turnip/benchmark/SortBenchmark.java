@@ -0,0 +1,65 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.MyThread3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyThread3 的希尔排序 vs Arrays.sort vs Arrays.parallelSort
+ * 每次调用先把原始数据拷贝到工作数组，拷贝开销对三种实现相同。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private int[] source;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        source = random.ints(size).toArray();
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] shellSort() {
+        System.arraycopy(source, 0, work, 0, size);
+        MyThread3.shellSort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        System.arraycopy(source, 0, work, 0, size);
+        Arrays.sort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        System.arraycopy(source, 0, work, 0, size);
+        Arrays.parallelSort(work);
+        return work;
+    }
+}
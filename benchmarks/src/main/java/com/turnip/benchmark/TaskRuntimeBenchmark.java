@@ -0,0 +1,120 @@
+package com.turnip.benchmark;
+
+import com.turnip.thread.runtime.Task;
+import com.turnip.thread.runtime.TaskRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一批短任务的完成时间：Main 式的每任务一个线程 vs ForkJoinPool vs TaskRuntime
+ * 每个任务只做一小段计算，衡量的主要是调度开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TaskRuntimeBenchmark {
+
+    @Param({"1000"})
+    public int tasks;
+
+    private TaskRuntime runtime;
+    private ForkJoinPool forkJoinPool;
+    private List<Callable<Long>> batch;
+
+    @Setup
+    public void setup() {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        runtime = new TaskRuntime(parallelism);
+        forkJoinPool = new ForkJoinPool(parallelism);
+        batch = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            final long seed = i;
+            batch.add(() -> work(seed));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        runtime.close();
+        forkJoinPool.shutdown();
+    }
+
+    private static long work(long seed) {
+        long x = seed;
+        for (int i = 0; i < 100; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x;
+    }
+
+    @Benchmark
+    public long threadPerTask() throws Exception {
+        List<FutureTask<Long>> futures = new ArrayList<>(tasks);
+        for (Callable<Long> callable : batch) {
+            FutureTask<Long> ft = new FutureTask<>(callable);
+            new Thread(ft).start();
+            futures.add(ft);
+        }
+        long sum = 0;
+        for (FutureTask<Long> ft : futures) {
+            sum += ft.get();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long forkJoinPool() {
+        List<ForkJoinTask<Long>> futures = new ArrayList<>(tasks);
+        for (Callable<Long> callable : batch) {
+            futures.add(forkJoinPool.submit(callable));
+        }
+        long sum = 0;
+        for (ForkJoinTask<Long> task : futures) {
+            sum += task.join();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long taskRuntimeSubmitAll() {
+        long sum = 0;
+        for (long v : Task.allOf(runtime.submitAll(batch)).join()) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long taskRuntimeSubmitEach() {
+        List<Task<Long>> futures = new ArrayList<>(tasks);
+        for (Callable<Long> callable : batch) {
+            futures.add(runtime.submit(callable));
+        }
+        long sum = 0;
+        for (Task<Long> task : futures) {
+            sum += task.join();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,77 @@
+package com.turnip.benchmark;
+
+import com.turnip.stream.window.WindowedAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 窗口聚合每秒处理的事件数：滚动窗口 1s，滑动窗口 10s/1s，键的个数可调
+ * 每次调用处理 EVENTS 个乱序事件（最多乱序 50 ms，允许迟到 100 ms）。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class WindowAggregatorBenchmark {
+
+    private static final int EVENTS = 1 << 20;
+
+    @Param({"100", "10000"})
+    public int keys;
+
+    private long[] timestamps;
+    private int[] keyIds;
+    private long[] values;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        timestamps = new long[EVENTS];
+        keyIds = new int[EVENTS];
+        values = new long[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            // 约每毫秒 100 个事件
+            timestamps[i] = i / 100 - random.nextInt(50);
+            keyIds[i] = random.nextInt(keys);
+            values[i] = random.nextInt(10_000);
+        }
+    }
+
+    private long run(WindowedAggregator aggregator) {
+        for (int i = 0; i < EVENTS; i++) {
+            aggregator.onEvent(timestamps[i], keyIds[i], values[i]);
+        }
+        aggregator.flush();
+        return aggregator.windowCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long tumbling(Blackhole bh) {
+        return run(WindowedAggregator.tumbling(1000, 100,
+                (start, end, key, count, sum, min, max) -> bh.consume(sum)));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long sliding(Blackhole bh) {
+        return run(WindowedAggregator.sliding(10_000, 1000, 100,
+                (start, end, key, count, sum, min, max) -> bh.consume(sum)));
+    }
+}
@@ -0,0 +1,376 @@
+package com.turnip.hutool;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分块的 AES-GCM 文件加解密，流式处理任意大小的文件，多核并行
+ *
+ * EncryptDemoFinal.aesDemoFixed 用 ECB 一次性加密整个字符串：相同明文块得到相同密文块，会泄露模式，
+ * 而且整份数据都要放在内存里。这里把文件切成固定大小的块，每块独立做 AES-GCM：
+ * - nonce = 文件随机前缀（8 字节）+ 块序号（4 字节），块之间互不依赖，可以分给多个线程，也可以只解密其中一块；
+ * - 每块带 16 字节认证标签，文件头作为附加认证数据参与每一块的计算，
+ *   篡改、调换块顺序、改文件头里的长度都会在解密时被发现；
+ * - 每个工作线程持有自己的 Cipher 和两块直接缓冲区，用 FileChannel 按位置读写，内存占用与文件大小无关。
+ *
+ * 文件格式：32 字节文件头（魔数、版本、块大小、明文长度、nonce 前缀），随后依次是各块的密文 + 标签。
+ * 空文件也有一个空块，保证文件头本身被认证。
+ * nonce 前缀随机生成，同一个密钥加密的文件数应远小于 2^32。
+ */
+public final class ChunkedFileCipher {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    public static final int MAX_CHUNK_SIZE = 64 << 20;
+
+    static final int HEADER_SIZE = 32;
+    static final int TAG_SIZE = 16;
+    private static final int MAGIC = 0x54474346; // "TGCF"
+    private static final int VERSION = 1;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    /**
+     * 一次加密或解密的耗时统计
+     */
+    public record Throughput(long bytes, long nanos, int threads) {
+
+        public double megabytesPerSecond() {
+            return bytes / 1e6 / (nanos / 1e9);
+        }
+
+        public double megabytesPerSecondPerCore() {
+            return megabytesPerSecond() / threads;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d 字节，%.1f ms，%d 线程，%.1f MB/s（每核 %.1f MB/s）",
+                    bytes, nanos / 1e6, threads, megabytesPerSecond(), megabytesPerSecondPerCore());
+        }
+    }
+
+    private final SecretKey key;
+    private final int chunkSize;
+    private final int parallelism;
+    private final SecureRandom random = new SecureRandom();
+
+    public ChunkedFileCipher(SecretKey key) {
+        this(key, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param key         128/192/256 位 AES 密钥
+     * @param chunkSize   加密时每块的明文字节数；解密时以文件头为准
+     * @param parallelism 工作线程数
+     */
+    public ChunkedFileCipher(SecretKey key, int chunkSize, int parallelism) {
+        int length = key.getEncoded().length;
+        if (length != 16 && length != 24 && length != 32) {
+            throw new IllegalArgumentException("AES密钥长度无效: " + length + " 字节");
+        }
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize无效: " + chunkSize);
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism必须为正数: " + parallelism);
+        }
+        this.key = new SecretKeySpec(key.getEncoded(), "AES");
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 加密 source 写入 target（已存在则覆盖）；失败时删除已写出的 target
+     */
+    public Throughput encrypt(Path source, Path target) throws IOException {
+        long start = System.nanoTime();
+        boolean done = false;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long length = in.size();
+            byte[] prefix = new byte[8];
+            random.nextBytes(prefix);
+            Header header = new Header(chunkSize, length, prefix);
+            writeFully(out, ByteBuffer.wrap(header.encode()), 0);
+            forEachChunk(header, (index, cipher, plain, sealed) -> {
+                plain.clear().limit(header.plainLength(index));
+                readFully(in, plain, header.plainOffset(index));
+                plain.flip();
+                sealed.clear();
+                header.init(cipher, Cipher.ENCRYPT_MODE, key, index);
+                cipher.doFinal(plain, sealed);
+                sealed.flip();
+                writeFully(out, sealed, header.sealedOffset(index));
+            });
+            done = true;
+            return new Throughput(length, System.nanoTime() - start, threadsFor(header));
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    /**
+     * 解密 source 写入 target；任何一块认证失败都抛出 IOException，并删除已写出的 target
+     */
+    public Throughput decrypt(Path source, Path target) throws IOException {
+        long start = System.nanoTime();
+        boolean done = false;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            Header header = Header.read(in);
+            forEachChunk(header, (index, cipher, plain, sealed) -> {
+                decryptChunk(in, header, index, cipher, sealed, plain);
+                writeFully(out, plain, header.plainOffset(index));
+            });
+            done = true;
+            return new Throughput(header.length, System.nanoTime() - start, threadsFor(header));
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    /**
+     * 只解密第 index 块（从 0 开始），不读其他块
+     */
+    public byte[] decryptChunk(Path source, long index) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            Header header = Header.read(in);
+            if (index < 0 || index >= header.chunkCount) {
+                throw new IndexOutOfBoundsException("块序号越界: " + index + "，共 " + header.chunkCount + " 块");
+            }
+            int plainLength = header.plainLength(index);
+            ByteBuffer sealed = ByteBuffer.allocate(plainLength + TAG_SIZE);
+            ByteBuffer plain = ByteBuffer.allocate(plainLength);
+            decryptChunk(in, header, index, newCipher(), sealed, plain);
+            return plain.array();
+        }
+    }
+
+    /**
+     * 加密文件中的块数
+     */
+    public static long chunkCount(Path source) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            return Header.read(in).chunkCount;
+        }
+    }
+
+    private void decryptChunk(FileChannel in, Header header, long index, Cipher cipher,
+                              ByteBuffer sealed, ByteBuffer plain) throws IOException {
+        sealed.clear().limit(header.plainLength(index) + TAG_SIZE);
+        readFully(in, sealed, header.sealedOffset(index));
+        sealed.flip();
+        plain.clear();
+        try {
+            header.init(cipher, Cipher.DECRYPT_MODE, key, index);
+            cipher.doFinal(sealed, plain);
+        } catch (AEADBadTagException e) {
+            throw new IOException("第 " + index + " 块认证失败，文件被篡改或密钥不匹配", e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        plain.flip();
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+        void process(long index, Cipher cipher, ByteBuffer plain, ByteBuffer sealed)
+                throws IOException, GeneralSecurityException;
+    }
+
+    private int threadsFor(Header header) {
+        return (int) Math.min(parallelism, header.chunkCount);
+    }
+
+    /**
+     * 工作线程从共享计数器领取块序号，块大小一致时负载自然均衡
+     */
+    private void forEachChunk(Header header, ChunkTask task) throws IOException {
+        int threads = threadsFor(header);
+        AtomicLong next = new AtomicLong();
+        // 直接缓冲区按块大小分配，小文件不必占满
+        int bufferSize = (int) Math.min(header.chunkSize, Math.max(header.length, 0)) + TAG_SIZE;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "chunk-cipher");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    Cipher cipher = newCipher();
+                    ByteBuffer plain = ByteBuffer.allocateDirect(bufferSize);
+                    ByteBuffer sealed = ByteBuffer.allocateDirect(bufferSize);
+                    for (long i; (i = next.getAndIncrement()) < header.chunkCount; ) {
+                        task.process(i, cipher, plain, sealed);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                await(f, next, header.chunkCount);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(Future<?> future, AtomicLong next, long chunkCount) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("被中断", e);
+        } catch (ExecutionException e) {
+            // 让其他线程尽快停下
+            next.set(chunkCount);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " 不可用", e);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException("文件在 " + (position + buffer.position()) + " 处提前结束");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, start + buffer.position());
+        }
+    }
+
+    /**
+     * 文件头；编码后的 32 字节同时作为每一块的附加认证数据
+     */
+    static final class Header {
+        final int chunkSize;
+        final long length;
+        final byte[] noncePrefix;
+        final long chunkCount;
+        private final byte[] encoded;
+
+        Header(int chunkSize, long length, byte[] noncePrefix) {
+            this.chunkSize = chunkSize;
+            this.length = length;
+            this.noncePrefix = noncePrefix;
+            this.chunkCount = Math.max(1, (length + chunkSize - 1) / chunkSize);
+            if (chunkCount > 0xFFFF_FFFFL) {
+                throw new IllegalArgumentException("块数超过 2^32，请增大 chunkSize");
+            }
+            this.encoded = encode();
+        }
+
+        byte[] encode() {
+            ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE);
+            b.putInt(MAGIC).putInt(VERSION).putInt(chunkSize).putLong(length).put(noncePrefix);
+            return b.array();
+        }
+
+        static Header read(FileChannel in) throws IOException {
+            ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(in, b, 0);
+            b.flip();
+            if (b.getInt() != MAGIC) {
+                throw new IOException("不是分块加密文件");
+            }
+            int version = b.getInt();
+            if (version != VERSION) {
+                throw new IOException("不支持的版本: " + version);
+            }
+            int chunkSize = b.getInt();
+            long length = b.getLong();
+            if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE || length < 0) {
+                throw new IOException("文件头损坏");
+            }
+            byte[] prefix = new byte[8];
+            b.get(prefix);
+            Header header = new Header(chunkSize, length, prefix);
+            long expected = HEADER_SIZE + length + header.chunkCount * TAG_SIZE;
+            if (in.size() != expected) {
+                throw new IOException("文件长度不符: " + in.size() + "，应为 " + expected);
+            }
+            return header;
+        }
+
+        int plainLength(long index) {
+            return (int) Math.min(chunkSize, length - index * chunkSize);
+        }
+
+        long plainOffset(long index) {
+            return index * chunkSize;
+        }
+
+        long sealedOffset(long index) {
+            return HEADER_SIZE + index * (chunkSize + (long) TAG_SIZE);
+        }
+
+        void init(Cipher cipher, int mode, SecretKey key, long index) throws GeneralSecurityException {
+            byte[] nonce = new byte[12];
+            System.arraycopy(noncePrefix, 0, nonce, 0, 8);
+            int i = (int) index;
+            nonce[8] = (byte) (i >>> 24);
+            nonce[9] = (byte) (i >>> 16);
+            nonce[10] = (byte) (i >>> 8);
+            nonce[11] = (byte) i;
+            cipher.init(mode, key, new GCMParameterSpec(TAG_SIZE * 8, nonce));
+            cipher.updateAAD(encoded);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.turnip.hutool;
+
+import cn.hutool.crypto.SecureUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * ChunkedFileCipher 演示：往返校验、单块随机解密、篡改检测，以及 1 线程与多线程的吞吐
+ * 参数：[文件大小 MB]，默认 256；临时文件写在 java.io.tmpdir 下，结束时删除。
+ */
+public class ChunkedFileCipherExample {
+
+    public static void main(String[] args) throws IOException {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int cores = Runtime.getRuntime().availableProcessors();
+        SecretKey key = SecureUtil.generateKey("AES", 256);
+
+        Path dir = Files.createTempDirectory("chunked-cipher");
+        Path plain = dir.resolve("backup.bin");
+        Path sealed = dir.resolve("backup.bin.enc");
+        Path restored = dir.resolve("backup.restored");
+        try {
+            writeRandomFile(plain, megabytes * (1L << 20) + 12345);
+            String digest = DigestUtil.sha256Hex(plain.toFile());
+
+            System.out.println("===== 往返校验 =====");
+            ChunkedFileCipher cipher = new ChunkedFileCipher(key, ChunkedFileCipher.DEFAULT_CHUNK_SIZE, cores);
+            cipher.encrypt(plain, sealed);
+            cipher.decrypt(sealed, restored);
+            long chunks = ChunkedFileCipher.chunkCount(sealed);
+            System.out.println("明文 " + Files.size(plain) + " 字节，密文 " + Files.size(sealed) + " 字节，" + chunks + " 块");
+            System.out.println("解密结果与原文件一致: " + digest.equals(DigestUtil.sha256Hex(restored.toFile())));
+
+            System.out.println("\n===== 单块随机解密 =====");
+            long index = chunks / 2;
+            byte[] chunk = cipher.decryptChunk(sealed, index);
+            byte[] expected = readPlain(plain, index * cipher.chunkSize(), chunk.length);
+            System.out.println("第 " + index + " 块 " + chunk.length + " 字节，与原文对应片段一致: " + Arrays.equals(chunk, expected));
+            byte[] last = cipher.decryptChunk(sealed, chunks - 1);
+            System.out.println("最后一块 " + last.length + " 字节");
+
+            System.out.println("\n===== 篡改检测 =====");
+            flipByte(sealed, ChunkedFileCipher.HEADER_SIZE + 3L * (cipher.chunkSize() + ChunkedFileCipher.TAG_SIZE) + 100);
+            try {
+                cipher.decryptChunk(sealed, 3);
+                System.out.println("第 3 块：未检测到篡改（错误）");
+            } catch (IOException e) {
+                System.out.println("第 3 块：" + e.getMessage());
+            }
+            System.out.println("第 2 块不受影响: " + (cipher.decryptChunk(sealed, 2).length == cipher.chunkSize()));
+            try {
+                cipher.decrypt(sealed, restored);
+                System.out.println("整文件解密：未检测到篡改（错误）");
+            } catch (IOException e) {
+                System.out.println("整文件解密失败：" + e.getMessage() + "，输出文件已删除: " + !Files.exists(restored));
+            }
+
+            System.out.println("\n===== 吞吐（" + megabytes + " MB，块大小 1 MB）=====");
+            for (int threads : cores > 1 ? new int[]{1, cores} : new int[]{1}) {
+                ChunkedFileCipher c = new ChunkedFileCipher(key, ChunkedFileCipher.DEFAULT_CHUNK_SIZE, threads);
+                ChunkedFileCipher.Throughput bestEncrypt = null;
+                ChunkedFileCipher.Throughput bestDecrypt = null;
+                for (int round = 0; round < 3; round++) {
+                    ChunkedFileCipher.Throughput e = c.encrypt(plain, sealed);
+                    ChunkedFileCipher.Throughput d = c.decrypt(sealed, restored);
+                    bestEncrypt = bestEncrypt == null || e.nanos() < bestEncrypt.nanos() ? e : bestEncrypt;
+                    bestDecrypt = bestDecrypt == null || d.nanos() < bestDecrypt.nanos() ? d : bestDecrypt;
+                }
+                System.out.println("加密 " + bestEncrypt);
+                System.out.println("解密 " + bestDecrypt);
+            }
+        } finally {
+            Files.deleteIfExists(plain);
+            Files.deleteIfExists(sealed);
+            Files.deleteIfExists(restored);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void writeRandomFile(Path path, long size) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        byte[] buffer = new byte[1 << 16];
+        try (OutputStream out = Files.newOutputStream(path)) {
+            for (long written = 0; written < size; written += buffer.length) {
+                for (int i = 0; i < buffer.length; i += 8) {
+                    long v = random.nextLong();
+                    for (int j = 0; j < 8; j++) {
+                        buffer[i + j] = (byte) (v >>> (j * 8));
+                    }
+                }
+                out.write(buffer, 0, (int) Math.min(buffer.length, size - written));
+            }
+        }
+    }
+
+    private static byte[] readPlain(Path path, long position, int length) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(length);
+            while (b.hasRemaining() && ch.read(b, position + b.position()) >= 0) {
+            }
+            return b.array();
+        }
+    }
+
+    private static void flipByte(Path path, long position) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 1)).rewind();
+            ch.write(b, position);
+        }
+    }
+}
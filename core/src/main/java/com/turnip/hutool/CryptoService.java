@@ -0,0 +1,165 @@
+package com.turnip.hutool;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+
+/**
+ * 复用加解密对象的加密服务
+ *
+ * EncryptDemoFinal 每次调用都新建 AES/RSA 对象，每次都要按算法名查找 Provider、解析密钥，
+ * RSA 还要同步生成密钥对。这里把三类开销分别去掉：
+ * - Cipher 按线程缓存（ThreadLocal），每次调用只重新 init，不再 Cipher.getInstance；
+ *   Cipher 不是线程安全的，按线程隔离既不用加锁也不会互相干扰；
+ * - 密钥对来自后台填充的 {@link RsaKeyPairPool}；
+ * - Base64 形式的公私钥经 {@link ParsedKeyCache} 只解析一次。
+ *
+ * AES 使用 GCM（随机 12 字节 nonce 放在密文前面），RSA 使用 OAEP(SHA-256) 填充。
+ * 线程安全；不再使用时调用 close() 停止后台生成线程。
+ */
+public final class CryptoService implements AutoCloseable {
+
+    static final String AES_TRANSFORMATION = "AES/GCM/NoPadding";
+    static final String RSA_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+    private static final int NONCE_SIZE = 12;
+    private static final int TAG_BITS = 128;
+
+    // 静态的：Cipher 与具体的服务实例无关，多个实例共用每个线程的同一份
+    private static final ThreadLocal<Cipher> AES = ThreadLocal.withInitial(() -> newCipher(AES_TRANSFORMATION));
+    private static final ThreadLocal<Cipher> RSA = ThreadLocal.withInitial(() -> newCipher(RSA_TRANSFORMATION));
+
+    private final RsaKeyPairPool keyPairs;
+    private final ParsedKeyCache keys;
+    private final SecureRandom random = new SecureRandom();
+
+    public CryptoService() {
+        this(2048, 4, 16, 256);
+    }
+
+    /**
+     * @param rsaKeySize      密钥对池中的密钥长度
+     * @param lowWatermark    密钥对池低水位
+     * @param highWatermark   密钥对池高水位（容量）
+     * @param keyCacheSize    已解析密钥的缓存容量（公钥、私钥各自计算）
+     */
+    public CryptoService(int rsaKeySize, int lowWatermark, int highWatermark, int keyCacheSize) {
+        this.keys = new ParsedKeyCache(keyCacheSize);
+        this.keyPairs = new RsaKeyPairPool(rsaKeySize, lowWatermark, highWatermark);
+    }
+
+    /**
+     * 当前线程的 AES-GCM Cipher，调用方每次使用前必须重新 init
+     */
+    static Cipher aesCipher() {
+        return AES.get();
+    }
+
+    /**
+     * 当前线程的 RSA-OAEP Cipher，调用方每次使用前必须重新 init
+     */
+    static Cipher rsaCipher() {
+        return RSA.get();
+    }
+
+    static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(transformation + " 不可用", e);
+        }
+    }
+
+    /**
+     * @return nonce + 密文 + 认证标签
+     */
+    public byte[] aesEncrypt(SecretKey key, byte[] plain) {
+        byte[] nonce = new byte[NONCE_SIZE];
+        random.nextBytes(nonce);
+        byte[] out = new byte[NONCE_SIZE + plain.length + TAG_BITS / 8];
+        System.arraycopy(nonce, 0, out, 0, NONCE_SIZE);
+        Cipher cipher = AES.get();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+            cipher.doFinal(plain, 0, plain.length, out, NONCE_SIZE);
+            return out;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("AES加密失败", e);
+        }
+    }
+
+    /**
+     * @throws SecurityException 认证失败（密文被篡改或密钥不对）
+     */
+    public byte[] aesDecrypt(SecretKey key, byte[] sealed) {
+        if (sealed.length < NONCE_SIZE + TAG_BITS / 8) {
+            throw new IllegalArgumentException("密文过短: " + sealed.length);
+        }
+        Cipher cipher = AES.get();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, NONCE_SIZE));
+            return cipher.doFinal(sealed, NONCE_SIZE, sealed.length - NONCE_SIZE);
+        } catch (AEADBadTagException e) {
+            throw new SecurityException("AES认证失败", e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("AES解密失败", e);
+        }
+    }
+
+    /**
+     * @param publicKeyBase64 X.509 编码的公钥，与 hutool RSA.getPublicKeyBase64() 相同
+     */
+    public byte[] rsaEncrypt(String publicKeyBase64, byte[] data) {
+        return rsa(Cipher.ENCRYPT_MODE, keys.publicKey(publicKeyBase64), data);
+    }
+
+    /**
+     * @param privateKeyBase64 PKCS#8 编码的私钥，与 hutool RSA.getPrivateKeyBase64() 相同
+     */
+    public byte[] rsaDecrypt(String privateKeyBase64, byte[] data) {
+        return rsa(Cipher.DECRYPT_MODE, keys.privateKey(privateKeyBase64), data);
+    }
+
+    private static byte[] rsa(int mode, Key key, byte[] data) {
+        Cipher cipher = RSA.get();
+        try {
+            cipher.init(mode, key);
+            return cipher.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("RSA" + (mode == Cipher.ENCRYPT_MODE ? "加密" : "解密") + "失败", e);
+        }
+    }
+
+    /**
+     * 一个新的 RSA 密钥对，通常直接从池中取出
+     */
+    public KeyPair newKeyPair() {
+        return keyPairs.take();
+    }
+
+    public RsaKeyPairPool keyPairPool() {
+        return keyPairs;
+    }
+
+    public ParsedKeyCache keyCache() {
+        return keys;
+    }
+
+    /**
+     * 停止后台生成；已缓存的密钥一并清空
+     */
+    @Override
+    public void close() {
+        keyPairs.close();
+        keys.clear();
+    }
+
+    @Override
+    public String toString() {
+        return keyPairs + ", 密钥缓存[" + keys.size() + " 项, 命中 " + keys.hits() + ", 未命中 " + keys.misses() + "]";
+    }
+}
@@ -0,0 +1,107 @@
+package com.turnip.hutool;
+
+import cn.hutool.crypto.Mode;
+import cn.hutool.crypto.Padding;
+import cn.hutool.crypto.SecureUtil;
+import cn.hutool.crypto.asymmetric.KeyType;
+import cn.hutool.crypto.asymmetric.RSA;
+import cn.hutool.crypto.symmetric.AES;
+import com.turnip.thread.metrics.LatencyHistogram;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每次新建对象（EncryptDemoFinal 的写法）与 CryptoService 复用对象的单次操作延迟对比
+ */
+public class CryptoServiceExample {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        byte[] message = new byte[1024];
+        Arrays.fill(message, (byte) 'x');
+        byte[] shortMessage = "这是一段需要加密的测试文本".getBytes(StandardCharsets.UTF_8);
+        SecretKey secretKey = SecureUtil.generateKey("AES", 128);
+        byte[] aesKey = secretKey.getEncoded();
+
+        try (CryptoService service = new CryptoService(2048, 4, 16, 256)) {
+            System.out.println("===== 正确性 =====");
+            byte[] sealed = service.aesEncrypt(secretKey, shortMessage);
+            System.out.println("AES-GCM 往返: " + new String(service.aesDecrypt(secretKey, sealed), StandardCharsets.UTF_8));
+            RSA rsa = new RSA();
+            String publicKey = rsa.getPublicKeyBase64();
+            String privateKey = rsa.getPrivateKeyBase64();
+            byte[] rsaSealed = service.rsaEncrypt(publicKey, shortMessage);
+            System.out.println("RSA-OAEP 往返（hutool 生成的 Base64 密钥）: "
+                    + new String(service.rsaDecrypt(privateKey, rsaSealed), StandardCharsets.UTF_8));
+
+            // 等后台线程把池填满再计时，单核机器上它会和被测代码抢 CPU
+            boolean full = service.keyPairPool().awaitFull(2, TimeUnit.MINUTES);
+            System.out.println("密钥对池已预热: " + full + "，" + service.keyPairPool());
+
+            System.out.println("\n===== AES 加密 1 KB =====");
+            measure("new AES(ECB) 每次新建", 20_000, () -> sink = new AES(Mode.ECB, Padding.PKCS5Padding, aesKey).encrypt(message));
+            measure("Cipher.getInstance(GCM) 每次查找", 20_000, () -> sink = encryptWithNewCipher(secretKey, message));
+            measure("CryptoService 线程内复用 Cipher", 20_000, () -> sink = service.aesEncrypt(secretKey, message));
+
+            System.out.println("\n===== RSA 公钥加密（Base64 密钥）=====");
+            measure("new RSA(null, publicKey) 每次解析", 2_000, () -> sink = new RSA(null, publicKey).encrypt(shortMessage, KeyType.PublicKey));
+            measure("CryptoService 缓存密钥 + 复用 Cipher", 2_000, () -> sink = service.rsaEncrypt(publicKey, shortMessage));
+
+            System.out.println("\n===== RSA 私钥解密（Base64 密钥）=====");
+            byte[] pkcs1Sealed = rsa.encrypt(shortMessage, KeyType.PublicKey);
+            measure("new RSA(privateKey, null) 每次解析", 300, () -> sink = new RSA(privateKey, null).decrypt(pkcs1Sealed, KeyType.PrivateKey));
+            measure("CryptoService 缓存密钥 + 复用 Cipher", 300, () -> sink = service.rsaDecrypt(privateKey, rsaSealed));
+
+            System.out.println("\n===== 获取 2048 位 RSA 密钥对 =====");
+            measure("new RSA() 同步生成", 10, () -> sink = new RSA());
+            measure("RsaKeyPairPool.take() 池中有货", 10, () -> sink = service.newKeyPair());
+            // 连续取空：低于低水位后后台开始补充，补不上时调用线程自己生成
+            for (int i = 0; i < 20; i++) {
+                KeyPair pair = service.newKeyPair();
+                sink = pair;
+            }
+            System.out.println("连续再取 20 个之后: " + service.keyPairPool());
+            System.out.println("\n" + service);
+        }
+    }
+
+    private static byte[] encryptWithNewCipher(SecretKey key, byte[] plain) {
+        try {
+            byte[] nonce = new byte[12];
+            RANDOM.nextBytes(nonce);
+            Cipher cipher = Cipher.getInstance(CryptoService.AES_TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, nonce));
+            return cipher.doFinal(plain);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 先预热 n/10 次，再记录 n 次的延迟
+     */
+    private static void measure(String name, int n, Runnable op) {
+        for (int i = 0; i < Math.max(1, n / 10); i++) {
+            op.run();
+        }
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        for (int i = 0; i < n; i++) {
+            long start = System.nanoTime();
+            op.run();
+            histogram.record(System.nanoTime() - start);
+        }
+        LatencyHistogram.Snapshot s = histogram.snapshot();
+        System.out.printf("%-36s 均值 %10.1f µs  p50 %10.1f µs  p99 %10.1f µs%n",
+                name, s.mean() / 1e3, s.percentile(50) / 1e3, s.percentile(99) / 1e3);
+    }
+}
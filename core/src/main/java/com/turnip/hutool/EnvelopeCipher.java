@@ -0,0 +1,231 @@
+package com.turnip.hutool;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数字信封：数据用随机生成的 AES-256-GCM 数据密钥加密，数据密钥再用接收方的 RSA 公钥（OAEP）包装
+ *
+ * EncryptDemoFinal.rsaDemo 直接用 RSA 加密数据，2048 位密钥一次最多 245 字节，而且比 AES 慢几个数量级；
+ * 信封只对 32 字节的数据密钥做一次 RSA，数据本身多大都只走 AES。
+ * 大批量记录可以共用一个数据密钥（{@link Batch}）：整批只做一次 RSA 包装，每条记录只剩 AES-GCM。
+ * 批内记录的 nonce 是记录序号，数据密钥每批随机生成，不会出现相同的 (密钥, nonce)。
+ *
+ * 格式：
+ *   批头  = 版本(1) + 包装后密钥长度(2) + 包装后的数据密钥
+ *   记录  = 序号(8) + 密文 + 标签(16)
+ *   单条信封 = 批头 + 序号为 0 的一条记录
+ *
+ * rsaDemo 里的"私钥加密、公钥解密"并不是签名，这里另外提供 SHA256withRSA 的 {@link #sign}/{@link #verify}。
+ * Cipher 和 Signature 按线程复用；线程安全。
+ */
+public final class EnvelopeCipher {
+
+    private static final int VERSION = 1;
+    private static final int DATA_KEY_SIZE = 32;
+    private static final int TAG_BITS = 128;
+    private static final int SEQUENCE_SIZE = 8;
+    private static final long MAX_RECORDS = 1L << 32;
+
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance("SHA256withRSA");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA256withRSA 不可用", e);
+        }
+    });
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * 加密单条消息，数据密钥只用这一次
+     */
+    public byte[] seal(PublicKey recipient, byte[] plain) {
+        Batch batch = newBatch(recipient);
+        byte[] header = batch.header();
+        byte[] record = batch.seal(plain);
+        byte[] out = new byte[header.length + record.length];
+        System.arraycopy(header, 0, out, 0, header.length);
+        System.arraycopy(record, 0, out, header.length, record.length);
+        return out;
+    }
+
+    /**
+     * @throws SecurityException 信封被篡改或私钥不匹配
+     */
+    public byte[] open(PrivateKey recipient, byte[] envelope) {
+        int headerLength = headerLength(envelope);
+        BatchReader reader = openBatch(recipient, envelope, headerLength);
+        return reader.open(envelope, headerLength, envelope.length - headerLength);
+    }
+
+    /**
+     * 新建一批：生成数据密钥并用接收方公钥包装一次
+     */
+    public Batch newBatch(PublicKey recipient) {
+        byte[] keyBytes = new byte[DATA_KEY_SIZE];
+        random.nextBytes(keyBytes);
+        SecretKey dataKey = new SecretKeySpec(keyBytes, "AES");
+        Cipher rsa = CryptoService.rsaCipher();
+        byte[] wrapped;
+        try {
+            rsa.init(Cipher.WRAP_MODE, recipient);
+            wrapped = rsa.wrap(dataKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("包装数据密钥失败", e);
+        }
+        ByteBuffer header = ByteBuffer.allocate(3 + wrapped.length);
+        header.put((byte) VERSION).putShort((short) wrapped.length).put(wrapped);
+        return new Batch(dataKey, header.array());
+    }
+
+    /**
+     * 解开批头中的数据密钥；之后解密该批的每条记录都不再需要 RSA
+     */
+    public BatchReader openBatch(PrivateKey recipient, byte[] header) {
+        return openBatch(recipient, header, headerLength(header));
+    }
+
+    private BatchReader openBatch(PrivateKey recipient, byte[] data, int headerLength) {
+        Cipher rsa = CryptoService.rsaCipher();
+        try {
+            rsa.init(Cipher.UNWRAP_MODE, recipient);
+            Key key = rsa.unwrap(Arrays.copyOfRange(data, 3, headerLength), "AES", Cipher.SECRET_KEY);
+            return new BatchReader((SecretKey) key);
+        } catch (GeneralSecurityException e) {
+            throw new SecurityException("无法解开数据密钥，私钥不匹配或批头损坏", e);
+        }
+    }
+
+    private static int headerLength(byte[] data) {
+        if (data.length < 3 || data[0] != VERSION) {
+            throw new IllegalArgumentException("不是信封数据或版本不支持");
+        }
+        int length = 3 + (((data[1] & 0xFF) << 8) | (data[2] & 0xFF));
+        if (data.length < length) {
+            throw new IllegalArgumentException("批头不完整");
+        }
+        return length;
+    }
+
+    /**
+     * SHA256withRSA 签名
+     */
+    public byte[] sign(PrivateKey signer, byte[] data) {
+        Signature signature = SIGNATURE.get();
+        try {
+            signature.initSign(signer);
+            signature.update(data);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("签名失败", e);
+        }
+    }
+
+    public boolean verify(PublicKey signer, byte[] data, byte[] sig) {
+        Signature signature = SIGNATURE.get();
+        try {
+            signature.initVerify(signer);
+            signature.update(data);
+            return signature.verify(sig);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private static GCMParameterSpec nonce(long sequence) {
+        byte[] nonce = new byte[12];
+        for (int i = 0; i < SEQUENCE_SIZE; i++) {
+            nonce[4 + i] = (byte) (sequence >>> (56 - 8 * i));
+        }
+        return new GCMParameterSpec(TAG_BITS, nonce);
+    }
+
+    /**
+     * 共用一个数据密钥的一批记录；可以被多个线程同时使用
+     */
+    public static final class Batch {
+        private final SecretKey dataKey;
+        private final byte[] header;
+        private final AtomicLong sequence = new AtomicLong();
+
+        private Batch(SecretKey dataKey, byte[] header) {
+            this.dataKey = dataKey;
+            this.header = header;
+        }
+
+        /**
+         * 批头，与记录分开保存或放在整批数据的开头
+         */
+        public byte[] header() {
+            return header.clone();
+        }
+
+        public long records() {
+            return sequence.get();
+        }
+
+        public byte[] seal(byte[] plain) {
+            long seq = sequence.getAndIncrement();
+            if (seq >= MAX_RECORDS) {
+                throw new IllegalStateException("一批最多 " + MAX_RECORDS + " 条记录，请新建一批");
+            }
+            byte[] out = new byte[SEQUENCE_SIZE + plain.length + TAG_BITS / 8];
+            ByteBuffer.wrap(out).putLong(seq);
+            Cipher aes = CryptoService.aesCipher();
+            try {
+                aes.init(Cipher.ENCRYPT_MODE, dataKey, nonce(seq));
+                aes.doFinal(plain, 0, plain.length, out, SEQUENCE_SIZE);
+                return out;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES加密失败", e);
+            }
+        }
+    }
+
+    /**
+     * 解开数据密钥后的一批记录的解密器；线程安全
+     */
+    public static final class BatchReader {
+        private final SecretKey dataKey;
+
+        private BatchReader(SecretKey dataKey) {
+            this.dataKey = dataKey;
+        }
+
+        /**
+         * @throws SecurityException 记录被篡改或不属于这一批
+         */
+        public byte[] open(byte[] record) {
+            return open(record, 0, record.length);
+        }
+
+        byte[] open(byte[] data, int offset, int length) {
+            if (length < SEQUENCE_SIZE + TAG_BITS / 8) {
+                throw new IllegalArgumentException("记录过短: " + length);
+            }
+            long seq = ByteBuffer.wrap(data, offset, SEQUENCE_SIZE).getLong();
+            Cipher aes = CryptoService.aesCipher();
+            try {
+                aes.init(Cipher.DECRYPT_MODE, dataKey, nonce(seq));
+                return aes.doFinal(data, offset + SEQUENCE_SIZE, length - SEQUENCE_SIZE);
+            } catch (AEADBadTagException e) {
+                throw new SecurityException("记录认证失败", e);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("AES解密失败", e);
+            }
+        }
+    }
+}
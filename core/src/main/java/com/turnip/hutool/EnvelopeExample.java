@@ -0,0 +1,119 @@
+package com.turnip.hutool;
+
+import cn.hutool.crypto.asymmetric.KeyType;
+import cn.hutool.crypto.asymmetric.RSA;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 数字信封演示：任意大小的数据、篡改检测、真正的签名，以及与 rsaDemo 逐条 RSA 加密的吞吐对比
+ * 参数：[记录数]，默认 2000；每条 200 字节，RSA 直接加密也放得下。
+ */
+public class EnvelopeExample {
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws Exception {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(2048);
+        KeyPair pair = kpg.generateKeyPair();
+        EnvelopeCipher envelope = new EnvelopeCipher();
+
+        System.out.println("===== 信封 =====");
+        byte[] big = new byte[1 << 20];
+        new SplittableRandom(42).nextBytes(big);
+        byte[] sealed = envelope.seal(pair.getPublic(), big);
+        System.out.println("1 MB 数据加密后 " + sealed.length + " 字节，解密一致: "
+                + Arrays.equals(envelope.open(pair.getPrivate(), sealed), big));
+        RSA hutool = new RSA(pair.getPrivate(), pair.getPublic());
+        try {
+            hutool.encrypt(Arrays.copyOf(big, 300), KeyType.PublicKey);
+            System.out.println("RSA 直接加密 300 字节: 成功（hutool 自动分段，每 245 字节一次 RSA）");
+        } catch (RuntimeException e) {
+            System.out.println("RSA 直接加密 300 字节失败: " + e.getMessage());
+        }
+        sealed[sealed.length - 1] ^= 1;
+        try {
+            envelope.open(pair.getPrivate(), sealed);
+            System.out.println("篡改未被发现（错误）");
+        } catch (SecurityException e) {
+            System.out.println("篡改后解密: " + e.getMessage());
+        }
+
+        System.out.println("\n===== 签名 =====");
+        byte[] contract = "转账 100 元给张三".getBytes(StandardCharsets.UTF_8);
+        byte[] signature = envelope.sign(pair.getPrivate(), contract);
+        byte[] forged = "转账 900 元给张三".getBytes(StandardCharsets.UTF_8);
+        System.out.println("SHA256withRSA 验证原文: " + envelope.verify(pair.getPublic(), contract, signature)
+                + "，验证改过的内容: " + envelope.verify(pair.getPublic(), forged, signature));
+
+        byte[][] messages = new byte[records][];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < records; i++) {
+            messages[i] = new byte[200];
+            random.nextBytes(messages[i]);
+        }
+
+        System.out.println("\n===== 吞吐：" + records + " 条 200 字节的记录 =====");
+        for (int round = 0; round < 2; round++) {
+            // 1. rsaDemo 的写法：每条记录直接 RSA 公钥加密、私钥解密
+            long t0 = System.nanoTime();
+            byte[][] rsaSealed = new byte[records][];
+            for (int i = 0; i < records; i++) {
+                rsaSealed[i] = hutool.encrypt(messages[i], KeyType.PublicKey);
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                sink = hutool.decrypt(rsaSealed[i], KeyType.PrivateKey);
+            }
+            long t2 = System.nanoTime();
+
+            // 2. 每条记录一个信封：每条仍有一次 RSA 包装和一次 RSA 解包
+            byte[][] envelopes = new byte[records][];
+            for (int i = 0; i < records; i++) {
+                envelopes[i] = envelope.seal(pair.getPublic(), messages[i]);
+            }
+            long t3 = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                sink = envelope.open(pair.getPrivate(), envelopes[i]);
+            }
+            long t4 = System.nanoTime();
+
+            // 3. 整批共用一个数据密钥：一次 RSA 包装 + 每条一次 AES-GCM
+            EnvelopeCipher.Batch batch = envelope.newBatch(pair.getPublic());
+            byte[][] batchRecords = new byte[records][];
+            for (int i = 0; i < records; i++) {
+                batchRecords[i] = batch.seal(messages[i]);
+            }
+            long t5 = System.nanoTime();
+            EnvelopeCipher.BatchReader reader = envelope.openBatch(pair.getPrivate(), batch.header());
+            boolean same = true;
+            for (int i = 0; i < records; i++) {
+                same &= Arrays.equals(reader.open(batchRecords[i]), messages[i]);
+            }
+            long t6 = System.nanoTime();
+
+            // 4. 签名：rsaDemo 的"私钥加密"与 SHA256withRSA
+            long t7 = System.nanoTime();
+            for (int i = 0; i < records; i++) {
+                sink = envelope.sign(pair.getPrivate(), messages[i]);
+            }
+            long t8 = System.nanoTime();
+
+            System.out.printf("第%d轮（条/秒，加密 / 解密）%n", round + 1);
+            System.out.printf("  逐条 RSA（rsaDemo）      %10.0f / %10.0f%n", rate(records, t1 - t0), rate(records, t2 - t1));
+            System.out.printf("  逐条信封                  %10.0f / %10.0f%n", rate(records, t3 - t2), rate(records, t4 - t3));
+            System.out.printf("  整批共用数据密钥          %10.0f / %10.0f   解密一致: %b%n", rate(records, t5 - t4), rate(records, t6 - t5), same);
+            System.out.printf("  SHA256withRSA 签名        %10.0f%n", rate(records, t8 - t7));
+        }
+    }
+
+    private static double rate(int n, long nanos) {
+        return n / (nanos / 1e9);
+    }
+}
@@ -0,0 +1,414 @@
+package com.turnip.hutool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 并行的 Merkle 树文件哈希
+ *
+ * 单个 MessageDigest 只能顺序喂数据，大文件的 SHA-256 受限于一个核（约 0.5~2 GB/s）。
+ * 这里把文件切成固定大小的叶子，各叶子在 ForkJoinPool 上并行做 SHA-256，再两两合并成根哈希：
+ * - 文件按段内存映射（每段 1 GB 左右、叶子大小的整数倍），叶子直接在映射上计算，不经过堆内缓冲区；
+ * - 叶子哈希 = H(0x00 || 数据)，内部节点 = H(0x01 || 左 || 右)，与 RFC 6962 相同的前缀区分叶子和节点；
+ *   某一层节点数为奇数时，最后一个节点原样升到上一层；
+ * - 结果 {@link MerkleTree} 保留全部叶子哈希：文件局部改动后用 {@link #update} 只重算改过的叶子，
+ *   或用 {@link #verify} 抽查部分叶子，不必重新读完整个文件。
+ *
+ * 根哈希依赖叶子大小，与整个文件的 SHA-256 不是同一个值。线程安全。
+ */
+public final class MerkleFileHasher {
+
+    public static final int DEFAULT_LEAF_SIZE = 1 << 20;
+    public static final String ALGORITHM = "SHA-256";
+
+    private static final long MAP_SIZE = 1L << 30;
+    private static final byte LEAF_PREFIX = 0;
+    private static final byte NODE_PREFIX = 1;
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " 不可用", e);
+        }
+    });
+
+    private final int leafSize;
+    private final ForkJoinPool pool;
+
+    public MerkleFileHasher() {
+        this(DEFAULT_LEAF_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param leafSize 每个叶子的字节数，也是增量校验的粒度
+     * @param pool     计算叶子哈希的线程池，并行度即可用的核数
+     */
+    public MerkleFileHasher(int leafSize, ForkJoinPool pool) {
+        if (leafSize <= 0 || leafSize > MAP_SIZE) {
+            throw new IllegalArgumentException("leafSize无效: " + leafSize);
+        }
+        this.leafSize = leafSize;
+        this.pool = pool;
+    }
+
+    public int leafSize() {
+        return leafSize;
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 计算整个文件的 Merkle 树
+     */
+    public MerkleTree hash(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = leafCount(length, leafSize);
+            byte[][] leaves = new byte[count][];
+            BitSet all = new BitSet(count);
+            all.set(0, count);
+            hashLeaves(channel, length, leaves, all);
+            return new MerkleTree(leafSize, length, leaves);
+        }
+    }
+
+    /**
+     * 文件改动后只重算 dirtyLeaves 中的叶子，其余叶子沿用 previous
+     * 文件长度变化时，原来和现在的最后一个叶子以及新增的叶子总会重算。
+     * 调用方要保证 dirtyLeaves 覆盖了所有改动，否则得到的树与文件不符；拿不准时用 {@link #verify}。
+     *
+     * @param dirtyLeaves 改动过的叶子序号，可用 {@link MerkleTree#leavesCovering} 由字节范围换算
+     */
+    public MerkleTree update(Path file, MerkleTree previous, BitSet dirtyLeaves) throws IOException {
+        checkLeafSize(previous);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = leafCount(length, leafSize);
+            byte[][] leaves = new byte[count][];
+            BitSet dirty = new BitSet(count);
+            dirty.or(dirtyLeaves);
+            int reusable = Math.min(count, previous.leafCount());
+            if (length != previous.length()) {
+                // 长度变了：原来的最后一个叶子可能被补满，现在的最后一个叶子可能被截短
+                reusable = Math.max(0, reusable - 1);
+                dirty.set(reusable, count);
+            }
+            dirty.clear(count, Math.max(count, dirty.length()));
+            for (int i = 0; i < reusable; i++) {
+                if (!dirty.get(i)) {
+                    leaves[i] = previous.leaf(i);
+                }
+            }
+            hashLeaves(channel, length, leaves, dirty);
+            return new MerkleTree(leafSize, length, leaves);
+        }
+    }
+
+    /**
+     * 重算 leaves 中的叶子并与 expected 比对，返回不一致的叶子序号；文件长度不符时抛出 IOException
+     */
+    public BitSet verify(Path file, MerkleTree expected, BitSet leaves) throws IOException {
+        checkLeafSize(expected);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length != expected.length()) {
+                throw new IOException("文件长度 " + length + " 与 Merkle 树记录的 " + expected.length() + " 不符");
+            }
+            int count = expected.leafCount();
+            BitSet selected = new BitSet(count);
+            selected.or(leaves);
+            selected.clear(count, Math.max(count, selected.length()));
+            byte[][] actual = new byte[count][];
+            hashLeaves(channel, length, actual, selected);
+            BitSet mismatched = new BitSet();
+            for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                if (!Arrays.equals(actual[i], expected.leaf(i))) {
+                    mismatched.set(i);
+                }
+            }
+            return mismatched;
+        }
+    }
+
+    private void checkLeafSize(MerkleTree tree) {
+        if (tree.leafSize() != leafSize) {
+            throw new IllegalArgumentException("Merkle 树的叶子大小 " + tree.leafSize() + " 与当前的 " + leafSize + " 不同");
+        }
+    }
+
+    static int leafCount(long length, int leafSize) {
+        long count = (length + leafSize - 1) / leafSize;
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("叶子数过多，请增大 leafSize");
+        }
+        return (int) count;
+    }
+
+    /**
+     * 在线程池上计算 selected 中的叶子，写入 leaves 的对应位置
+     */
+    private void hashLeaves(FileChannel channel, long length, byte[][] leaves, BitSet selected) throws IOException {
+        int[] indices = selected.stream().toArray();
+        if (indices.length == 0) {
+            return;
+        }
+        Segments segments = new Segments(channel, length, leafSize);
+        try {
+            pool.invoke(new LeafTask(segments, leaves, indices, 0, indices.length));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 按需映射的文件段；每段包含整数个叶子，叶子不会跨段
+     */
+    private static final class Segments {
+        private final FileChannel channel;
+        private final long length;
+        private final int leafSize;
+        private final long segmentSize;
+        private final AtomicReferenceArray<MappedByteBuffer> mapped;
+
+        Segments(FileChannel channel, long length, int leafSize) {
+            this.channel = channel;
+            this.length = length;
+            this.leafSize = leafSize;
+            this.segmentSize = MAP_SIZE / leafSize * leafSize;
+            this.mapped = new AtomicReferenceArray<>((int) ((length + segmentSize - 1) / segmentSize));
+        }
+
+        ByteBuffer leaf(int index) {
+            long offset = (long) index * leafSize;
+            int segment = (int) (offset / segmentSize);
+            MappedByteBuffer buffer = mapped.get(segment);
+            if (buffer == null) {
+                long start = segment * segmentSize;
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, length - start));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // 两个线程同时映射同一段时只保留一个，多出的那个等 GC 解除映射
+                if (!mapped.compareAndSet(segment, null, buffer)) {
+                    buffer = mapped.get(segment);
+                }
+            }
+            int position = (int) (offset - segment * segmentSize);
+            return buffer.slice(position, (int) Math.min(leafSize, length - offset));
+        }
+    }
+
+    /**
+     * 二分叶子序号区间，直到只剩少量叶子再在当前线程上计算
+     */
+    private static final class LeafTask extends RecursiveAction {
+        private static final int THRESHOLD = 2;
+
+        private final Segments segments;
+        private final byte[][] leaves;
+        private final int[] indices;
+        private final int from;
+        private final int to;
+
+        LeafTask(Segments segments, byte[][] leaves, int[] indices, int from, int to) {
+            this.segments = segments;
+            this.leaves = leaves;
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                MessageDigest digest = digest();
+                for (int i = from; i < to; i++) {
+                    int index = indices[i];
+                    // 先取切片再喂前缀：取切片可能抛异常，不能在线程的摘要里留下半截输入
+                    ByteBuffer leaf = segments.leaf(index);
+                    digest.update(LEAF_PREFIX);
+                    digest.update(leaf);
+                    leaves[index] = digest.digest();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new LeafTask(segments, leaves, indices, from, mid),
+                    new LeafTask(segments, leaves, indices, mid, to));
+        }
+    }
+
+    /**
+     * 当前线程的摘要；先 reset，之前某次计算中途抛异常留下的输入不会混进来
+     */
+    private static MessageDigest digest() {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return digest;
+    }
+
+    /**
+     * 由叶子哈希逐层合并出根哈希；没有叶子（空文件）时为空串的哈希
+     */
+    static byte[] root(byte[][] leaves) {
+        MessageDigest digest = digest();
+        if (leaves.length == 0) {
+            return digest.digest();
+        }
+        byte[][] level = leaves;
+        while (level.length > 1) {
+            byte[][] next = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < level.length / 2; i++) {
+                digest.update(NODE_PREFIX);
+                digest.update(level[2 * i]);
+                digest.update(level[2 * i + 1]);
+                next[i] = digest.digest();
+            }
+            if (level.length % 2 == 1) {
+                next[next.length - 1] = level[level.length - 1];
+            }
+            level = next;
+        }
+        return level[0];
+    }
+
+    /**
+     * 一个文件的 Merkle 树：叶子大小、文件长度、全部叶子哈希和根哈希；不可变
+     * {@link #encode()} 的结果可以和文件一起保存，之后用于增量校验。
+     */
+    public static final class MerkleTree {
+        private static final int MAGIC = 0x544D524B; // "TMRK"
+        private static final int HASH_SIZE = 32;
+
+        private final int leafSize;
+        private final long length;
+        private final byte[][] leaves;
+        private final byte[] root;
+
+        MerkleTree(int leafSize, long length, byte[][] leaves) {
+            this.leafSize = leafSize;
+            this.length = length;
+            this.leaves = leaves;
+            this.root = MerkleFileHasher.root(leaves);
+        }
+
+        public int leafSize() {
+            return leafSize;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public int leafCount() {
+            return leaves.length;
+        }
+
+        public byte[] leaf(int index) {
+            return leaves[index].clone();
+        }
+
+        public byte[] root() {
+            return root.clone();
+        }
+
+        public String rootHex() {
+            return HexFormat.of().formatHex(root);
+        }
+
+        /**
+         * 覆盖字节区间 [offset, offset + count) 的叶子序号
+         */
+        public BitSet leavesCovering(long offset, long count) {
+            BitSet result = new BitSet();
+            if (count <= 0) {
+                return result;
+            }
+            long first = offset / leafSize;
+            long last = (offset + count - 1) / leafSize;
+            result.set((int) Math.min(first, Integer.MAX_VALUE - 8), (int) Math.min(last + 1, Integer.MAX_VALUE - 8));
+            return result;
+        }
+
+        /**
+         * 与另一棵树（同一叶子大小）不同的叶子序号，包括只有一方才有的叶子
+         */
+        public BitSet diff(MerkleTree other) {
+            if (other.leafSize != leafSize) {
+                throw new IllegalArgumentException("叶子大小不同，无法逐叶比较");
+            }
+            BitSet result = new BitSet();
+            int common = Math.min(leaves.length, other.leaves.length);
+            for (int i = 0; i < common; i++) {
+                if (!Arrays.equals(leaves[i], other.leaves[i])) {
+                    result.set(i);
+                }
+            }
+            result.set(common, Math.max(leaves.length, other.leaves.length));
+            return result;
+        }
+
+        /**
+         * 魔数(4) + 叶子大小(4) + 文件长度(8) + 叶子数(4) + 各叶子哈希；根哈希解码时重新计算
+         */
+        public byte[] encode() {
+            ByteBuffer b = ByteBuffer.allocate(20 + leaves.length * HASH_SIZE);
+            b.putInt(MAGIC).putInt(leafSize).putLong(length).putInt(leaves.length);
+            for (byte[] leaf : leaves) {
+                b.put(leaf);
+            }
+            return b.array();
+        }
+
+        public static MerkleTree decode(byte[] data) {
+            ByteBuffer b = ByteBuffer.wrap(data);
+            if (data.length < 20 || b.getInt() != MAGIC) {
+                throw new IllegalArgumentException("不是 Merkle 树数据");
+            }
+            int leafSize = b.getInt();
+            long length = b.getLong();
+            int count = b.getInt();
+            if (leafSize <= 0 || length < 0 || count != MerkleFileHasher.leafCount(length, leafSize)
+                    || b.remaining() != (long) count * HASH_SIZE) {
+                throw new IllegalArgumentException("Merkle 树数据损坏");
+            }
+            byte[][] leaves = new byte[count][HASH_SIZE];
+            for (byte[] leaf : leaves) {
+                b.get(leaf);
+            }
+            return new MerkleTree(leafSize, length, leaves);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof MerkleTree t && t.leafSize == leafSize && t.length == length && Arrays.equals(t.root, root);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(root);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("MerkleTree[%d 字节, 叶子 %d × %d 字节, 根 %s]", length, leaves.length, leafSize, rootHex());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.turnip.hutool;
+
+import cn.hutool.crypto.digest.DigestUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * MerkleFileHasher 演示：单个 MessageDigest 与 1~N 核 Merkle 哈希的吞吐，局部改动后的增量重算与抽查校验
+ * 参数：[文件大小 MB]，默认 512；文件刚写完，数据基本都在页缓存里，测的是哈希本身而不是磁盘。
+ */
+public class MerkleFileHasherExample {
+
+    public static void main(String[] args) throws IOException {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int cores = Runtime.getRuntime().availableProcessors();
+        Path dir = Files.createTempDirectory("merkle");
+        Path file = dir.resolve("artifact.bin");
+        try {
+            long size = megabytes * (1L << 20) + 4321;
+            writeRandomFile(file, size);
+
+            System.out.println("===== 吞吐（" + megabytes + " MB，叶子 1 MB，取 3 次中最快的一次）=====");
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                DigestUtil.sha256Hex(file.toFile());
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double single = gigabytesPerSecond(size, best);
+            System.out.printf("DigestUtil.sha256Hex（单个 MessageDigest）  %6.2f GB/s%n", single);
+            List<Integer> levels = new ArrayList<>();
+            for (int p = 1; p < cores; p *= 2) {
+                levels.add(p);
+            }
+            levels.add(cores);
+            for (int parallelism : levels) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    MerkleFileHasher hasher = new MerkleFileHasher(MerkleFileHasher.DEFAULT_LEAF_SIZE, pool);
+                    best = Long.MAX_VALUE;
+                    for (int round = 0; round < 3; round++) {
+                        long start = System.nanoTime();
+                        hasher.hash(file);
+                        best = Math.min(best, System.nanoTime() - start);
+                    }
+                    double rate = gigabytesPerSecond(size, best);
+                    System.out.printf("Merkle，%2d 核                              %6.2f GB/s  （单个 MessageDigest 的 %.2f 倍）%n",
+                            parallelism, rate, rate / single);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            if (cores == 1) {
+                System.out.println("本机只有 1 个核，看不到并行加速；多核机器上叶子之间没有依赖，吞吐随核数近似线性增长");
+            }
+
+            MerkleFileHasher hasher = new MerkleFileHasher();
+            MerkleFileHasher.MerkleTree original = hasher.hash(file);
+            System.out.println("\n" + original);
+            MerkleFileHasher.MerkleTree decoded = MerkleFileHasher.MerkleTree.decode(original.encode());
+            System.out.println("叶子哈希编码后 " + original.encode().length + " 字节，解码后根哈希一致: " + decoded.equals(original));
+
+            System.out.println("\n===== 局部改动后增量重算 =====");
+            long[] offsets = {size / 3, size / 3 + 10, size - 100};
+            BitSet dirty = new BitSet();
+            for (long offset : offsets) {
+                flipByte(file, offset);
+                dirty.or(original.leavesCovering(offset, 1));
+            }
+            long start = System.nanoTime();
+            MerkleFileHasher.MerkleTree updated = hasher.update(file, original, dirty);
+            long incremental = System.nanoTime() - start;
+            start = System.nanoTime();
+            MerkleFileHasher.MerkleTree full = hasher.hash(file);
+            long fullNanos = System.nanoTime() - start;
+            System.out.printf("改了 %d 个字节，涉及叶子 %s：增量 %.2f ms，全量 %.2f ms，根哈希一致: %b，与改动前不同: %b%n",
+                    offsets.length, dirty, incremental / 1e6, fullNanos / 1e6, updated.equals(full), !updated.equals(original));
+            System.out.println("与改动前逐叶比较，不同的叶子: " + updated.diff(original));
+
+            System.out.println("\n===== 抽查校验 =====");
+            BitSet sample = new BitSet();
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = 0; i < 32; i++) {
+                sample.set(random.nextInt(original.leafCount()));
+            }
+            sample.or(dirty);
+            System.out.println("用改动前的树抽查 " + sample.cardinality() + " 个叶子，不一致: " + hasher.verify(file, original, sample));
+            System.out.println("用最新的树抽查，不一致: " + hasher.verify(file, updated, sample));
+
+            System.out.println("\n===== 文件追加 =====");
+            append(file, 3 << 20);
+            MerkleFileHasher.MerkleTree appended = hasher.update(file, updated, new BitSet());
+            System.out.println("追加 3 MB 后增量重算 " + appended.leafCount() + " 个叶子中的 "
+                    + appended.diff(updated).cardinality() + " 个，与全量结果一致: " + appended.equals(hasher.hash(file)));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static double gigabytesPerSecond(long bytes, long nanos) {
+        return bytes / 1e9 / (nanos / 1e9);
+    }
+
+    private static void writeRandomFile(Path path, long size) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        byte[] buffer = new byte[1 << 16];
+        try (OutputStream out = Files.newOutputStream(path)) {
+            for (long written = 0; written < size; written += buffer.length) {
+                random.nextBytes(buffer);
+                out.write(buffer, 0, (int) Math.min(buffer.length, size - written));
+            }
+        }
+    }
+
+    private static void append(Path path, int size) throws IOException {
+        byte[] data = new byte[size];
+        new SplittableRandom(9).nextBytes(data);
+        Files.write(path, data, StandardOpenOption.APPEND);
+    }
+
+    private static void flipByte(Path path, long position) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 1)).rewind();
+            ch.write(b, position);
+        }
+    }
+}
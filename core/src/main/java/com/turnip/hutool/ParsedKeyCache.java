@@ -0,0 +1,106 @@
+package com.turnip.hutool;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Base64 形式的 RSA 公钥/私钥到已解析 Key 对象的缓存
+ *
+ * 每次 new RSA(privateKeyBase64, publicKeyBase64) 都要 Base64 解码、ASN.1 解析、查找 KeyFactory，
+ * 私钥还要构造 CRT 参数；同一把密钥反复使用时这些都是重复劳动。
+ * 命中时只是一次 ConcurrentHashMap 查找；超过容量时随意淘汰一项，密钥数量通常远小于容量。
+ */
+public final class ParsedKeyCache {
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, PublicKey> publicKeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, PrivateKey> privateKeys = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ParsedKeyCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity必须为正数: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param base64 X.509 编码的公钥（即 RSA.getPublicKeyBase64() 的结果）
+     */
+    public PublicKey publicKey(String base64) {
+        PublicKey key = publicKeys.get(base64);
+        if (key != null) {
+            hits.increment();
+            return key;
+        }
+        misses.increment();
+        key = parse(base64, true);
+        evictIfFull(publicKeys);
+        PublicKey existing = publicKeys.putIfAbsent(base64, key);
+        return existing != null ? existing : key;
+    }
+
+    /**
+     * @param base64 PKCS#8 编码的私钥（即 RSA.getPrivateKeyBase64() 的结果）
+     */
+    public PrivateKey privateKey(String base64) {
+        PrivateKey key = privateKeys.get(base64);
+        if (key != null) {
+            hits.increment();
+            return key;
+        }
+        misses.increment();
+        key = parse(base64, false);
+        evictIfFull(privateKeys);
+        PrivateKey existing = privateKeys.putIfAbsent(base64, key);
+        return existing != null ? existing : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K parse(String base64, boolean isPublic) {
+        try {
+            byte[] der = Base64.getDecoder().decode(base64);
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            return (K) (isPublic
+                    ? factory.generatePublic(new X509EncodedKeySpec(der))
+                    : factory.generatePrivate(new PKCS8EncodedKeySpec(der)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("无法解析 RSA " + (isPublic ? "公钥" : "私钥"), e);
+        }
+    }
+
+    private void evictIfFull(ConcurrentHashMap<String, ?> map) {
+        if (map.size() >= capacity) {
+            Iterator<String> it = map.keySet().iterator();
+            if (it.hasNext()) {
+                map.remove(it.next());
+            }
+        }
+    }
+
+    public int size() {
+        return publicKeys.size() + privateKeys.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public void clear() {
+        publicKeys.clear();
+        privateKeys.clear();
+    }
+}
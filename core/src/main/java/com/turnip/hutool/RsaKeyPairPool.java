@@ -0,0 +1,163 @@
+package com.turnip.hutool;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 预先生成的 RSA 密钥对池
+ *
+ * 生成 2048 位密钥对要几十到几百毫秒，EncryptDemoFinal.rsaDemo 里的 new RSA() 在请求线程上同步生成，
+ * 这段时间直接变成请求延迟。这里由一个后台线程提前生成：
+ * 池中数量低于 lowWatermark 时开始补充，一直补到 highWatermark 才停，避免在阈值附近反复启停。
+ * 池空时 take() 退化为在调用线程上同步生成，记为一次未命中。
+ * 每个密钥对只交出一次，不会被两个调用方共用。
+ */
+public final class RsaKeyPairPool implements AutoCloseable {
+
+    private final int keySize;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final ArrayBlockingQueue<KeyPair> pool;
+    private final Thread generator;
+    private final Object signal = new Object();
+    private boolean filling = true;
+    private volatile boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+
+    /**
+     * @param keySize       密钥长度，如 2048
+     * @param lowWatermark  低于该数量时后台开始补充，至少为 1
+     * @param highWatermark 池容量，补充到该数量为止
+     */
+    public RsaKeyPairPool(int keySize, int lowWatermark, int highWatermark) {
+        if (lowWatermark < 1 || highWatermark <= 0 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("水位无效: low=" + lowWatermark + ", high=" + highWatermark);
+        }
+        this.keySize = keySize;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.pool = new ArrayBlockingQueue<>(highWatermark);
+        // 先校验参数，密钥长度不合法时在构造时就失败
+        newGenerator(keySize);
+        this.generator = new Thread(this::fill, "rsa-keypair-pool");
+        generator.setDaemon(true);
+        // 生成密钥是纯计算，不要抢请求线程的 CPU
+        generator.setPriority(Thread.MIN_PRIORITY);
+        generator.start();
+    }
+
+    /**
+     * 取一个密钥对；池空时同步生成
+     */
+    public KeyPair take() {
+        KeyPair pair = pool.poll();
+        if (pool.size() < lowWatermark) {
+            startFilling();
+        }
+        if (pair != null) {
+            hits.increment();
+            return pair;
+        }
+        misses.increment();
+        return newGenerator(keySize).generateKeyPair();
+    }
+
+    /**
+     * 等待池补满，用于启动预热；超时返回 false
+     */
+    public boolean awaitFull(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (pool.size() < highWatermark) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private void startFilling() {
+        synchronized (signal) {
+            if (!filling) {
+                filling = true;
+                signal.notify();
+            }
+        }
+    }
+
+    private void fill() {
+        KeyPairGenerator kpg = newGenerator(keySize);
+        while (!closed) {
+            synchronized (signal) {
+                while (!filling && !closed) {
+                    try {
+                        signal.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            if (closed) {
+                return;
+            }
+            if (pool.offer(kpg.generateKeyPair())) {
+                generated.increment();
+            }
+            if (pool.size() >= highWatermark) {
+                synchronized (signal) {
+                    // 停下之前再确认一次，避免错过刚发出的补充信号
+                    filling = pool.size() < lowWatermark;
+                }
+            }
+        }
+    }
+
+    private static KeyPairGenerator newGenerator(int keySize) {
+        try {
+            KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+            kpg.initialize(keySize);
+            return kpg;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("无法生成 " + keySize + " 位 RSA 密钥", e);
+        }
+    }
+
+    public int available() {
+        return pool.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long generated() {
+        return generated.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        generator.interrupt();
+        pool.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RsaKeyPairPool[%d 位, 可用 %d/%d, 低水位 %d, 命中 %d, 未命中 %d, 后台生成 %d]",
+                keySize, available(), highWatermark, lowWatermark, hits(), misses(), generated());
+    }
+}
@@ -124,15 +124,24 @@ public class NioExample {
             socketChannel.write(writeBuffer);
             
             if ("bye".equals(msg)) {
-                socketChannel.close();
-                System.out.println("客户端连接已关闭: " + socketChannel.getRemoteAddress());
+                closeClient(socketChannel);
             }
         } else if (len < 0) {
-            socketChannel.close();
-            System.out.println("客户端连接已关闭: " + socketChannel.getRemoteAddress());
+            closeClient(socketChannel);
         }
     }
 
+    /**
+     * 关闭客户端连接；远端地址要在关闭前取，关闭后再取会抛 ClosedChannelException 并中断整个 select 循环
+     * @param socketChannel
+     * @throws IOException
+     */
+    private static void closeClient(SocketChannel socketChannel) throws IOException {
+        Object remote = socketChannel.getRemoteAddress();
+        socketChannel.close();
+        System.out.println("客户端连接已关闭: " + remote);
+    }
+
     /**
      * 处理写事件
      * @param key
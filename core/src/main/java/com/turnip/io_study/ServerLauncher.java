@@ -0,0 +1,287 @@
+package com.turnip.io_study;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BioExample / NioExample / AioExample 服务器的统一启动器，带 AppCDS（应用类数据共享）快速启动
+ *
+ * 三个示例的 main 都是先起服务器、睡 1 秒、再起客户端；新扩容的实例需要的是尽快接受第一个请求。
+ * 这里：
+ * - serve：只启动选定的服务器，不起客户端也不睡眠；另外两个服务器、客户端以及下面的测量代码都不会被加载
+ * - train：在子 JVM 里加 -XX:ArchiveClassesAtExit 运行服务器，做几次回显后正常退出，
+ *   JVM 退出时把这期间加载的类（含 lambda 代理类）写进动态归档
+ * - bench：分别以关闭 CDS、默认 CDS（只含 JDK 类）、AppCDS 归档三种方式启动子 JVM，
+ *   测从启动进程到收到第一条回显的时间，以及此刻的 RSS（读 /proc，只支持 Linux）
+ *
+ * AppCDS 只归档 jar 中的类，classpath 里有非空目录时 JVM 拒绝生成归档，所以 train/bench 要用打包后的 jar：
+ *   mvn -B package -DskipTests
+ *   java -cp core/target/JavaStudy-core-1.0-SNAPSHOT.jar com.turnip.io_study.ServerLauncher train bio
+ *   java -cp core/target/JavaStudy-core-1.0-SNAPSHOT.jar com.turnip.io_study.ServerLauncher bench bio
+ * 运行时的 JDK 和 classpath 必须与生成归档时一致，否则 JVM 只打印警告并放弃使用归档。
+ */
+public class ServerLauncher {
+
+    enum Server {
+        BIO(8080), NIO(8081), AIO(8082);
+
+        final int port;
+
+        Server(int port) {
+            this.port = port;
+        }
+
+        void start() throws Exception {
+            // 只有被选中的那个示例类会被加载和初始化
+            switch (this) {
+                case BIO -> BioExample.startServer();
+                case NIO -> NioExample.startServer();
+                case AIO -> AioExample.startServer();
+            }
+        }
+
+        Path defaultArchive() {
+            return Path.of(name().toLowerCase(Locale.ROOT) + "-server.jsa");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+        Server server;
+        try {
+            server = Server.valueOf(args[1].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            usage();
+            return;
+        }
+        switch (args[0]) {
+            case "serve" -> serve(server, args.length > 2 && "--managed".equals(args[2]));
+            case "train" -> Driver.train(server, args.length > 2 ? Path.of(args[2]) : server.defaultArchive());
+            case "bench" -> Driver.bench(server, args.length > 2 ? Path.of(args[2]) : server.defaultArchive(),
+                    args.length > 3 ? Integer.parseInt(args[3]) : 5);
+            default -> usage();
+        }
+    }
+
+    private static void usage() {
+        System.out.println("用法: ServerLauncher serve <bio|nio|aio> [--managed]");
+        System.out.println("      ServerLauncher train <bio|nio|aio> [归档文件]");
+        System.out.println("      ServerLauncher bench <bio|nio|aio> [归档文件] [次数]");
+    }
+
+    /**
+     * @param managed 由 train/bench 启动：标准输入读到 "exit" 或结束时正常退出，动态归档在此时写出
+     */
+    private static void serve(Server server, boolean managed) throws Exception {
+        if (managed) {
+            Thread watcher = new Thread(ServerLauncher::exitOnStdin, "stdin-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        server.start();
+    }
+
+    private static void exitOnStdin() {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null && !"exit".equals(line)) {
+                // 忽略其他输入
+            }
+        } catch (IOException e) {
+            // 标准输入断开也按退出处理
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 启动、探测和测量子 JVM；只在 train/bench 时加载，serve 路径不会碰到
+     */
+    static final class Driver {
+
+        private static final long ECHO_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+        record Sample(long nanos, long rssKb) {
+        }
+
+        static void train(Server server, Path archive) throws Exception {
+            if (!checkClasspath()) {
+                return;
+            }
+            Files.deleteIfExists(archive);
+            Process process = launch(server, List.of("-XX:ArchiveClassesAtExit=" + archive));
+            try {
+                // 多做几次，让第二次及以后连接才走到的代码也进入归档
+                for (int i = 0; i < 3; i++) {
+                    firstEcho(server.port, process);
+                }
+            } finally {
+                stop(process);
+            }
+            if (Files.exists(archive)) {
+                System.out.printf("已生成 %s（%.1f MB），运行: ServerLauncher bench %s %s%n",
+                        archive, Files.size(archive) / 1e6, server.name().toLowerCase(Locale.ROOT), archive);
+            } else {
+                System.out.println("没有生成归档，请查看上面的 JVM 输出");
+            }
+        }
+
+        static void bench(Server server, Path archive, int runs) throws Exception {
+            if (!checkClasspath()) {
+                return;
+            }
+            if (!Files.exists(archive)) {
+                System.out.println("归档 " + archive + " 不存在，先运行: ServerLauncher train " + server.name().toLowerCase(Locale.ROOT));
+                return;
+            }
+            Map<String, List<String>> configs = new LinkedHashMap<>();
+            configs.put("关闭 CDS（-Xshare:off）", List.of("-Xshare:off"));
+            configs.put("默认 CDS（只含 JDK 类）", List.of());
+            configs.put("AppCDS 归档", List.of("-XX:SharedArchiveFile=" + archive));
+
+            Map<String, List<Sample>> samples = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> config : configs.entrySet()) {
+                // 先各跑一次预热页缓存，不计入结果
+                run(server, config.getValue());
+                samples.put(config.getKey(), new ArrayList<>());
+            }
+            // 几种配置轮流跑，机器负载的波动平均摊到每种配置上
+            for (int i = 0; i < runs; i++) {
+                for (Map.Entry<String, List<String>> config : configs.entrySet()) {
+                    samples.get(config.getKey()).add(run(server, config.getValue()));
+                }
+            }
+
+            System.out.printf("%s 服务器，端口 %d，每种方式 %d 次取中位数%n", server, server.port, runs);
+            System.out.printf("%-24s %14s %12s%n", "启动方式", "首次回显(ms)", "RSS(MB)");
+            for (Map.Entry<String, List<Sample>> entry : samples.entrySet()) {
+                long[] nanos = entry.getValue().stream().mapToLong(Sample::nanos).sorted().toArray();
+                long[] rss = entry.getValue().stream().mapToLong(Sample::rssKb).sorted().toArray();
+                long medianRss = rss[rss.length / 2];
+                System.out.printf("%-24s %14.1f %12s%n", entry.getKey(), nanos[nanos.length / 2] / 1e6,
+                        medianRss < 0 ? "不可用" : String.format("%.1f", medianRss / 1024.0));
+            }
+        }
+
+        /**
+         * classpath 中不能有非空目录，否则 JVM 拒绝生成和使用应用类归档
+         */
+        private static boolean checkClasspath() {
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                File file = new File(entry);
+                String[] children = file.list();
+                if (file.isDirectory() && children != null && children.length > 0) {
+                    System.out.println("classpath 中有目录 " + entry + "，AppCDS 只能归档 jar 中的类。");
+                    System.out.println("请先 mvn -B package -DskipTests，再用 -cp core/target/JavaStudy-core-1.0-SNAPSHOT.jar 运行");
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static Sample run(Server server, List<String> jvmArgs) throws Exception {
+            long start = System.nanoTime();
+            Process process = launch(server, jvmArgs);
+            try {
+                firstEcho(server.port, process);
+                long nanos = System.nanoTime() - start;
+                return new Sample(nanos, rssKb(process.pid()));
+            } finally {
+                stop(process);
+            }
+        }
+
+        private static Process launch(Server server, List<String> jvmArgs) throws IOException {
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmArgs);
+            command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"),
+                    ServerLauncher.class.getName(), "serve", server.name(), "--managed"));
+            return new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        }
+
+        /**
+         * 反复尝试连接，连上后发一行并等到回显；服务器还没监听时连接被拒绝，1 毫秒后重试
+         */
+        private static void firstEcho(int port, Process process) throws IOException, InterruptedException {
+            long deadline = System.nanoTime() + ECHO_TIMEOUT_NANOS;
+            while (true) {
+                try (Socket socket = new Socket()) {
+                    socket.connect(new InetSocketAddress("localhost", port), 1000);
+                    socket.setTcpNoDelay(true);
+                    OutputStream out = socket.getOutputStream();
+                    out.write("ping\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    InputStream in = socket.getInputStream();
+                    int b;
+                    while ((b = in.read()) != '\n') {
+                        if (b < 0) {
+                            throw new IOException("服务器没有回显就关闭了连接");
+                        }
+                    }
+                    return;
+                } catch (ConnectException e) {
+                    if (!process.isAlive()) {
+                        throw new IOException("服务器进程已退出，退出码 " + process.exitValue());
+                    }
+                    if (System.nanoTime() - deadline >= 0) {
+                        throw new IOException("等待回显超时", e);
+                    }
+                    Thread.sleep(1);
+                }
+            }
+        }
+
+        /**
+         * Linux 上从 /proc/<pid>/status 读 VmRSS；其他系统返回 -1
+         */
+        private static long rssKb(long pid) throws IOException {
+            Path status = Path.of("/proc", Long.toString(pid), "status");
+            if (!Files.exists(status)) {
+                return -1;
+            }
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 通知子 JVM 正常退出（train 时归档在这一步写出），超时则强制结束
+         */
+        private static void stop(Process process) throws InterruptedException {
+            try (OutputStream in = process.getOutputStream()) {
+                in.write("exit\n".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                // 进程已经退出
+            }
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
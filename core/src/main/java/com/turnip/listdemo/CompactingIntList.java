@@ -0,0 +1,259 @@
+package com.turnip.listdemo;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * {@link CompactingList} 的 int 版本：元素直接存放在 int[] 中，迭代和判断都不装箱
+ * 迭代器删除只做标记，迭代结束或下一次访问列表时一次性压缩；迭代器是 fail-fast 的。非线程安全。
+ */
+public final class CompactingIntList {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+    private int modCount;
+    private final RemovalMarks marks = new RemovalMarks();
+
+    public CompactingIntList() {
+        elements = EMPTY;
+    }
+
+    public CompactingIntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity不能为负数: " + initialCapacity);
+        }
+        elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    public static CompactingIntList of(int... values) {
+        CompactingIntList list = new CompactingIntList(0);
+        list.elements = values.clone();
+        list.size = values.length;
+        return list;
+    }
+
+    public int size() {
+        return size - marks.count();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int pendingRemovals() {
+        return marks.count();
+    }
+
+    public void compact() {
+        if (marks.count() == 0) {
+            return;
+        }
+        size = marks.compact(size, (from, to, length) -> System.arraycopy(elements, from, elements, to, length));
+    }
+
+    public void add(int value) {
+        compact();
+        modCount++;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    public void addAll(int[] values) {
+        compact();
+        modCount++;
+        if (size + values.length > elements.length) {
+            grow(size + values.length);
+        }
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+    }
+
+    public int get(int index) {
+        compact();
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    public void set(int index, int value) {
+        compact();
+        Objects.checkIndex(index, size);
+        elements[index] = value;
+    }
+
+    public int removeAt(int index) {
+        compact();
+        Objects.checkIndex(index, size);
+        modCount++;
+        int old = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    public void clear() {
+        modCount++;
+        size = 0;
+        marks.reset();
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, elements.length + (elements.length >> 1));
+        elements = Arrays.copyOf(elements, Math.max(capacity, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * 一次遍历完成判断和压缩
+     */
+    public boolean removeIf(IntPredicate filter) {
+        Objects.requireNonNull(filter);
+        compact();
+        int expectedModCount = modCount;
+        int end = size;
+        // 匹配的位置先记在局部位图里：谓词里调用 get、indexOf 等会先 compact()，此时还不能有标记，
+        // 否则下标会移动。全部判断完才交给 marks 并压缩，谓词抛异常或检测到并发修改时列表保持原样
+        BitSet removed = null;
+        for (int i = 0; i < end && modCount == expectedModCount; i++) {
+            if (filter.test(elements[i])) {
+                if (removed == null) {
+                    removed = new BitSet(end);
+                }
+                removed.set(i);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (removed == null) {
+            return false;
+        }
+        marks.markAll(removed, size);
+        modCount++;
+        compact();
+        return true;
+    }
+
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        compact();
+        int expectedModCount = modCount;
+        for (int i = 0; i < size && modCount == expectedModCount; i++) {
+            action.accept(elements[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        compact();
+        return new Itr();
+    }
+
+    public IntStream stream() {
+        compact();
+        return Arrays.stream(elements, 0, size);
+    }
+
+    public int[] toArray() {
+        compact();
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CompactingIntList other)) {
+            return false;
+        }
+        compact();
+        other.compact();
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        compact();
+        int h = 1;
+        for (int i = 0; i < size; i++) {
+            h = 31 * h + elements[i];
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        compact();
+        return Arrays.toString(Arrays.copyOf(elements, size));
+    }
+
+    private class Itr implements PrimitiveIterator.OfInt {
+        int cursor;
+        int lastRet = -1;
+        int expectedModCount = modCount;
+        int epoch = marks.epoch();
+        int marked;
+
+        private void sync() {
+            if (epoch != marks.epoch()) {
+                cursor -= marked;
+                if (lastRet >= 0) {
+                    lastRet -= marked;
+                }
+                marked = 0;
+                epoch = marks.epoch();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            sync();
+            if (cursor < size) {
+                return true;
+            }
+            if (marks.count() > 0 && modCount == expectedModCount) {
+                compact();
+                sync();
+            }
+            return false;
+        }
+
+        @Override
+        public int nextInt() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            sync();
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            lastRet = cursor++;
+            return elements[lastRet];
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            sync();
+            marks.mark(lastRet, size);
+            marked++;
+            lastRet = -1;
+            expectedModCount = ++modCount;
+        }
+    }
+}
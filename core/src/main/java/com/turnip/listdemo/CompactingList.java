@@ -0,0 +1,279 @@
+package com.turnip.listdemo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 迭代器删除为 O(1) 的列表
+ *
+ * ArrayList 的 Iterator.remove() 每次都要把后面的元素整体前移，遍历中删掉 n 个元素中的 k 个是 O(n·k)。
+ * 这里的迭代器只在位图中标记被删除的位置，迭代结束（hasNext() 返回 false）时一次性压缩；
+ * 中途退出循环时，下一次按下标访问、修改或创建新迭代器之前压缩，总代价 O(n)。
+ *
+ * 标记删除后 size() 立即反映删除结果；其余语义与 ArrayList 相同：
+ * 迭代器是 fail-fast 的，迭代过程中通过列表本身增删元素，迭代器的下一次操作抛出 ConcurrentModificationException。
+ * 迭代过程中调用 get、contains 等只读方法是允许的，它们会先压缩，迭代器随后自动修正游标。
+ * 非线程安全。
+ */
+public class CompactingList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final Object[] EMPTY = {};
+
+    private Object[] elements;
+    // 物理长度，包含已标记但尚未压缩的元素
+    private int size;
+    private final RemovalMarks marks = new RemovalMarks();
+
+    public CompactingList() {
+        elements = EMPTY;
+    }
+
+    public CompactingList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity不能为负数: " + initialCapacity);
+        }
+        elements = initialCapacity == 0 ? EMPTY : new Object[initialCapacity];
+    }
+
+    public CompactingList(Collection<? extends E> c) {
+        Object[] a = c.toArray();
+        elements = a.getClass() == Object[].class ? a : Arrays.copyOf(a, a.length, Object[].class);
+        size = elements.length;
+    }
+
+    @Override
+    public int size() {
+        return size - marks.count();
+    }
+
+    /**
+     * 已标记、尚未压缩的元素个数
+     */
+    public int pendingRemovals() {
+        return marks.count();
+    }
+
+    /**
+     * 立即删除迭代器标记过的元素；一般不需要手动调用
+     */
+    public void compact() {
+        if (marks.count() == 0) {
+            return;
+        }
+        int newSize = marks.compact(size, (from, to, length) -> System.arraycopy(elements, from, elements, to, length));
+        Arrays.fill(elements, newSize, size, null);
+        size = newSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        compact();
+        Objects.checkIndex(index, size);
+        return (E) elements[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        compact();
+        Objects.checkIndex(index, size);
+        E old = (E) elements[index];
+        elements[index] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(E e) {
+        compact();
+        modCount++;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = e;
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        compact();
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        modCount++;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        compact();
+        Objects.checkIndex(index, size);
+        modCount++;
+        E old = (E) elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        marks.reset();
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, elements.length + (elements.length >> 1));
+        elements = Arrays.copyOf(elements, Math.max(capacity, 10));
+    }
+
+    /**
+     * 一次遍历完成判断和压缩；与 ArrayList 一样，判断过程中列表被修改时抛出 ConcurrentModificationException，且列表不变
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        compact();
+        int expectedModCount = modCount;
+        int end = size;
+        // 匹配的位置先记在局部位图里：谓词里调用 get、indexOf 等会先 compact()，此时还不能有标记，
+        // 否则下标会移动。全部判断完才交给 marks 并压缩，谓词抛异常或检测到并发修改时列表保持原样
+        BitSet removed = null;
+        for (int i = 0; i < end && modCount == expectedModCount; i++) {
+            if (filter.test((E) elements[i])) {
+                if (removed == null) {
+                    removed = new BitSet(end);
+                }
+                removed.set(i);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (removed == null) {
+            return false;
+        }
+        marks.markAll(removed, size);
+        modCount++;
+        compact();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        compact();
+        int expectedModCount = modCount;
+        for (int i = 0; i < size && modCount == expectedModCount; i++) {
+            action.accept((E) elements[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        compact();
+        return new Itr();
+    }
+
+    private class Itr implements Iterator<E> {
+        // 物理下标；被标记的位置都在 cursor 之前
+        int cursor;
+        int lastRet = -1;
+        int expectedModCount = modCount;
+        int epoch = marks.epoch();
+        // 上次同步以来本迭代器标记的个数
+        int marked;
+
+        /**
+         * 列表压缩过时，游标之前的已标记元素都被移除了，物理下标相应前移
+         */
+        private void sync() {
+            if (epoch != marks.epoch()) {
+                cursor -= marked;
+                if (lastRet >= 0) {
+                    lastRet -= marked;
+                }
+                marked = 0;
+                epoch = marks.epoch();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            sync();
+            if (cursor < size) {
+                return true;
+            }
+            if (marks.count() > 0 && modCount == expectedModCount) {
+                // 迭代结束，一次性删除
+                compact();
+                sync();
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            sync();
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            lastRet = cursor++;
+            return (E) elements[lastRet];
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            sync();
+            marks.mark(lastRet, size);
+            marked++;
+            lastRet = -1;
+            expectedModCount = ++modCount;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            // action 里的只读访问可能触发压缩，每一步都要同步游标
+            for (sync(); cursor < size && modCount == expectedModCount; sync()) {
+                lastRet = cursor++;
+                action.accept((E) elements[lastRet]);
+            }
+            checkForComodification();
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.turnip.listdemo;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+
+/**
+ * CompactingList 与 ArrayList 的遍历删除对比
+ * 参数：元素个数（默认 200000）
+ */
+public class CompactingListExample {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        // 1. 和 IteratorExample 一样的用法，删除只是标记，迭代结束时一次性压缩
+        System.out.println("===== 遍历并移除元素 =====");
+        CompactingList<String> fruits = new CompactingList<>(List.of("苹果", "香蕉", "橙子", "葡萄", "西瓜"));
+        Iterator<String> iterator = fruits.iterator();
+        while (iterator.hasNext()) {
+            String fruit = iterator.next();
+            if (fruit.equals("香蕉") || fruit.equals("葡萄")) {
+                iterator.remove();
+                System.out.println("已标记：" + fruit + "，待压缩 " + fruits.pendingRemovals() + "，size=" + fruits.size());
+            }
+        }
+        System.out.println("迭代结束：" + fruits + "，待压缩 " + fruits.pendingRemovals());
+
+        // 2. 中途 break：下一次按下标访问前压缩
+        System.out.println("\n===== 中途退出循环 =====");
+        CompactingList<Integer> numbers = new CompactingList<>(List.of(1, 2, 3, 4, 5, 6));
+        for (Iterator<Integer> it = numbers.iterator(); it.hasNext(); ) {
+            int v = it.next();
+            if (v % 2 == 0) {
+                it.remove();
+            }
+            if (v == 4) {
+                break;
+            }
+        }
+        System.out.println("break 后待压缩 " + numbers.pendingRemovals() + "，get(1)=" + numbers.get(1)
+                + "，待压缩 " + numbers.pendingRemovals() + "，列表 " + numbers);
+
+        // 3. fail-fast：迭代中通过列表本身修改
+        System.out.println("\n===== fail-fast =====");
+        try {
+            for (Iterator<Integer> it = numbers.iterator(); it.hasNext(); ) {
+                if (it.next() == 3) {
+                    numbers.add(7);
+                }
+            }
+            System.out.println("未检测到并发修改（错误）");
+        } catch (ConcurrentModificationException e) {
+            System.out.println("检测到并发修改：" + e.getClass().getSimpleName());
+        }
+
+        // 4. removeIf 的谓词里访问列表本身：判断完之前不标记，下标不会移动
+        System.out.println("\n===== removeIf 谓词中访问列表 =====");
+        CompactingList<Integer> evens = new CompactingList<>(List.of(0, 1, 2, 3, 4, 5, 6, 7));
+        evens.removeIf(x -> x % 2 == 0 && evens.get(0) >= 0);
+        System.out.println("删除偶数（谓词里 get(0)）：" + evens + "，期望 [1, 3, 5, 7]");
+        CompactingList<Integer> dupes = new CompactingList<>(List.of(1, 2, 3, 2, 4, 5, 1));
+        dupes.removeIf(x -> dupes.indexOf(x) != dupes.lastIndexOf(x));
+        System.out.println("删除重复出现的元素（谓词里 indexOf/lastIndexOf）：" + dupes + "，期望 [3, 4, 5]");
+        CompactingIntList small = CompactingIntList.of(0, 1, 2, 3);
+        small.removeIf(x -> x % 2 == 0 && small.get(small.size() - 1) == 3);
+        System.out.println("CompactingIntList 删除偶数（谓词里 get(size()-1)）：" + small + "，期望 [1, 3]");
+        try {
+            evens.removeIf(x -> x == 3 && evens.add(9));
+            System.out.println("未检测到并发修改（错误）");
+        } catch (ConcurrentModificationException e) {
+            System.out.println("谓词里 add：检测到并发修改，没有删除任何元素：" + evens);
+        }
+
+        // 5. 删除 90% 元素的耗时
+        System.out.println("\n===== 删除 90% 的 " + n + " 个元素 =====");
+        int[] data = new SplittableRandom(42).ints(n, 0, 100).toArray();
+        List<Integer> source = new ArrayList<>(n);
+        for (int v : data) {
+            source.add(v);
+        }
+        List<Integer> expected = new ArrayList<>(source);
+        expected.removeIf(v -> v < 90);
+
+        for (int round = 0; round < 3; round++) {
+            List<Integer> arrayList = new ArrayList<>(source);
+            long t0 = System.nanoTime();
+            for (Iterator<Integer> it = arrayList.iterator(); it.hasNext(); ) {
+                if (it.next() < 90) {
+                    it.remove();
+                }
+            }
+            long t1 = System.nanoTime();
+
+            CompactingList<Integer> compacting = new CompactingList<>(source);
+            long t2 = System.nanoTime();
+            for (Iterator<Integer> it = compacting.iterator(); it.hasNext(); ) {
+                if (it.next() < 90) {
+                    it.remove();
+                }
+            }
+            long t3 = System.nanoTime();
+
+            CompactingIntList ints = CompactingIntList.of(data);
+            long t4 = System.nanoTime();
+            for (PrimitiveIterator.OfInt it = ints.iterator(); it.hasNext(); ) {
+                if (it.nextInt() < 90) {
+                    it.remove();
+                }
+            }
+            long t5 = System.nanoTime();
+
+            CompactingLongList longs = new CompactingLongList(n);
+            for (int v : data) {
+                longs.add(v);
+            }
+            long t6 = System.nanoTime();
+            for (PrimitiveIterator.OfLong it = longs.iterator(); it.hasNext(); ) {
+                if (it.nextLong() < 90) {
+                    it.remove();
+                }
+            }
+            long t7 = System.nanoTime();
+
+            boolean same = arrayList.equals(expected) && compacting.equals(expected)
+                    && ints.size() == expected.size() && longs.size() == expected.size();
+            for (int i = 0; same && i < expected.size(); i++) {
+                same = ints.get(i) == expected.get(i) && longs.get(i) == expected.get(i);
+            }
+            System.out.printf("第%d轮 ArrayList: %.2f ms, CompactingList: %.2f ms, CompactingIntList: %.2f ms, "
+                            + "CompactingLongList: %.2f ms, 结果一致: %b%n", round + 1,
+                    (t1 - t0) / 1e6, (t3 - t2) / 1e6, (t5 - t4) / 1e6, (t7 - t6) / 1e6, same);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.turnip.listdemo;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 迭代器标记的待删除位置：位图 + 计数，以及一次性压缩
+ *
+ * 标记只发生在迭代器已经越过的位置，所以压缩之前列表的物理长度不会超过标记时的长度。
+ * 压缩按"连续未标记的一段"整体搬移，删除比例很高或很低时都只需要很少的 arraycopy。
+ * epoch 每压缩一次加一，正在进行的迭代器据此修正自己的物理游标。
+ */
+final class RemovalMarks {
+
+    /**
+     * 把 [from, from + length) 搬到 to 开始的位置，to <= from
+     */
+    @FunctionalInterface
+    interface Mover {
+        void move(int from, int to, int length);
+    }
+
+    private long[] words = new long[0];
+    private int count;
+    private int first = Integer.MAX_VALUE;
+    private int epoch;
+
+    /**
+     * @param size 当前物理长度，位图至少覆盖到这里
+     */
+    void mark(int index, int size) {
+        int needed = (size + 63) >>> 6;
+        if (words.length < needed) {
+            words = Arrays.copyOf(words, Math.max(needed, words.length * 2));
+        }
+        words[index >>> 6] |= 1L << index;
+        count++;
+        first = Math.min(first, index);
+    }
+
+    /**
+     * 一次标记 bits 中的所有位置
+     */
+    void markAll(BitSet bits, int size) {
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            mark(i, size);
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    int epoch() {
+        return epoch;
+    }
+
+    /**
+     * 删除所有标记的位置，返回新的物理长度
+     */
+    int compact(int size, Mover mover) {
+        int write = first;
+        int read = first;
+        while (read < size) {
+            int start = nextUnmarked(read, size);
+            if (start >= size) {
+                break;
+            }
+            int end = nextMarked(start, size);
+            mover.move(start, write, end - start);
+            write += end - start;
+            read = end;
+        }
+        Arrays.fill(words, first >>> 6, (size + 63) >>> 6, 0L);
+        count = 0;
+        first = Integer.MAX_VALUE;
+        epoch++;
+        return write;
+    }
+
+    /**
+     * 放弃所有标记，用于 clear
+     */
+    void reset() {
+        if (count > 0) {
+            Arrays.fill(words, 0L);
+            count = 0;
+            first = Integer.MAX_VALUE;
+        }
+        epoch++;
+    }
+
+    private int nextMarked(int from, int limit) {
+        int u = from >>> 6;
+        long word = words[u] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return Math.min(limit, (u << 6) + Long.numberOfTrailingZeros(word));
+            }
+            if ((++u << 6) >= limit) {
+                return limit;
+            }
+            word = words[u];
+        }
+    }
+
+    private int nextUnmarked(int from, int limit) {
+        int u = from >>> 6;
+        long word = ~words[u] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return Math.min(limit, (u << 6) + Long.numberOfTrailingZeros(word));
+            }
+            if ((++u << 6) >= limit) {
+                return limit;
+            }
+            word = ~words[u];
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.turnip.map;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * String 到 String 的紧凑哈希表，用来替代 HashMap<String, String>
+ * HashMap 每个条目一个 Node（32 字节）加一个桶引用，查找要经过 桶 → Node → key 三次跳转，
+ * 冲突链上的每个 Node 都要读一遍。这里用开放寻址：
+ * - 哈希值内联在 int[] 中，0 表示空槽；探测只比较这个数组，哈希相等才去读键做 equals；
+ * - 键值交错存放在同一个 String[] 中（table[2i] 为键，table[2i+1] 为值），命中后键和值通常在同一条缓存行。
+ * 线性探测，负载因子 0.75，backward-shift 删除，不留墓碑。
+ *
+ * 与 HashMap 一样允许 null 键和 null 值，get 返回 null 时用 containsKey 区分。
+ * 非线程安全。
+ */
+public final class CompactStringMap {
+
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    private int[] hashes;
+    private String[] table;
+    private int mask;
+    private int shift;
+    private int resizeAt;
+    // 不含 null 键
+    private int size;
+    private boolean hasNullKey;
+    private String nullKeyValue;
+
+    public CompactStringMap() {
+        this(16);
+    }
+
+    public CompactStringMap(int expectedSize) {
+        allocate(Slots.capacityFor(expectedSize, MAX_CAPACITY));
+    }
+
+    public CompactStringMap(Map<String, String> map) {
+        this(map.size());
+        map.forEach(this::put);
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        table = new String[capacity << 1];
+        mask = capacity - 1;
+        shift = Slots.shift32(capacity);
+        resizeAt = Slots.resizeThreshold(capacity, MAX_CAPACITY);
+    }
+
+    /**
+     * 内联保存的哈希，0 留给空槽
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h != 0 ? h : 1;
+    }
+
+    public int size() {
+        return hasNullKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(String key) {
+        if (key == null) {
+            return hasNullKey;
+        }
+        return find(key, hash(key)) >= 0;
+    }
+
+    public String get(String key) {
+        if (key == null) {
+            return nullKeyValue;
+        }
+        int i = find(key, hash(key));
+        return i >= 0 ? table[(i << 1) + 1] : null;
+    }
+
+    public String getOrDefault(String key, String defaultValue) {
+        if (key == null) {
+            return hasNullKey ? nullKeyValue : defaultValue;
+        }
+        int i = find(key, hash(key));
+        return i >= 0 ? table[(i << 1) + 1] : defaultValue;
+    }
+
+    /**
+     * @return 旧值，键不存在时返回 null
+     */
+    public String put(String key, String value) {
+        if (key == null) {
+            String old = nullKeyValue;
+            hasNullKey = true;
+            nullKeyValue = value;
+            return old;
+        }
+        int h = hash(key);
+        int[] hs = hashes;
+        int i = Slots.slot32(h, shift);
+        for (int current; (current = hs[i]) != 0; i = (i + 1) & mask) {
+            if (current == h && key.equals(table[i << 1])) {
+                String old = table[(i << 1) + 1];
+                table[(i << 1) + 1] = value;
+                return old;
+            }
+        }
+        if (size >= resizeAt) {
+            grow();
+            i = emptySlot(hashes, h);
+        }
+        hashes[i] = h;
+        table[i << 1] = key;
+        table[(i << 1) + 1] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * 与 HashMap 相同：键不存在或值为 null 时放入
+     */
+    public String putIfAbsent(String key, String value) {
+        String old = get(key);
+        return old != null ? old : put(key, value);
+    }
+
+    /**
+     * @return 被删除的值，键不存在时返回 null
+     */
+    public String remove(String key) {
+        if (key == null) {
+            String old = nullKeyValue;
+            hasNullKey = false;
+            nullKeyValue = null;
+            return old;
+        }
+        int i = find(key, hash(key));
+        if (i < 0) {
+            return null;
+        }
+        String old = table[(i << 1) + 1];
+        shiftDown(i);
+        size--;
+        return old;
+    }
+
+    private int find(String key, int h) {
+        int[] hs = hashes;
+        for (int i = Slots.slot32(h, shift); ; i = (i + 1) & mask) {
+            int current = hs[i];
+            if (current == 0) {
+                return -1;
+            }
+            if (current == h && key.equals(table[i << 1])) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * 删除 gap 处的元素：向后扫描到空槽为止，理想位置不在 (gap, j] 内的元素挪进空位；
+     * 理想位置直接由内联的哈希算出，不必重新计算键的 hashCode
+     */
+    private void shiftDown(int gap) {
+        int[] hs = hashes;
+        String[] t = table;
+        for (int j = (gap + 1) & mask; ; j = (j + 1) & mask) {
+            int h = hs[j];
+            if (h == 0) {
+                break;
+            }
+            if (((j - Slots.slot32(h, shift)) & mask) >= ((j - gap) & mask)) {
+                hs[gap] = h;
+                t[gap << 1] = t[j << 1];
+                t[(gap << 1) + 1] = t[(j << 1) + 1];
+                gap = j;
+            }
+        }
+        hs[gap] = 0;
+        t[gap << 1] = null;
+        t[(gap << 1) + 1] = null;
+    }
+
+    private int emptySlot(int[] hs, int h) {
+        int i = Slots.slot32(h, shift);
+        while (hs[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void grow() {
+        int capacity = mask + 1;
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("容量已达上限: " + size());
+        }
+        int[] oldHashes = hashes;
+        String[] oldTable = table;
+        allocate(capacity << 1);
+        for (int j = 0; j < oldHashes.length; j++) {
+            int h = oldHashes[j];
+            if (h != 0) {
+                int i = emptySlot(hashes, h);
+                hashes[i] = h;
+                table[i << 1] = oldTable[j << 1];
+                table[(i << 1) + 1] = oldTable[(j << 1) + 1];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(hashes, 0);
+        Arrays.fill(table, null);
+        size = 0;
+        hasNullKey = false;
+        nullKeyValue = null;
+    }
+
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        Objects.requireNonNull(action);
+        if (hasNullKey) {
+            action.accept(null, nullKeyValue);
+        }
+        for (int i = 0; i < hashes.length; i++) {
+            if (hashes[i] != 0) {
+                action.accept(table[i << 1], table[(i << 1) + 1]);
+            }
+        }
+    }
+
+    /**
+     * 数组占用的字节数（不含对象头和字符串本身），引用按压缩指针 4 字节计
+     */
+    public long memoryBytes() {
+        return (long) hashes.length * (Integer.BYTES + 2 * 4);
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> map = new HashMap<>(size() * 4 / 3 + 1);
+        forEach(map::put);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
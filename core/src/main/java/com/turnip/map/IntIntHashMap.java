@@ -0,0 +1,251 @@
+package com.turnip.map;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * int 键到 int 值的开放寻址哈希表，用来替代 HashMap<Integer, Integer>
+ * HashMap 每个条目要一个 Node 和两个 Integer，约 64 字节，查找要跳三次指针；
+ * 这里键和值交错存放在同一个 int[] 中（table[2i] 为键，table[2i+1] 为值），没有任何对象，
+ * 一次查找通常只访问一条缓存行。
+ *
+ * 线性探测，负载因子 0.75；删除时把后续元素往回挪（backward-shift），不留墓碑，反复增删探测链也不会变长。
+ * 键 0 用作空槽标记，真正的键 0 单独存放。
+ * 非线程安全。
+ */
+public final class IntIntHashMap {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    // 交错数组长度不能超过 int 上限
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    private int[] table;
+    private int mask;
+    private int shift;
+    private int resizeAt;
+    // 不含键 0
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(Slots.capacityFor(expectedSize, MAX_CAPACITY));
+    }
+
+    private void allocate(int capacity) {
+        table = new int[capacity << 1];
+        mask = capacity - 1;
+        shift = Slots.shift64(capacity);
+        resizeAt = Slots.resizeThreshold(capacity, MAX_CAPACITY);
+    }
+
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * 键不存在时视为 0
+     */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int[] t = table;
+        for (int i = Slots.slot(key, shift); ; i = (i + 1) & mask) {
+            int k = t[i << 1];
+            if (k == key) {
+                return t[(i << 1) + 1];
+            }
+            if (k == 0) {
+                return defaultValue;
+            }
+        }
+    }
+
+    public void put(int key, int value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int[] t = table;
+        int i = Slots.slot(key, shift);
+        for (int k; (k = t[i << 1]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                t[(i << 1) + 1] = value;
+                return;
+            }
+        }
+        insert(i, key, value);
+    }
+
+    /**
+     * 累加，键不存在时从 0 开始；返回累加后的值
+     */
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? zeroValue + delta : delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int[] t = table;
+        int i = Slots.slot(key, shift);
+        for (int k; (k = t[i << 1]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                return t[(i << 1) + 1] += delta;
+            }
+        }
+        insert(i, key, delta);
+        return delta;
+    }
+
+    private void insert(int i, int key, int value) {
+        if (size >= resizeAt) {
+            grow();
+            i = emptySlot(table, key);
+        }
+        table[i << 1] = key;
+        table[(i << 1) + 1] = value;
+        size++;
+    }
+
+    /**
+     * @return 键存在并被删除时返回 true
+     */
+    public boolean remove(int key) {
+        if (key == 0) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return had;
+        }
+        int i = find(key);
+        if (i < 0) {
+            return false;
+        }
+        shiftDown(i);
+        size--;
+        return true;
+    }
+
+    private int find(int key) {
+        int[] t = table;
+        for (int i = Slots.slot(key, shift); ; i = (i + 1) & mask) {
+            int k = t[i << 1];
+            if (k == key) {
+                return i;
+            }
+            if (k == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 删除 gap 处的元素：向后扫描到空槽为止，理想位置不在 (gap, j] 内的元素挪进空位，
+     * 保证每个元素与理想位置之间没有空槽
+     */
+    private void shiftDown(int gap) {
+        int[] t = table;
+        for (int j = (gap + 1) & mask; ; j = (j + 1) & mask) {
+            int k = t[j << 1];
+            if (k == 0) {
+                break;
+            }
+            if (((j - Slots.slot(k, shift)) & mask) >= ((j - gap) & mask)) {
+                t[gap << 1] = k;
+                t[(gap << 1) + 1] = t[(j << 1) + 1];
+                gap = j;
+            }
+        }
+        t[gap << 1] = 0;
+        t[(gap << 1) + 1] = 0;
+    }
+
+    private int emptySlot(int[] t, int key) {
+        int i = Slots.slot(key, shift);
+        while (t[i << 1] != 0) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void grow() {
+        int capacity = mask + 1;
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("容量已达上限: " + size());
+        }
+        int[] old = table;
+        allocate(capacity << 1);
+        int[] t = table;
+        for (int j = 0; j < old.length; j += 2) {
+            int k = old[j];
+            if (k != 0) {
+                int i = emptySlot(t, k);
+                t[i << 1] = k;
+                t[(i << 1) + 1] = old[j + 1];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    public void forEach(EntryConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        int[] t = table;
+        for (int j = 0; j < t.length; j += 2) {
+            if (t[j] != 0) {
+                action.accept(t[j], t[j + 1]);
+            }
+        }
+    }
+
+    /**
+     * 数组占用的字节数（不含对象头）
+     */
+    public long memoryBytes() {
+        return (long) table.length * Integer.BYTES;
+    }
+
+    public Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> map = new TreeMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
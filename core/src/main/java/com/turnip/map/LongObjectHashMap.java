@@ -0,0 +1,263 @@
+package com.turnip.map;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+/**
+ * long 键到对象的开放寻址哈希表，用来替代 HashMap<Long, V>
+ * 键放在 long[] 中不装箱，探测只扫描这一个数组，命中后才读 values；没有 Node 对象。
+ *
+ * 线性探测，负载因子 0.75，backward-shift 删除；键 0 用作空槽标记，真正的键 0 单独存放。
+ * 与 HashMap 一样允许 null 值，get 返回 null 时用 containsKey 区分。
+ * 非线程安全。
+ */
+public final class LongObjectHashMap<V> {
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int resizeAt;
+    // 不含键 0
+    private int size;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    public LongObjectHashMap(int expectedSize) {
+        allocate(Slots.capacityFor(expectedSize, MAX_CAPACITY));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Slots.shift64(capacity);
+        resizeAt = Slots.resizeThreshold(capacity, MAX_CAPACITY);
+    }
+
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return find(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        long[] k = keys;
+        for (int i = Slots.slot(key, shift); ; i = (i + 1) & mask) {
+            long current = k[i];
+            if (current == key) {
+                return (V) values[i];
+            }
+            if (current == 0) {
+                return null;
+            }
+        }
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int i = find(key);
+        return i >= 0 ? valueAt(i) : defaultValue;
+    }
+
+    /**
+     * @return 旧值，键不存在时返回 null
+     */
+    public V put(long key, V value) {
+        if (key == 0) {
+            V old = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return old;
+        }
+        long[] k = keys;
+        int i = Slots.slot(key, shift);
+        for (long current; (current = k[i]) != 0; i = (i + 1) & mask) {
+            if (current == key) {
+                V old = valueAt(i);
+                values[i] = value;
+                return old;
+            }
+        }
+        insert(i, key, value);
+        return null;
+    }
+
+    /**
+     * 与 Map.computeIfAbsent 相同：键不存在（或值为 null）时计算并放入，函数返回 null 时不放入
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = mappingFunction.apply(key);
+        if (value != null) {
+            // 函数里可能修改了本表，重新探测
+            put(key, value);
+        }
+        return value;
+    }
+
+    private void insert(int i, long key, V value) {
+        if (size >= resizeAt) {
+            grow();
+            i = emptySlot(keys, key);
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * @return 被删除的值，键不存在时返回 null
+     */
+    public V remove(long key) {
+        if (key == 0) {
+            V old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            return old;
+        }
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = valueAt(i);
+        shiftDown(i);
+        size--;
+        return old;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int i) {
+        return (V) values[i];
+    }
+
+    private int find(long key) {
+        long[] k = keys;
+        for (int i = Slots.slot(key, shift); ; i = (i + 1) & mask) {
+            long current = k[i];
+            if (current == key) {
+                return i;
+            }
+            if (current == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 删除 gap 处的元素：向后扫描到空槽为止，理想位置不在 (gap, j] 内的元素挪进空位
+     */
+    private void shiftDown(int gap) {
+        long[] k = keys;
+        Object[] v = values;
+        for (int j = (gap + 1) & mask; ; j = (j + 1) & mask) {
+            long current = k[j];
+            if (current == 0) {
+                break;
+            }
+            if (((j - Slots.slot(current, shift)) & mask) >= ((j - gap) & mask)) {
+                k[gap] = current;
+                v[gap] = v[j];
+                gap = j;
+            }
+        }
+        k[gap] = 0;
+        v[gap] = null;
+    }
+
+    private int emptySlot(long[] k, long key) {
+        int i = Slots.slot(key, shift);
+        while (k[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void grow() {
+        int capacity = mask + 1;
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("容量已达上限: " + size());
+        }
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity << 1);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long current = oldKeys[j];
+            if (current != 0) {
+                int i = emptySlot(keys, current);
+                keys[i] = current;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = null;
+    }
+
+    public void forEach(EntryConsumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * 数组占用的字节数（不含对象头和值对象本身），引用按压缩指针 4 字节计
+     */
+    public long memoryBytes() {
+        return (long) keys.length * (Long.BYTES + 4);
+    }
+
+    public Map<Long, V> toMap() {
+        Map<Long, V> map = new TreeMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,273 @@
+package com.turnip.map;
+
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 开放寻址表 vs HashMap：先与 HashMap 对拍增删查，再比较每个条目的内存和 put/get 吞吐
+ *
+ * 内存取构建前后（各 GC 几次）的堆占用差，包含装箱对象，不含预先创建好的值对象和字符串键。
+ * 参数：[条目数]，默认 1000000；1 亿条需要足够的堆，HashMap<Long, Long> 约 8 GB：
+ *   java -Xmx24g -cp core/target/classes com.turnip.map.OpenAddressingMapExample 100000000
+ */
+public class OpenAddressingMapExample {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        verify();
+
+        SplittableRandom random = new SplittableRandom(42);
+        long[] longKeys = random.longs(n).toArray();
+        int[] intKeys = random.ints(n).toArray();
+        String[] shared = new String[1024];
+        for (int i = 0; i < shared.length; i++) {
+            shared[i] = "value-" + i;
+        }
+        String[] stringKeys = new String[n];
+        for (int i = 0; i < n; i++) {
+            stringKeys[i] = "user:" + Long.toHexString(longKeys[i]);
+            stringKeys[i].hashCode();
+        }
+
+        // 查找顺序打乱：HashMap 的 Node 按插入顺序分配，按插入顺序查找会顺着内存走，掩盖指针跳转的代价
+        long[] longProbes = shuffled(longKeys, random);
+        int[] intProbes = random.ints(n, 0, n).map(i -> intKeys[i]).toArray();
+        String[] stringProbes = new String[n];
+        for (int i = 0; i < n; i++) {
+            stringProbes[i] = stringKeys[random.nextInt(n)];
+        }
+
+        System.out.printf("%n=== %d 个条目 ===%n", n);
+        System.out.printf("%-30s %12s %12s %12s%n", "", "字节/条目", "put Mops/s", "get Mops/s");
+
+        report("HashMap<Long, Long>", n, () -> {
+            Map<Long, Long> m = new HashMap<>();
+            for (long k : longKeys) {
+                m.put(k, k);
+            }
+            return m;
+        }, o -> {
+            @SuppressWarnings("unchecked") Map<Long, Long> m = (Map<Long, Long>) o;
+            long sum = 0;
+            for (long k : longProbes) {
+                sum += m.get(k);
+            }
+            return sum;
+        });
+        report("LongLongHashMap", n, () -> {
+            LongLongHashMap m = new LongLongHashMap();
+            for (long k : longKeys) {
+                m.put(k, k);
+            }
+            return m;
+        }, o -> {
+            LongLongHashMap m = (LongLongHashMap) o;
+            long sum = 0;
+            for (long k : longProbes) {
+                sum += m.get(k);
+            }
+            return sum;
+        });
+
+        report("HashMap<Integer, Integer>", n, () -> {
+            Map<Integer, Integer> m = new HashMap<>();
+            for (int k : intKeys) {
+                m.put(k, k);
+            }
+            return m;
+        }, o -> {
+            @SuppressWarnings("unchecked") Map<Integer, Integer> m = (Map<Integer, Integer>) o;
+            long sum = 0;
+            for (int k : intProbes) {
+                sum += m.get(k);
+            }
+            return sum;
+        });
+        report("IntIntHashMap", n, () -> {
+            IntIntHashMap m = new IntIntHashMap();
+            for (int k : intKeys) {
+                m.put(k, k);
+            }
+            return m;
+        }, o -> {
+            IntIntHashMap m = (IntIntHashMap) o;
+            long sum = 0;
+            for (int k : intProbes) {
+                sum += m.get(k);
+            }
+            return sum;
+        });
+
+        report("HashMap<Long, String>", n, () -> {
+            Map<Long, String> m = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                m.put(longKeys[i], shared[i & 1023]);
+            }
+            return m;
+        }, o -> {
+            @SuppressWarnings("unchecked") Map<Long, String> m = (Map<Long, String>) o;
+            long sum = 0;
+            for (long k : longProbes) {
+                sum += m.get(k).length();
+            }
+            return sum;
+        });
+        report("LongObjectHashMap<String>", n, () -> {
+            LongObjectHashMap<String> m = new LongObjectHashMap<>();
+            for (int i = 0; i < n; i++) {
+                m.put(longKeys[i], shared[i & 1023]);
+            }
+            return m;
+        }, o -> {
+            @SuppressWarnings("unchecked") LongObjectHashMap<String> m = (LongObjectHashMap<String>) o;
+            long sum = 0;
+            for (long k : longProbes) {
+                sum += m.get(k).length();
+            }
+            return sum;
+        });
+
+        report("HashMap<String, String>", n, () -> {
+            Map<String, String> m = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                m.put(stringKeys[i], shared[i & 1023]);
+            }
+            return m;
+        }, o -> {
+            @SuppressWarnings("unchecked") Map<String, String> m = (Map<String, String>) o;
+            long sum = 0;
+            for (String k : stringProbes) {
+                sum += m.get(k).length();
+            }
+            return sum;
+        });
+        report("CompactStringMap", n, () -> {
+            CompactStringMap m = new CompactStringMap();
+            for (int i = 0; i < n; i++) {
+                m.put(stringKeys[i], shared[i & 1023]);
+            }
+            return m;
+        }, o -> {
+            CompactStringMap m = (CompactStringMap) o;
+            long sum = 0;
+            for (String k : stringProbes) {
+                sum += m.get(k).length();
+            }
+            return sum;
+        });
+    }
+
+    private static long[] shuffled(long[] keys, SplittableRandom random) {
+        long[] result = keys.clone();
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long t = result[i];
+            result[i] = result[j];
+            result[j] = t;
+        }
+        return result;
+    }
+
+    /**
+     * 内存测一次，put/get 各跑 3 轮取最快的一轮
+     */
+    private static void report(String name, int n, Supplier<Object> build, ToLongFunction<Object> lookup) {
+        long before = usedHeap();
+        Object map = build.get();
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(map);
+        map = null;
+
+        long bestPut = Long.MAX_VALUE;
+        long bestGet = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            Object m = build.get();
+            long t1 = System.nanoTime();
+            checksum += lookup.applyAsLong(m);
+            long t2 = System.nanoTime();
+            bestPut = Math.min(bestPut, t1 - t0);
+            bestGet = Math.min(bestGet, t2 - t1);
+        }
+        System.out.printf("%-30s %12.1f %12.1f %12.1f   (校验和 %d)%n", name, (double) bytes / n,
+                n * 1e3 / bestPut, n * 1e3 / bestGet, checksum);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 小键空间上随机增删查，和 HashMap 逐步对拍；键集中在少数槽位附近，频繁触发冲突、扩容和 backward-shift
+     */
+    private static void verify() {
+        SplittableRandom random = new SplittableRandom(7);
+        LongLongHashMap longLong = new LongLongHashMap();
+        IntIntHashMap intInt = new IntIntHashMap();
+        LongObjectHashMap<String> longObject = new LongObjectHashMap<>();
+        IntObjectHashMap<String> intObject = new IntObjectHashMap<>();
+        CompactStringMap strings = new CompactStringMap();
+        Map<Long, Long> expectedLong = new HashMap<>();
+        Map<Integer, Integer> expectedInt = new HashMap<>();
+        Map<Long, String> expectedLongObject = new HashMap<>();
+        Map<Integer, String> expectedIntObject = new HashMap<>();
+        Map<String, String> expectedStrings = new HashMap<>();
+        int mismatches = 0;
+
+        for (int step = 0; step < 2_000_000; step++) {
+            int k = random.nextInt(-200, 2000);
+            long lk = random.nextBoolean() ? k : (long) k << 40;
+            String sk = k == 7 ? null : "k" + k;
+            String v = random.nextInt(20) == 0 ? null : "v" + step;
+            switch (random.nextInt(5)) {
+                case 0, 1 -> {
+                    longLong.put(lk, step);
+                    expectedLong.put(lk, (long) step);
+                    intInt.addTo(k, 3);
+                    expectedInt.merge(k, 3, Integer::sum);
+                    mismatches += eq(longObject.put(lk, v), expectedLongObject.put(lk, v));
+                    mismatches += eq(intObject.put(k, v), expectedIntObject.put(k, v));
+                    mismatches += eq(strings.put(sk, v), expectedStrings.put(sk, v));
+                }
+                case 2 -> {
+                    mismatches += longLong.remove(lk) == (expectedLong.remove(lk) != null) ? 0 : 1;
+                    mismatches += intInt.remove(k) == (expectedInt.remove(k) != null) ? 0 : 1;
+                    mismatches += eq(longObject.remove(lk), expectedLongObject.remove(lk));
+                    mismatches += eq(intObject.remove(k), expectedIntObject.remove(k));
+                    mismatches += eq(strings.remove(sk), expectedStrings.remove(sk));
+                }
+                default -> {
+                    mismatches += longLong.getOrDefault(lk, -1) == expectedLong.getOrDefault(lk, -1L) ? 0 : 1;
+                    mismatches += intInt.get(k) == expectedInt.getOrDefault(k, 0) ? 0 : 1;
+                    mismatches += eq(longObject.get(lk), expectedLongObject.get(lk));
+                    mismatches += eq(intObject.get(k), expectedIntObject.get(k));
+                    mismatches += eq(strings.get(sk), expectedStrings.get(sk));
+                    mismatches += strings.containsKey(sk) == expectedStrings.containsKey(sk) ? 0 : 1;
+                    mismatches += longObject.containsKey(lk) == expectedLongObject.containsKey(lk) ? 0 : 1;
+                }
+            }
+        }
+        mismatches += longLong.toMap().equals(expectedLong) ? 0 : 1;
+        mismatches += intInt.toMap().equals(expectedInt) ? 0 : 1;
+        mismatches += longObject.toMap().equals(expectedLongObject) ? 0 : 1;
+        mismatches += intObject.toMap().equals(expectedIntObject) ? 0 : 1;
+        mismatches += strings.toMap().equals(expectedStrings) ? 0 : 1;
+        mismatches += strings.size() == expectedStrings.size() && longLong.size() == expectedLong.size() ? 0 : 1;
+        System.out.println("=== 与 HashMap 对拍 2000000 步 ===");
+        System.out.println("不一致: " + mismatches + "，CompactStringMap 含 null 键: " + strings.containsKey(null)
+                + "，条目数 " + strings.size());
+    }
+
+    private static int eq(Object a, Object b) {
+        return a == null ? (b == null ? 0 : 1) : (a.equals(b) ? 0 : 1);
+    }
+}
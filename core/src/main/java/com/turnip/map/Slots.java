@@ -0,0 +1,56 @@
+package com.turnip.map;
+
+/**
+ * 开放寻址表共用的容量计算和槽位哈希
+ * 槽位取 Fibonacci 哈希的高位：乘以 2^64/φ 后高位由键的所有位共同决定，
+ * 连续的键被均匀打散，只有高位不同的键也不会挤在同一段。
+ */
+final class Slots {
+
+    static final int MIN_CAPACITY = 8;
+    private static final long GOLDEN_64 = 0x9E3779B97F4A7C15L;
+    private static final int GOLDEN_32 = 0x9E3779B9;
+
+    private Slots() {
+    }
+
+    /**
+     * 负载因子 0.75 下容纳 expectedSize 个元素的最小 2 的幂容量
+     */
+    static int capacityFor(int expectedSize, int maxCapacity) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize不能为负数: " + expectedSize);
+        }
+        long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / 0.75));
+        if (needed > maxCapacity) {
+            throw new IllegalArgumentException("元素过多: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /**
+     * 达到该元素个数时扩容；已是最大容量时允许填到只剩一个空槽（探测靠空槽终止）
+     */
+    static int resizeThreshold(int capacity, int maxCapacity) {
+        return capacity == maxCapacity ? capacity - 1 : (int) ((long) capacity * 3 / 4);
+    }
+
+    /**
+     * 64 位键的移位量，槽位为乘积的高 log2(capacity) 位
+     */
+    static int shift64(int capacity) {
+        return 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    static int shift32(int capacity) {
+        return 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    static int slot(long key, int shift) {
+        return (int) ((key * GOLDEN_64) >>> shift);
+    }
+
+    static int slot32(int hash, int shift) {
+        return (hash * GOLDEN_32) >>> shift;
+    }
+}
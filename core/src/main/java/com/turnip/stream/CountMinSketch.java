@@ -0,0 +1,162 @@
+package com.turnip.stream;
+
+import java.util.stream.Collector;
+
+/**
+ * Count-Min 频率估计
+ *
+ * depth 行、每行 width 个计数器，每个元素在每行各命中一个计数器，估计值取各行的最小值。
+ * 估计值不会低于真实频率；以概率 1 - delta 满足：估计值 <= 真实值 + epsilon * 总次数，
+ * 其中 width = ceil(e / epsilon)，depth = ceil(ln(1 / delta))。
+ * 各行的下标由同一个 64 位哈希的高低两半线性组合得到（Kirsch-Mitzenmacher），每个元素只算一次哈希。
+ * 相同尺寸的草图逐个计数器相加即可合并。
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] table;
+    private long total;
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width和depth必须大于0: " + width + " x " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.table = new long[Math.multiplyExact(width, depth)];
+    }
+
+    /**
+     * @param epsilon 误差占总次数的比例
+     * @param delta   超出误差上界的概率
+     */
+    public static CountMinSketch withError(double epsilon, double delta) {
+        if (epsilon <= 0 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("epsilon必须大于0，delta必须在(0, 1)之间: " + epsilon + ", " + delta);
+        }
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = (int) Math.ceil(Math.log(1 / delta));
+        return new CountMinSketch(width, depth);
+    }
+
+    public void add(long item) {
+        addHash(Hashing.hash(item), 1);
+    }
+
+    public void add(long item, long count) {
+        addHash(Hashing.hash(item), count);
+    }
+
+    public void add(CharSequence item) {
+        addHash(Hashing.hash(item), 1);
+    }
+
+    public void add(Object item) {
+        addHash(Hashing.hash(item), 1);
+    }
+
+    public void add(Object item, long count) {
+        addHash(Hashing.hash(item), count);
+    }
+
+    void addHash(long hash, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count不能为负数: " + count);
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            table[row * width + column(h1, h2, row)] += count;
+        }
+        total += count;
+    }
+
+    private int column(int h1, int h2, int row) {
+        int combined = h1 + row * h2;
+        return (combined & Integer.MAX_VALUE) % width;
+    }
+
+    public long estimate(long item) {
+        return estimateHash(Hashing.hash(item));
+    }
+
+    public long estimate(CharSequence item) {
+        return estimateHash(Hashing.hash(item));
+    }
+
+    public long estimate(Object item) {
+        return estimateHash(Hashing.hash(item));
+    }
+
+    long estimateHash(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row * width + column(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("尺寸不同无法合并: " + width + "x" + depth
+                    + " vs " + other.width + "x" + other.depth);
+        }
+        for (int i = 0; i < table.length; i++) {
+            table[i] += other.table[i];
+        }
+        total += other.total;
+        return this;
+    }
+
+    public long totalCount() {
+        return total;
+    }
+
+    public double epsilon() {
+        return Math.E / width;
+    }
+
+    public double delta() {
+        return Math.exp(-depth);
+    }
+
+    /**
+     * 以概率 1 - delta 成立的绝对误差上界
+     */
+    public long errorBound() {
+        return (long) Math.ceil(epsilon() * total);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long memoryBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "CountMinSketch[" + width + "x" + depth + ", total=" + total + "]";
+    }
+
+    public static <T> Collector<T, ?, CountMinSketch> collector(double epsilon, double delta) {
+        return Collector.of(() -> withError(epsilon, delta), CountMinSketch::add, CountMinSketch::merge,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public static IntCollector<CountMinSketch, CountMinSketch> intCollector(double epsilon, double delta) {
+        return IntCollector.of(() -> withError(epsilon, delta), CountMinSketch::add, CountMinSketch::merge, s -> s);
+    }
+
+    public static LongCollector<CountMinSketch, CountMinSketch> longCollector(double epsilon, double delta) {
+        return LongCollector.of(() -> withError(epsilon, delta), CountMinSketch::add, CountMinSketch::merge, s -> s);
+    }
+}
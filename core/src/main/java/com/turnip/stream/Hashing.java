@@ -0,0 +1,48 @@
+package com.turnip.stream;
+
+/**
+ * 概率数据结构共用的 64 位哈希
+ * 所有草图使用同一套哈希，同一个元素在不同草图、不同分片里得到相同的哈希值，合并才有意义。
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * SplitMix64 / MurmurHash3 的 64 位终结混合，输入相近的值输出充分打散
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    static long hash(long value) {
+        return mix64(value + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * 直接对字符计算 64 位哈希，不使用 String.hashCode（只有 32 位，基数上亿时碰撞明显）
+     */
+    static long hash(CharSequence s) {
+        long h = 0x9E3779B97F4A7C15L ^ s.length();
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return mix64(h);
+    }
+
+    /**
+     * 数字和字符串按值哈希，其他对象基于 hashCode（只有 32 位熵）
+     */
+    static long hash(Object o) {
+        if (o instanceof CharSequence s) {
+            return hash(s);
+        }
+        if (o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
+            return hash(((Number) o).longValue());
+        }
+        return hash(o == null ? 0 : o.hashCode());
+    }
+}
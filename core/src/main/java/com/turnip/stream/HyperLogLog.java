@@ -0,0 +1,149 @@
+package com.turnip.stream;
+
+import java.util.Arrays;
+import java.util.stream.Collector;
+
+/**
+ * HyperLogLog 基数估计
+ *
+ * 2^p 个 6 位寄存器（这里每个寄存器占一个字节），内存固定为 2^p 字节，与元素个数无关；
+ * 相对标准误差约为 1.04 / sqrt(2^p)，例如 p = 14 时 16 KB、约 0.81%。
+ * 两个精度相同的草图按寄存器取最大值合并，结果与把两份数据放进同一个草图完全相同，
+ * 因此并行流各分片分别统计后合并不损失精度。
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision必须在" + MIN_PRECISION + "到" + MAX_PRECISION + "之间: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * 按目标相对标准误差选择精度
+     */
+    public static HyperLogLog withError(double relativeStandardError) {
+        return new HyperLogLog(precisionFor(relativeStandardError));
+    }
+
+    static int precisionFor(double relativeStandardError) {
+        if (relativeStandardError <= 0 || relativeStandardError >= 1) {
+            throw new IllegalArgumentException("误差必须在(0, 1)之间: " + relativeStandardError);
+        }
+        double m = Math.pow(1.04 / relativeStandardError, 2);
+        int p = (int) Math.ceil(Math.log(m) / Math.log(2));
+        return Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, p));
+    }
+
+    public void add(long value) {
+        addHash(Hashing.hash(value));
+    }
+
+    public void add(CharSequence value) {
+        addHash(Hashing.hash(value));
+    }
+
+    public void add(Object value) {
+        addHash(Hashing.hash(value));
+    }
+
+    /**
+     * 高 p 位选寄存器，其余位中第一个 1 的位置作为秩
+     */
+    void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // 补一个哨兵位，保证秩不超过 64 - p + 1
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) {
+                zeros++;
+            }
+        }
+        double alpha = switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // 小基数时用线性计数修正
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 把 other 并入本草图，精度必须相同
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("精度不同无法合并: " + precision + " vs " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public int memoryBytes() {
+        return registers.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HyperLogLog other && Arrays.equals(registers, other.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(registers);
+    }
+
+    @Override
+    public String toString() {
+        return "HyperLogLog[p=" + precision + ", estimate=" + estimate() + "]";
+    }
+
+    public static <T> Collector<T, ?, HyperLogLog> collector(int precision) {
+        return Collector.of(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public static IntCollector<HyperLogLog, HyperLogLog> intCollector(int precision) {
+        return IntCollector.of(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge, h -> h);
+    }
+
+    public static LongCollector<HyperLogLog, HyperLogLog> longCollector(int precision) {
+        return LongCollector.of(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge, h -> h);
+    }
+}
@@ -0,0 +1,76 @@
+package com.turnip.stream;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * IntStream 的常用收集器，对应 Collectors 中的 toList/partitioningBy/groupingBy/counting/summing，
+ * 结果存放在 IntList 和开放寻址表中，每个元素不再产生 Integer 对象。
+ * 并行流中每个分片有自己的容器，最后按分片顺序整块合并，结果顺序与顺序流一致。
+ *
+ * 用法：{@code IntCollectors.partitioningBy(n -> n % 2 == 0).collect(IntStream.of(1, 2, 3))}
+ */
+public final class IntCollectors {
+
+    private IntCollectors() {
+    }
+
+    public static IntCollector<IntList, IntList> toList() {
+        return IntCollector.of(IntList::new, IntList::add, IntList::addAll, Function.identity());
+    }
+
+    /**
+     * 按条件分成两组，结果的 false/true 两个键总是存在
+     */
+    public static IntCollector<IntList[], Map<Boolean, IntList>> partitioningBy(IntPredicate predicate) {
+        return IntCollector.of(
+                () -> new IntList[]{new IntList(), new IntList()},
+                (parts, value) -> parts[predicate.test(value) ? 1 : 0].add(value),
+                (left, right) -> {
+                    left[0].addAll(right[0]);
+                    left[1].addAll(right[1]);
+                },
+                parts -> {
+                    Map<Boolean, IntList> map = new TreeMap<>();
+                    map.put(false, parts[0]);
+                    map.put(true, parts[1]);
+                    return map;
+                });
+    }
+
+    /**
+     * 按 int 键分组，每组保持元素的出现顺序
+     */
+    public static IntCollector<IntGroups<IntList>, IntGroups<IntList>> groupingBy(IntUnaryOperator classifier) {
+        return IntCollector.of(
+                IntGroups::new,
+                (groups, value) -> groups.computeIfAbsent(classifier.applyAsInt(value), IntList::new).add(value),
+                (left, right) -> left.mergeFrom(right, IntList::new, IntList::addAll),
+                Function.identity());
+    }
+
+    /**
+     * 按 int 键计数
+     */
+    public static IntCollector<IntLongTable, IntLongTable> countingBy(IntUnaryOperator classifier) {
+        return IntCollector.of(
+                IntLongTable::new,
+                (table, value) -> table.add(classifier.applyAsInt(value), 1),
+                IntLongTable::mergeFrom,
+                Function.identity());
+    }
+
+    /**
+     * 按 int 键对元素求和，用 long 累加避免溢出
+     */
+    public static IntCollector<IntLongTable, IntLongTable> summingBy(IntUnaryOperator classifier) {
+        return IntCollector.of(
+                IntLongTable::new,
+                (table, value) -> table.add(classifier.applyAsInt(value), value),
+                IntLongTable::mergeFrom,
+                Function.identity());
+    }
+}
@@ -0,0 +1,140 @@
+package com.turnip.stream;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * int 键到分组容器（IntList/LongList 等）的开放寻址表，查找时不装箱键
+ * 线性探测，负载因子 0.5；只支持插入，不支持删除，满足分组收集的需要。
+ */
+public final class IntGroups<V> {
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public IntGroups() {
+        this(16);
+    }
+
+    public IntGroups(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key, Supplier<? extends V> factory) {
+        int i = slot(key, mask);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        V value = factory.get();
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return value;
+    }
+
+    /**
+     * 把 other 的分组并入本表，键相同时 merger 把第二个容器的内容追加到第一个
+     */
+    @SuppressWarnings("unchecked")
+    public void mergeFrom(IntGroups<V> other, Supplier<? extends V> factory, BiConsumer<? super V, ? super V> merger) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.values[i] != null) {
+                V target = computeIfAbsent(other.keys[i], factory);
+                merger.accept(target, (V) other.values[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 所有键，升序
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                result[n++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * 转成按键排序的 Map，便于打印和与装箱版本的结果对比
+     */
+    public Map<Integer, V> toMap() {
+        Map<Integer, V> map = new TreeMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length << 1];
+        values = new Object[oldValues.length << 1];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j], mask);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
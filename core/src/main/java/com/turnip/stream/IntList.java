@@ -0,0 +1,122 @@
+package com.turnip.stream;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * 可增长的 int 列表，替代 List<Integer>：元素直接存放在 int[] 中，没有装箱对象
+ * 扩容按 1.5 倍增长，与 ArrayList 相同。
+ */
+public final class IntList {
+
+    private static final int[] EMPTY = new int[0];
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        elements = EMPTY;
+    }
+
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity不能为负数: " + initialCapacity);
+        }
+        elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * 整块拷贝追加，并行收集时合并两个分片的结果用
+     */
+    public void addAll(IntList other) {
+        int n = other.size;
+        if (n == 0) {
+            return;
+        }
+        if (size + n > elements.length) {
+            grow(size + n);
+        }
+        System.arraycopy(other.elements, 0, elements, size, n);
+        size += n;
+    }
+
+    public int get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    public void set(int index, int value) {
+        Objects.checkIndex(index, size);
+        elements[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, Math.max(DEFAULT_CAPACITY, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntList other)) {
+            return false;
+        }
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) {
+            h = 31 * h + elements[i];
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
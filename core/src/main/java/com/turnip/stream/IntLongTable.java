@@ -0,0 +1,139 @@
+package com.turnip.stream;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * int 键到 long 累加值的开放寻址表，用于按键计数和求和，全程不装箱
+ * 线性探测，负载因子 0.5；used 数组标记槽位是否占用，因此键可以是任意 int（包括 0）。
+ */
+public final class IntLongTable {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, long value);
+    }
+
+    private int[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    public IntLongTable() {
+        this(16);
+    }
+
+    public IntLongTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * 键不存在时视为 0
+     */
+    public void add(int key, long delta) {
+        int i = IntGroups.slot(key, mask);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] += delta;
+                return;
+            }
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = delta;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    public long get(int key) {
+        for (int i = IntGroups.slot(key, mask); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return 0;
+    }
+
+    public boolean containsKey(int key) {
+        for (int i = IntGroups.slot(key, mask); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void mergeFrom(IntLongTable other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.used[i]) {
+                add(other.keys[i], other.values[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 所有键，升序
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    public void forEach(EntryConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public Map<Integer, Long> toMap() {
+        Map<Integer, Long> map = new TreeMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[oldKeys.length << 1];
+        values = new long[oldValues.length << 1];
+        used = new boolean[oldUsed.length << 1];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldUsed[j]) {
+                int i = IntGroups.slot(oldKeys[j], mask);
+                while (used[i]) {
+                    i = (i + 1) & mask;
+                }
+                used[i] = true;
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
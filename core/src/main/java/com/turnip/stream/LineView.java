@@ -0,0 +1,160 @@
+package com.turnip.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * 映射文件中一行的视图：只记录所在缓冲区、偏移和长度，不拷贝字节，也不解码
+ *
+ * {@link MappedLineSpliterator} 对同一个分片复用同一个 LineView 对象，所以它只在回调期间有效；
+ * 需要保留到回调之外时调用 {@link #copy()}，需要文本时调用 {@link #toString()}。
+ * 行内容不包含行尾的 "\n" 或 "\r\n"。
+ */
+public final class LineView {
+
+    private final Charset charset;
+    private ByteBuffer buffer;
+    private int position;
+    private int length;
+    private long offset;
+
+    LineView(Charset charset) {
+        this.charset = charset;
+    }
+
+    Charset charset() {
+        return charset;
+    }
+
+    void set(ByteBuffer buffer, int position, int length, long offset) {
+        this.buffer = buffer;
+        this.position = position;
+        this.length = length;
+        this.offset = offset;
+    }
+
+    /**
+     * 行首在文件中的字节偏移
+     */
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * 行的字节数
+     */
+    public int length() {
+        return length;
+    }
+
+    public byte byteAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return buffer.get(position + index);
+    }
+
+    /**
+     * @return b 在 [from, length) 中第一次出现的位置，不存在时返回 -1
+     */
+    public int indexOf(byte b, int from) {
+        for (int i = position + Math.max(from, 0), end = position + length; i < end; i++) {
+            if (buffer.get(i) == b) {
+                return i - position;
+            }
+        }
+        return -1;
+    }
+
+    public boolean startsWith(byte[] prefix) {
+        return regionMatches(0, prefix);
+    }
+
+    public boolean contains(byte[] needle) {
+        for (int i = 0, last = length - needle.length; i <= last; i++) {
+            if (regionMatches(i, needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 从 from 开始的字节是否与 bytes 相同
+     */
+    public boolean regionMatches(int from, byte[] bytes) {
+        if (from < 0 || from + bytes.length > length) {
+            return false;
+        }
+        int base = position + from;
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(base + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 把 [from, to) 中的 ASCII 十进制数字解析为 long，可以带前导 '-'
+     */
+    public long parseLong(int from, int to) {
+        if (from < 0 || to > length || from >= to) {
+            throw new NumberFormatException("区间[" + from + ", " + to + ")无效，行长度: " + length);
+        }
+        int i = position + from;
+        int end = position + to;
+        boolean negative = buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("非数字字符，偏移: " + (offset + i - position));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 只解码 [from, to) 这一段
+     */
+    public String substring(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("[" + from + ", " + to + "), length: " + length);
+        }
+        return decode(position + from, to - from);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return bytes;
+    }
+
+    /**
+     * 返回一个不会被后续行覆盖的独立视图，仍然共享映射的内存
+     */
+    public LineView copy() {
+        LineView view = new LineView(charset);
+        view.set(buffer, position, length, offset);
+        return view;
+    }
+
+    /**
+     * 解码整行
+     */
+    @Override
+    public String toString() {
+        return decode(position, length);
+    }
+
+    private String decode(int from, int n) {
+        byte[] bytes = new byte[n];
+        buffer.get(from, bytes);
+        return new String(bytes, charset);
+    }
+}
@@ -0,0 +1,57 @@
+package com.turnip.stream;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+/**
+ * LongStream 版本的 Collector：LongStream.collect 只接受 supplier/accumulator/combiner 三个函数，
+ * 这里把它们和 finisher 打包在一起，元素以 long 形式进入容器，不会装箱
+ *
+ * @param <A> 可变的中间容器
+ * @param <R> 结果类型
+ */
+public interface LongCollector<A, R> {
+
+    Supplier<A> supplier();
+
+    ObjLongConsumer<A> accumulator();
+
+    /**
+     * 并行流中把右侧分片的容器并入左侧
+     */
+    BiConsumer<A, A> combiner();
+
+    Function<A, R> finisher();
+
+    default R collect(LongStream stream) {
+        return finisher().apply(stream.collect(supplier(), accumulator(), combiner()));
+    }
+
+    static <A, R> LongCollector<A, R> of(Supplier<A> supplier, ObjLongConsumer<A> accumulator,
+                                        BiConsumer<A, A> combiner, Function<A, R> finisher) {
+        return new LongCollector<>() {
+            @Override
+            public Supplier<A> supplier() {
+                return supplier;
+            }
+
+            @Override
+            public ObjLongConsumer<A> accumulator() {
+                return accumulator;
+            }
+
+            @Override
+            public BiConsumer<A, A> combiner() {
+                return combiner;
+            }
+
+            @Override
+            public Function<A, R> finisher() {
+                return finisher;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.turnip.stream;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+
+/**
+ * LongStream 的常用收集器，对应 Collectors 中的 toList/partitioningBy/groupingBy/counting/summing，
+ * 结果存放在 LongList 和开放寻址表中，每个元素不再产生 Long 对象。
+ * 并行流中每个分片有自己的容器，最后按分片顺序整块合并，结果顺序与顺序流一致。
+ *
+ * 用法：{@code LongCollectors.partitioningBy(n -> n % 2 == 0).collect(LongStream.of(1, 2, 3))}
+ */
+public final class LongCollectors {
+
+    private LongCollectors() {
+    }
+
+    public static LongCollector<LongList, LongList> toList() {
+        return LongCollector.of(LongList::new, LongList::add, LongList::addAll, Function.identity());
+    }
+
+    /**
+     * 按条件分成两组，结果的 false/true 两个键总是存在
+     */
+    public static LongCollector<LongList[], Map<Boolean, LongList>> partitioningBy(LongPredicate predicate) {
+        return LongCollector.of(
+                () -> new LongList[]{new LongList(), new LongList()},
+                (parts, value) -> parts[predicate.test(value) ? 1 : 0].add(value),
+                (left, right) -> {
+                    left[0].addAll(right[0]);
+                    left[1].addAll(right[1]);
+                },
+                parts -> {
+                    Map<Boolean, LongList> map = new TreeMap<>();
+                    map.put(false, parts[0]);
+                    map.put(true, parts[1]);
+                    return map;
+                });
+    }
+
+    /**
+     * 按 int 键分组，每组保持元素的出现顺序
+     */
+    public static LongCollector<IntGroups<LongList>, IntGroups<LongList>> groupingBy(LongToIntFunction classifier) {
+        return LongCollector.of(
+                IntGroups::new,
+                (groups, value) -> groups.computeIfAbsent(classifier.applyAsInt(value), LongList::new).add(value),
+                (left, right) -> left.mergeFrom(right, LongList::new, LongList::addAll),
+                Function.identity());
+    }
+
+    /**
+     * 按 int 键计数
+     */
+    public static LongCollector<IntLongTable, IntLongTable> countingBy(LongToIntFunction classifier) {
+        return LongCollector.of(
+                IntLongTable::new,
+                (table, value) -> table.add(classifier.applyAsInt(value), 1),
+                IntLongTable::mergeFrom,
+                Function.identity());
+    }
+
+    /**
+     * 按 int 键对元素求和
+     */
+    public static LongCollector<IntLongTable, IntLongTable> summingBy(LongToIntFunction classifier) {
+        return LongCollector.of(
+                IntLongTable::new,
+                (table, value) -> table.add(classifier.applyAsInt(value), value),
+                IntLongTable::mergeFrom,
+                Function.identity());
+    }
+}
@@ -0,0 +1,156 @@
+package com.turnip.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 按行遍历映射文件的 Spliterator
+ *
+ * 文件被 {@link MappedLines} 切成若干个映射区域，区域边界都在换行符之后，所以一行不会跨区域。
+ * 拆分时先按区域对半分；只剩一个区域时按字节偏移对半分，再把切点推进到下一个换行符之后。
+ * 每个分片复用一个 {@link LineView}，遍历过程中不为每一行分配对象。
+ */
+public final class MappedLineSpliterator implements Spliterator<LineView> {
+
+    // 小于该字节数的范围不再拆分
+    private static final int MIN_SPLIT = 64 * 1024;
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private final ByteBuffer[] regions;
+    private final long[] regionOffsets;
+    private final LineView view;
+    // 当前位置 (region, pos)，结束位置 (lastRegion, lastLimit)
+    private int region;
+    private int pos;
+    private final int lastRegion;
+    private final int lastLimit;
+
+    MappedLineSpliterator(ByteBuffer[] regions, long[] regionOffsets, Charset charset,
+                          int region, int pos, int lastRegion, int lastLimit) {
+        this.regions = regions;
+        this.regionOffsets = regionOffsets;
+        this.view = new LineView(charset);
+        this.region = region;
+        this.pos = pos;
+        this.lastRegion = lastRegion;
+        this.lastLimit = lastLimit;
+    }
+
+    private int limitOf(int r) {
+        return r == lastRegion ? lastLimit : regions[r].limit();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super LineView> action) {
+        while (region <= lastRegion) {
+            ByteBuffer buf = regions[region];
+            int limit = limitOf(region);
+            if (pos < limit) {
+                pos = emit(buf, pos, limit, action);
+                return true;
+            }
+            region++;
+            pos = 0;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super LineView> action) {
+        for (; region <= lastRegion; region++, pos = 0) {
+            ByteBuffer buf = regions[region];
+            int limit = limitOf(region);
+            int p = pos;
+            while (p < limit) {
+                p = emit(buf, p, limit, action);
+            }
+            pos = p;
+        }
+    }
+
+    /**
+     * 把从 start 开始的一行交给 action，返回下一行的起点
+     */
+    private int emit(ByteBuffer buf, int start, int limit, Consumer<? super LineView> action) {
+        int nl = indexOfNewline(buf, start, limit);
+        int end = nl < 0 ? limit : nl;
+        int length = end - start;
+        if (length > 0 && buf.get(end - 1) == '\r') {
+            length--;
+        }
+        view.set(buf, start, length, regionOffsets[region] + start);
+        action.accept(view);
+        return nl < 0 ? limit : nl + 1;
+    }
+
+    /**
+     * 每次比较 8 个字节（SWAR）：与 0x0A 异或后为零的字节即换行符，用减一借位的技巧找出最低的零字节
+     * 缓冲区为小端序，所以最低位对应最前面的字节。
+     */
+    static int indexOfNewline(ByteBuffer buf, int from, int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long x = buf.getLong(i) ^ NEWLINES;
+            long found = (x - ONES) & ~x & HIGHS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (buf.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public Spliterator<LineView> trySplit() {
+        if (region < lastRegion) {
+            // 跨多个区域：前一半区域交给新分片
+            int mid = (region + lastRegion + 1) >>> 1;
+            MappedLineSpliterator prefix = new MappedLineSpliterator(regions, regionOffsets, view.charset(),
+                    region, pos, mid - 1, regions[mid - 1].limit());
+            region = mid;
+            pos = 0;
+            return prefix;
+        }
+        int remaining = lastLimit - pos;
+        if (region > lastRegion || remaining < MIN_SPLIT * 2) {
+            return null;
+        }
+        ByteBuffer buf = regions[region];
+        int nl = indexOfNewline(buf, pos + remaining / 2, lastLimit);
+        if (nl < 0 || nl + 1 >= lastLimit) {
+            return null;
+        }
+        MappedLineSpliterator prefix = new MappedLineSpliterator(regions, regionOffsets, view.charset(),
+                region, pos, region, nl + 1);
+        pos = nl + 1;
+        return prefix;
+    }
+
+    /**
+     * 剩余字节数，作为行数的上界
+     */
+    @Override
+    public long estimateSize() {
+        if (region > lastRegion) {
+            return 0;
+        }
+        long bytes = 0;
+        for (int r = region; r <= lastRegion; r++) {
+            bytes += limitOf(r);
+        }
+        return bytes - pos;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
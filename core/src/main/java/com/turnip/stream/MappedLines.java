@@ -0,0 +1,118 @@
+package com.turnip.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 把大文本文件映射到内存并按行生成 Stream，用于替代 Files.lines
+ *
+ * Files.lines 在并行流中只能按已读出的行拆分，大文件几乎是单线程读；这里整个文件先按约 1 GB 一段映射
+ * （单个 MappedByteBuffer 不能超过 2 GB），每段的结尾推进到换行符之后，
+ * 并行流可以直接按字节偏移拆分到所有核心上。
+ *
+ * 映射在关闭后仍由 GC 回收，close() 只关闭文件通道。
+ */
+public class MappedLines implements AutoCloseable {
+
+    static final int DEFAULT_REGION_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final ByteBuffer[] regions;
+    private final long[] regionOffsets;
+    private final long size;
+
+    public MappedLines(Path file) throws IOException {
+        this(file, StandardCharsets.UTF_8, DEFAULT_REGION_SIZE);
+    }
+
+    public MappedLines(Path file, Charset charset) throws IOException {
+        this(file, charset, DEFAULT_REGION_SIZE);
+    }
+
+    MappedLines(Path file, Charset charset, int regionSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.charset = charset;
+        try {
+            this.size = channel.size();
+            List<ByteBuffer> buffers = new ArrayList<>();
+            List<Long> offsets = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long end = Math.min(start + regionSize, size);
+                if (end < size) {
+                    end = nextLineStart(end);
+                }
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("偏移" + start + "处的行超过2GB，无法映射");
+                }
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buffers.add(region);
+                offsets.add(start);
+                start = end;
+            }
+            this.regions = buffers.toArray(new ByteBuffer[0]);
+            this.regionOffsets = offsets.stream().mapToLong(Long::longValue).toArray();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 从 position 开始找到第一个换行符，返回它后面的位置；没有换行符时返回文件末尾
+     */
+    private long nextLineStart(long position) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        while (position < size) {
+            buf.clear();
+            int n = channel.read(buf, position);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 覆盖整个文件的 Spliterator
+     */
+    public MappedLineSpliterator spliterator() {
+        int last = regions.length - 1;
+        return new MappedLineSpliterator(regions, regionOffsets, charset, 0, 0, last,
+                last < 0 ? 0 : regions[last].limit());
+    }
+
+    /**
+     * 顺序流；并行时调用 .parallel()。流中的 LineView 会被复用，只在当前操作内有效
+     */
+    public Stream<LineView> lines() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,101 @@
+package com.turnip.stream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 在生成的日志文件上做并行聚合：统计 ERROR 行数、按服务汇总延迟
+ * MappedLines 逐行只做字节比较和数字解析，不创建 String；对照组是 Files.lines + String 操作。
+ * 参数：[文件大小 MB]，默认 256。
+ */
+public class MappedLinesExample {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final byte[] ERROR = "ERROR".getBytes(StandardCharsets.US_ASCII);
+    private static final String[] LEVELS = {"INFO ", "INFO ", "INFO ", "WARN ", "ERROR", "DEBUG"};
+    // 行格式：2024-05-01T12:00:00.123 LEVEL svc-NN latency=N message
+    private static final int LEVEL_AT = 24;
+    private static final int SERVICE_AT = 34;
+    private static final int LATENCY_AT = 45;
+
+    public static void main(String[] args) throws IOException {
+        long megabytes = args.length > 0 ? Long.parseLong(args[0]) : 256;
+        Path file = Files.createTempFile("mapped-lines", ".log");
+        try {
+            generate(file, megabytes * 1024 * 1024);
+            System.out.printf("文件大小: %,d B，并行度: %d%n", Files.size(file), Runtime.getRuntime().availableProcessors());
+            try (MappedLines mapped = new MappedLines(file)) {
+                System.out.println("\n=== ERROR 行数 ===");
+                measure("MappedLines 顺序", () -> mapped.lines().filter(v -> v.regionMatches(LEVEL_AT, ERROR)).count());
+                measure("MappedLines 并行", () -> mapped.lines().parallel().filter(v -> v.regionMatches(LEVEL_AT, ERROR)).count());
+                measure("Files.lines 顺序", () -> filesLines(file).filter(s -> s.startsWith("ERROR", LEVEL_AT)).count());
+                measure("Files.lines 并行", () -> filesLines(file).parallel().filter(s -> s.startsWith("ERROR", LEVEL_AT)).count());
+
+                System.out.println("\n=== 按服务汇总延迟 ===");
+                measure("MappedLines 并行", () -> mapped.lines().parallel().collect(IntLongTable::new,
+                        (t, v) -> t.add((int) v.parseLong(SERVICE_AT, SERVICE_AT + 2),
+                                v.parseLong(LATENCY_AT, v.indexOf((byte) ' ', LATENCY_AT))),
+                        IntLongTable::mergeFrom));
+                measure("Files.lines 并行", () -> filesLines(file).parallel().collect(IntLongTable::new,
+                        (t, s) -> t.add(Integer.parseInt(s, SERVICE_AT, SERVICE_AT + 2, 10),
+                                Long.parseLong(s, LATENCY_AT, s.indexOf(' ', LATENCY_AT), 10)),
+                        IntLongTable::mergeFrom));
+
+                System.out.println("\n首行: " + mapped.lines().findFirst().map(LineView::toString).orElse(""));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Stream<String> filesLines(Path file) {
+        try {
+            return Files.lines(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void generate(Path file, long bytes) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        long written = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            StringBuilder line = new StringBuilder(96);
+            while (written < bytes) {
+                line.setLength(0);
+                line.append("2024-05-01T12:00:00.").append(100 + random.nextInt(900)).append(' ')
+                        .append(LEVELS[random.nextInt(LEVELS.length)]).append(' ')
+                        .append("svc-").append(10 + random.nextInt(90))
+                        .append(" latency=").append(random.nextInt(5000))
+                        .append(" request handled\n");
+                out.append(line);
+                written += line.length();
+            }
+        }
+    }
+
+    private static void measure(String name, Supplier<Object> task) {
+        Object result = null;
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < 3; round++) {
+            long bytes = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            result = task.get();
+            best = Math.min(best, System.nanoTime() - start);
+            allocated = THREADS.getCurrentThreadAllocatedBytes() - bytes;
+        }
+        String text = String.valueOf(result);
+        System.out.printf("%-18s %8.1f ms  调用线程分配 %,10d KB  结果: %s%n", name, best / 1e6, allocated / 1024,
+                text.length() > 60 ? text.substring(0, 60) + "..." : text);
+    }
+}
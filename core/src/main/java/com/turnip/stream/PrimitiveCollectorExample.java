@@ -0,0 +1,89 @@
+package com.turnip.stream;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 10^7 个元素上对比装箱的 Collectors 与 IntCollectors：耗时和当前线程分配的字节数
+ * 分配量只统计调用线程，所以只对顺序流有意义；并行流只比较耗时和结果。
+ * 参数：[元素个数]，默认 10000000。精确对比见 benchmarks 模块的 PrimitiveCollectorBenchmark（-prof gc）。
+ */
+public class PrimitiveCollectorExample {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int[] data = new SplittableRandom(42).ints(n, 0, 1_000_000).toArray();
+
+        System.out.println("=== 按奇偶分区 ===");
+        Map<Boolean, List<Integer>> boxedParts = measure("Collectors.partitioningBy",
+                () -> Arrays.stream(data).boxed().collect(Collectors.partitioningBy(v -> v % 2 == 0)));
+        Map<Boolean, IntList> parts = measure("IntCollectors.partitioningBy",
+                () -> IntCollectors.partitioningBy(v -> v % 2 == 0).collect(Arrays.stream(data)));
+        Map<Boolean, IntList> parallelParts = measure("IntCollectors.partitioningBy 并行",
+                () -> IntCollectors.partitioningBy(v -> v % 2 == 0).collect(Arrays.stream(data).parallel()));
+        System.out.println("结果一致: " + (sameElements(boxedParts.get(true), parts.get(true))
+                && parts.equals(parallelParts)));
+
+        System.out.println("\n=== 按 v % 1000 分组 ===");
+        Map<Integer, List<Integer>> boxedGroups = measure("Collectors.groupingBy",
+                () -> Arrays.stream(data).boxed().collect(Collectors.groupingBy(v -> v % 1000)));
+        IntGroups<IntList> groups = measure("IntCollectors.groupingBy",
+                () -> IntCollectors.groupingBy(v -> v % 1000).collect(Arrays.stream(data)));
+        measure("IntCollectors.groupingBy 并行",
+                () -> IntCollectors.groupingBy(v -> v % 1000).collect(Arrays.stream(data).parallel()));
+        System.out.println("结果一致: " + (boxedGroups.size() == groups.size()
+                && sameElements(boxedGroups.get(7), groups.get(7))));
+
+        System.out.println("\n=== 按 v % 1000 计数与求和 ===");
+        Map<Integer, Long> boxedCounts = measure("Collectors.counting",
+                () -> Arrays.stream(data).boxed().collect(Collectors.groupingBy(v -> v % 1000, Collectors.counting())));
+        IntLongTable counts = measure("IntCollectors.countingBy",
+                () -> IntCollectors.countingBy(v -> v % 1000).collect(Arrays.stream(data)));
+        Map<Integer, Long> boxedSums = measure("Collectors.summingLong",
+                () -> Arrays.stream(data).boxed().collect(Collectors.groupingBy(v -> v % 1000, Collectors.summingLong(v -> v))));
+        IntLongTable sums = measure("IntCollectors.summingBy 并行",
+                () -> IntCollectors.summingBy(v -> v % 1000).collect(Arrays.stream(data).parallel()));
+        System.out.println("结果一致: " + (boxedCounts.equals(counts.toMap()) && boxedSums.equals(sums.toMap())));
+
+        long[] longs = Arrays.stream(data).asLongStream().toArray();
+        IntLongTable longCounts = LongCollectors.countingBy(v -> (int) (v % 1000)).collect(Arrays.stream(longs).parallel());
+        System.out.println("LongCollectors 计数一致: " + longCounts.toMap().equals(boxedCounts));
+    }
+
+    private static <T> T measure(String name, Supplier<T> task) {
+        T result = null;
+        long bestNanos = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int round = 0; round < 3; round++) {
+            result = null;
+            long bytes = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            result = task.get();
+            long elapsed = System.nanoTime() - start;
+            allocated = THREADS.getCurrentThreadAllocatedBytes() - bytes;
+            bestNanos = Math.min(bestNanos, elapsed);
+        }
+        System.out.printf("%-36s %8.1f ms  调用线程分配 %,8d KB%n", name, bestNanos / 1e6, allocated / 1024);
+        return result;
+    }
+
+    private static boolean sameElements(List<Integer> boxed, IntList primitive) {
+        if (boxed.size() != primitive.size()) {
+            return false;
+        }
+        for (int i = 0; i < boxed.size(); i++) {
+            if (boxed.get(i) != primitive.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
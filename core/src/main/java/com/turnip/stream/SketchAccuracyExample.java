@@ -0,0 +1,187 @@
+package com.turnip.stream;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * 用精确结果校验三种草图的误差和内存
+ *
+ * - HyperLogLog：不同基数下、多个随机种子的相对误差与理论标准误差对比，超出界限时抛出异常；
+ *   内存与 HashSet 对比；并行与顺序结果一致；
+ * - Count-Min：Zipf 分布上误差超过 epsilon * N 的键所占比例，应不超过 delta；
+ * - Space-Saving：Top-100 的召回率，以及 count - error <= 真实频率 <= count 是否对所有条目成立。
+ * 参数：[Zipf 流长度]，默认 5000000。
+ */
+public class SketchAccuracyExample {
+
+    // 每个基数跑几个种子：单次结果落在 2 个标准误差之外并不罕见，只看一次分不清是运气还是估计器退化
+    private static final int HLL_SEEDS = 5;
+    // 单次误差超过 4 个标准误差的概率约 6e-5，多个种子的均方根超过 2 个标准误差说明估计有系统偏差
+    private static final int HLL_MAX_SIGMAS = 4;
+    private static final int HLL_MAX_RMS_SIGMAS = 2;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        hyperLogLog();
+        long[] zipf = zipf(n, 1_000_000, 1.1, 42);
+        countMin(zipf);
+        spaceSaving(zipf);
+    }
+
+    private static void hyperLogLog() {
+        System.out.println("=== HyperLogLog，p = 14，每个基数 " + HLL_SEEDS + " 个种子 ===");
+        System.out.printf("%12s %12s %10s %10s %10s %12s %14s%n", "真实基数", "估计值", "均方根误差", "最大误差", "标准误差",
+                "草图字节", "HashSet约字节");
+        boolean accurate = true;
+        for (int cardinality : new int[]{100, 10_000, 100_000, 1_000_000, 10_000_000}) {
+            double squares = 0;
+            double maxError = 0;
+            long firstEstimate = 0;
+            HyperLogLog hll = null;
+            for (int seed = 0; seed < HLL_SEEDS; seed++) {
+                hll = new HyperLogLog(14);
+                SplittableRandom random = new SplittableRandom(seed);
+                // 每个值出现两次，重复不影响结果
+                for (int i = 0; i < cardinality; i++) {
+                    long value = random.nextLong();
+                    hll.add(value);
+                    hll.add(value);
+                }
+                long estimate = hll.estimate();
+                double error = Math.abs(estimate - cardinality) / (double) cardinality;
+                squares += error * error;
+                maxError = Math.max(maxError, error);
+                if (seed == 0) {
+                    firstEstimate = estimate;
+                }
+            }
+            double rms = Math.sqrt(squares / HLL_SEEDS);
+            double standardError = hll.standardError();
+            boolean ok = maxError <= HLL_MAX_SIGMAS * standardError && rms <= HLL_MAX_RMS_SIGMAS * standardError;
+            accurate &= ok;
+            // HashSet<Long>：每个元素一个 Long（16）+ 节点（32）+ 约 2 个桶引用（8）
+            long hashSetBytes = cardinality * 56L;
+            System.out.printf("%12d %12d %9.3f%% %9.3f%% %9.3f%% %12d %14d%s%n", cardinality, firstEstimate, rms * 100,
+                    maxError * 100, standardError * 100, hll.memoryBytes(), hashSetBytes, ok ? "" : "  超出误差界!");
+        }
+        if (!accurate) {
+            throw new IllegalStateException("HyperLogLog 误差超出界限：单次不超过 " + HLL_MAX_SIGMAS
+                    + " 个标准误差，均方根不超过 " + HLL_MAX_RMS_SIGMAS + " 个标准误差");
+        }
+
+        HyperLogLog sequential = LongStream.range(0, 5_000_000).collect(
+                () -> new HyperLogLog(14), HyperLogLog::add, HyperLogLog::merge);
+        HyperLogLog parallel = HyperLogLog.longCollector(14).collect(LongStream.range(0, 5_000_000).parallel());
+        List<String> words = LongStream.range(0, 200_000).mapToObj(i -> "user-" + i).toList();
+        HyperLogLog fromStrings = words.parallelStream().collect(HyperLogLog.collector(12));
+        System.out.println("并行与顺序寄存器一致: " + sequential.equals(parallel) + "，估计值 " + parallel.estimate());
+        System.out.println("字符串 200000 个，p = 12 估计值: " + fromStrings.estimate()
+                + "，精度 withError(0.01) -> p = " + HyperLogLog.withError(0.01).precision());
+    }
+
+    private static void countMin(long[] stream) {
+        System.out.println("\n=== Count-Min，Zipf(s = 1.1) 流长度 " + stream.length + " ===");
+        Map<Long, Long> exact = exactCounts(stream);
+        for (double epsilon : new double[]{1e-3, 1e-4}) {
+            double delta = 0.01;
+            CountMinSketch cms = CountMinSketch.longCollector(epsilon, delta).collect(Arrays.stream(stream).parallel());
+            long bound = cms.errorBound();
+            int exceeded = 0;
+            int underestimated = 0;
+            for (Map.Entry<Long, Long> e : exact.entrySet()) {
+                long estimate = cms.estimate((long) e.getKey());
+                if (estimate < e.getValue()) {
+                    underestimated++;
+                }
+                if (estimate - e.getValue() > bound) {
+                    exceeded++;
+                }
+            }
+            long mapBytes = exact.size() * (16L + 16 + 32 + 8);
+            System.out.printf("epsilon=%.0e delta=%.2f: %dx%d，误差上界 %d，超出上界的键 %.4f%%（应 <= %.0f%%），低估 %d，" +
+                            "草图 %d KB vs HashMap 约 %d KB%n",
+                    epsilon, delta, cms.width(), cms.depth(), bound, exceeded * 100.0 / exact.size(), delta * 100,
+                    underestimated, cms.memoryBytes() / 1024, mapBytes / 1024);
+        }
+    }
+
+    private static void spaceSaving(long[] stream) {
+        System.out.println("\n=== Space-Saving，capacity = 1000 ===");
+        Map<Long, Long> exact = exactCounts(stream);
+        // 分成 4 段分别统计后合并，检验合并后的界
+        int quarter = stream.length / 4;
+        SpaceSaving<Long> merged = new SpaceSaving<>(1000);
+        for (int i = 0; i < 4; i++) {
+            int from = i * quarter;
+            int to = i == 3 ? stream.length : from + quarter;
+            merged.merge(Arrays.stream(stream, from, to).boxed().collect(SpaceSaving.collector(1000)));
+        }
+        SpaceSaving<Long> single = new SpaceSaving<>(1000);
+        for (long v : stream) {
+            single.add(v);
+        }
+        Set<Long> trueTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(100)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        report("单个实例", single, exact, trueTop);
+        report("4 段合并", merged, exact, trueTop);
+    }
+
+    private static void report(String name, SpaceSaving<Long> sketch, Map<Long, Long> exact, Set<Long> trueTop) {
+        List<SpaceSaving.HeavyHitter<Long>> top = sketch.topK(100);
+        Set<Long> found = new HashSet<>();
+        boolean boundsHold = true;
+        long maxError = 0;
+        for (SpaceSaving.HeavyHitter<Long> h : sketch.topK(sketch.size())) {
+            long actual = exact.getOrDefault(h.item(), 0L);
+            boundsHold &= h.guaranteedCount() <= actual && actual <= h.count();
+            maxError = Math.max(maxError, h.count() - actual);
+        }
+        for (SpaceSaving.HeavyHitter<Long> h : top) {
+            found.add(h.item());
+        }
+        found.retainAll(trueTop);
+        System.out.printf("%s: Top-100 召回率 %d%%，界对所有条目成立: %b，最大多估 %d（上界 N/k = %d），约 %d KB%n",
+                name, found.size(), boundsHold, maxError, sketch.totalCount() / sketch.capacity(),
+                sketch.memoryBytes() / 1024);
+    }
+
+    private static Map<Long, Long> exactCounts(long[] stream) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (long v : stream) {
+            counts.merge(v, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 按累积分布二分查找生成 Zipf 分布的键，键值打散以免与哈希的规律相关
+     */
+    static long[] zipf(int n, int keys, double s, long seed) {
+        double[] cdf = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1 / Math.pow(i + 1, s);
+            cdf[i] = sum;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] stream = new long[n];
+        for (int i = 0; i < n; i++) {
+            int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            stream[i] = rank * 0x9E3779B97F4A7C15L;
+        }
+        return stream;
+    }
+}
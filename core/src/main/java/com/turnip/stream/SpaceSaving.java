@@ -0,0 +1,244 @@
+package com.turnip.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Space-Saving 高频元素（Top-K）统计
+ *
+ * 最多保留 capacity 个计数器。新元素到来而计数器已满时，替换计数最小的那个：
+ * 新元素继承它的计数 + 1，并把继承的部分记为 error。
+ * 对每个被跟踪的元素都有 count - error <= 真实频率 <= count，且未被跟踪的元素真实频率不超过最小计数，
+ * 最小计数又不超过 总次数 / capacity；所以频率高于 N / capacity 的元素一定在表中。
+ *
+ * 计数器放在按 count 排序的下标堆里，HashMap 记录元素到计数器的映射，每次 add 为 O(log capacity)。
+ * 合并采用 Agarwal 等人的做法：一方没有的元素按该方的最小计数补上（该方未满时为 0），再保留前 capacity 个。
+ */
+public final class SpaceSaving<T> {
+
+    /**
+     * @param count 估计频率，不低于真实频率
+     * @param error 估计值中可能多算的部分，count - error 是真实频率的下界
+     */
+    public record HeavyHitter<T>(T item, long count, long error) {
+
+        public long guaranteedCount() {
+            return count - error;
+        }
+    }
+
+    private static final class Counter<T> {
+        final T item;
+        long count;
+        long error;
+        int heapIndex;
+
+        Counter(T item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<T, Counter<T>> index;
+    // 按 count 的最小堆，heap[0] 是计数最小的计数器
+    private Counter<T>[] heap;
+    private int size;
+    private long total;
+
+    @SuppressWarnings("unchecked")
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity必须大于0: " + capacity);
+        }
+        this.capacity = capacity;
+        this.index = new HashMap<>(capacity * 2);
+        this.heap = (Counter<T>[]) new Counter[capacity];
+    }
+
+    /**
+     * 任何频率超过 fraction * N 的元素都会被保留
+     */
+    public static <T> SpaceSaving<T> withError(double fraction) {
+        if (fraction <= 0 || fraction >= 1) {
+            throw new IllegalArgumentException("fraction必须在(0, 1)之间: " + fraction);
+        }
+        return new SpaceSaving<>((int) Math.ceil(1 / fraction));
+    }
+
+    public void add(T item) {
+        add(item, 1);
+    }
+
+    public void add(T item, long weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight必须大于0: " + weight);
+        }
+        total += weight;
+        Counter<T> c = index.get(item);
+        if (c != null) {
+            c.count += weight;
+            siftDown(c.heapIndex);
+        } else if (size < capacity) {
+            c = new Counter<>(item, weight, 0);
+            index.put(item, c);
+            c.heapIndex = size;
+            heap[size++] = c;
+            siftUp(c.heapIndex);
+        } else {
+            // 顶替计数最小的计数器
+            Counter<T> min = heap[0];
+            index.remove(min.item);
+            c = new Counter<>(item, min.count + weight, min.count);
+            c.heapIndex = 0;
+            heap[0] = c;
+            index.put(item, c);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * 估计频率：被跟踪时返回它的计数，否则返回真实频率的上界（表满时为最小计数，未满时为 0）
+     */
+    public long estimate(T item) {
+        Counter<T> c = index.get(item);
+        if (c != null) {
+            return c.count;
+        }
+        return minCount();
+    }
+
+    private long minCount() {
+        return size < capacity ? 0 : heap[0].count;
+    }
+
+    /**
+     * 按估计频率从高到低返回前 n 个
+     */
+    public List<HeavyHitter<T>> topK(int n) {
+        List<Counter<T>> counters = new ArrayList<>(Arrays.asList(heap).subList(0, size));
+        counters.sort(Comparator.comparingLong((Counter<T> c) -> c.count).reversed());
+        List<HeavyHitter<T>> result = new ArrayList<>(Math.min(n, size));
+        for (int i = 0; i < Math.min(n, size); i++) {
+            Counter<T> c = counters.get(i);
+            result.add(new HeavyHitter<>(c.item, c.count, c.error));
+        }
+        return result;
+    }
+
+    public SpaceSaving<T> merge(SpaceSaving<T> other) {
+        long minThis = minCount();
+        long minOther = other.minCount();
+        Map<T, Counter<T>> union = new HashMap<>((size + other.size) * 2);
+        for (int i = 0; i < size; i++) {
+            Counter<T> c = heap[i];
+            union.put(c.item, new Counter<>(c.item, c.count + minOther, c.error + minOther));
+        }
+        for (int i = 0; i < other.size; i++) {
+            Counter<T> o = other.heap[i];
+            Counter<T> c = union.get(o.item);
+            if (c != null) {
+                // 前面按"对方没有"补了 minOther，这里换成对方的真实计数
+                c.count += o.count - minOther;
+                c.error += o.error - minOther;
+            } else {
+                union.put(o.item, new Counter<>(o.item, o.count + minThis, o.error + minThis));
+            }
+        }
+        List<Counter<T>> merged = new ArrayList<>(union.values());
+        merged.sort(Comparator.comparingLong((Counter<T> c) -> c.count).reversed());
+
+        index.clear();
+        Arrays.fill(heap, null);
+        size = 0;
+        for (int i = 0; i < Math.min(capacity, merged.size()); i++) {
+            Counter<T> c = merged.get(i);
+            index.put(c.item, c);
+            c.heapIndex = size;
+            heap[size++] = c;
+        }
+        // 从高到低的顺序反过来就是最小堆的一个合法排列
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            swap(i, j);
+        }
+        total += other.total;
+        return this;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].count <= heap[i].count) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int child = left + 1 < size && heap[left + 1].count < heap[left].count ? left + 1 : left;
+            if (heap[i].count <= heap[child].count) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Counter<T> a = heap[i];
+        Counter<T> b = heap[j];
+        heap[i] = b;
+        heap[j] = a;
+        a.heapIndex = j;
+        b.heapIndex = i;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long totalCount() {
+        return total;
+    }
+
+    /**
+     * 任何未被跟踪元素的频率上界
+     */
+    public long errorBound() {
+        return minCount();
+    }
+
+    /**
+     * 粗略估计：每个计数器约 32 字节，HashMap 的节点和桶约 48 字节，再加堆数组的引用；不含元素本身
+     */
+    public long memoryBytes() {
+        return (long) capacity * (32 + 48 + 4 * 3);
+    }
+
+    @Override
+    public String toString() {
+        return "SpaceSaving[capacity=" + capacity + ", size=" + size + ", total=" + total + "]";
+    }
+
+    public static <T> Collector<T, ?, SpaceSaving<T>> collector(int capacity) {
+        return Collector.of(() -> new SpaceSaving<T>(capacity), SpaceSaving::add, SpaceSaving::merge,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+}
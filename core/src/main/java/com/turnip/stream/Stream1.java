@@ -5,6 +5,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class Stream1 {
 
@@ -15,7 +16,10 @@ public class Stream1 {
                 .collect(Collectors.partitioningBy(n -> n % 2 == 0));
         System.out.println(partitioned);  // 输出 {false=[1, 3, 5], true=[2, 4, 6]}
 
-
+        // 原始类型版本：元素不装箱，直接写入 IntList
+        Map<Boolean, IntList> primitive = IntCollectors.partitioningBy(n -> n % 2 == 0)
+                .collect(IntStream.rangeClosed(1, 6));
+        System.out.println(primitive);  // 输出 {false=[1, 3, 5], true=[2, 4, 6]}
     }
 
 }
@@ -0,0 +1,58 @@
+package com.turnip.stream.column;
+
+/**
+ * 列上的过滤与聚合内核
+ *
+ * 有两个实现：{@link VectorKernels} 使用 jdk.incubator.vector，{@link ScalarKernels} 是普通循环。
+ * 只有当 JVM 启动时加了 --add-modules jdk.incubator.vector 时才能使用向量版本，否则自动退回标量版本；
+ * 也可以用 -Dturnip.vector=false 强制使用标量版本。
+ * filter 把满足条件的行号依次写入 out，返回个数；带 rows 参数的版本只检查 rows 中前 n 个行号。
+ */
+interface ColumnKernels {
+
+    ColumnKernels SCALAR = new ScalarKernels();
+
+    ColumnKernels DEFAULT = select();
+
+    private static ColumnKernels select() {
+        if (!Boolean.parseBoolean(System.getProperty("turnip.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return new VectorKernels();
+        } catch (LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    String name();
+
+    long sum(int[] a);
+
+    long sum(int[] a, int[] rows, int n);
+
+    int min(int[] a);
+
+    int max(int[] a);
+
+    int count(int[] a, Compare op, int value);
+
+    int filter(int[] a, Compare op, int value, int[] out);
+
+    int filter(int[] a, int[] rows, int n, Compare op, int value, int[] out);
+
+    long sum(long[] a);
+
+    long sum(long[] a, int[] rows, int n);
+
+    long min(long[] a);
+
+    long max(long[] a);
+
+    int count(long[] a, Compare op, long value);
+
+    int filter(long[] a, Compare op, long value, int[] out);
+
+    int filter(long[] a, int[] rows, int n, Compare op, long value, int[] out);
+}
@@ -0,0 +1,101 @@
+package com.turnip.stream.column;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 列式内存表：每一列是一个原始类型数组，所有列的行数相同
+ *
+ * 与 Stream&lt;Integer&gt; 逐个元素经过 filter/map 不同，这里每个操作对整列执行一次：
+ * filter 产生选择向量（{@link Selection}），sum/min/max/count 直接在数组上归约，
+ * 多个条件的 AND 通过 filter(op, value, selection) 依次缩小选择向量。
+ *
+ * 默认使用 Vector API 内核，运行时需要 --add-modules jdk.incubator.vector，缺少时自动退回标量内核；
+ * {@link #scalar(int)} 总是使用标量内核，便于对照。列数组直接引用，不做拷贝。
+ */
+public final class ColumnTable {
+
+    private final int rowCount;
+    private final ColumnKernels kernels;
+    private final Map<String, Object> columns = new LinkedHashMap<>();
+
+    public ColumnTable(int rowCount) {
+        this(rowCount, ColumnKernels.DEFAULT);
+    }
+
+    private ColumnTable(int rowCount, ColumnKernels kernels) {
+        if (rowCount < 0) {
+            throw new IllegalArgumentException("rowCount不能为负数: " + rowCount);
+        }
+        this.rowCount = rowCount;
+        this.kernels = kernels;
+    }
+
+    public static ColumnTable scalar(int rowCount) {
+        return new ColumnTable(rowCount, ColumnKernels.SCALAR);
+    }
+
+    public ColumnTable addColumn(String name, int[] values) {
+        put(name, values.length, new IntColumn(name, values, kernels));
+        return this;
+    }
+
+    public ColumnTable addColumn(String name, long[] values) {
+        put(name, values.length, new LongColumn(name, values, kernels));
+        return this;
+    }
+
+    private void put(String name, int length, Object column) {
+        if (length != rowCount) {
+            throw new IllegalArgumentException("列" + name + "的行数" + length + "与表的行数" + rowCount + "不一致");
+        }
+        if (columns.putIfAbsent(name, column) != null) {
+            throw new IllegalArgumentException("列已存在: " + name);
+        }
+    }
+
+    public IntColumn intColumn(String name) {
+        if (column(name) instanceof IntColumn c) {
+            return c;
+        }
+        throw new IllegalArgumentException("列" + name + "不是int列");
+    }
+
+    public LongColumn longColumn(String name) {
+        if (column(name) instanceof LongColumn c) {
+            return c;
+        }
+        throw new IllegalArgumentException("列" + name + "不是long列");
+    }
+
+    private Object column(String name) {
+        Object column = columns.get(name);
+        if (column == null) {
+            throw new NoSuchElementException("没有这一列: " + name);
+        }
+        return column;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public List<String> columnNames() {
+        return new ArrayList<>(columns.keySet());
+    }
+
+    /**
+     * 当前使用的内核，"scalar" 或 "vector(位宽)"
+     */
+    public String kernelName() {
+        return kernels.name();
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnTable[rows=" + rowCount + ", columns=" + columns.keySet() + ", kernels=" + kernels.name() + "]";
+    }
+}
@@ -0,0 +1,65 @@
+package com.turnip.stream.column;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * 同一批数据上对比三种写法的结果和耗时：装箱的 Stream 流水线、标量内核、向量内核
+ *
+ * 查询：price &lt; 5000 的行数、sum(price)、min/max(price)，以及 price &lt; 5000 AND quantity &gt;= 50 时的 sum(quantity)。
+ * 向量内核需要：java --add-modules jdk.incubator.vector ...，否则默认表也会退回标量内核。
+ * 参数：[行数]，默认 10000000。精确对比见 benchmarks 模块的 ColumnTableBenchmark。
+ */
+public class ColumnTableExample {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        int[] price = random.ints(rows, 0, 10_000).toArray();
+        long[] quantity = random.longs(rows, 1, 100).toArray();
+
+        ColumnTable vector = new ColumnTable(rows).addColumn("price", price).addColumn("quantity", quantity);
+        ColumnTable scalar = ColumnTable.scalar(rows).addColumn("price", price).addColumn("quantity", quantity);
+        System.out.println(vector);
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("\n=== 第 " + (round + 1) + " 轮 ===");
+            long[] expected = measure("Stream<Integer>", () -> stream(price, quantity));
+            long[] s = measure("标量内核", () -> query(scalar));
+            long[] v = measure(vector.kernelName() + " 内核", () -> query(vector));
+            System.out.println("结果一致: " + (Arrays.equals(expected, s) && Arrays.equals(expected, v))
+                    + " " + Arrays.toString(v));
+        }
+    }
+
+    private static long[] query(ColumnTable table) {
+        IntColumn price = table.intColumn("price");
+        LongColumn quantity = table.longColumn("quantity");
+        Selection cheap = price.filter(Compare.LT, 5000);
+        Selection both = quantity.filter(Compare.GE, 50, cheap);
+        return new long[]{price.count(Compare.LT, 5000), price.sum(), price.min(), price.max(),
+                cheap.size(), quantity.sum(both)};
+    }
+
+    private static long[] stream(int[] price, long[] quantity) {
+        Integer[] boxed = Arrays.stream(price).boxed().toArray(Integer[]::new);
+        long count = Arrays.stream(boxed).filter(p -> p < 5000).count();
+        long sum = Arrays.stream(boxed).mapToLong(Integer::longValue).sum();
+        long min = Arrays.stream(boxed).min(Integer::compare).orElseThrow();
+        long max = Arrays.stream(boxed).max(Integer::compare).orElseThrow();
+        long quantitySum = IntStream.range(0, price.length).boxed()
+                .filter(i -> boxed[i] < 5000 && quantity[i] >= 50)
+                .mapToLong(i -> quantity[i])
+                .sum();
+        return new long[]{count, sum, min, max, count, quantitySum};
+    }
+
+    private static <T> T measure(String name, Supplier<T> task) {
+        long start = System.nanoTime();
+        T result = task.get();
+        System.out.printf("%-20s %8.1f ms%n", name, (System.nanoTime() - start) / 1e6);
+        return result;
+    }
+}
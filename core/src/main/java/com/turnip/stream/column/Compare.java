@@ -0,0 +1,45 @@
+package com.turnip.stream.column;
+
+/**
+ * 过滤内核支持的比较运算：列值 op 常量
+ */
+public enum Compare {
+    LT, LE, GT, GE, EQ, NE;
+
+    public boolean test(long columnValue, long constant) {
+        return switch (this) {
+            case LT -> columnValue < constant;
+            case LE -> columnValue <= constant;
+            case GT -> columnValue > constant;
+            case GE -> columnValue >= constant;
+            case EQ -> columnValue == constant;
+            case NE -> columnValue != constant;
+        };
+    }
+
+    /**
+     * 除 NE 外每种比较都等价于一个闭区间 [lower, upper]，NE 是 EQ 的补集；min/max 是列类型的取值范围
+     */
+    long lower(long constant, long min) {
+        return switch (this) {
+            case LT, LE -> min;
+            case GT -> constant + 1;
+            case GE, EQ, NE -> constant;
+        };
+    }
+
+    long upper(long constant, long max) {
+        return switch (this) {
+            case GT, GE -> max;
+            case LT -> constant - 1;
+            case LE, EQ, NE -> constant;
+        };
+    }
+
+    /**
+     * 小于最小值或大于最大值，没有任何值满足
+     */
+    boolean matchesNothing(long constant, long min, long max) {
+        return this == LT && constant == min || this == GT && constant == max;
+    }
+}
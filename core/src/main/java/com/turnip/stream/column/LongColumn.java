@@ -0,0 +1,89 @@
+package com.turnip.stream.column;
+
+import java.util.NoSuchElementException;
+
+/**
+ * long 列：值放在一个 long[] 中，过滤和聚合直接在数组上执行，没有装箱和逐元素的虚调用
+ */
+public final class LongColumn {
+
+    private final String name;
+    private final long[] values;
+    private final ColumnKernels kernels;
+
+    LongColumn(String name, long[] values, ColumnKernels kernels) {
+        this.name = name;
+        this.values = values;
+        this.kernels = kernels;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public long get(int row) {
+        return values[row];
+    }
+
+    /**
+     * 满足 值 op value 的所有行
+     */
+    public Selection filter(Compare op, long value) {
+        return filterInto(op, value, new Selection(values.length));
+    }
+
+    /**
+     * 结果写入 out 并返回它；out 的容量不足行数时会重新分配
+     */
+    public Selection filterInto(Compare op, long value, Selection out) {
+        out.reset(values.length);
+        out.size = kernels.filter(values, op, value, out.rows);
+        return out;
+    }
+
+    /**
+     * 在 within 的基础上继续过滤，用于多个条件的 AND
+     */
+    public Selection filter(Compare op, long value, Selection within) {
+        Selection out = new Selection(within.size);
+        out.size = kernels.filter(values, within.rows, within.size, op, value, out.rows);
+        return out;
+    }
+
+    public int count(Compare op, long value) {
+        return kernels.count(values, op, value);
+    }
+
+    public long sum() {
+        return kernels.sum(values);
+    }
+
+    public long sum(Selection selection) {
+        return kernels.sum(values, selection.rows, selection.size);
+    }
+
+    public long min() {
+        requireNotEmpty();
+        return kernels.min(values);
+    }
+
+    public long max() {
+        requireNotEmpty();
+        return kernels.max(values);
+    }
+
+    private void requireNotEmpty() {
+        if (values.length == 0) {
+            throw new NoSuchElementException("列" + name + "为空");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LongColumn[" + name + ", size=" + values.length + "]";
+    }
+}
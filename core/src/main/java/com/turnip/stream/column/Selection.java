@@ -0,0 +1,58 @@
+package com.turnip.stream.column;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * 选择向量：过滤结果中满足条件的行号，按升序排列
+ *
+ * 后续的聚合和过滤只访问这些行，不需要物化过滤后的列。
+ * 可以预先分配一个容量为行数的 Selection 反复传给 filterInto，避免每次过滤都分配大数组。
+ */
+public final class Selection {
+
+    int[] rows;
+    int size;
+
+    public Selection(int capacity) {
+        this.rows = new int[capacity];
+    }
+
+    /**
+     * 保证能容纳 n 个行号，原有内容不保留
+     */
+    void reset(int n) {
+        if (rows.length < n) {
+            rows = new int[n];
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return rows.length;
+    }
+
+    public int row(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("index: " + i + ", size: " + size);
+        }
+        return rows[i];
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(rows, size);
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(rows, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return "Selection[size=" + size + "]";
+    }
+}
@@ -0,0 +1,359 @@
+package com.turnip.stream.column;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 jdk.incubator.vector 的内核，使用平台首选的向量宽度（AVX-512 上一次 16 个 int）
+ *
+ * - sum：int 每次读入与 long 向量通道数相同的一段，按 I2L 扩展后累加，10^8 行也不会溢出；
+ * - min/max/count：整段按向量处理，最后把各通道归约，尾部不足一个向量的部分用标量循环；
+ * - filter：比较得到掩码，转成整数后按 8 位一段查表，把预先算好的通道下标整段写出、写指针只前移命中个数，
+ *   循环里没有依赖数据的分支。JDK 17 还没有 compress，VectorMask.toLong() 也没有被编译成单条指令，
+ *   逐位取出命中行的写法反而比标量版本慢；
+ * - 带选择向量的版本用 gather（fromArray 的 indexMap 重载）按行号取数。
+ *
+ * Vector API 只有在整条调用链都被内联、运算符是编译期常量时才会生成向量指令，否则每一步都会分配对象。
+ * 所以比较统一写成区间 [lo, hi] 上的两个常量比较（NE 取 EQ 的补集），循环里不按运算符分支，方法体也足够小；
+ * 累加器的初值在方法内创建，用 static final 的向量常量作为循环变量的初值时 JDK 17 无法消除装箱。
+ */
+final class VectorKernels implements ColumnKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // 通道数与 LONGS 相同的 int 向量，按 I2L 扩展成 long 后累加
+    private static final VectorSpecies<Integer> HALF_INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.length() * Integer.SIZE));
+    // 把掩码按 CHUNK_BITS 位一段查表：POSITIONS 中第 m 段依次是 m 里为 1 的位的下标，整段写出后只前移 bitCount(m)
+    private static final int CHUNK_BITS = Math.min(8, INTS.length());
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final VectorSpecies<Integer> CHUNK =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(CHUNK_BITS * Integer.SIZE));
+    private static final int[] POSITIONS = positions();
+    // 第 j 个通道为 1 << j，与掩码 blend 后按位或归约得到整数形式的掩码
+    private static final IntVector INT_ZERO = IntVector.zero(INTS);
+    private static final IntVector INT_LANE_BITS = IntVector.broadcast(INTS, 1)
+            .lanewise(VectorOperators.LSHL, INT_ZERO.addIndex(1));
+    private static final LongVector LONG_ZERO = LongVector.zero(LONGS);
+    private static final LongVector LONG_LANE_BITS = LongVector.broadcast(LONGS, 1)
+            .lanewise(VectorOperators.LSHL, LONG_ZERO.addIndex(1));
+
+    private static int[] positions() {
+        int[] positions = new int[(1 << CHUNK_BITS) * CHUNK_BITS];
+        for (int m = 0; m <= CHUNK_MASK; m++) {
+            int k = m * CHUNK_BITS;
+            for (int bit = 0; bit < CHUNK_BITS; bit++) {
+                if ((m & (1 << bit)) != 0) {
+                    positions[k++] = bit;
+                }
+            }
+        }
+        return positions;
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + INTS.vectorBitSize() + " bit)";
+    }
+
+    @Override
+    public long sum(int[] a) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int upper = LONGS.loopBound(a.length); i < upper; i += LONGS.length()) {
+            acc = acc.add(IntVector.fromArray(HALF_INTS, a, i).convertShape(VectorOperators.I2L, LONGS, 0));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long sum(int[] a, int[] rows, int n) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int upper = LONGS.loopBound(n); i < upper; i += LONGS.length()) {
+            acc = acc.add(IntVector.fromArray(HALF_INTS, a, 0, rows, i).convertShape(VectorOperators.I2L, LONGS, 0));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += a[rows[i]];
+        }
+        return sum;
+    }
+
+    @Override
+    public int min(int[] a) {
+        IntVector acc = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        int i = 0;
+        for (int upper = INTS.loopBound(a.length); i < upper; i += INTS.length()) {
+            acc = acc.min(IntVector.fromArray(INTS, a, i));
+        }
+        int min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public int max(int[] a) {
+        IntVector acc = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        int i = 0;
+        for (int upper = INTS.loopBound(a.length); i < upper; i += INTS.length()) {
+            acc = acc.max(IntVector.fromArray(INTS, a, i));
+        }
+        int max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    @Override
+    public int count(int[] a, Compare op, int value) {
+        if (op.matchesNothing(value, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+            return 0;
+        }
+        int lo = (int) op.lower(value, Integer.MIN_VALUE);
+        int hi = (int) op.upper(value, Integer.MAX_VALUE);
+        int count = 0;
+        int i = 0;
+        int upper = INTS.loopBound(a.length);
+        for (; i < upper; i += INTS.length()) {
+            count += inRange(IntVector.fromArray(INTS, a, i), lo, hi).trueCount();
+        }
+        if (op == Compare.NE) {
+            count = upper - count;
+        }
+        for (; i < a.length; i++) {
+            if (op.test(a[i], value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int filter(int[] a, Compare op, int value, int[] out) {
+        if (op.matchesNothing(value, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+            return 0;
+        }
+        int lo = (int) op.lower(value, Integer.MIN_VALUE);
+        int hi = (int) op.upper(value, Integer.MAX_VALUE);
+        int flip = op == Compare.NE ? laneMask(INTS) : 0;
+        int n = 0;
+        int i = 0;
+        for (int upper = compactBound(INTS, a.length); i < upper; i += INTS.length()) {
+            int bits = intBits(inRange(IntVector.fromArray(INTS, a, i), lo, hi)) ^ flip;
+            n = compact(bits, INTS.length(), i, out, n);
+        }
+        for (; i < a.length; i++) {
+            out[n] = i;
+            n += op.test(a[i], value) ? 1 : 0;
+        }
+        return n;
+    }
+
+    @Override
+    public int filter(int[] a, int[] rows, int n, Compare op, int value, int[] out) {
+        if (op.matchesNothing(value, Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+            return 0;
+        }
+        int lo = (int) op.lower(value, Integer.MIN_VALUE);
+        int hi = (int) op.upper(value, Integer.MAX_VALUE);
+        int flip = op == Compare.NE ? laneMask(INTS) : 0;
+        int m = 0;
+        int i = 0;
+        for (int upper = compactBound(INTS, n); i < upper; i += INTS.length()) {
+            int bits = intBits(inRange(IntVector.fromArray(INTS, a, 0, rows, i), lo, hi)) ^ flip;
+            m = compact(bits, INTS.length(), rows, i, out, m);
+        }
+        for (; i < n; i++) {
+            int row = rows[i];
+            out[m] = row;
+            m += op.test(a[row], value) ? 1 : 0;
+        }
+        return m;
+    }
+
+    @Override
+    public long sum(long[] a) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int upper = LONGS.loopBound(a.length); i < upper; i += LONGS.length()) {
+            acc = acc.add(LongVector.fromArray(LONGS, a, i));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public long sum(long[] a, int[] rows, int n) {
+        LongVector acc = LongVector.zero(LONGS);
+        int i = 0;
+        for (int upper = LONGS.loopBound(n); i < upper; i += LONGS.length()) {
+            acc = acc.add(LongVector.fromArray(LONGS, a, 0, rows, i));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < n; i++) {
+            sum += a[rows[i]];
+        }
+        return sum;
+    }
+
+    @Override
+    public long min(long[] a) {
+        LongVector acc = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        int i = 0;
+        for (int upper = LONGS.loopBound(a.length); i < upper; i += LONGS.length()) {
+            acc = acc.min(LongVector.fromArray(LONGS, a, i));
+        }
+        long min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    @Override
+    public long max(long[] a) {
+        LongVector acc = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int i = 0;
+        for (int upper = LONGS.loopBound(a.length); i < upper; i += LONGS.length()) {
+            acc = acc.max(LongVector.fromArray(LONGS, a, i));
+        }
+        long max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    @Override
+    public int count(long[] a, Compare op, long value) {
+        if (op.matchesNothing(value, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            return 0;
+        }
+        long lo = op.lower(value, Long.MIN_VALUE);
+        long hi = op.upper(value, Long.MAX_VALUE);
+        int count = 0;
+        int i = 0;
+        int upper = LONGS.loopBound(a.length);
+        for (; i < upper; i += LONGS.length()) {
+            count += inRange(LongVector.fromArray(LONGS, a, i), lo, hi).trueCount();
+        }
+        if (op == Compare.NE) {
+            count = upper - count;
+        }
+        for (; i < a.length; i++) {
+            if (op.test(a[i], value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public int filter(long[] a, Compare op, long value, int[] out) {
+        if (op.matchesNothing(value, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            return 0;
+        }
+        long lo = op.lower(value, Long.MIN_VALUE);
+        long hi = op.upper(value, Long.MAX_VALUE);
+        int flip = op == Compare.NE ? laneMask(LONGS) : 0;
+        int n = 0;
+        int i = 0;
+        for (int upper = compactBound(LONGS, a.length); i < upper; i += LONGS.length()) {
+            int bits = longBits(inRange(LongVector.fromArray(LONGS, a, i), lo, hi)) ^ flip;
+            n = compact(bits, LONGS.length(), i, out, n);
+        }
+        for (; i < a.length; i++) {
+            out[n] = i;
+            n += op.test(a[i], value) ? 1 : 0;
+        }
+        return n;
+    }
+
+    @Override
+    public int filter(long[] a, int[] rows, int n, Compare op, long value, int[] out) {
+        if (op.matchesNothing(value, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            return 0;
+        }
+        long lo = op.lower(value, Long.MIN_VALUE);
+        long hi = op.upper(value, Long.MAX_VALUE);
+        int flip = op == Compare.NE ? laneMask(LONGS) : 0;
+        int m = 0;
+        int i = 0;
+        for (int upper = compactBound(LONGS, n); i < upper; i += LONGS.length()) {
+            int bits = longBits(inRange(LongVector.fromArray(LONGS, a, 0, rows, i), lo, hi)) ^ flip;
+            m = compact(bits, LONGS.length(), rows, i, out, m);
+        }
+        for (; i < n; i++) {
+            int row = rows[i];
+            out[m] = row;
+            m += op.test(a[row], value) ? 1 : 0;
+        }
+        return m;
+    }
+
+    private static VectorMask<Integer> inRange(IntVector v, int lo, int hi) {
+        return v.compare(VectorOperators.GE, lo).and(v.compare(VectorOperators.LE, hi));
+    }
+
+    private static VectorMask<Long> inRange(LongVector v, long lo, long hi) {
+        return v.compare(VectorOperators.GE, lo).and(v.compare(VectorOperators.LE, hi));
+    }
+
+    private static int intBits(VectorMask<Integer> mask) {
+        return INT_ZERO.blend(INT_LANE_BITS, mask).reduceLanes(VectorOperators.OR);
+    }
+
+    private static int longBits(VectorMask<Long> mask) {
+        return (int) LONG_ZERO.blend(LONG_LANE_BITS, mask).reduceLanes(VectorOperators.OR);
+    }
+
+    private static int laneMask(VectorSpecies<?> species) {
+        return (int) ((1L << species.length()) - 1);
+    }
+
+    /**
+     * compact 每段都整段写出 CHUNK_BITS 个 int，向量循环要给输出数组末尾留出这段余量，剩下的交给标量尾循环
+     */
+    private static int compactBound(VectorSpecies<?> species, int length) {
+        return species.loopBound(Math.max(length - CHUNK_BITS, 0));
+    }
+
+    /**
+     * 把 bits 中为 1 的通道 j 写成行号 base + j，追加到 out[n] 之后，返回新的 n
+     */
+    private static int compact(int bits, int lanes, int base, int[] out, int n) {
+        for (int shift = 0; shift < lanes; shift += CHUNK_BITS) {
+            int chunk = (bits >>> shift) & CHUNK_MASK;
+            IntVector.fromArray(CHUNK, POSITIONS, chunk * CHUNK_BITS).add(base + shift).intoArray(out, n);
+            n += Integer.bitCount(chunk);
+        }
+        return n;
+    }
+
+    /**
+     * 同上，但写出的是 rows[from + j]：以查表结果为下标从 rows 中 gather
+     */
+    private static int compact(int bits, int lanes, int[] rows, int from, int[] out, int m) {
+        for (int shift = 0; shift < lanes; shift += CHUNK_BITS) {
+            int chunk = (bits >>> shift) & CHUNK_MASK;
+            IntVector.fromArray(CHUNK, rows, from + shift, POSITIONS, chunk * CHUNK_BITS).intoArray(out, m);
+            m += Integer.bitCount(chunk);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,101 @@
+package com.turnip.stream.window;
+
+import java.util.ArrayDeque;
+
+/**
+ * 滑动窗口中窗格的先进先出队列，用"双栈"维护整体聚合
+ *
+ * - 新窗格压入后栈，同时并入后栈的汇总表；
+ * - 出队时若前栈为空，把后栈从新到旧依次累积成后缀汇总，整体翻到前栈；
+ * - 查询时只需合并前栈栈顶的后缀汇总与后栈汇总。
+ * count/sum 可以相减，但 min/max 不行，双栈对两者都适用；每个窗格摊还只参与常数次合并，
+ * 窗口每滑动一次不必把窗口内的所有窗格重新合并一遍。
+ */
+final class PaneQueue {
+
+    private final ArrayDeque<PaneTable> back = new ArrayDeque<>();
+    private final PaneTable backAggregate = new PaneTable();
+    // 前栈：窗格本身和从它到前栈末尾的后缀汇总，栈顶是最旧的窗格
+    private final ArrayDeque<PaneTable> frontPanes = new ArrayDeque<>();
+    private final ArrayDeque<PaneTable> frontAggregates = new ArrayDeque<>();
+    private final ArrayDeque<PaneTable> pool = new ArrayDeque<>();
+    private long events;
+
+    PaneTable acquire() {
+        PaneTable t = pool.poll();
+        return t != null ? t : new PaneTable();
+    }
+
+    void release(PaneTable t) {
+        t.clear();
+        pool.push(t);
+    }
+
+    void push(PaneTable pane) {
+        back.addLast(pane);
+        backAggregate.mergeFrom(pane);
+        events += pane.events;
+    }
+
+    /**
+     * 移除最旧的窗格并回收
+     */
+    void pop() {
+        if (frontPanes.isEmpty()) {
+            flip();
+        }
+        PaneTable pane = frontPanes.pop();
+        events -= pane.events;
+        release(pane);
+        release(frontAggregates.pop());
+    }
+
+    private void flip() {
+        PaneTable running = null;
+        while (!back.isEmpty()) {
+            PaneTable pane = back.pollLast();
+            PaneTable aggregate = acquire();
+            if (running != null) {
+                aggregate.mergeFrom(running);
+            }
+            aggregate.mergeFrom(pane);
+            frontPanes.push(pane);
+            frontAggregates.push(aggregate);
+            running = aggregate;
+        }
+        backAggregate.clear();
+    }
+
+    /**
+     * 把队列中所有窗格的汇总写入 out
+     */
+    void aggregateInto(PaneTable out) {
+        out.clear();
+        if (!frontAggregates.isEmpty()) {
+            out.mergeFrom(frontAggregates.peek());
+        }
+        out.mergeFrom(backAggregate);
+    }
+
+    int size() {
+        return back.size() + frontPanes.size();
+    }
+
+    long events() {
+        return events;
+    }
+
+    void clear() {
+        for (PaneTable t; (t = back.poll()) != null; ) {
+            release(t);
+        }
+        for (PaneTable t; (t = frontPanes.poll()) != null; ) {
+            release(t);
+        }
+        for (PaneTable t; (t = frontAggregates.poll()) != null; ) {
+            release(t);
+        }
+        backAggregate.clear();
+        events = 0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.turnip.stream.window;
+
+import java.util.Arrays;
+
+/**
+ * 一个窗格（或若干窗格合并后）内按 int 键预聚合的 count/sum/min/max
+ * 开放寻址、线性探测、负载因子 0.5；清空后保留容量，供下一个窗格复用。
+ */
+final class PaneTable {
+
+    private int[] keys;
+    private long[] count;
+    private long[] sum;
+    private long[] min;
+    private long[] max;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    // 落入本表的原始事件数
+    long events;
+
+    PaneTable() {
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        count = new long[capacity];
+        sum = new long[capacity];
+        min = new long[capacity];
+        max = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int slot(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    void add(int key, long value) {
+        int i = slot(key, mask);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                count[i]++;
+                sum[i] += value;
+                if (value < min[i]) {
+                    min[i] = value;
+                }
+                if (value > max[i]) {
+                    max[i] = value;
+                }
+                events++;
+                return;
+            }
+        }
+        insert(i, key, 1, value, value, value);
+        events++;
+    }
+
+    private void merge(int key, long c, long s, long mn, long mx) {
+        int i = slot(key, mask);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                count[i] += c;
+                sum[i] += s;
+                if (mn < min[i]) {
+                    min[i] = mn;
+                }
+                if (mx > max[i]) {
+                    max[i] = mx;
+                }
+                return;
+            }
+        }
+        insert(i, key, c, s, mn, mx);
+    }
+
+    private void insert(int i, int key, long c, long s, long mn, long mx) {
+        used[i] = true;
+        keys[i] = key;
+        count[i] = c;
+        sum[i] = s;
+        min[i] = mn;
+        max[i] = mx;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    void mergeFrom(PaneTable other) {
+        if (other.size == 0) {
+            return;
+        }
+        for (int i = 0; i < other.used.length; i++) {
+            if (other.used[i]) {
+                merge(other.keys[i], other.count[i], other.sum[i], other.min[i], other.max[i]);
+            }
+        }
+        events += other.events;
+    }
+
+    void clear() {
+        if (size > 0) {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+        events = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(long windowStart, long windowEnd, WindowListener listener) {
+        for (int i = 0; i < used.length; i++) {
+            if (used[i]) {
+                listener.onResult(windowStart, windowEnd, keys[i], count[i], sum[i], min[i], max[i]);
+            }
+        }
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        long[] oldCount = count;
+        long[] oldSum = sum;
+        long[] oldMin = min;
+        long[] oldMax = max;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length << 1);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldUsed[j]) {
+                int i = slot(oldKeys[j], mask);
+                while (used[i]) {
+                    i = (i + 1) & mask;
+                }
+                used[i] = true;
+                keys[i] = oldKeys[j];
+                count[i] = oldCount[j];
+                sum[i] = oldSum[j];
+                min[i] = oldMin[j];
+                max[i] = oldMax[j];
+            }
+        }
+    }
+}
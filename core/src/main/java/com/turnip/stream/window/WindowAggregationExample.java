@@ -0,0 +1,195 @@
+package com.turnip.stream.window;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * 窗口聚合示例：先检查开头和空档之后的乱序事件（滚动、滑动窗口），再在少量乱序事件上与暴力重算对比结果，最后测吞吐
+ * 参数：[事件数]，默认 20000000；事件时间单位为毫秒，每毫秒约 10 个事件，最多乱序 200 ms。
+ */
+public class WindowAggregationExample {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        System.out.println("=== 开头与空档之后的乱序 ===");
+        outOfOrderStart();
+        outOfOrderSliding();
+        System.out.println("\n=== 正确性：与暴力重算对比 ===");
+        verify(WindowSpec.TUMBLING, 200_000);
+        verify(WindowSpec.SLIDING, 200_000);
+
+        System.out.println("\n=== 吞吐 ===");
+        long[] timestamps = new long[n];
+        int[] keys = new int[n];
+        long[] values = new long[n];
+        generate(timestamps, keys, values, 1000, 42);
+        for (WindowSpec spec : WindowSpec.values()) {
+            long[] results = new long[1];
+            WindowedAggregator aggregator = spec.create((start, end, key, count, sum, min, max) -> results[0]++);
+            long begin = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                aggregator.onEvent(timestamps[i], keys[i], values[i]);
+            }
+            aggregator.flush();
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            System.out.printf("%-40s %,6.2f M 事件/秒  窗口 %,d  结果 %,d  迟到 %,d%n", spec.description,
+                    n / seconds / 1e6, aggregator.windowCount(), results[0], aggregator.lateEventCount());
+        }
+    }
+
+    enum WindowSpec {
+        TUMBLING("滚动窗口 1s，允许迟到 100ms") {
+            @Override
+            WindowedAggregator create(WindowListener listener) {
+                return WindowedAggregator.tumbling(1000, 100, listener);
+            }
+        },
+        SLIDING("滑动窗口 10s / 1s，允许迟到 100ms") {
+            @Override
+            WindowedAggregator create(WindowListener listener) {
+                return WindowedAggregator.sliding(10_000, 1000, 100, listener);
+            }
+        };
+
+        final String description;
+
+        WindowSpec(String description) {
+            this.description = description;
+        }
+
+        abstract WindowedAggregator create(WindowListener listener);
+    }
+
+    /**
+     * 时间基本递增，随机回退最多 200 ms，偶尔出现 5 s 的空档
+     */
+    static void generate(long[] timestamps, int[] keys, long[] values, int keyCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long now = 1_700_000_000_000L;
+        for (int i = 0; i < timestamps.length; i++) {
+            if (random.nextInt(10) == 0) {
+                now++;
+            }
+            if (random.nextInt(1_000_000) == 0) {
+                now += 5_000;
+            }
+            timestamps[i] = now - random.nextInt(200);
+            keys[i] = random.nextInt(keyCount);
+            values[i] = random.nextInt(10_000) - 1_000;
+        }
+    }
+
+    /**
+     * 滚动窗口 10，允许迟到 100：第一个事件之后、空档之后到达的更早事件都在允许范围内，应全部计入
+     */
+    private static void outOfOrderStart() {
+        long[] counted = new long[1];
+        WindowedAggregator aggregator = WindowedAggregator.tumbling(10, 100, new WindowListener() {
+            @Override
+            public void onResult(long start, long end, int key, long count, long sum, long min, long max) {
+                counted[0] += count;
+            }
+
+            @Override
+            public void onLateEvent(long timestamp, int key, long value) {
+                System.out.println("  迟到 ts=" + timestamp);
+            }
+        });
+        for (long ts : new long[]{50, 45, 30}) {
+            aggregator.onEvent(ts, 1, 1);
+        }
+        // 水位线推过所有窗口，聚合器空闲；之后的空档再来一批乱序事件
+        aggregator.advanceWatermark(1000);
+        for (long ts : new long[]{5000, 4990, 4950, 4920}) {
+            aggregator.onEvent(ts, 1, 1);
+        }
+        // 比水位线 4900 还早，所属窗口已触发过，应算迟到
+        aggregator.onEvent(4850, 1, 1);
+        aggregator.flush();
+        System.out.printf("开头 3 个、空档后 4 个在范围内，1 个超出：计入 %d，迟到 %d，%s%n", counted[0],
+                aggregator.lateEventCount(), counted[0] == 7 && aggregator.lateEventCount() == 1 ? "正确" : "错误");
+    }
+
+    /**
+     * 滑动窗口 10 / 2，允许迟到 5：先到 100（水位线 95），再到 96。
+     * 96 所在窗格还没封存，但它属于的 [88,98)、[90,100) 排在 100 的第一个窗口 [92,102) 之前，也要补发
+     */
+    private static void outOfOrderSliding() {
+        long[] counted = new long[1];
+        long[] firstStart = {Long.MAX_VALUE};
+        WindowedAggregator aggregator = WindowedAggregator.sliding(10, 2, 5,
+                (start, end, key, count, sum, min, max) -> {
+                    counted[0] += count;
+                    firstStart[0] = Math.min(firstStart[0], start);
+                });
+        aggregator.onEvent(100, 1, 1);
+        aggregator.onEvent(96, 1, 1);
+        aggregator.flush();
+        // 两个事件各属于 5 个窗口
+        boolean ok = counted[0] == 10 && firstStart[0] == 88 && aggregator.lateEventCount() == 0;
+        System.out.printf("滑动窗口先 100 后 96：窗口内计数合计 %d，最早窗口起点 %d，迟到 %d，%s%n", counted[0],
+                firstStart[0], aggregator.lateEventCount(), ok ? "正确" : "错误");
+    }
+
+    private static void verify(WindowSpec spec, int n) {
+        long[] timestamps = new long[n];
+        int[] keys = new int[n];
+        long[] values = new long[n];
+        generate(timestamps, keys, values, 50, 7);
+        // 窗口起点 -> 键 -> {count, sum, min, max}
+        Map<Long, Map<Integer, long[]>> actual = new HashMap<>();
+        boolean[] accepted = new boolean[n];
+        int[] index = new int[1];
+        WindowedAggregator aggregator = spec.create(new WindowListener() {
+            @Override
+            public void onResult(long start, long end, int key, long count, long sum, long min, long max) {
+                actual.computeIfAbsent(start, k -> new HashMap<>()).put(key, new long[]{count, sum, min, max});
+            }
+
+            @Override
+            public void onLateEvent(long timestamp, int key, long value) {
+                accepted[index[0]] = false;
+            }
+        });
+        for (int i = 0; i < n; i++) {
+            index[0] = i;
+            accepted[i] = true;
+            aggregator.onEvent(timestamps[i], keys[i], values[i]);
+        }
+        aggregator.flush();
+
+        // 暴力重算：把每个被接受的事件加到它所属的每个窗口
+        long size = spec == WindowSpec.TUMBLING ? 1000 : 10_000;
+        long slide = 1000;
+        Map<Long, Map<Integer, long[]>> expected = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (!accepted[i]) {
+                continue;
+            }
+            long first = (Math.floorDiv(timestamps[i] - size, slide) + 1) * slide;
+            for (long start = first; start <= timestamps[i]; start += slide) {
+                long[] agg = expected.computeIfAbsent(start, k -> new HashMap<>())
+                        .computeIfAbsent(keys[i], k -> new long[]{0, 0, Long.MAX_VALUE, Long.MIN_VALUE});
+                agg[0]++;
+                agg[1] += values[i];
+                agg[2] = Math.min(agg[2], values[i]);
+                agg[3] = Math.max(agg[3], values[i]);
+            }
+        }
+        boolean same = expected.size() == actual.size();
+        for (Map.Entry<Long, Map<Integer, long[]>> e : expected.entrySet()) {
+            Map<Integer, long[]> got = actual.get(e.getKey());
+            if (got == null || got.size() != e.getValue().size()) {
+                same = false;
+                break;
+            }
+            for (Map.Entry<Integer, long[]> k : e.getValue().entrySet()) {
+                same &= Arrays.equals(k.getValue(), got.get(k.getKey()));
+            }
+        }
+        System.out.printf("%-40s 窗口 %,d  迟到 %,d  与暴力重算一致: %s%n", spec.description,
+                actual.size(), aggregator.lateEventCount(), same);
+    }
+}
@@ -0,0 +1,26 @@
+package com.turnip.stream.window;
+
+/**
+ * 接收窗口结果的回调；参数全部是原始类型，每条结果不分配对象
+ * 平均值由 sum / count 得到。
+ */
+@FunctionalInterface
+public interface WindowListener {
+
+    /**
+     * 窗口 [windowStart, windowEnd) 中某个键的聚合结果
+     */
+    void onResult(long windowStart, long windowEnd, int key, long count, long sum, long min, long max);
+
+    /**
+     * 窗口的所有键都已输出
+     */
+    default void onWindowClosed(long windowStart, long windowEnd, int keys) {
+    }
+
+    /**
+     * 事件到达时它所属的窗格已经参与过窗口计算，被丢弃
+     */
+    default void onLateEvent(long timestamp, int key, long value) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.turnip.stream.window;
+
+/**
+ * 基于事件时间的窗口聚合：按 int 键统计滚动窗口或滑动窗口内的 count/sum/min/max
+ *
+ * 时间轴被切成长度为 gcd(size, slide) 的窗格。事件只更新它所在窗格的预聚合表，每个事件 O(1)；
+ * 窗口由连续的窗格组成，触发时通过 {@link PaneQueue} 合并窗格，而不是重新扫描事件。
+ * 窗格表放在环形数组中，环的大小由窗口长度与允许的迟到时间决定，内存有界。
+ *
+ * 水位线 = 已见到的最大事件时间 - allowedLateness，也可以用 {@link #advanceWatermark(long)} 手动推进。
+ * 水位线越过窗口结束时间时触发该窗口，结果逐键交给 {@link WindowListener}。
+ * 事件所属的窗口已经触发、或所在窗格已经参与过窗口计算时视为迟到，丢弃并计数；
+ * 刚开始或空闲之后，比第一个事件更早、但仍在允许迟到范围内的事件会把待触发窗口的起点往前移。
+ *
+ * 非线程安全；多核处理时按键分区，每个分区一个实例。
+ */
+public class WindowedAggregator {
+
+    private final long size;
+    private final long slide;
+    private final long pane;
+    private final long allowedLateness;
+    private final int panesPerWindow;
+    private final int panesPerSlide;
+    private final WindowListener listener;
+
+    private final PaneTable[] ring;
+    private final int ringMask;
+    private final PaneQueue queue = new PaneQueue();
+    private final PaneTable result = new PaneTable();
+
+    // 有尚未输出的事件时为 true
+    private boolean active;
+    // 下一个待触发窗口的起点
+    private long windowStart;
+    // 下一个要进入队列的窗格编号，小于它的窗格已经封存
+    private long nextPane;
+    private long ringEvents;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long watermark = Long.MIN_VALUE;
+
+    private long eventCount;
+    private long lateCount;
+    private long windowCount;
+
+    public static WindowedAggregator tumbling(long size, long allowedLateness, WindowListener listener) {
+        return new WindowedAggregator(size, size, allowedLateness, listener);
+    }
+
+    public static WindowedAggregator sliding(long size, long slide, long allowedLateness, WindowListener listener) {
+        return new WindowedAggregator(size, slide, allowedLateness, listener);
+    }
+
+    /**
+     * @param size            窗口长度
+     * @param slide           滑动步长，等于 size 时为滚动窗口
+     * @param allowedLateness 事件相对最大事件时间允许的乱序程度
+     */
+    public WindowedAggregator(long size, long slide, long allowedLateness, WindowListener listener) {
+        if (size <= 0 || slide <= 0 || slide > size || allowedLateness < 0) {
+            throw new IllegalArgumentException("窗口参数无效: size=" + size + ", slide=" + slide
+                    + ", allowedLateness=" + allowedLateness);
+        }
+        this.size = size;
+        this.slide = slide;
+        this.pane = gcd(size, slide);
+        this.allowedLateness = allowedLateness;
+        this.panesPerWindow = Math.toIntExact(size / pane);
+        this.panesPerSlide = Math.toIntExact(slide / pane);
+        this.listener = listener;
+        // 未封存的窗格最多覆盖 size + allowedLateness 的时间跨度
+        long live = (size + allowedLateness) / pane + 2;
+        if (live > 1 << 20) {
+            throw new IllegalArgumentException("窗格数过多: " + live + "，请增大 slide 或减小 allowedLateness");
+        }
+        int capacity = Integer.highestOneBit((int) live - 1) << 1;
+        this.ring = new PaneTable[capacity];
+        this.ringMask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new PaneTable();
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    public void onEvent(long timestamp, int key, long value) {
+        eventCount++;
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+            if (timestamp - allowedLateness > watermark) {
+                advanceWatermark(timestamp - allowedLateness);
+            }
+        }
+        long p = Math.floorDiv(timestamp, pane);
+        // 包含该事件的第一个窗口；它的结束时间不晚于水位线说明已经触发过
+        long start = (Math.floorDiv(timestamp - size, slide) + 1) * slide;
+        if (start + size <= watermark) {
+            late(timestamp, key, value);
+            return;
+        }
+        if (!active) {
+            activate(start);
+        } else if (start < windowStart) {
+            // 滑动窗口里窗格可能还没封存，但更早的窗口排在 windowStart 之前；
+            // 还没有窗格进队列时才能把起点往前移，否则这些窗口已经无法补发
+            if (nextPane != Math.floorDiv(windowStart, pane)) {
+                late(timestamp, key, value);
+                return;
+            }
+            activate(start);
+        } else if (p < nextPane) {
+            // 窗口还没触发，但窗格已经进了合并队列
+            late(timestamp, key, value);
+            return;
+        }
+        ring[(int) (p & ringMask)].add(key, value);
+        ringEvents++;
+    }
+
+    private void late(long timestamp, int key, long value) {
+        lateCount++;
+        listener.onLateEvent(timestamp, key, value);
+    }
+
+    /**
+     * 从 start 开始的窗口起；之前触发过的窗口结束时间都不晚于水位线，不会重复触发。
+     * 已激活时只会往前移：start 的窗口没触发过却早于 windowStart，说明激活以来一个窗口都没触发，
+     * 窗格也都还没进队列，直接改起点即可；窗格跨度不超过 size + allowedLateness，仍在环的容量之内。
+     */
+    private void activate(long start) {
+        windowStart = start;
+        nextPane = Math.floorDiv(start, pane);
+        active = true;
+    }
+
+    /**
+     * 推进水位线并触发所有结束时间不晚于它的窗口；水位线只会前进
+     */
+    public void advanceWatermark(long newWatermark) {
+        if (newWatermark <= watermark) {
+            return;
+        }
+        watermark = newWatermark;
+        while (active && windowStart + size <= watermark) {
+            fireNextWindow();
+        }
+    }
+
+    /**
+     * 输入结束时调用：不再等待迟到事件，触发所有还有数据的窗口
+     */
+    public void flush() {
+        if (!active) {
+            return;
+        }
+        while (active) {
+            fireNextWindow();
+        }
+        // 最后触发的窗口的结束时间
+        watermark = Math.max(watermark, windowStart - slide + size);
+    }
+
+    private void fireNextWindow() {
+        long end = windowStart + size;
+        long endPane = Math.floorDiv(end, pane);
+        if (panesPerWindow == 1) {
+            // 滚动窗口且窗格即窗口：直接输出窗格本身
+            int slot = (int) (nextPane & ringMask);
+            PaneTable t = ring[slot];
+            ringEvents -= t.events;
+            emit(t, windowStart, end);
+            t.clear();
+            nextPane = endPane;
+        } else {
+            for (; nextPane < endPane; nextPane++) {
+                int slot = (int) (nextPane & ringMask);
+                PaneTable t = ring[slot];
+                ringEvents -= t.events;
+                queue.push(t);
+                ring[slot] = queue.acquire();
+            }
+            queue.aggregateInto(result);
+            emit(result, windowStart, end);
+            for (int i = 0; i < panesPerSlide; i++) {
+                queue.pop();
+            }
+        }
+        windowStart += slide;
+        if (ringEvents == 0 && queue.events() == 0) {
+            // 没有待输出的数据，等下一个事件再从它所在的窗口开始
+            queue.clear();
+            active = false;
+        }
+    }
+
+    private void emit(PaneTable table, long start, long end) {
+        windowCount++;
+        if (table.size() > 0) {
+            table.forEach(start, end, listener);
+        }
+        listener.onWindowClosed(start, end, table.size());
+    }
+
+    public long watermark() {
+        return watermark;
+    }
+
+    public long eventCount() {
+        return eventCount;
+    }
+
+    public long lateEventCount() {
+        return lateCount;
+    }
+
+    public long windowCount() {
+        return windowCount;
+    }
+}
@@ -0,0 +1,95 @@
+package com.turnip.thread;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 短临界区（count++）在不同同步方式下的吞吐与公平性对比：
+ * ReentrantLock 非公平 / 公平、AdaptiveSpinLock、FlatCombiningExecutor。
+ *
+ * 公平性用各线程完成次数的 最少/最多 比值和变异系数表示：
+ * 比值越接近 1、变异系数越小，说明各线程分到的执行机会越平均。
+ * 更精确的吞吐数据见 benchmarks 模块的 CriticalSectionBenchmark。
+ *
+ * 用法：java ... CriticalSectionComparison [线程数，默认8] [每轮毫秒数，默认1000]
+ */
+public class CriticalSectionComparison {
+
+    private static long count;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        System.out.println("线程数: " + threads + ", CPU核数: " + Runtime.getRuntime().availableProcessors());
+
+        Map<String, Runnable> candidates = new LinkedHashMap<>();
+        candidates.put("ReentrantLock(非公平)", lockIncrement(new ReentrantLock()));
+        candidates.put("ReentrantLock(公平)", lockIncrement(new ReentrantLock(true)));
+        AdaptiveSpinLock adaptive = new AdaptiveSpinLock();
+        candidates.put("AdaptiveSpinLock", lockIncrement(adaptive));
+        FlatCombiningExecutor<long[]> combiner = new FlatCombiningExecutor<>(new long[1]);
+        candidates.put("FlatCombining", () -> combiner.run(c -> c[0]++));
+
+        for (Map.Entry<String, Runnable> entry : candidates.entrySet()) {
+            // 预热一轮
+            run(entry.getValue(), threads, millis / 2);
+            long[] perThread = run(entry.getValue(), threads, millis);
+            long total = Arrays.stream(perThread).sum();
+            long min = Arrays.stream(perThread).min().orElse(0);
+            long max = Arrays.stream(perThread).max().orElse(0);
+            double mean = (double) total / threads;
+            double variance = Arrays.stream(perThread).mapToDouble(n -> (n - mean) * (n - mean)).sum() / threads;
+            System.out.printf("%-22s 吞吐: %8.2f Mops/s, 最少/最多: %.3f, 变异系数: %.3f%n",
+                    entry.getKey(), total * 1000.0 / millis / 1_000_000, max == 0 ? 0 : (double) min / max,
+                    mean == 0 ? 0 : Math.sqrt(variance) / mean);
+        }
+        System.out.println("\nAdaptiveSpinLock 状态: " + adaptive);
+        System.out.printf("FlatCombining 平均批大小: %.2f%n", combiner.averageBatchSize());
+    }
+
+    private static Runnable lockIncrement(Lock lock) {
+        return () -> {
+            lock.lock();
+            try {
+                count++;
+            } finally {
+                lock.unlock();
+            }
+        };
+    }
+
+    /**
+     * @return 每个线程完成的操作次数
+     */
+    private static long[] run(Runnable op, int threads, long millis) throws InterruptedException {
+        long[] counts = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        for (int i = 0; i < threads; i++) {
+            final int index = i;
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long n = 0;
+                while ((n & 63) != 0 || System.nanoTime() < deadline) {
+                    op.run();
+                    n++;
+                }
+                counts[index] = n;
+                done.countDown();
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        return counts;
+    }
+}
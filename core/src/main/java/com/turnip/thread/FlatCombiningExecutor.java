@@ -0,0 +1,198 @@
+package com.turnip.thread;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 平面合并（flat combining）执行器
+ *
+ * 每个线程有一条自己的"发布记录"，要对共享状态做操作时把操作写进记录，然后尝试抢合并锁：
+ * 抢到锁的线程成为合并者，扫描所有记录，把别人发布的操作连同自己的一起批量执行，再把结果写回各自的记录；
+ * 没抢到锁的线程只需要在自己的记录上自旋等待结果。
+ * 与"每个线程轮流抢锁执行 count++"相比，共享状态只在合并者的缓存里来回，锁的交接次数也少得多。
+ *
+ * 共享状态只会被合并者访问，因此操作里不需要任何同步；操作不应阻塞，也不要再调用同一个执行器。
+ * 合并者每隔 CLEANUP_INTERVAL 轮把长时间没有发布操作的记录（包括已结束线程的记录）从链表中摘掉，
+ * 记录的主人下次发布操作时发现自己被摘掉，会重新插入链表头部。
+ *
+ * @param <S> 共享状态类型
+ */
+public class FlatCombiningExecutor<S> {
+
+    private static final VarHandle COMBINING;
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            COMBINING = lookup.findVarHandle(FlatCombiningExecutor.class, "combining", int.class);
+            HEAD = lookup.findVarHandle(FlatCombiningExecutor.class, "head", Record.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // 合并者每次持锁最多扫描几轮发布列表
+    private static final int COMBINE_PASSES = 3;
+    private static final int SPINS_BEFORE_YIELD = 256;
+    // 每隔多少轮合并清理一次链表；连续这么多轮没有操作的记录被摘掉
+    private static final int CLEANUP_INTERVAL = 1024;
+    private static final int IDLE_ROUNDS = 1024;
+
+    private final S state;
+    private final ThreadLocal<Record> localRecord = ThreadLocal.withInitial(this::register);
+
+    private volatile int combining;
+    private volatile Record head;
+
+    private long combinedOps;
+    private long combineRounds;
+
+    public FlatCombiningExecutor(S state) {
+        this.state = state;
+    }
+
+    /**
+     * 线程的发布记录，第一次使用时无锁地插入链表头部，之后一直复用；被清理摘掉后由主人重新插入
+     */
+    static final class Record {
+        volatile Function<Object, Object> op;
+        Object result;
+        Throwable failure;
+        Record next;
+        // 是否在链表中；只有合并者改为 false，只有主人改回 true
+        volatile boolean active;
+        // 最近一次执行操作时的合并轮次；插入链表前由主人初始化，之后只由合并者读写
+        long lastUsed;
+    }
+
+    private Record register() {
+        Record record = new Record();
+        link(record);
+        return record;
+    }
+
+    private void link(Record record) {
+        record.lastUsed = combineRounds;
+        record.active = true;
+        Record h;
+        do {
+            h = head;
+            record.next = h;
+        } while (!HEAD.compareAndSet(this, h, record));
+    }
+
+    /**
+     * 对共享状态执行一个操作并返回结果，调用方阻塞直到操作被执行
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R execute(Function<? super S, ? extends R> operation) {
+        Record record = localRecord.get();
+        record.op = (Function<Object, Object>) (Function<?, ?>) operation;
+        int spins = 0;
+        while (record.op != null) {
+            if (!record.active) {
+                // 发布前后被合并者当作空闲记录摘掉了，重新插入，否则没有人会执行这个操作
+                link(record);
+            }
+            if (combining == 0 && COMBINING.compareAndSet(this, 0, 1)) {
+                try {
+                    combine();
+                } finally {
+                    combining = 0;
+                }
+            } else if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else if (spins < SPINS_BEFORE_YIELD * 2) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(1_000);
+            }
+        }
+        // 对 op 的 volatile 读保证能看到合并者写入的 result/failure
+        Throwable failure = record.failure;
+        Object result = record.result;
+        record.result = null;
+        record.failure = null;
+        if (failure != null) {
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            if (failure instanceof Error e) {
+                throw e;
+            }
+            throw new IllegalStateException(failure);
+        }
+        return (R) result;
+    }
+
+    public void run(Consumer<? super S> operation) {
+        execute(s -> {
+            operation.accept(s);
+            return null;
+        });
+    }
+
+    private void combine() {
+        long round = ++combineRounds;
+        for (int pass = 0; pass < COMBINE_PASSES; pass++) {
+            int applied = 0;
+            for (Record r = head; r != null; r = r.next) {
+                Function<Object, Object> op = r.op;
+                if (op == null) {
+                    continue;
+                }
+                try {
+                    r.result = op.apply(state);
+                } catch (Throwable t) {
+                    r.failure = t;
+                }
+                r.lastUsed = round;
+                applied++;
+                // volatile 写发布结果
+                r.op = null;
+            }
+            combinedOps += applied;
+            if (applied == 0) {
+                break;
+            }
+        }
+        if (round % CLEANUP_INTERVAL == 0) {
+            unlinkIdle(round);
+        }
+    }
+
+    /**
+     * 摘掉长时间空闲的记录。头节点可能正被并发插入的线程作为 next，不摘；
+     * 其余节点的 next 只有合并者会改，持有合并锁时可以安全修改。
+     * 先摘链再把 active 置为 false，主人看到 false 时合并者已经不会再碰这条记录。
+     */
+    private void unlinkIdle(long round) {
+        Record prev = head;
+        if (prev == null) {
+            return;
+        }
+        Record r = prev.next;
+        while (r != null) {
+            Record next = r.next;
+            if (r.op == null && round - r.lastUsed > IDLE_ROUNDS) {
+                prev.next = next;
+                r.active = false;
+            } else {
+                prev = r;
+            }
+            r = next;
+        }
+    }
+
+    /**
+     * 平均每次合并执行的操作数，越大说明批处理效果越好；只用于观察，读取时不加锁
+     */
+    public double averageBatchSize() {
+        long rounds = combineRounds;
+        return rounds == 0 ? 0 : (double) combinedOps / rounds;
+    }
+}
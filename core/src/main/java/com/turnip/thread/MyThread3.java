@@ -8,12 +8,22 @@ public class MyThread3 implements Callable<String> {
     @Override
     public String call() throws Exception {
         int[] nums = {3,2,4,5,9,1,10,6,7,8};
-        //希尔排序
-        for (int gap = nums.length/2; gap > 0; gap/=2) {
-            System.out.println("mythread3 " + gap);
-            for (int i = gap; i < nums.length; i++) {
+        shellSort(nums);
+        return Arrays.toString(nums);
+    }
+
+    //希尔排序
+    public static void shellSort(int[] nums) {
+        shellSort(nums, 0, nums.length);
+    }
+
+    //对 [from, to) 区间做希尔排序，供并行排序作为小数组的内核
+    public static void shellSort(int[] nums, int from, int to) {
+        int n = to - from;
+        for (int gap = n/2; gap > 0; gap/=2) {
+            for (int i = from + gap; i < to; i++) {
                 int j = i;
-                while (j-gap>=0 && nums[j]<nums[j-gap]){
+                while (j-gap>=from && nums[j]<nums[j-gap]){
                     int temp = nums[j];
                     nums[j] = nums[j-gap];
                     nums[j-gap] = temp;
@@ -21,6 +31,5 @@ public class MyThread3 implements Callable<String> {
                 }
             }
         }
-        return Arrays.toString(nums);
     }
 }
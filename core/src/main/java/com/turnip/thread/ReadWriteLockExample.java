@@ -14,12 +14,24 @@ public class ReadWriteLockExample {
     private  final Lock readLock = rwLock.readLock();
     // 写锁
     private final Lock writeLock = rwLock.writeLock();
+    // 是否打印每次读写，压测时关闭
+    private final boolean verbose;
+
+    public ReadWriteLockExample() {
+        this(true);
+    }
+
+    public ReadWriteLockExample(boolean verbose) {
+        this.verbose = verbose;
+    }
 
     // 读操作，使用读锁
     public Object get(String key) {
         readLock.lock();
         try {
-            System.out.println(Thread.currentThread().getName() + " 读取数据: " + key);
+            if (verbose) {
+                System.out.println(Thread.currentThread().getName() + " 读取数据: " + key);
+            }
             return cache.get(key);
         } finally {
             readLock.unlock();
@@ -30,7 +42,9 @@ public class ReadWriteLockExample {
     public void put(String key, Object value) {
         writeLock.lock();
         try {
-            System.out.println(Thread.currentThread().getName() + " 写入数据: " + key);
+            if (verbose) {
+                System.out.println(Thread.currentThread().getName() + " 写入数据: " + key);
+            }
             cache.put(key, value);
         } finally {
             writeLock.unlock();
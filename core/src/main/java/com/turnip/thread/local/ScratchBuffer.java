@@ -0,0 +1,198 @@
+package com.turnip.thread.local;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 每个线程一块可复用的 byte[] 临时缓冲区，保留的大小有上限
+ *
+ * 热路径上用 ThreadLocal 缓存缓冲区可以做到零分配，但 ThreadLocalMemoryLeak 演示过它的代价：
+ * 线程池的工作线程长期存活，谁也不 remove()，缓冲区就一直挂在线程上，偶尔一次大请求撑大的数组永远不会缩回去。
+ * 这里的约束：
+ * - 每个线程保留的缓冲区不超过 maxRetainedSize，更大的请求临时分配、用完即丢，并发出警告（限频）；
+ * - 所有线程的缓冲区都登记在册，可以随时查看每个线程保留了多少字节，线程结束后自动清出名册；
+ * - {@link #trim()} 把当前线程的缓冲区缩回初始大小，{@link #release()} 彻底移除，
+ *   通常交给 {@link TaskScopedExecutor} 在任务结束后调用。
+ *
+ * acquire 与直接 ThreadLocal.get() 相比只多一次长度比较。
+ * 缓冲区内容不保证保留：扩容时得到的是新数组。
+ */
+public final class ScratchBuffer {
+
+    private static final long WARN_INTERVAL_NANOS = 10_000_000_000L;
+
+    /**
+     * 一个线程的缓冲区；buffer 只由所属线程写，统计线程只读
+     */
+    static final class Slot {
+        final WeakReference<Thread> owner;
+        final String threadName;
+        volatile byte[] buffer;
+
+        Slot(Thread owner, byte[] buffer) {
+            this.owner = new WeakReference<>(owner);
+            this.threadName = owner.getName();
+            this.buffer = buffer;
+        }
+
+        boolean isDead() {
+            Thread t = owner.get();
+            return t == null || !t.isAlive();
+        }
+    }
+
+    private final String name;
+    private final int initialSize;
+    private final int maxRetainedSize;
+    private final Consumer<String> warnings;
+    private final ThreadLocal<Slot> slots = new ThreadLocal<>();
+    private final Set<Slot> registry = ConcurrentHashMap.newKeySet();
+    private final LongAdder oversized = new LongAdder();
+    private final AtomicLong lastWarning = new AtomicLong(System.nanoTime() - WARN_INTERVAL_NANOS);
+
+    public ScratchBuffer(String name, int initialSize, int maxRetainedSize) {
+        this(name, initialSize, maxRetainedSize, message -> System.err.println("[ScratchBuffer] " + message));
+    }
+
+    /**
+     * @param maxRetainedSize 每个线程最多保留的字节数
+     * @param warnings        警告输出，同一个缓冲区 10 秒内最多一条
+     */
+    public ScratchBuffer(String name, int initialSize, int maxRetainedSize, Consumer<String> warnings) {
+        if (initialSize < 0 || maxRetainedSize < initialSize) {
+            throw new IllegalArgumentException("大小无效: initialSize=" + initialSize + ", maxRetainedSize=" + maxRetainedSize);
+        }
+        this.name = name;
+        this.initialSize = initialSize;
+        this.maxRetainedSize = maxRetainedSize;
+        this.warnings = warnings;
+    }
+
+    /**
+     * 当前线程的缓冲区，长度至少为 minSize
+     */
+    public byte[] acquire(int minSize) {
+        Slot slot = slots.get();
+        if (slot != null) {
+            byte[] buffer = slot.buffer;
+            if (buffer.length >= minSize) {
+                return buffer;
+            }
+        }
+        return grow(slot, minSize);
+    }
+
+    private byte[] grow(Slot slot, int minSize) {
+        if (minSize > maxRetainedSize) {
+            oversized.increment();
+            warn("线程 " + Thread.currentThread().getName() + " 请求 " + minSize + " 字节，超过保留上限 "
+                    + maxRetainedSize + "，临时分配且不保留");
+            return new byte[minSize];
+        }
+        if (slot == null) {
+            slot = register(Math.max(initialSize, minSize));
+            return slot.buffer;
+        }
+        int size = (int) Math.min(maxRetainedSize, Math.max(minSize, (long) slot.buffer.length * 2));
+        byte[] buffer = new byte[size];
+        slot.buffer = buffer;
+        return buffer;
+    }
+
+    private Slot register(int size) {
+        registry.removeIf(Slot::isDead);
+        Slot slot = new Slot(Thread.currentThread(), new byte[size]);
+        slots.set(slot);
+        registry.add(slot);
+        return slot;
+    }
+
+    private void warn(String message) {
+        long now = System.nanoTime();
+        long last = lastWarning.get();
+        if (now - last >= WARN_INTERVAL_NANOS && lastWarning.compareAndSet(last, now)) {
+            warnings.accept(name + ": " + message);
+        }
+    }
+
+    /**
+     * 当前线程的缓冲区超过初始大小时缩回初始大小
+     */
+    public void trim() {
+        Slot slot = slots.get();
+        if (slot != null && slot.buffer.length > initialSize) {
+            slot.buffer = new byte[initialSize];
+        }
+    }
+
+    /**
+     * 移除当前线程的缓冲区
+     */
+    public void release() {
+        Slot slot = slots.get();
+        if (slot != null) {
+            slots.remove();
+            registry.remove(slot);
+        }
+    }
+
+    /**
+     * 当前线程保留的字节数，没有缓冲区时为 0（不会因此创建）
+     */
+    public long retainedBytesOfCurrentThread() {
+        Slot slot = slots.get();
+        return slot == null ? 0 : slot.buffer.length;
+    }
+
+    /**
+     * 所有存活线程保留的字节数之和
+     */
+    public long retainedBytes() {
+        // 已结束线程的缓冲区只被名册引用，顺便清掉
+        registry.removeIf(Slot::isDead);
+        long total = 0;
+        for (Slot slot : registry) {
+            total += slot.buffer.length;
+        }
+        return total;
+    }
+
+    /**
+     * 按线程名统计保留的字节数
+     */
+    public Map<String, Long> retainedBytesByThread() {
+        registry.removeIf(Slot::isDead);
+        Map<String, Long> result = new TreeMap<>();
+        for (Slot slot : registry) {
+            result.merge(slot.threadName, (long) slot.buffer.length, Long::sum);
+        }
+        return result;
+    }
+
+    /**
+     * 超过保留上限、只能临时分配的请求次数
+     */
+    public long oversizedRequests() {
+        return oversized.sum();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxRetainedSize() {
+        return maxRetainedSize;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScratchBuffer[%s, 上限 %d, 线程数 %d, 保留 %d 字节, 超限请求 %d]",
+                name, maxRetainedSize, registry.size(), retainedBytes(), oversizedRequests());
+    }
+}
@@ -0,0 +1,150 @@
+package com.turnip.thread.local;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 把 ThreadLocal 的生命周期限定在单个任务内的线程池包装
+ *
+ * 每个任务结束后（无论正常结束还是抛异常），在同一个工作线程上：
+ * - 对登记过的 ThreadLocal 调用 remove()，ThreadLocalMemoryLeak 里那种"忘了 remove"不会再把对象挂在线程上；
+ * - 登记过的 {@link ScratchBuffer} 保留给下一个任务复用，但统计该线程保留的字节数，
+ *   超过 warnRetainedBytes 时发出警告并把这些缓冲区缩回初始大小。
+ * 只能清理登记过的 ThreadLocal：JDK 没有公开的接口列出一个线程上的全部 ThreadLocal。
+ *
+ * submit/invokeAll 等都经过 execute，因此都受约束。
+ */
+public final class TaskScopedExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final long warnRetainedBytes;
+    private final Consumer<String> warnings;
+    private final List<ThreadLocal<?>> locals = new CopyOnWriteArrayList<>();
+    private final List<ScratchBuffer> buffers = new CopyOnWriteArrayList<>();
+    // 工作线程 -> 最近一个任务结束时保留的字节数；线程池换掉的线程在下次更新或读取时清除
+    private final Map<Thread, Long> retainedByWorker = new ConcurrentHashMap<>();
+    private final LongAdder tasks = new LongAdder();
+    private final LongAdder trims = new LongAdder();
+
+    public TaskScopedExecutor(ExecutorService delegate, long warnRetainedBytes) {
+        this(delegate, warnRetainedBytes, message -> System.err.println("[TaskScopedExecutor] " + message));
+    }
+
+    /**
+     * @param warnRetainedBytes 任务结束后一个工作线程保留的缓冲区字节数超过该值时警告并缩减
+     */
+    public TaskScopedExecutor(ExecutorService delegate, long warnRetainedBytes, Consumer<String> warnings) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.warnRetainedBytes = warnRetainedBytes;
+        this.warnings = warnings;
+    }
+
+    /**
+     * 每个任务结束后 remove() 该 ThreadLocal
+     */
+    public TaskScopedExecutor clearAfterTask(ThreadLocal<?> local) {
+        locals.add(Objects.requireNonNull(local));
+        return this;
+    }
+
+    /**
+     * 跨任务保留该缓冲区，但纳入保留字节数的统计和上限检查
+     */
+    public TaskScopedExecutor track(ScratchBuffer buffer) {
+        buffers.add(Objects.requireNonNull(buffer));
+        return this;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        delegate.execute(() -> {
+            try {
+                command.run();
+            } finally {
+                afterTask();
+            }
+        });
+    }
+
+    private void afterTask() {
+        tasks.increment();
+        for (ThreadLocal<?> local : locals) {
+            local.remove();
+        }
+        if (buffers.isEmpty()) {
+            return;
+        }
+        long retained = 0;
+        for (ScratchBuffer buffer : buffers) {
+            retained += buffer.retainedBytesOfCurrentThread();
+        }
+        Thread worker = Thread.currentThread();
+        if (retained > warnRetainedBytes) {
+            trims.increment();
+            warnings.accept(worker.getName() + " 任务结束后保留 " + retained + " 字节缓冲区，超过 " + warnRetainedBytes + "，已缩减");
+            retained = 0;
+            for (ScratchBuffer buffer : buffers) {
+                buffer.trim();
+                retained += buffer.retainedBytesOfCurrentThread();
+            }
+        }
+        retainedByWorker.keySet().removeIf(t -> !t.isAlive());
+        retainedByWorker.put(worker, retained);
+    }
+
+    /**
+     * 每个存活的工作线程最近一个任务结束时保留的缓冲区字节数，按线程名排序
+     */
+    public Map<String, Long> retainedBytesByWorker() {
+        retainedByWorker.keySet().removeIf(t -> !t.isAlive());
+        Map<String, Long> result = new TreeMap<>();
+        retainedByWorker.forEach((t, bytes) -> result.put(t.getName(), bytes));
+        return result;
+    }
+
+    public long completedTasks() {
+        return tasks.sum();
+    }
+
+    /**
+     * 因超过 warnRetainedBytes 而缩减缓冲区的次数
+     */
+    public long trimCount() {
+        return trims.sum();
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,74 @@
+package com.turnip.thread.local;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ThreadLocalMemoryLeak 的场景换成 TaskScopedExecutor + ScratchBuffer：
+ * 1. 任务里 set 了 10MB 对象但不 remove，任务结束后对象仍然能被回收；
+ * 2. 临时缓冲区跨任务复用，偶尔的大请求不会让工作线程永久占着大数组。
+ */
+public class ThreadLocalLeakExample {
+
+    static class BigObject {
+        private final byte[] data = new byte[10 * 1024 * 1024];
+        private final String id;
+
+        BigObject(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final ThreadLocal<BigObject> BIG = new ThreadLocal<>();
+    private static final ScratchBuffer SCRATCH = new ScratchBuffer("scratch", 4 * 1024, 1024 * 1024);
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("===== 不清理的线程池（ThreadLocalMemoryLeak 的写法）=====");
+        leak(Executors.newFixedThreadPool(1));
+
+        System.out.println("\n===== TaskScopedExecutor =====");
+        TaskScopedExecutor executor = new TaskScopedExecutor(Executors.newFixedThreadPool(2), 256 * 1024)
+                .clearAfterTask(BIG)
+                .track(SCRATCH);
+        leak(executor);
+
+        // 大多数任务用 4KB，少数要 512KB，偶尔有 8MB
+        int[] sizes = {4096, 4096, 512 * 1024, 4096, 8 * 1024 * 1024, 4096};
+        for (int round = 0; round < 3; round++) {
+            for (int size : sizes) {
+                executor.submit(() -> {
+                    byte[] buffer = SCRATCH.acquire(size);
+                    buffer[size - 1] = 1;
+                }).get();
+            }
+        }
+        System.out.println("完成任务数: " + executor.completedTasks() + "，缩减次数: " + executor.trimCount());
+        System.out.println("每个工作线程任务结束后保留的字节数: " + executor.retainedBytesByWorker());
+        System.out.println(SCRATCH);
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 任务 1 设置 BigObject 且不 remove，之后检查对象还在不在
+     */
+    private static void leak(ExecutorService executor) throws Exception {
+        AtomicReference<WeakReference<BigObject>> ref = new AtomicReference<>();
+        executor.submit(() -> {
+            BigObject big = new BigObject("OBJ-1");
+            BIG.set(big);
+            ref.set(new WeakReference<>(big));
+        }).get();
+        // get() 在任务体结束时就返回，afterTask 可能还没跑完
+        Thread.sleep(200);
+        System.gc();
+        boolean stillSet = executor.submit(() -> BIG.get() != null).get();
+        System.out.println("任务2 还能读到 OBJ-1: " + stillSet + "，GC 后 OBJ-1 " + (ref.get().get() == null ? "已被回收" : "仍然存活（泄露）"));
+        if (!(executor instanceof TaskScopedExecutor)) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.turnip.thread.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 无锁的固定桶延迟直方图（单位：纳秒）
+ *
+ * 分桶方式为"对数 + 线性"：0~15 每个值一个桶；之后每个 2 的幂区间再均分为 8 个子桶，
+ * 相对误差不超过 12.5%，覆盖整个 long 范围只需要 488 个桶。
+ * 计数数组按 CPU 数分段，线程按探针落到自己的分段里做原子加，写线程之间互不争抢同一缓存行；
+ * 和 {@link StripedCounter} 一样，在分段上 CAS 失败说明有别的线程在用它，此时换一个探针。
+ * {@link #snapshot()} 只是逐个读取各分段，不会阻塞写线程；快照不是某一瞬间的精确切面，
+ * 但每个桶的计数都是单调的，不会出现"读到一半"的值。
+ */
+public class LatencyHistogram {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKETS = LINEAR_BUCKETS + (63 - 4) * SUB_BUCKETS;
+
+    // 每个分段数组前后各留 16 个 long（128 字节）作为填充
+    private static final int PAD = 16;
+    private static final int SUM_SLOT = PAD + BUCKETS;
+    private static final int STRIPE_LENGTH = SUM_SLOT + 1 + PAD;
+
+    private final long[][] stripes;
+    private final MinGauge min = new MinGauge();
+    private final MaxGauge max = new MaxGauge();
+
+    public LatencyHistogram() {
+        this(Striping.ceilPowerOfTwo(Striping.NCPU));
+    }
+
+    public LatencyHistogram(int stripeCount) {
+        stripes = new long[Striping.ceilPowerOfTwo(stripeCount)][];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new long[STRIPE_LENGTH];
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int mask = stripes.length - 1;
+        long[] stripe = stripes[Striping.probe() & mask];
+        // 每次记录都会写总和，用它的 CAS 探测分段上的竞争；失败则换探针，这次和以后都落到别的分段
+        long sum = (long) LONGS.getVolatile(stripe, SUM_SLOT);
+        if (!LONGS.compareAndSet(stripe, SUM_SLOT, sum, sum + value)) {
+            stripe = stripes[Striping.advanceProbe() & mask];
+            LONGS.getAndAdd(stripe, SUM_SLOT, value);
+        }
+        LONGS.getAndAdd(stripe, PAD + bucketOf(value), 1L);
+        min.update(value);
+        max.update(value);
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toNanos(duration));
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 桶覆盖范围的上界（包含）
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        // 最后一个桶的上界会溢出，截断到 Long.MAX_VALUE
+        return lower + width - 1 < lower ? Long.MAX_VALUE : lower + width - 1;
+    }
+
+    /**
+     * 读取当前计数，写线程继续运行
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long sum = 0;
+        for (long[] stripe : stripes) {
+            for (int b = 0; b < BUCKETS; b++) {
+                counts[b] += (long) LONGS.getVolatile(stripe, PAD + b);
+            }
+            sum += (long) LONGS.getVolatile(stripe, SUM_SLOT);
+        }
+        return new Snapshot(counts, sum, min.get(), max.get());
+    }
+
+    /**
+     * 不可变的直方图快照
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long min;
+        private final long max;
+
+        Snapshot(long[] counts, long sum, long min, long max) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+            this.sum = sum;
+            this.min = total == 0 ? 0 : min;
+            this.max = total == 0 ? 0 : max;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long min() {
+            return min;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param percentile 0~100
+         * @return 该分位数所在桶的上界，不超过观测到的最大值
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int b = 0; b < counts.length; b++) {
+                seen += counts[b];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(bucketUpperBound(b), max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, min=%dns, mean=%.1fns, p50=%dns, p99=%dns, p99.9=%dns, max=%dns",
+                    count, min, mean(), percentile(50), percentile(99), percentile(99.9), max);
+        }
+    }
+}
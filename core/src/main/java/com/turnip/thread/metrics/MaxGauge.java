@@ -0,0 +1,49 @@
+package com.turnip.thread.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 记录观测到的最大值
+ * 绝大多数更新都不会刷新最大值，先做一次普通读，只有真正变大时才 CAS，
+ * 所以高并发下基本没有写竞争。
+ */
+public class MaxGauge {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(MaxGauge.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long value = Long.MIN_VALUE;
+
+    public void update(long sample) {
+        long current;
+        while (sample > (current = value)) {
+            if (VALUE.weakCompareAndSet(this, current, sample)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 最大值，没有任何样本时为 Long.MIN_VALUE
+     */
+    public long get() {
+        return value;
+    }
+
+    public long getAndReset() {
+        return (long) VALUE.getAndSet(this, Long.MIN_VALUE);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
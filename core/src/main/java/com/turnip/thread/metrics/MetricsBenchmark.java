@@ -0,0 +1,112 @@
+package com.turnip.thread.metrics;
+
+import com.turnip.thread.ReentrantLockExample;
+import com.turnip.thread.SynchronizedExample;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 计数器 / 直方图在 1~64 个线程下的扩展性对比
+ * 每种实现在每个线程数下固定运行一段时间，统计总吞吐（百万次/秒）。
+ *
+ * 用法：java ... MetricsBenchmark [每轮毫秒数，默认500]
+ */
+public class MetricsBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        System.out.println("CPU核数: " + Runtime.getRuntime().availableProcessors() + ", 每轮 " + millis + "ms");
+
+        Map<String, Runnable> counters = new LinkedHashMap<>();
+        SynchronizedExample sync = new SynchronizedExample();
+        counters.put("synchronized", sync::incrementWithLock);
+        ReentrantLockExample reentrant = new ReentrantLockExample();
+        counters.put("ReentrantLock", reentrant::increment);
+        AtomicLong atomic = new AtomicLong();
+        counters.put("AtomicLong", atomic::incrementAndGet);
+        LongAdder adder = new LongAdder();
+        counters.put("LongAdder", adder::increment);
+        StripedCounter striped = new StripedCounter();
+        counters.put("StripedCounter", striped::increment);
+
+        LockedHistogram locked = new LockedHistogram();
+        counters.put("synchronized直方图", () -> locked.record(System.nanoTime() & 0xFFFFF));
+        LatencyHistogram histogram = new LatencyHistogram();
+        counters.put("LatencyHistogram", () -> histogram.record(System.nanoTime() & 0xFFFFF));
+
+        System.out.printf("%-20s", "线程数");
+        for (int t : THREADS) {
+            System.out.printf("%10d", t);
+        }
+        System.out.println();
+        for (Map.Entry<String, Runnable> entry : counters.entrySet()) {
+            // 先用单线程跑一轮预热，让 JIT 编译完成
+            measure(entry.getValue(), 1, millis);
+            System.out.printf("%-20s", entry.getKey());
+            for (int t : THREADS) {
+                System.out.printf("%10.1f", measure(entry.getValue(), t, millis));
+            }
+            System.out.println("  Mops/s");
+        }
+
+        System.out.println("\nStripedCounter 合计: " + striped.sum() + ", LongAdder 合计: " + adder.sum());
+        System.out.println("LatencyHistogram 快照: " + histogram.snapshot());
+    }
+
+    /**
+     * @return 所有线程合计的百万次操作/秒
+     */
+    private static double measure(Runnable op, int threads, long millis) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] ops = new long[threads * 16];
+        long deadline = System.nanoTime() + millis * 1_000_000L + 50_000_000L;
+        for (int i = 0; i < threads; i++) {
+            final int slot = i * 16;
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long n = 0;
+                // 每 256 次检查一次时间，避免 nanoTime 主导开销
+                while ((n & 255) != 0 || System.nanoTime() < deadline) {
+                    op.run();
+                    n++;
+                }
+                ops[slot] = n;
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        long total = 0;
+        for (int i = 0; i < threads; i++) {
+            total += ops[i * 16];
+        }
+        return total * 1000.0 / elapsed;
+    }
+
+    /**
+     * 对照组：一把锁保护的普通直方图
+     */
+    private static class LockedHistogram {
+        private final long[] counts = new long[LatencyHistogram.BUCKETS];
+        private long sum;
+
+        synchronized void record(long nanos) {
+            counts[LatencyHistogram.bucketOf(nanos)]++;
+            sum += nanos;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.turnip.thread.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 记录观测到的最小值，实现方式与 {@link MaxGauge} 对称
+ */
+public class MinGauge {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(MinGauge.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long value = Long.MAX_VALUE;
+
+    public void update(long sample) {
+        long current;
+        while (sample < (current = value)) {
+            if (VALUE.weakCompareAndSet(this, current, sample)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 最小值，没有任何样本时为 Long.MAX_VALUE
+     */
+    public long get() {
+        return value;
+    }
+
+    public long getAndReset() {
+        return (long) VALUE.getAndSet(this, Long.MAX_VALUE);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(value);
+    }
+}
@@ -0,0 +1,209 @@
+package com.turnip.thread.metrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 分段计数器（LongAdder 的简化实现）
+ * 无竞争时只 CAS 一个 base 字段；一旦 CAS 失败就启用 cell 数组，
+ * 每个线程按探针落到不同的 cell 上累加，cell 之间做缓存行填充避免伪共享。
+ * 读取时把 base 和所有 cell 求和，结果不是瞬时快照，但不会丢失已完成的累加。
+ *
+ * 用来替代 SynchronizedExample.incrementWithLock / ReentrantLockExample.increment
+ * 这种"一把锁包住 count++"的写法。
+ */
+public class StripedCounter {
+
+    private static final VarHandle BASE;
+    private static final VarHandle CELLS_BUSY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BASE = lookup.findVarHandle(StripedCounter.class, "base", long.class);
+            CELLS_BUSY = lookup.findVarHandle(StripedCounter.class, "cellsBusy", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // cell 数量上限：不超过 CPU 数的两倍
+    private static final int MAX_CELLS = Striping.ceilPowerOfTwo(Striping.NCPU * 2);
+
+    private volatile long base;
+    private volatile Cell[] cells;
+    // 扩容/初始化 cell 数组时的自旋锁
+    private volatile int cellsBusy;
+
+    public void increment() {
+        add(1L);
+    }
+
+    public void decrement() {
+        add(-1L);
+    }
+
+    public void add(long x) {
+        Cell[] cs = cells;
+        if (cs == null) {
+            long b = base;
+            if (BASE.compareAndSet(this, b, b + x)) {
+                return;
+            }
+        } else {
+            Cell c = cs[Striping.probe() & (cs.length - 1)];
+            if (c != null && c.cas(x)) {
+                return;
+            }
+        }
+        addContended(x);
+    }
+
+    /**
+     * 竞争路径：初始化 cell 数组、补齐空 cell、冲突时换探针或扩容
+     */
+    private void addContended(long x) {
+        int probe = Striping.probe();
+        boolean collided = false;
+        for (;;) {
+            Cell[] cs = cells;
+            if (cs == null) {
+                if (cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1)) {
+                    try {
+                        if (cells == null) {
+                            Cell[] fresh = new Cell[2];
+                            fresh[probe & 1] = new Cell(x);
+                            cells = fresh;
+                            return;
+                        }
+                    } finally {
+                        cellsBusy = 0;
+                    }
+                    continue;
+                }
+                long b = base;
+                if (BASE.compareAndSet(this, b, b + x)) {
+                    return;
+                }
+                continue;
+            }
+            int n = cs.length;
+            Cell c = cs[probe & (n - 1)];
+            if (c == null) {
+                if (cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1)) {
+                    try {
+                        Cell[] current = cells;
+                        int idx = probe & (current.length - 1);
+                        if (current[idx] == null) {
+                            current[idx] = new Cell(x);
+                            return;
+                        }
+                    } finally {
+                        cellsBusy = 0;
+                    }
+                }
+                continue;
+            }
+            if (c.cas(x)) {
+                return;
+            }
+            if (n >= MAX_CELLS || cells != cs) {
+                collided = false;
+            } else if (!collided) {
+                // 第一次冲突先换探针，再冲突才扩容
+                collided = true;
+            } else if (cellsBusy == 0 && CELLS_BUSY.compareAndSet(this, 0, 1)) {
+                try {
+                    if (cells == cs) {
+                        Cell[] grown = new Cell[n << 1];
+                        System.arraycopy(cs, 0, grown, 0, n);
+                        cells = grown;
+                    }
+                } finally {
+                    cellsBusy = 0;
+                }
+                collided = false;
+                continue;
+            }
+            probe = Striping.advanceProbe();
+        }
+    }
+
+    public long sum() {
+        long sum = base;
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell c : cs) {
+                if (c != null) {
+                    sum += c.value;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 求和并清零；与并发写入之间没有原子性，适合周期性上报
+     */
+    public long sumThenReset() {
+        long sum = (long) BASE.getAndSet(this, 0L);
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell c : cs) {
+                if (c != null) {
+                    sum += c.getAndReset();
+                }
+            }
+        }
+        return sum;
+    }
+
+    public void reset() {
+        sumThenReset();
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+
+    // 以下三层继承保证 value 前后各有 56 字节填充，JVM 不会跨类重排字段
+    @SuppressWarnings("unused")
+    static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    static class CellValue extends LeftPadding {
+        volatile long value;
+    }
+
+    @SuppressWarnings("unused")
+    static class RightPadding extends CellValue {
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    static final class Cell extends RightPadding {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(CellValue.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        Cell(long x) {
+            value = x;
+        }
+
+        boolean cas(long x) {
+            long v = value;
+            return VALUE.compareAndSet(this, v, v + x);
+        }
+
+        long getAndReset() {
+            return (long) VALUE.getAndSet(this, 0L);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.turnip.thread.metrics;
+
+/**
+ * 线程到分段（stripe）的映射
+ * 每个线程持有一个探针值，CAS 冲突时换一个探针，使竞争的线程逐渐分散到不同的分段上。
+ */
+final class Striping {
+
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+            () -> new int[]{mix((int) Thread.currentThread().getId())});
+
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    private Striping() {
+    }
+
+    static int probe() {
+        return PROBE.get()[0];
+    }
+
+    /**
+     * xorshift 换一个探针，返回新值
+     */
+    static int advanceProbe() {
+        int[] holder = PROBE.get();
+        int p = holder[0];
+        p ^= p << 13;
+        p ^= p >>> 17;
+        p ^= p << 5;
+        holder[0] = p;
+        return p;
+    }
+
+    static int ceilPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,226 @@
+package com.turnip.thread.offheap;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 全堆缓存 vs 堆外两级缓存：GC 停顿与内存占用对比
+ *
+ * 用法：java ... OffHeapCacheBenchmark [heap|tiered|mapped] [条目数] [值大小字节]
+ * 不同模式之间会互相污染堆状态，应分别在独立 JVM 中运行，例如：
+ *   -Xmx16g -XX:MaxDirectMemorySize=8g ... OffHeapCacheBenchmark heap 10000000 128
+ *   -Xmx16g -XX:MaxDirectMemorySize=8g ... OffHeapCacheBenchmark tiered 10000000 128
+ *   -Xmx8g ... OffHeapCacheBenchmark mapped 50000000 128
+ * 不带参数时在同一个 JVM 里依次跑 1M 条目的 heap 和 tiered，仅用于快速观察。
+ */
+public class OffHeapCacheBenchmark {
+
+    private static final int READ_OPS = 5_000_000;
+
+    // GC 通知统计：次数、累计停顿、最大停顿
+    private static final AtomicLong gcCount = new AtomicLong();
+    private static final AtomicLong gcTotalMillis = new AtomicLong();
+    private static final AtomicLong gcMaxMillis = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        installGcListener();
+        int valueSize = args.length > 2 ? Integer.parseInt(args[2]) : 128;
+        if (args.length > 0) {
+            int entries = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+            run(args[0], entries, valueSize);
+        } else {
+            run("heap", 1_000_000, valueSize);
+            run("tiered", 1_000_000, valueSize);
+        }
+    }
+
+    private static void run(String mode, int entries, int valueSize) throws Exception {
+        System.out.println("\n=== " + mode + " 模式, " + entries + " 条, 值大小 " + valueSize + " 字节 ===");
+        System.gc();
+        resetGcStats();
+        long heapBefore = usedHeap();
+
+        Cache cache = createCache(mode, entries, valueSize);
+        long start = System.nanoTime();
+        for (int i = 0; i < entries; i++) {
+            cache.put("key" + i, valueFor(i, valueSize));
+        }
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // 80% 的读落在 1% 的热点 key 上
+        int hotKeys = Math.max(1, entries / 100);
+        start = System.nanoTime();
+        long checksum = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < READ_OPS; i++) {
+            int k = random.nextInt(10) < 8 ? random.nextInt(hotKeys) : random.nextInt(entries);
+            byte[] value = cache.get("key" + k);
+            checksum += value[0];
+        }
+        long readNanos = System.nanoTime() - start;
+
+        long loadGcCount = gcCount.get();
+        long loadGcMillis = gcTotalMillis.get();
+        long loadGcMax = gcMaxMillis.get();
+
+        // 缓存存活时的 Full GC 耗时：堆越大、对象越多，标记越慢
+        start = System.nanoTime();
+        System.gc();
+        long fullGcMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("写入耗时: " + loadMillis + "ms, 随机读: "
+                + String.format("%.1f", readNanos / (double) READ_OPS) + "ns/op (checksum " + checksum + ")");
+        System.out.println("GC次数: " + loadGcCount + ", GC累计停顿: " + loadGcMillis + "ms, 最大单次停顿: " + loadGcMax + "ms");
+        System.out.println("缓存存活时 System.gc() 耗时: " + fullGcMillis + "ms");
+        System.out.println("堆占用: " + ((usedHeap() - heapBefore) >> 20) + "MB, 直接内存: "
+                + (bufferPool("direct") >> 20) + "MB, 映射内存: " + (bufferPool("mapped") >> 20) + "MB");
+        cache.report();
+        cache.close();
+    }
+
+    private static byte[] valueFor(int i, int valueSize) {
+        byte[] value = new byte[valueSize];
+        value[0] = (byte) i;
+        value[valueSize - 1] = (byte) (i >>> 8);
+        return value;
+    }
+
+    private static Cache createCache(String mode, int entries, int valueSize) {
+        // 预留 30% 给 size class 内部碎片
+        long capacity = (long) (entries * (long) valueSize * 1.3) + (256L << 20);
+        switch (mode) {
+            case "heap":
+                return new HeapCache();
+            case "tiered":
+                return new TieredAdapter(new TieredCache<>(OffHeapStore.direct(capacity, entries),
+                        ValueCodec.BYTES, Math.max(1, entries / 100), 2));
+            case "mapped":
+                return new TieredAdapter(new TieredCache<>(OffHeapStore.mapped(capacity, entries),
+                        ValueCodec.BYTES, Math.max(1, entries / 100), 2));
+            default:
+                throw new IllegalArgumentException("未知模式: " + mode);
+        }
+    }
+
+    private interface Cache {
+        void put(String key, byte[] value);
+
+        byte[] get(String key);
+
+        default void report() {
+        }
+
+        default void close() throws Exception {
+        }
+    }
+
+    /**
+     * 与 ReadWriteLockExample 相同结构的全堆缓存（去掉了逐次打印）
+     */
+    private static class HeapCache implements Cache {
+        private final Map<String, Object> cache = new HashMap<>();
+        private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+        private final Lock readLock = rwLock.readLock();
+        private final Lock writeLock = rwLock.writeLock();
+
+        @Override
+        public void put(String key, byte[] value) {
+            writeLock.lock();
+            try {
+                cache.put(key, value);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        @Override
+        public byte[] get(String key) {
+            readLock.lock();
+            try {
+                return (byte[]) cache.get(key);
+            } finally {
+                readLock.unlock();
+            }
+        }
+    }
+
+    private static class TieredAdapter implements Cache {
+        private final TieredCache<byte[]> cache;
+
+        TieredAdapter(TieredCache<byte[]> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void put(String key, byte[] value) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public byte[] get(String key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public void report() {
+            System.out.println(cache.statsString());
+        }
+
+        @Override
+        public void close() throws Exception {
+            cache.close();
+        }
+    }
+
+    private static void installGcListener() {
+        NotificationListener listener = (Notification notification, Object handback) -> {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            long duration = info.getGcInfo().getDuration();
+            gcCount.incrementAndGet();
+            gcTotalMillis.addAndGet(duration);
+            gcMaxMillis.accumulateAndGet(duration, Math::max);
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+        }
+    }
+
+    private static void resetGcStats() throws InterruptedException {
+        // GC 通知是异步投递的，稍等让上一次 System.gc() 的通知先到
+        Thread.sleep(200);
+        gcCount.set(0);
+        gcTotalMillis.set(0);
+        gcMaxMillis.set(0);
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long bufferPool(String name) {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals(name)) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0;
+    }
+}
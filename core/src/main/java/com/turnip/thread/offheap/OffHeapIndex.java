@@ -0,0 +1,182 @@
+package com.turnip.thread.offheap;
+
+import java.util.Arrays;
+
+/**
+ * 堆上的 key -> 堆外地址索引
+ * 开放寻址 + 线性探测，删除时向后移位（backward shift），不需要墓碑。
+ * 每个条目在堆上只占 key 引用 + 地址 + 长度 + 版本 + 访问计数，没有 HashMap.Node 和装箱的 Long。
+ *
+ * 非线程安全，由 {@link OffHeapStore} 的读写锁保护。
+ */
+class OffHeapIndex {
+
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private String[] keys;
+    private long[] addresses;
+    private int[] lengths;
+    // 写入时的版本号，由 OffHeapStore 单调分配；搬迁不改变版本
+    private long[] versions;
+    // 近似访问计数，读锁下递增，存在竞争丢失但不影响正确性
+    private int[] hits;
+    private int size;
+    private int mask;
+
+    OffHeapIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        addresses = new long[capacity];
+        lengths = new int[capacity];
+        versions = new long[capacity];
+        hits = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return 槽位下标，不存在返回 -1
+     */
+    int find(String key) {
+        int slot = spread(key.hashCode()) & mask;
+        String k;
+        while ((k = keys[slot]) != null) {
+            if (k.equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 插入或覆盖
+     * @return 被覆盖的旧地址，新 key 返回 -1
+     */
+    long put(String key, long address, int length, long version) {
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            rehash(keys.length * 2);
+        }
+        int slot = spread(key.hashCode()) & mask;
+        String k;
+        while ((k = keys[slot]) != null) {
+            if (k.equals(key)) {
+                long old = addresses[slot];
+                addresses[slot] = address;
+                lengths[slot] = length;
+                versions[slot] = version;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        addresses[slot] = address;
+        lengths[slot] = length;
+        versions[slot] = version;
+        hits[slot] = 0;
+        size++;
+        return -1;
+    }
+
+    /**
+     * 删除槽位，并把后续同簇元素前移填补空洞
+     */
+    void removeAt(int slot) {
+        size--;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != null) {
+            int home = spread(keys[next].hashCode()) & mask;
+            // home 不在 (gap, next] 区间内时，next 可以移到 gap
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                addresses[gap] = addresses[next];
+                lengths[gap] = lengths[next];
+                versions[gap] = versions[next];
+                hits[gap] = hits[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = null;
+    }
+
+    String keyAt(int slot) {
+        return keys[slot];
+    }
+
+    long addressAt(int slot) {
+        return addresses[slot];
+    }
+
+    int lengthAt(int slot) {
+        return lengths[slot];
+    }
+
+    long versionAt(int slot) {
+        return versions[slot];
+    }
+
+    void relocate(int slot, long address) {
+        addresses[slot] = address;
+    }
+
+    int hit(int slot) {
+        return ++hits[slot];
+    }
+
+    void resetHits(int slot) {
+        hits[slot] = 0;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * 估算索引自身的堆占用（不含 key 字符串）
+     */
+    long heapBytes() {
+        return (long) keys.length * (4 + 8 + 4 + 8 + 4);
+    }
+
+    private void rehash(int newCapacity) {
+        String[] oldKeys = keys;
+        long[] oldAddresses = addresses;
+        int[] oldLengths = lengths;
+        long[] oldVersions = versions;
+        int[] oldHits = hits;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            String k = oldKeys[i];
+            if (k != null) {
+                int slot = spread(k.hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = k;
+                addresses[slot] = oldAddresses[i];
+                lengths[slot] = oldLengths[i];
+                versions[slot] = oldVersions[i];
+                hits[slot] = oldHits[i];
+            }
+        }
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,226 @@
+package com.turnip.thread.offheap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 堆外字节存储：值的字节放在 {@link SlabAllocator} 管理的堆外内存里，
+ * 堆上只有 {@link OffHeapIndex} 中的 key/地址/长度。
+ * 加锁方式与 ReadWriteLockExample 一致：读操作共享读锁，写操作和压缩独占写锁。
+ */
+public class OffHeapStore implements Closeable {
+
+    // 容量耗尽时自动压缩使用的存活率阈值
+    private static final double AUTO_COMPACT_THRESHOLD = 0.5;
+
+    private final SlabAllocator allocator;
+    private final OffHeapIndex index;
+    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final Lock readLock = rwLock.readLock();
+    private final Lock writeLock = rwLock.writeLock();
+    // 每次 put 分配一个新版本号，写锁保护；删除后再写入的同一个 key 版本也不同
+    private long nextVersion;
+
+    public OffHeapStore(SlabAllocator allocator, int expectedEntries) {
+        this.allocator = allocator;
+        this.index = new OffHeapIndex(expectedEntries);
+    }
+
+    /**
+     * 默认配置：直接内存，256MB 一个 segment，1MB 一个 page
+     */
+    public static OffHeapStore direct(long capacityBytes, int expectedEntries) {
+        return new OffHeapStore(new SlabAllocator(SlabAllocator.Mode.DIRECT, capacityBytes, 256 << 20, 1 << 20),
+                expectedEntries);
+    }
+
+    public static OffHeapStore mapped(long capacityBytes, int expectedEntries) {
+        return new OffHeapStore(new SlabAllocator(SlabAllocator.Mode.MAPPED, capacityBytes, 256 << 20, 1 << 20),
+                expectedEntries);
+    }
+
+    public byte[] get(String key) {
+        Lookup lookup = lookup(key);
+        return lookup == null ? null : lookup.bytes();
+    }
+
+    /**
+     * 读取并累加访问计数，供 {@link TieredCache} 判断是否晋升到堆上热层
+     */
+    Lookup lookup(String key) {
+        readLock.lock();
+        try {
+            int slot = index.find(key);
+            if (slot < 0) {
+                return null;
+            }
+            long address = index.addressAt(slot);
+            byte[] bytes = new byte[index.lengthAt(slot)];
+            allocator.read(address, bytes, bytes.length);
+            return new Lookup(bytes, index.versionAt(slot), index.hit(slot));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * 当前 key 的版本，用于检测读取之后值是否被覆盖或删除；不存在返回 -1
+     * 不能比较堆外地址：空闲 slot 后进先出复用，删除再写入后很可能拿回同一个地址
+     */
+    long versionOf(String key) {
+        readLock.lock();
+        try {
+            int slot = index.find(key);
+            return slot < 0 ? -1 : index.versionAt(slot);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    void resetHits(String key) {
+        readLock.lock();
+        try {
+            int slot = index.find(key);
+            if (slot >= 0) {
+                index.resetHits(slot);
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * 写入值；先分配新 slot 再释放旧 slot，覆盖过程中旧地址不会被立即复用
+     * @throws IllegalStateException 压缩之后堆外容量仍不足
+     */
+    public void put(String key, byte[] value) {
+        if (value.length > allocator.maxValueSize()) {
+            throw new IllegalArgumentException("值长度" + value.length + "超过堆外单值上限" + allocator.maxValueSize());
+        }
+        writeLock.lock();
+        try {
+            long address = allocator.allocate(value.length);
+            if (address < 0) {
+                compactLocked(AUTO_COMPACT_THRESHOLD);
+                address = allocator.allocate(value.length);
+                if (address < 0) {
+                    throw new IllegalStateException("堆外容量已耗尽: " + allocator.capacityBytes() + " bytes");
+                }
+            }
+            allocator.write(address, value, value.length);
+            long old = index.put(key, address, value.length, nextVersion++);
+            if (old >= 0) {
+                allocator.free(old);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean remove(String key) {
+        writeLock.lock();
+        try {
+            int slot = index.find(key);
+            if (slot < 0) {
+                return false;
+            }
+            allocator.free(index.addressAt(slot));
+            index.removeAt(slot);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 压缩：把存活率低于 threshold 的 page 上的值搬到其他 page，空出来的 page 归还给公共池
+     * @return 回收的字节数
+     */
+    public long compact(double threshold) {
+        writeLock.lock();
+        try {
+            return compactLocked(threshold);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private long compactLocked(double threshold) {
+        if (!allocator.beginCompaction(threshold)) {
+            return 0;
+        }
+        byte[] buffer = new byte[allocator.maxValueSize()];
+        boolean finished = false;
+        try {
+            for (int slot = 0; slot < index.capacity(); slot++) {
+                if (index.keyAt(slot) == null) {
+                    continue;
+                }
+                long from = index.addressAt(slot);
+                if (!allocator.isEvacuating(from)) {
+                    continue;
+                }
+                int length = index.lengthAt(slot);
+                long to = allocator.allocate(length);
+                if (to < 0) {
+                    // beginCompaction 只挑装得下的 page，正常不会走到这里；放弃压缩，已搬的值留在新位置
+                    return 0;
+                }
+                allocator.read(from, buffer, length);
+                allocator.write(to, buffer, length);
+                allocator.free(from);
+                index.relocate(slot, to);
+            }
+            finished = true;
+            return allocator.finishCompaction();
+        } finally {
+            if (!finished) {
+                allocator.abortCompaction();
+            }
+        }
+    }
+
+    public int size() {
+        readLock.lock();
+        try {
+            return index.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        readLock.lock();
+        try {
+            return new Stats(index.size(), allocator.usedBytes(), allocator.reservedBytes(), index.heapBytes());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            index.clear();
+            allocator.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    record Lookup(byte[] bytes, long version, int hits) {
+    }
+
+    /**
+     * @param entries       条目数
+     * @param usedBytes     slot 占用的堆外字节
+     * @param reservedBytes 已申请的堆外字节
+     * @param indexHeapBytes 索引数组的堆占用（不含 key 字符串）
+     */
+    public record Stats(int entries, long usedBytes, long reservedBytes, long indexHeapBytes) {
+    }
+}
@@ -0,0 +1,406 @@
+package com.turnip.thread.offheap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * 堆外内存的 slab 分配器
+ * 内存按 segment（直接内存或内存映射文件）申请，每个 segment 切成固定大小的 page，
+ * 每个 page 只服务一个 size class，page 内再切成等长的 slot。
+ * 地址是一个 long：page 编号 * pageSize + slot 偏移，堆上不需要为每个值保留对象。
+ *
+ * 本类不是线程安全的，由调用方（{@link OffHeapStore}）加锁。
+ */
+public class SlabAllocator implements Closeable {
+
+    /**
+     * 堆外内存来源
+     */
+    public enum Mode {
+        /** ByteBuffer.allocateDirect，内存由 Cleaner 在 GC 后释放 */
+        DIRECT,
+        /** 临时文件的 MappedByteBuffer，由操作系统页缓存兜底，可超过物理内存 */
+        MAPPED
+    }
+
+    private static final int MIN_SLOT = 32;
+    private static final double GROWTH_FACTOR = 1.25;
+
+    private final Mode mode;
+    private final int pageSize;
+    private final int segmentSize;
+    private final int pagesPerSegment;
+    private final int maxSegments;
+    private final int[] classSizes;
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private FileChannel channel;
+    private Path mappedFile;
+
+    // 每个 size class 的空闲 slot 地址栈
+    private final LongStack[] freeSlots;
+    // 被压缩回收、可以给任意 size class 复用的空 page
+    private final IntStack freePages = new IntStack();
+    // 已切出去的 page 数（按顺序从 segment 中切）
+    private int carvedPages;
+    // page -> size class（-1 表示空闲），page -> 存活 slot 数
+    private int[] pageClass = new int[64];
+    private int[] pageLive = new int[64];
+    // 压缩期间正在被搬空的 page
+    private boolean[] evacuating;
+    // 压缩期间从空闲栈摘下、以及搬迁时释放的待搬空 page 上的 slot；放弃压缩时原样归还
+    private final LongStack detached = new LongStack();
+
+    private long usedBytes;
+
+    public SlabAllocator(Mode mode, long capacityBytes, int segmentSize, int pageSize) {
+        if (pageSize < MIN_SLOT || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("pageSize必须是2的幂且不小于" + MIN_SLOT + ": " + pageSize);
+        }
+        if (segmentSize < pageSize || segmentSize % pageSize != 0) {
+            throw new IllegalArgumentException("segmentSize必须是pageSize的整数倍: " + segmentSize);
+        }
+        this.mode = mode;
+        this.pageSize = pageSize;
+        this.segmentSize = segmentSize;
+        this.pagesPerSegment = segmentSize / pageSize;
+        this.maxSegments = (int) Math.max(1, (capacityBytes + segmentSize - 1) / segmentSize);
+        this.classSizes = buildClassSizes(pageSize);
+        this.freeSlots = new LongStack[classSizes.length];
+        for (int i = 0; i < freeSlots.length; i++) {
+            freeSlots[i] = new LongStack();
+        }
+        Arrays.fill(pageClass, -1);
+    }
+
+    /**
+     * 按 1.25 倍增长生成 size class，8 字节对齐，最后一个等于 pageSize
+     */
+    private static int[] buildClassSizes(int pageSize) {
+        List<Integer> sizes = new ArrayList<>();
+        int size = MIN_SLOT;
+        while (size < pageSize) {
+            sizes.add(size);
+            int next = (int) Math.ceil(size * GROWTH_FACTOR);
+            size = Math.min(pageSize, (next + 7) & ~7);
+        }
+        sizes.add(pageSize);
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public int maxValueSize() {
+        return pageSize;
+    }
+
+    /**
+     * 分配一个能容纳 length 字节的 slot
+     * @return slot 地址，容量不足时返回 -1
+     */
+    public long allocate(int length) {
+        int cls = sizeClassOf(length);
+        LongStack free = freeSlots[cls];
+        if (free.isEmpty() && !carvePage(cls)) {
+            return -1;
+        }
+        long address = free.pop();
+        pageLive[pageOf(address)]++;
+        usedBytes += classSizes[cls];
+        return address;
+    }
+
+    /**
+     * 释放 slot；page 即使全部空闲也仍归属原 size class，直到下一次压缩
+     */
+    public void free(long address) {
+        int page = pageOf(address);
+        int cls = pageClass[page];
+        pageLive[page]--;
+        usedBytes -= classSizes[cls];
+        if (isEvacuatingPage(page)) {
+            detached.push(address);
+        } else {
+            freeSlots[cls].push(address);
+        }
+    }
+
+    public void write(long address, byte[] src, int length) {
+        segmentOf(address).put(offsetInSegment(address), src, 0, length);
+    }
+
+    /**
+     * 绝对位置读取，不修改 ByteBuffer 的 position，可以在读锁下并发调用
+     */
+    public void read(long address, byte[] dst, int length) {
+        segmentOf(address).get(offsetInSegment(address), dst, 0, length);
+    }
+
+    /**
+     * 开始一次压缩：挑出存活率低于 threshold 的 page 标记为待搬空，
+     * 并把它们的空闲 slot 从空闲栈中摘掉，保证搬迁时不会再分配到这些 page 上。
+     * 空 page 总是搬空；稀疏 page 按存活数从少到多挑选，只挑同一 size class 留下的 page 空位装得下的，
+     * 所以搬迁时的分配一定成功，不需要新 page。
+     * @return 是否有需要搬空的 page
+     */
+    boolean beginCompaction(double threshold) {
+        evacuating = new boolean[carvedPages];
+        boolean any = false;
+        // 每个 size class 留下的 page 上的空位数，以及要搬过去的值的个数
+        long[] keptFree = new long[classSizes.length];
+        long[] moving = new long[classSizes.length];
+        List<Integer> sparse = new ArrayList<>();
+        for (int page = 0; page < carvedPages; page++) {
+            int cls = pageClass[page];
+            if (cls < 0) {
+                continue;
+            }
+            int slots = pageSize / classSizes[cls];
+            if (pageLive[page] == 0) {
+                evacuating[page] = true;
+                any = true;
+            } else {
+                keptFree[cls] += slots - pageLive[page];
+                if (pageLive[page] < slots * threshold) {
+                    sparse.add(page);
+                }
+            }
+        }
+        sparse.sort((a, b) -> Integer.compare(pageLive[a], pageLive[b]));
+        for (int page : sparse) {
+            int cls = pageClass[page];
+            int live = pageLive[page];
+            long free = keptFree[cls] - (pageSize / classSizes[cls] - live);
+            if (moving[cls] + live <= free) {
+                keptFree[cls] = free;
+                moving[cls] += live;
+                evacuating[page] = true;
+                any = true;
+            }
+        }
+        if (!any) {
+            evacuating = null;
+            return false;
+        }
+        for (LongStack free : freeSlots) {
+            free.moveIf(address -> evacuating[pageOf(address)], detached);
+        }
+        return true;
+    }
+
+    /**
+     * 放弃本次压缩：待搬空 page 上的空闲 slot 归还空闲栈，已搬走的值留在新位置
+     */
+    void abortCompaction() {
+        while (!detached.isEmpty()) {
+            long address = detached.pop();
+            freeSlots[pageClass[pageOf(address)]].push(address);
+        }
+        evacuating = null;
+    }
+
+    boolean isEvacuating(long address) {
+        return isEvacuatingPage(pageOf(address));
+    }
+
+    // 压缩过程中新切出的 page 不在 evacuating 数组范围内
+    private boolean isEvacuatingPage(int page) {
+        return evacuating != null && page < evacuating.length && evacuating[page];
+    }
+
+    /**
+     * 结束压缩，把搬空的 page 归还到公共 page 池
+     * @return 回收的字节数
+     */
+    long finishCompaction() {
+        long reclaimed = 0;
+        for (int page = 0; page < evacuating.length; page++) {
+            if (evacuating[page]) {
+                if (pageLive[page] != 0) {
+                    throw new IllegalStateException("page " + page + " 仍有存活数据: " + pageLive[page]);
+                }
+                pageClass[page] = -1;
+                freePages.push(page);
+                reclaimed += pageSize;
+            }
+        }
+        detached.clear();
+        evacuating = null;
+        return reclaimed;
+    }
+
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    public long reservedBytes() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    public long capacityBytes() {
+        return (long) maxSegments * segmentSize;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    private int sizeClassOf(int length) {
+        if (length > pageSize) {
+            throw new IllegalArgumentException("值长度" + length + "超过单个page大小" + pageSize);
+        }
+        int idx = Arrays.binarySearch(classSizes, Math.max(length, 1));
+        return idx >= 0 ? idx : -idx - 1;
+    }
+
+    /**
+     * 给 size class 分配一个新 page，并把其中所有 slot 压入空闲栈
+     */
+    private boolean carvePage(int cls) {
+        int page;
+        if (!freePages.isEmpty()) {
+            page = freePages.pop();
+        } else {
+            if (carvedPages == (long) segments.size() * pagesPerSegment && !addSegment()) {
+                return false;
+            }
+            page = carvedPages++;
+            ensurePageArrays(carvedPages);
+        }
+        pageClass[page] = cls;
+        pageLive[page] = 0;
+        int slotSize = classSizes[cls];
+        long base = (long) page * pageSize;
+        // 倒序压栈，使分配顺序与地址顺序一致
+        for (int off = (pageSize / slotSize - 1) * slotSize; off >= 0; off -= slotSize) {
+            freeSlots[cls].push(base + off);
+        }
+        return true;
+    }
+
+    private boolean addSegment() {
+        if (segments.size() >= maxSegments) {
+            return false;
+        }
+        try {
+            if (mode == Mode.DIRECT) {
+                segments.add(ByteBuffer.allocateDirect(segmentSize));
+            } else {
+                if (channel == null) {
+                    mappedFile = Files.createTempFile("offheap-", ".slab");
+                    mappedFile.toFile().deleteOnExit();
+                    channel = FileChannel.open(mappedFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                long position = (long) segments.size() * segmentSize;
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize));
+            }
+            return true;
+        } catch (IOException | OutOfMemoryError e) {
+            // 直接内存达到 -XX:MaxDirectMemorySize 或磁盘空间不足，按容量耗尽处理
+            return false;
+        }
+    }
+
+    private void ensurePageArrays(int pages) {
+        if (pages > pageClass.length) {
+            int oldLength = pageClass.length;
+            int newLength = Math.max(pages, oldLength * 2);
+            pageClass = Arrays.copyOf(pageClass, newLength);
+            pageLive = Arrays.copyOf(pageLive, newLength);
+            Arrays.fill(pageClass, oldLength, newLength, -1);
+        }
+    }
+
+    private int pageOf(long address) {
+        return (int) (address / pageSize);
+    }
+
+    private ByteBuffer segmentOf(long address) {
+        return segments.get((int) (address / segmentSize));
+    }
+
+    private int offsetInSegment(long address) {
+        return (int) (address % segmentSize);
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments.clear();
+        for (LongStack free : freeSlots) {
+            free.clear();
+        }
+        if (channel != null) {
+            channel.close();
+            Files.deleteIfExists(mappedFile);
+        }
+    }
+
+    /**
+     * 基本类型 long 栈，避免空闲链表装箱
+     */
+    private static final class LongStack {
+        private long[] items = new long[16];
+        private int size;
+
+        void push(long value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        long pop() {
+            return items[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * 把满足条件的元素移到 target
+         */
+        void moveIf(LongPredicate predicate, LongStack target) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (predicate.test(items[i])) {
+                    target.push(items[i]);
+                } else {
+                    items[kept++] = items[i];
+                }
+            }
+            size = kept;
+        }
+    }
+
+    private static final class IntStack {
+        private int[] items = new int[16];
+        private int size;
+
+        void push(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        int pop() {
+            return items[--size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.turnip.thread.offheap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 两级缓存：所有值的字节都写入堆外的 {@link OffHeapStore}，
+ * 被频繁读取的值解码后晋升到一个有上限的堆上 LRU 热层，避免每次都拷贝和反序列化。
+ * 热层只是堆外数据的副本，淘汰时直接丢弃即可。
+ */
+public class TieredCache<V> implements Closeable {
+
+    private final OffHeapStore store;
+    private final ValueCodec<V> codec;
+    private final int promoteThreshold;
+    private final Map<String, V> hot;
+
+    private final LongAdder hotHits = new LongAdder();
+    private final LongAdder offHeapHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param hotCapacity      热层最多保留的条目数，0 表示关闭热层
+     * @param promoteThreshold 堆外命中多少次后晋升到热层
+     */
+    public TieredCache(OffHeapStore store, ValueCodec<V> codec, int hotCapacity, int promoteThreshold) {
+        this.store = store;
+        this.codec = codec;
+        this.promoteThreshold = promoteThreshold;
+        // accessOrder=true 时 get 也会修改链表，所以热层统一用 synchronized 保护
+        this.hot = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > hotCapacity;
+            }
+        };
+    }
+
+    public V get(String key) {
+        synchronized (hot) {
+            V value = hot.get(key);
+            if (value != null) {
+                hotHits.increment();
+                return value;
+            }
+        }
+        OffHeapStore.Lookup lookup = store.lookup(key);
+        if (lookup == null) {
+            misses.increment();
+            return null;
+        }
+        offHeapHits.increment();
+        V value = codec.decode(lookup.bytes());
+        if (lookup.hits() >= promoteThreshold) {
+            promote(key, value, lookup.version());
+        }
+        return value;
+    }
+
+    /**
+     * 只有当版本没有变化（期间没有 put 覆盖或删除）时才晋升，
+     * put 在同一把锁下清理热层，因此热层不会留下旧值
+     */
+    private void promote(String key, V value, long version) {
+        synchronized (hot) {
+            if (store.versionOf(key) == version) {
+                hot.put(key, value);
+            }
+        }
+        store.resetHits(key);
+    }
+
+    public void put(String key, V value) {
+        store.put(key, codec.encode(value));
+        synchronized (hot) {
+            hot.remove(key);
+        }
+    }
+
+    public void remove(String key) {
+        store.remove(key);
+        synchronized (hot) {
+            hot.remove(key);
+        }
+    }
+
+    public int hotSize() {
+        synchronized (hot) {
+            return hot.size();
+        }
+    }
+
+    public OffHeapStore store() {
+        return store;
+    }
+
+    public String statsString() {
+        OffHeapStore.Stats stats = store.stats();
+        return String.format("entries=%d, hot=%d, hotHits=%d, offHeapHits=%d, misses=%d, offHeapUsed=%dMB, offHeapReserved=%dMB",
+                stats.entries(), hotSize(), hotHits.sum(), offHeapHits.sum(), misses.sum(),
+                stats.usedBytes() >> 20, stats.reservedBytes() >> 20);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (hot) {
+            hot.clear();
+        }
+        store.close();
+    }
+}
@@ -0,0 +1,37 @@
+package com.turnip.thread.offheap;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 值与堆外字节之间的编解码
+ */
+public interface ValueCodec<V> {
+
+    ValueCodec<byte[]> BYTES = new ValueCodec<>() {
+        @Override
+        public byte[] encode(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    ValueCodec<String> UTF8 = new ValueCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    byte[] encode(V value);
+
+    V decode(byte[] bytes);
+}
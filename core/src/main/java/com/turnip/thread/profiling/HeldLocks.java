@@ -0,0 +1,64 @@
+package com.turnip.thread.profiling;
+
+import java.util.Arrays;
+
+/**
+ * 当前线程持有的被监控锁，按获取顺序入栈
+ * 用于计算持锁时间（只对采样到的获取记录开始时间）和维护锁顺序图。
+ */
+final class HeldLocks {
+
+    private static final ThreadLocal<HeldLocks> CURRENT = ThreadLocal.withInitial(HeldLocks::new);
+
+    private LockStats[] locks = new LockStats[8];
+    private long[] startNanos = new long[8];
+    private int size;
+
+    static HeldLocks current() {
+        return CURRENT.get();
+    }
+
+    void push(LockStats lock, long start) {
+        if (size == locks.length) {
+            locks = Arrays.copyOf(locks, size * 2);
+            startNanos = Arrays.copyOf(startNanos, size * 2);
+        }
+        locks[size] = lock;
+        startNanos[size] = start;
+        size++;
+    }
+
+    /**
+     * 弹出最近一次获取的该锁（允许不按 LIFO 顺序释放）
+     * @return 该次获取的采样开始时间，未采样为 0；没有找到返回 -1
+     */
+    long pop(LockStats lock) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (locks[i] == lock) {
+                long start = startNanos[i];
+                System.arraycopy(locks, i + 1, locks, i, size - i - 1);
+                System.arraycopy(startNanos, i + 1, startNanos, i, size - i - 1);
+                locks[--size] = null;
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    boolean holds(LockStats lock) {
+        for (int i = 0; i < size; i++) {
+            if (locks[i] == lock) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    LockStats get(int i) {
+        return locks[i];
+    }
+}
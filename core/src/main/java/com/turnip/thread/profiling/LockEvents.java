@@ -0,0 +1,59 @@
+package com.turnip.thread.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 自定义 JFR 事件，用 JDK Mission Control 打开录制文件后在 "Turnip / Locks" 分类下查看
+ * 录制示例：java -XX:StartFlightRecording=filename=locks.jfr,settings=profile ...
+ */
+final class LockEvents {
+
+    private LockEvents() {
+    }
+
+    @Name("com.turnip.LockWait")
+    @Label("Lock Wait")
+    @Description("线程在命名锁上发生竞争并等待")
+    @Category({"Turnip", "Locks"})
+    @Threshold("1 ms")
+    @StackTrace
+    static final class LockWaitEvent extends Event {
+        @Label("Lock Name")
+        String lockName;
+
+        @Label("Mode")
+        String mode;
+    }
+
+    @Name("com.turnip.LockHold")
+    @Label("Lock Hold")
+    @Description("被采样的一次持锁时间超过阈值")
+    @Category({"Turnip", "Locks"})
+    @StackTrace
+    static final class LockHoldEvent extends Event {
+        @Label("Lock Name")
+        String lockName;
+
+        @Label("Mode")
+        String mode;
+
+        @Label("Hold Nanos")
+        long holdNanos;
+    }
+
+    @Name("com.turnip.LockOrderCycle")
+    @Label("Lock Order Cycle")
+    @Description("锁获取顺序图中出现环，存在潜在死锁")
+    @Category({"Turnip", "Locks"})
+    @StackTrace
+    static final class LockOrderCycleEvent extends Event {
+        @Label("Cycle")
+        String cycle;
+    }
+}
@@ -0,0 +1,128 @@
+package com.turnip.thread.profiling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 锁获取顺序图
+ * 线程持有 A 时再获取 B，就记一条 A -> B 的边。新边加入时检查是否能从 B 走回 A，
+ * 如果能说明存在 A、B 顺序相反的两条代码路径（DeadlockExample 中 lockA/lockB 的情形），
+ * 即使这两条路径这一次没有同时执行、没有真的卡死，也会被提前报告出来。
+ *
+ * 已存在的边只需一次 ConcurrentHashMap 查找，只有新边才走一次广度优先搜索。
+ */
+public class LockOrderGraph {
+
+    private final Map<String, Set<String>> edges = new ConcurrentHashMap<>();
+    private final Set<String> reportedCycles = ConcurrentHashMap.newKeySet();
+    private final List<List<String>> cycles = new CopyOnWriteArrayList<>();
+    private final Consumer<String> listener;
+
+    public LockOrderGraph(Consumer<String> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 当前线程在持有 held 中所有锁的情况下获取 acquiring
+     */
+    void onAcquire(HeldLocks held, LockStats acquiring) {
+        String to = acquiring.name();
+        for (int i = 0; i < held.size(); i++) {
+            String from = held.get(i).name();
+            if (from.equals(to)) {
+                continue;
+            }
+            Set<String> targets = edges.get(from);
+            if (targets != null && targets.contains(to)) {
+                continue;
+            }
+            if (edges.computeIfAbsent(from, k -> ConcurrentHashMap.newKeySet()).add(to)) {
+                checkCycle(from, to);
+            }
+        }
+    }
+
+    private void checkCycle(String from, String to) {
+        List<String> path = findPath(to, from);
+        if (path == null) {
+            return;
+        }
+        // 环：from -> to -> ... -> from
+        List<String> cycle = new ArrayList<>();
+        cycle.add(from);
+        cycle.addAll(path);
+        if (!reportedCycles.add(canonical(cycle))) {
+            return;
+        }
+        cycles.add(Collections.unmodifiableList(cycle));
+        String description = String.join(" -> ", cycle);
+        LockEvents.LockOrderCycleEvent event = new LockEvents.LockOrderCycleEvent();
+        event.cycle = description;
+        event.commit();
+        listener.accept("检测到锁顺序环（潜在死锁）: " + description);
+    }
+
+    /**
+     * 广度优先查找 start 到 target 的路径（包含两端）
+     */
+    private List<String> findPath(String start, String target) {
+        Map<String, String> parent = new HashMap<>();
+        Deque<String> queue = new ArrayDeque<>();
+        Set<String> visited = new HashSet<>();
+        queue.add(start);
+        visited.add(start);
+        while (!queue.isEmpty()) {
+            String node = queue.poll();
+            if (node.equals(target)) {
+                List<String> path = new ArrayList<>();
+                for (String n = node; n != null; n = parent.get(n)) {
+                    path.add(0, n);
+                }
+                return path;
+            }
+            for (String next : edges.getOrDefault(node, Set.of())) {
+                if (visited.add(next)) {
+                    parent.put(next, node);
+                    queue.add(next);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 同一个环从不同节点开始描述时视为同一个环
+     */
+    private static String canonical(List<String> cycle) {
+        List<String> nodes = cycle.subList(0, cycle.size() - 1);
+        int minIndex = 0;
+        for (int i = 1; i < nodes.size(); i++) {
+            if (nodes.get(i).compareTo(nodes.get(minIndex)) < 0) {
+                minIndex = i;
+            }
+        }
+        List<String> rotated = new ArrayList<>(nodes.subList(minIndex, nodes.size()));
+        rotated.addAll(nodes.subList(0, minIndex));
+        return String.join(",", rotated);
+    }
+
+    public List<List<String>> cycles() {
+        return List.copyOf(cycles);
+    }
+
+    public Map<String, Set<String>> edges() {
+        Map<String, Set<String>> copy = new HashMap<>();
+        edges.forEach((k, v) -> copy.put(k, Set.copyOf(v)));
+        return copy;
+    }
+}
@@ -0,0 +1,119 @@
+package com.turnip.thread.profiling;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * 锁竞争分析器演示
+ * 1. DeadlockExample 的 lockA/lockB 顺序反转：两个线程先后执行、并不会真的卡住，但锁顺序环会被报告出来；
+ * 2. 计数器锁上的竞争、读写锁缓存的读写比例；
+ * 3. 一次故意持锁 20ms 的慢持有者，报告中会带上它的调用栈。
+ *
+ * 配合 JFR 查看自定义事件：
+ *   java -XX:StartFlightRecording=filename=locks.jfr ... LockProfilerDemo
+ *   jfr print --events com.turnip.LockWait,com.turnip.LockHold,com.turnip.LockOrderCycle locks.jfr
+ */
+public class LockProfilerDemo {
+
+    private static final LockProfiler profiler = LockProfiler.getDefault();
+
+    private static final Lock lockA = profiler.newLock("lockA");
+    private static final Lock lockB = profiler.newLock("lockB");
+
+    public static void main(String[] args) throws InterruptedException {
+        // 1. 先 A 后 B
+        Thread t1 = new Thread(() -> {
+            lockA.lock();
+            try {
+                lockB.lock();
+                lockB.unlock();
+            } finally {
+                lockA.unlock();
+            }
+        }, "线程1");
+        t1.start();
+        t1.join();
+
+        // 先 B 后 A：t1 已经结束所以不会死锁，但获取 A 时就会报告环
+        Thread t2 = new Thread(() -> {
+            lockB.lock();
+            try {
+                lockA.lock();
+                lockA.unlock();
+            } finally {
+                lockB.unlock();
+            }
+        }, "线程2");
+        t2.start();
+        t2.join();
+
+        // 2. 计数器竞争
+        Lock counterLock = profiler.newLock("counter");
+        long[] count = {0};
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 200_000; j++) {
+                    counterLock.lock();
+                    try {
+                        count[0]++;
+                    } finally {
+                        counterLock.unlock();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        // 读写锁缓存
+        ReadWriteLock rwLock = profiler.newReadWriteLock("cache");
+        Map<String, Object> cache = new HashMap<>();
+        Thread writer = new Thread(() -> {
+            for (int j = 0; j < 10_000; j++) {
+                rwLock.writeLock().lock();
+                try {
+                    cache.put("key" + (j % 100), j);
+                } finally {
+                    rwLock.writeLock().unlock();
+                }
+            }
+        });
+        Thread reader = new Thread(() -> {
+            for (int j = 0; j < 100_000; j++) {
+                rwLock.readLock().lock();
+                try {
+                    cache.get("key" + (j % 100));
+                } finally {
+                    rwLock.readLock().unlock();
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+
+        // 3. 慢持有者：只有被采样或发生竞争的那几次会记录持锁时间和调用栈
+        for (int i = 0; i < 3; i++) {
+            holdSlowly(counterLock);
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+        writer.join();
+        reader.join();
+
+        System.out.println("最终计数: " + count[0]);
+        System.out.println(profiler.report());
+    }
+
+    private static void holdSlowly(Lock lock) throws InterruptedException {
+        lock.lock();
+        try {
+            Thread.sleep(20);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.turnip.thread.profiling;
+
+import com.turnip.thread.metrics.LatencyHistogram;
+import com.turnip.thread.metrics.MaxGauge;
+import com.turnip.thread.metrics.StripedCounter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 单个命名锁（某一种获取模式）的统计数据
+ * 计数器和直方图都复用 metrics 包里的无锁实现，统计本身不会成为新的竞争点。
+ */
+public class LockStats {
+
+    // 最多保留多少种不同的慢持有者调用栈
+    private static final int MAX_HOLDER_STACKS = 32;
+    private static final int STACK_DEPTH = 8;
+
+    private final String name;
+    private final String mode;
+    private final StripedCounter acquisitions = new StripedCounter();
+    private final StripedCounter contentions = new StripedCounter();
+    private final LatencyHistogram waitNanos = new LatencyHistogram();
+    private final LatencyHistogram holdNanos = new LatencyHistogram();
+    private final MaxGauge maxHoldNanos = new MaxGauge();
+    private final Map<String, LongAdder> slowHolderStacks = new ConcurrentHashMap<>();
+
+    LockStats(String name, String mode) {
+        this.name = name;
+        this.mode = mode;
+    }
+
+    void recordAcquire(boolean contended, long waited) {
+        acquisitions.increment();
+        if (contended) {
+            contentions.increment();
+            waitNanos.record(waited);
+        }
+    }
+
+    /**
+     * tryLock(timeout) 超时：算一次竞争，但不算获取
+     */
+    void recordTimeout(long waited) {
+        contentions.increment();
+        waitNanos.record(waited);
+    }
+
+    void recordHold(long held) {
+        holdNanos.record(held);
+        maxHoldNanos.update(held);
+    }
+
+    /**
+     * 记录当前线程（持锁者）的调用栈，只在采样且持锁超过阈值时调用
+     */
+    void recordSlowHolder() {
+        String stack = StackWalker.getInstance().walk(frames -> frames
+                .dropWhile(f -> f.getClassName().equals(LockStats.class.getName())
+                        || f.getClassName().equals(ProfiledLock.class.getName()))
+                .limit(STACK_DEPTH)
+                .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .collect(Collectors.joining(" <- ")));
+        LongAdder counter = slowHolderStacks.get(stack);
+        if (counter == null) {
+            if (slowHolderStacks.size() >= MAX_HOLDER_STACKS) {
+                return;
+            }
+            counter = slowHolderStacks.computeIfAbsent(stack, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String mode() {
+        return mode;
+    }
+
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    public long contentions() {
+        return contentions.sum();
+    }
+
+    public LatencyHistogram.Snapshot waitSnapshot() {
+        return waitNanos.snapshot();
+    }
+
+    /**
+     * 持锁时间只来自被采样的获取
+     */
+    public LatencyHistogram.Snapshot holdSnapshot() {
+        return holdNanos.snapshot();
+    }
+
+    public long maxHoldNanos() {
+        return Math.max(0, maxHoldNanos.get());
+    }
+
+    /**
+     * @return 调用栈 -> 出现次数，按次数降序
+     */
+    public Map<String, Long> slowHolderStacks() {
+        return slowHolderStacks.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum(),
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+
+    @Override
+    public String toString() {
+        LatencyHistogram.Snapshot wait = waitSnapshot();
+        LatencyHistogram.Snapshot hold = holdSnapshot();
+        return String.format("%s[%s] 获取=%d, 竞争=%d, 等待p50/p99=%d/%dns, 持有p50/p99/max=%d/%d/%dns",
+                name, mode, acquisitions(), contentions(),
+                wait.percentile(50), wait.percentile(99),
+                hold.percentile(50), hold.percentile(99), maxHoldNanos());
+    }
+}
@@ -0,0 +1,164 @@
+package com.turnip.thread.profiling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 带监控的 Lock，可以直接替换 ReentrantLockExample 里的 ReentrantLock
+ * 记录获取次数、竞争次数、竞争等待时间、采样的持锁时间，并参与锁顺序检测。
+ *
+ * 注意：在 Condition.await() 期间锁会被临时释放，这段时间会计入持锁时间。
+ */
+public class ProfiledLock implements Lock {
+
+    private final LockProfiler profiler;
+    private final Lock delegate;
+    private final LockStats stats;
+    // 公平锁不能先 tryLock 插队，改为通过队列状态判断是否竞争
+    private final ReentrantLock fairDelegate;
+
+    ProfiledLock(LockProfiler profiler, Lock delegate, LockStats stats) {
+        this.profiler = profiler;
+        this.delegate = delegate;
+        this.stats = stats;
+        this.fairDelegate = delegate instanceof ReentrantLock rl && rl.isFair() ? rl : null;
+    }
+
+    @Override
+    public void lock() {
+        if (tryUncontended()) {
+            return;
+        }
+        LockEvents.LockWaitEvent event = new LockEvents.LockWaitEvent();
+        event.begin();
+        long start = System.nanoTime();
+        delegate.lock();
+        long waited = System.nanoTime() - start;
+        commitWait(event);
+        afterAcquire(true, waited);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (tryUncontended()) {
+            return;
+        }
+        LockEvents.LockWaitEvent event = new LockEvents.LockWaitEvent();
+        event.begin();
+        long start = System.nanoTime();
+        delegate.lockInterruptibly();
+        long waited = System.nanoTime() - start;
+        commitWait(event);
+        afterAcquire(true, waited);
+    }
+
+    @Override
+    public boolean tryLock() {
+        if (delegate.tryLock()) {
+            afterAcquire(false, 0);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        if (tryUncontended()) {
+            return true;
+        }
+        LockEvents.LockWaitEvent event = new LockEvents.LockWaitEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean acquired = delegate.tryLock(time, unit);
+        long waited = System.nanoTime() - start;
+        commitWait(event);
+        if (acquired) {
+            afterAcquire(true, waited);
+        } else {
+            stats.recordTimeout(waited);
+        }
+        return acquired;
+    }
+
+    @Override
+    public void unlock() {
+        long start = HeldLocks.current().pop(stats);
+        long end = start > 0 ? System.nanoTime() : 0;
+        delegate.unlock();
+        if (start > 0) {
+            long held = end - start;
+            stats.recordHold(held);
+            if (held >= profiler.slowHoldNanos()) {
+                // 在释放之后再抓调用栈，避免抓栈本身拉长持锁时间
+                stats.recordSlowHolder();
+                LockEvents.LockHoldEvent event = new LockEvents.LockHoldEvent();
+                if (event.isEnabled()) {
+                    event.lockName = stats.name();
+                    event.mode = stats.mode();
+                    event.holdNanos = held;
+                    event.commit();
+                }
+            }
+        }
+    }
+
+    @Override
+    public Condition newCondition() {
+        return delegate.newCondition();
+    }
+
+    public LockStats stats() {
+        return stats;
+    }
+
+    /**
+     * 无竞争快速路径
+     * @return 是否已经获取到锁
+     */
+    private boolean tryUncontended() {
+        if (fairDelegate != null) {
+            boolean contended = fairDelegate.hasQueuedThreads()
+                    || (fairDelegate.isLocked() && !fairDelegate.isHeldByCurrentThread());
+            if (contended) {
+                return false;
+            }
+            delegate.lock();
+            afterAcquire(false, 0);
+            return true;
+        }
+        if (delegate.tryLock()) {
+            afterAcquire(false, 0);
+            return true;
+        }
+        return false;
+    }
+
+    private void commitWait(LockEvents.LockWaitEvent event) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.lockName = stats.name();
+            event.mode = stats.mode();
+            event.commit();
+        }
+    }
+
+    private void afterAcquire(boolean contended, long waited) {
+        stats.recordAcquire(contended, waited);
+        HeldLocks held = HeldLocks.current();
+        if (profiler.trackLockOrder() && held.size() > 0) {
+            profiler.lockOrderGraph().onAcquire(held, stats);
+        }
+        long start = contended || profiler.sample() ? System.nanoTime() : 0;
+        held.push(stats, start);
+    }
+
+    @Override
+    public String toString() {
+        return "ProfiledLock[" + stats.name() + "/" + stats.mode() + "]";
+    }
+}
@@ -0,0 +1,28 @@
+package com.turnip.thread.profiling;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * 带监控的读写锁，可以直接替换 ReadWriteLockExample 里的 ReentrantReadWriteLock
+ * 读锁和写锁分别统计，在锁顺序图里是同一个节点。
+ */
+public class ProfiledReadWriteLock implements ReadWriteLock {
+
+    private final ProfiledLock readLock;
+    private final ProfiledLock writeLock;
+
+    ProfiledReadWriteLock(LockProfiler profiler, ReadWriteLock delegate, LockStats readStats, LockStats writeStats) {
+        this.readLock = new ProfiledLock(profiler, delegate.readLock(), readStats);
+        this.writeLock = new ProfiledLock(profiler, delegate.writeLock(), writeStats);
+    }
+
+    @Override
+    public ProfiledLock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public ProfiledLock writeLock() {
+        return writeLock;
+    }
+}
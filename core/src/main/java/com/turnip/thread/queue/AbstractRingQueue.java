@@ -0,0 +1,149 @@
+package com.turnip.thread.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 环形队列的公共部分：2 的幂长度的数组，以及各自填充的生产者、消费者序号
+ * 序号单调递增不回绕，下标为 序号 & mask；long 的序号按每秒 10 亿次也要近 300 年才溢出。
+ * 被消费的位置一律置 null，既让元素及时可回收，也让 snapshot 能区分空位。
+ */
+abstract class AbstractRingQueue<E> implements RingQueue<E> {
+
+    static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    static final int MAX_CAPACITY = 1 << 30;
+    /**
+     * 多生产者 fill 先占位再调用 source；source 失败时剩下的位置填入它，消费者取到后直接跳过。
+     * 跳过之前它也算在 size() 里。
+     */
+    static final Object SKIP = new Object();
+
+    final Object[] buffer;
+    final int mask;
+    final Sequence producer = new Sequence();
+    final Sequence consumer = new Sequence();
+
+    /**
+     * @param capacity 向上取整到 2 的幂
+     */
+    AbstractRingQueue(int capacity) {
+        if (capacity < 2 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("容量必须在 2 到 " + MAX_CAPACITY + " 之间: " + capacity);
+        }
+        int length = Integer.highestOneBit(capacity - 1) << 1;
+        buffer = new Object[length];
+        mask = length - 1;
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public int size() {
+        // 前后两次读到同一个消费者序号，中间读到的生产者序号与它才是一致的
+        long after = consumer.get();
+        while (true) {
+            long before = after;
+            long p = producer.get();
+            after = consumer.get();
+            if (before == after) {
+                return (int) Math.max(0, Math.min(p - after, buffer.length));
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumer.get() >= producer.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> snapshot() {
+        long c = consumer.get();
+        long p = producer.get();
+        List<E> result = new ArrayList<>((int) Math.max(0, Math.min(p - c, buffer.length)));
+        for (long i = c; i < p && i - c < buffer.length; i++) {
+            Object e = SLOTS.getAcquire(buffer, (int) i & mask);
+            if (e != null && e != SKIP) {
+                result.add((E) e);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[容量 " + capacity() + ", 元素 " + size() + "]";
+    }
+
+    // 以下三层继承保证 value 和 cache 前后各有 56 字节填充，生产者序号和消费者序号不会落在同一缓存行
+    @SuppressWarnings("unused")
+    static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    static class SequenceValue extends LeftPadding {
+        volatile long value;
+        // 所属一方缓存的对方进度，和 value 由同一方读写，放在同一缓存行里
+        long cache;
+    }
+
+    @SuppressWarnings("unused")
+    static class RightPadding extends SequenceValue {
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    static final class Sequence extends RightPadding {
+        private static final VarHandle VALUE;
+        private static final VarHandle CACHE;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                VALUE = lookup.findVarHandle(SequenceValue.class, "value", long.class);
+                CACHE = lookup.findVarHandle(SequenceValue.class, "cache", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long get() {
+            return value;
+        }
+
+        /**
+         * 只有写这个序号的线程自己可以用
+         */
+        long getPlain() {
+            return (long) VALUE.get(this);
+        }
+
+        long getAcquire() {
+            return (long) VALUE.getAcquire(this);
+        }
+
+        void setRelease(long v) {
+            VALUE.setRelease(this, v);
+        }
+
+        boolean compareAndSet(long expect, long update) {
+            return VALUE.compareAndSet(this, expect, update);
+        }
+
+        /**
+         * opaque 读写：多个生产者共用缓存时也不会读到撕裂的 long
+         */
+        long cache() {
+            return (long) CACHE.getOpaque(this);
+        }
+
+        void cache(long v) {
+            CACHE.setOpaque(this, v);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.turnip.thread.queue;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 把 {@link RingQueue} 包装成 BlockingQueue，可以直接作为 ThreadPoolExecutor 的工作队列
+ *
+ * put/take 没有锁和条件变量：操作失败时按 {@link WaitStrategy} 等待后重试，等待期间响应中断。
+ * 给 ThreadPoolExecutor 用时，提交线程和工作线程都有多个，必须包装 {@link MpmcRingQueue}。
+ *
+ * 与 LinkedBlockingQueue 的差别：
+ * - remove(Object) 总是返回 false，环形队列不能从中间删除；
+ *   ThreadPoolExecutor.remove/purge 因此不会生效，关闭时由 shutdownNow 的 drainTo 取出剩余任务
+ * - iterator() 遍历的是 {@link RingQueue#snapshot()}，不支持 remove
+ */
+public class BlockingRingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private final RingQueue<E> ring;
+    private final WaitStrategy wait;
+
+    /**
+     * 线程池默认配置：MPMC，空闲时 park，唤醒延迟不超过 1 毫秒
+     */
+    public BlockingRingQueue(int capacity) {
+        this(new MpmcRingQueue<>(capacity), WaitStrategy.parking(TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+
+    public BlockingRingQueue(RingQueue<E> ring, WaitStrategy wait) {
+        this.ring = Objects.requireNonNull(ring);
+        this.wait = Objects.requireNonNull(wait);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        return ring.offer(e);
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        Objects.requireNonNull(e);
+        for (int round = 0; !ring.offer(e); round++) {
+            checkInterrupt();
+            wait.idle(round);
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(e);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int round = 0; !ring.offer(e); round++) {
+            checkInterrupt();
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            wait.idle(round);
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        for (int round = 0; (e = ring.poll()) == null; round++) {
+            checkInterrupt();
+            wait.idle(round);
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E e;
+        for (int round = 0; (e = ring.poll()) == null; round++) {
+            checkInterrupt();
+            if (System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+            wait.idle(round);
+        }
+        return e;
+    }
+
+    private static void checkInterrupt() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public E poll() {
+        return ring.poll();
+    }
+
+    @Override
+    public E peek() {
+        return ring.peek();
+    }
+
+    @Override
+    public int size() {
+        return ring.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return ring.capacity() - ring.size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException("不能 drainTo 自身");
+        }
+        return ring.drain(c::add, maxElements);
+    }
+
+    /**
+     * 环形队列不支持从中间删除，总是返回 false
+     */
+    @Override
+    public boolean remove(Object o) {
+        return false;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return Collections.unmodifiableList(ring.snapshot()).iterator();
+    }
+
+    public RingQueue<E> ring() {
+        return ring;
+    }
+
+    @Override
+    public String toString() {
+        return ring.toString();
+    }
+}
@@ -0,0 +1,187 @@
+package com.turnip.thread.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 多生产者、多消费者环形队列（Vyukov 有界队列）
+ *
+ * 每个位置带一个序号，表示它处在哪一轮、哪个阶段：
+ *   序号 == 位置序号         可以写入
+ *   序号 == 位置序号 + 1     已写入，可以读取
+ *   读取后设为 位置序号 + 容量，即下一轮可以写入
+ * 生产者、消费者各自 CAS 自己的序号占位，再读写位置并发布位置序号，互相之间只通过位置序号同步。
+ * 占了位还没完成的一方会让对方暂时看到"满"或"空"，所以 offer/poll 失败不代表队列严格满/空。
+ * 可以作为 ThreadPoolExecutor 的工作队列（经 {@link BlockingRingQueue} 包装）。
+ */
+public final class MpmcRingQueue<E> extends AbstractRingQueue<E> {
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] sequences;
+
+    public MpmcRingQueue(int capacity) {
+        super(capacity);
+        sequences = new long[buffer.length];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    private long sequenceAt(long position) {
+        return (long) LONGS.getAcquire(sequences, (int) position & mask);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long p = producer.get();
+        while (true) {
+            long diff = sequenceAt(p) - p;
+            if (diff == 0) {
+                if (producer.compareAndSet(p, p + 1)) {
+                    int index = (int) p & mask;
+                    buffer[index] = e;
+                    LONGS.setRelease(sequences, index, p + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // 上一轮的元素还没被取走
+                return false;
+            }
+            p = producer.get();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long c = consumer.get();
+        while (true) {
+            long diff = sequenceAt(c) - (c + 1);
+            if (diff == 0) {
+                if (consumer.compareAndSet(c, c + 1)) {
+                    int index = (int) c & mask;
+                    Object e = buffer[index];
+                    buffer[index] = null;
+                    LONGS.setRelease(sequences, index, c + buffer.length);
+                    if (e != SKIP) {
+                        return (E) e;
+                    }
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+            c = consumer.get();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        while (true) {
+            long c = consumer.get();
+            if (sequenceAt(c) != c + 1) {
+                return null;
+            }
+            int index = (int) c & mask;
+            Object e = SLOTS.getAcquire(buffer, index);
+            if (e == SKIP) {
+                // 队首是作废的位置，抢到就直接消费掉
+                if (consumer.compareAndSet(c, c + 1)) {
+                    buffer[index] = null;
+                    LONGS.setRelease(sequences, index, c + buffer.length);
+                }
+                continue;
+            }
+            // 读的过程中被其他消费者取走就重来
+            if (e != null && consumer.get() == c) {
+                return (E) e;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> sink, int max) {
+        int done = 0;
+        while (done < max) {
+            long c = consumer.get();
+            int ready = 0;
+            while (done + ready < max && sequenceAt(c + ready) == c + ready + 1) {
+                ready++;
+            }
+            if (ready == 0) {
+                if (sequenceAt(c) - (c + 1) > 0) {
+                    continue;  // c 已经过时，被其他消费者取走了
+                }
+                break;
+            }
+            // 连续 ready 个位置都已写入，一次 CAS 全部占下
+            if (!consumer.compareAndSet(c, c + ready)) {
+                continue;
+            }
+            int taken = 0;
+            try {
+                while (taken < ready) {
+                    int index = (int) (c + taken) & mask;
+                    Object e = buffer[index];
+                    buffer[index] = null;
+                    LONGS.setRelease(sequences, index, c + taken + buffer.length);
+                    taken++;
+                    if (e != SKIP) {
+                        done++;
+                        sink.accept((E) e);
+                    }
+                }
+            } finally {
+                // sink 抛异常时仍要归还占下的位置，否则队列会卡住
+                for (int i = taken; i < ready; i++) {
+                    int index = (int) (c + i) & mask;
+                    buffer[index] = null;
+                    LONGS.setRelease(sequences, index, c + i + buffer.length);
+                }
+            }
+        }
+        return done;
+    }
+
+    @Override
+    public int fill(Supplier<? extends E> source, int max) {
+        while (true) {
+            long p = producer.get();
+            int free = 0;
+            while (free < max && sequenceAt(p + free) == p + free) {
+                free++;
+            }
+            if (free == 0) {
+                if (sequenceAt(p) - p > 0) {
+                    continue;
+                }
+                return 0;
+            }
+            if (!producer.compareAndSet(p, p + free)) {
+                continue;
+            }
+            int written = 0;
+            try {
+                for (; written < free; written++) {
+                    int index = (int) (p + written) & mask;
+                    buffer[index] = Objects.requireNonNull(source.get());
+                    LONGS.setRelease(sequences, index, p + written + 1);
+                }
+            } finally {
+                // source 失败：占下的位置不能空着，否则后面的元素都取不出来
+                for (int i = written; i < free; i++) {
+                    int index = (int) (p + i) & mask;
+                    buffer[index] = SKIP;
+                    LONGS.setRelease(sequences, index, p + i + 1);
+                }
+            }
+            return free;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.turnip.thread.queue;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 多生产者、单消费者环形队列
+ *
+ * 生产者 CAS 生产者序号占位，再以 release 语义写入元素；消费者以位置是否非 null 判断元素是否已写入。
+ * 生产者共用一个缓存的上限（消费者序号 + 容量），没到上限就不去读消费者序号。
+ * 占了位还没写入的生产者会让消费者在该位置上等待，
+ * 因此 poll 在 size() > 0 时也可能短暂等待，但不会跳过元素。
+ * poll/peek/drain 只能由同一个消费者线程调用。
+ */
+public final class MpscRingQueue<E> extends AbstractRingQueue<E> {
+
+    public MpscRingQueue(int capacity) {
+        super(capacity);
+        producer.cache(buffer.length);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long limit = producer.cache();
+        long p;
+        do {
+            p = producer.get();
+            if (p >= limit) {
+                limit = consumer.getAcquire() + buffer.length;
+                if (p >= limit) {
+                    return false;
+                }
+                producer.cache(limit);
+            }
+        } while (!producer.compareAndSet(p, p + 1));
+        SLOTS.setRelease(buffer, (int) p & mask, e);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long c = consumer.getPlain();
+            int index = (int) c & mask;
+            Object e = SLOTS.getAcquire(buffer, index);
+            if (e == null) {
+                if (c == producer.get()) {
+                    return null;
+                }
+                e = awaitElement(index);
+            }
+            buffer[index] = null;
+            consumer.setRelease(c + 1);
+            if (e != SKIP) {
+                return (E) e;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        while (true) {
+            long c = consumer.getPlain();
+            int index = (int) c & mask;
+            Object e = SLOTS.getAcquire(buffer, index);
+            if (e == null && c != producer.get()) {
+                e = awaitElement(index);
+            }
+            if (e != SKIP) {
+                return (E) e;
+            }
+            // 队首是作废的位置，直接消费掉
+            buffer[index] = null;
+            consumer.setRelease(c + 1);
+        }
+    }
+
+    /**
+     * 生产者已占位但还没写入；它可能刚好被调度出去，单核上自旋等不到，所以直接让出 CPU
+     */
+    private Object awaitElement(int index) {
+        Object e;
+        while ((e = SLOTS.getAcquire(buffer, index)) == null) {
+            Thread.yield();
+        }
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> sink, int max) {
+        long c = consumer.getPlain();
+        long next = c;
+        int done = 0;
+        try {
+            // 遇到第一个还没写入的位置就停下，不等待
+            while (done < max) {
+                int index = (int) next & mask;
+                Object e = SLOTS.getAcquire(buffer, index);
+                if (e == null) {
+                    break;
+                }
+                buffer[index] = null;
+                next++;
+                if (e != SKIP) {
+                    done++;
+                    sink.accept((E) e);
+                }
+            }
+        } finally {
+            if (next != c) {
+                consumer.setRelease(next);
+            }
+        }
+        return done;
+    }
+
+    @Override
+    public int fill(Supplier<? extends E> source, int max) {
+        long p;
+        int n;
+        do {
+            p = producer.get();
+            long limit = producer.cache();
+            if (p >= limit) {
+                limit = consumer.getAcquire() + buffer.length;
+                if (p >= limit) {
+                    return 0;
+                }
+                producer.cache(limit);
+            }
+            n = (int) Math.min(max, limit - p);
+            if (n <= 0) {
+                return 0;
+            }
+        } while (!producer.compareAndSet(p, p + n));
+        // 一次 CAS 占下 n 个位置
+        int written = 0;
+        try {
+            for (; written < n; written++) {
+                SLOTS.setRelease(buffer, (int) (p + written) & mask, Objects.requireNonNull(source.get()));
+            }
+        } finally {
+            // source 失败：占下的位置不能空着，否则消费者会一直等
+            for (int i = written; i < n; i++) {
+                SLOTS.setRelease(buffer, (int) (p + i) & mask, SKIP);
+            }
+        }
+        return n;
+    }
+}
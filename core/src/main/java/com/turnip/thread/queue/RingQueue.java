@@ -0,0 +1,62 @@
+package com.turnip.thread.queue;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 基于数组的有界无锁队列
+ *
+ * 与 Executors.newFixedThreadPool 背后的 LinkedBlockingQueue 相比：不为每个元素分配节点，不加锁，
+ * 生产者和消费者各自只写自己的序号（缓存行填充隔开）。
+ * 不阻塞：满时 offer 返回 false，空时 poll 返回 null；需要阻塞语义时用 {@link BlockingRingQueue} 包一层。
+ * 不接受 null 元素。
+ *
+ * 实现按允许的并发方式区分，超出约定的用法（比如两个线程同时调用 SPSC 的 offer）会破坏队列：
+ * - {@link SpscRingQueue}：单生产者、单消费者
+ * - {@link MpscRingQueue}：多生产者、单消费者
+ * - {@link MpmcRingQueue}：多生产者、多消费者
+ */
+public interface RingQueue<E> {
+
+    /**
+     * @return 队列已满时返回 false
+     */
+    boolean offer(E e);
+
+    /**
+     * @return 队列为空时返回 null
+     */
+    E poll();
+
+    /**
+     * 队首元素，不移除；为空时返回 null
+     */
+    E peek();
+
+    /**
+     * 批量取出最多 max 个元素交给 sink，返回取出的个数
+     * 比逐个 poll 少发布几次消费者序号；sink 抛异常时本批尚未交出的元素丢弃。
+     */
+    int drain(Consumer<? super E> sink, int max);
+
+    /**
+     * 批量放入最多 max 个由 source 提供的元素，返回放入的个数；只在确认有空位后才调用 source
+     * source 抛异常或返回 null（抛 NullPointerException）时，之前取到的元素照常放入，异常原样抛出。
+     */
+    int fill(Supplier<? extends E> source, int max);
+
+    /**
+     * 近似元素个数：并发修改时只是某个时刻附近的值
+     */
+    int size();
+
+    boolean isEmpty();
+
+    int capacity();
+
+    /**
+     * 当前元素的弱一致快照，只用于监控和调试
+     */
+    List<E> snapshot();
+}
@@ -0,0 +1,223 @@
+package com.turnip.thread.queue;
+
+import com.turnip.thread.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 环形队列演示：
+ * 1. 线程间交接 N 个元素的吞吐，与 ArrayBlockingQueue、LinkedBlockingQueue 的非阻塞 offer/poll 对比，顺带校验不丢不重；
+ * 2. 作为 ThreadPoolExecutor 的工作队列，与 Executors.newFixedThreadPool 对比；
+ * 3. 两个线程一来一回的往返延迟。
+ * 参数：[元素数]，默认 2000000。空/满时一律 Thread.yield()，单核机器上也能推进。
+ */
+public class RingQueueExample {
+
+    private static final int CAPACITY = 1024;
+    private static final Integer[] VALUES = new Integer[1024];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = i;
+        }
+    }
+
+    /**
+     * 把不同的队列统一成 offer/poll 两个函数
+     */
+    record Handoff(String name, Predicate<Integer> offer, Supplier<Integer> poll) {
+        static Handoff of(String name, RingQueue<Integer> q) {
+            return new Handoff(name, q::offer, q::poll);
+        }
+
+        static Handoff of(String name, Queue<Integer> q) {
+            return new Handoff(name, q::offer, q::poll);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("===== 吞吐（第" + round + "轮，" + items + " 个元素，百万个/秒）=====");
+            throughput(Handoff.of("SpscRingQueue", new SpscRingQueue<>(CAPACITY)), 1, 1, items);
+            throughput(Handoff.of("ArrayBlockingQueue", new ArrayBlockingQueue<>(CAPACITY)), 1, 1, items);
+            throughput(Handoff.of("LinkedBlockingQueue", new LinkedBlockingQueue<>(CAPACITY)), 1, 1, items);
+            throughput(Handoff.of("MpscRingQueue", new MpscRingQueue<>(CAPACITY)), 3, 1, items);
+            throughput(Handoff.of("ArrayBlockingQueue", new ArrayBlockingQueue<>(CAPACITY)), 3, 1, items);
+            throughput(Handoff.of("LinkedBlockingQueue", new LinkedBlockingQueue<>(CAPACITY)), 3, 1, items);
+            throughput(Handoff.of("MpmcRingQueue", new MpmcRingQueue<>(CAPACITY)), 2, 2, items);
+            throughput(Handoff.of("ArrayBlockingQueue", new ArrayBlockingQueue<>(CAPACITY)), 2, 2, items);
+            throughput(Handoff.of("LinkedBlockingQueue", new LinkedBlockingQueue<>(CAPACITY)), 2, 2, items);
+            batchThroughput(items);
+        }
+
+        System.out.println("\n===== ThreadPoolExecutor 工作队列（4 个线程，" + items / 4 + " 个小任务）=====");
+        for (int round = 0; round < 2; round++) {
+            pool("newFixedThreadPool(LinkedBlockingQueue)", Executors.newFixedThreadPool(4), items / 4);
+            pool("BlockingRingQueue(MpmcRingQueue)", new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS,
+                    new BlockingRingQueue<>(1 << 16), new ThreadPoolExecutor.CallerRunsPolicy()), items / 4);
+        }
+
+        System.out.println("\n===== 往返延迟（两个队列一来一回）=====");
+        for (int round = 0; round < 2; round++) {
+            pingPong("SpscRingQueue", Handoff.of("", new SpscRingQueue<>(CAPACITY)), Handoff.of("", new SpscRingQueue<>(CAPACITY)));
+            pingPong("ArrayBlockingQueue", Handoff.of("", new ArrayBlockingQueue<>(CAPACITY)), Handoff.of("", new ArrayBlockingQueue<>(CAPACITY)));
+            pingPong("LinkedBlockingQueue", Handoff.of("", new LinkedBlockingQueue<>(CAPACITY)), Handoff.of("", new LinkedBlockingQueue<>(CAPACITY)));
+        }
+    }
+
+    /**
+     * producers 个线程共放入 items 个元素，consumers 个线程取完；校验取出的元素和
+     */
+    private static void throughput(Handoff q, int producers, int consumers, int items) throws InterruptedException {
+        int perProducer = items / producers;
+        int total = perProducer * producers;
+        LongAdder sum = new LongAdder();
+        LongAdder taken = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            threads.add(new Thread(() -> {
+                for (int n = 0; n < perProducer; n++) {
+                    Integer v = VALUES[n & (VALUES.length - 1)];
+                    while (!q.offer().test(v)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < consumers; i++) {
+            threads.add(new Thread(() -> {
+                long localSum = 0;
+                long localCount = 0;
+                while (taken.sum() + localCount < total) {
+                    Integer v = q.poll().get();
+                    if (v == null) {
+                        // 把本地计数刷出去，其他消费者才能知道是否已经取完
+                        taken.add(localCount);
+                        localCount = 0;
+                        Thread.yield();
+                        continue;
+                    }
+                    localSum += v;
+                    localCount++;
+                }
+                taken.add(localCount);
+                sum.add(localSum);
+            }));
+        }
+        long start = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+        long nanos = System.nanoTime() - start;
+        long expected = 0;
+        for (int n = 0; n < perProducer; n++) {
+            expected += n & (VALUES.length - 1);
+        }
+        expected *= producers;
+        System.out.printf("  %dP/%dC %-22s %8.2f   校验: %s%n", producers, consumers, q.name(),
+                total / (nanos / 1e3), sum.sum() == expected && taken.sum() == total ? "通过" : "失败");
+    }
+
+    /**
+     * SPSC 用 fill/drain 每次交接最多 256 个
+     */
+    private static void batchThroughput(int items) throws InterruptedException {
+        SpscRingQueue<Integer> q = new SpscRingQueue<>(CAPACITY);
+        long[] sum = new long[1];
+        Thread producer = new Thread(() -> {
+            int[] next = {0};
+            while (next[0] < items) {
+                if (q.fill(() -> VALUES[next[0]++ & (VALUES.length - 1)], Math.min(256, items - next[0])) == 0) {
+                    Thread.yield();
+                }
+            }
+        });
+        Thread consumer = new Thread(() -> {
+            int[] count = {0};
+            while (count[0] < items) {
+                if (q.drain(v -> {
+                    sum[0] += v;
+                    count[0]++;
+                }, 256) == 0) {
+                    Thread.yield();
+                }
+            }
+        });
+        long start = System.nanoTime();
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+        long nanos = System.nanoTime() - start;
+        long expected = 0;
+        for (int n = 0; n < items; n++) {
+            expected += n & (VALUES.length - 1);
+        }
+        System.out.printf("  1P/1C %-22s %8.2f   校验: %s%n", "Spsc fill/drain",
+                items / (nanos / 1e3), sum[0] == expected ? "通过" : "失败");
+    }
+
+    private static void pool(String name, ExecutorService executor, int tasks) throws InterruptedException {
+        LongAdder done = new LongAdder();
+        CountDownLatch latch = new CountDownLatch(tasks);
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                done.increment();
+                latch.countDown();
+            });
+        }
+        latch.await();
+        long nanos = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.printf("  %-42s %8.2f 万个任务/秒  完成: %d%n", name, tasks / (nanos / 1e5), done.sum());
+    }
+
+    private static void pingPong(String name, Handoff ping, Handoff pong) throws InterruptedException {
+        int rounds = 20_000;
+        Thread echo = new Thread(() -> {
+            for (int i = 0; i < rounds + rounds / 10; i++) {
+                Integer v;
+                while ((v = ping.poll().get()) == null) {
+                    Thread.yield();
+                }
+                while (!pong.offer().test(v)) {
+                    Thread.yield();
+                }
+            }
+        });
+        echo.start();
+        LatencyHistogram histogram = new LatencyHistogram(1);
+        for (int i = 0; i < rounds + rounds / 10; i++) {
+            long start = System.nanoTime();
+            ping.offer().test(VALUES[1]);
+            while (pong.poll().get() == null) {
+                Thread.yield();
+            }
+            // 前 10% 作为预热
+            if (i >= rounds / 10) {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+        echo.join();
+        LatencyHistogram.Snapshot s = histogram.snapshot();
+        System.out.printf("  %-22s 均值 %8.2f µs  p50 %8.2f µs  p99 %8.2f µs%n",
+                name, s.mean() / 1e3, s.percentile(50) / 1e3, s.percentile(99) / 1e3);
+    }
+}
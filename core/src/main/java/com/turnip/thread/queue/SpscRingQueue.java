@@ -0,0 +1,109 @@
+package com.turnip.thread.queue;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 单生产者、单消费者环形队列
+ *
+ * 两边都不需要 CAS：生产者写入元素后以 release 语义发布生产者序号，消费者以 acquire 语义读取，反之亦然。
+ * 双方各自缓存对方的序号，只有按缓存看来满了（空了）才去读一次对方的序号，
+ * 大多数操作只碰自己的缓存行。
+ * offer/fill 只能由同一个生产者线程调用，poll/peek/drain 只能由同一个消费者线程调用。
+ */
+public final class SpscRingQueue<E> extends AbstractRingQueue<E> {
+
+    public SpscRingQueue(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long p = producer.getPlain();
+        if (p - producer.cache() >= buffer.length) {
+            long c = consumer.getAcquire();
+            producer.cache(c);
+            if (p - c >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) p & mask] = e;
+        producer.setRelease(p + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long c = consumer.getPlain();
+        if (c >= consumer.cache()) {
+            long p = producer.getAcquire();
+            consumer.cache(p);
+            if (c >= p) {
+                return null;
+            }
+        }
+        int index = (int) c & mask;
+        E e = (E) buffer[index];
+        buffer[index] = null;
+        consumer.setRelease(c + 1);
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long c = consumer.getPlain();
+        if (c >= producer.getAcquire()) {
+            return null;
+        }
+        return (E) buffer[(int) c & mask];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> sink, int max) {
+        long c = consumer.getPlain();
+        long p = producer.getAcquire();
+        consumer.cache(p);
+        int n = (int) Math.min(max, p - c);
+        int done = 0;
+        try {
+            while (done < n) {
+                int index = (int) (c + done) & mask;
+                E e = (E) buffer[index];
+                buffer[index] = null;
+                done++;
+                sink.accept(e);
+            }
+        } finally {
+            // 整批只发布一次消费者序号
+            if (done > 0) {
+                consumer.setRelease(c + done);
+            }
+        }
+        return done;
+    }
+
+    @Override
+    public int fill(Supplier<? extends E> source, int max) {
+        long p = producer.getPlain();
+        long c = consumer.getAcquire();
+        producer.cache(c);
+        int n = (int) Math.min(max, buffer.length - (p - c));
+        int done = 0;
+        try {
+            while (done < n) {
+                buffer[(int) (p + done) & mask] = Objects.requireNonNull(source.get());
+                done++;
+            }
+        } finally {
+            if (done > 0) {
+                producer.setRelease(p + done);
+            }
+        }
+        return done;
+    }
+}
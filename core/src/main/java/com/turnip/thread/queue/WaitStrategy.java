@@ -0,0 +1,55 @@
+package com.turnip.thread.queue;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 队列满或空时的等待方式，供 {@link BlockingRingQueue} 使用
+ *
+ * - {@link #spin()}：一直自旋，延迟最低，但一直占着一个 CPU；CPU 数少于线程数时会拖慢其他线程
+ * - {@link #yielding()}：短暂自旋后让出 CPU，延迟低，空闲时仍有调度开销
+ * - {@link #parking(long)}：自旋、让出后逐步加长 park 时间，空闲时几乎不耗 CPU，唤醒延迟最多 maxParkNanos
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    int SPIN_ROUNDS = 100;
+    int YIELD_ROUNDS = 100;
+
+    /**
+     * @param round 本次等待中第几次没等到，从 0 开始
+     */
+    void idle(int round);
+
+    static WaitStrategy spin() {
+        return round -> Thread.onSpinWait();
+    }
+
+    static WaitStrategy yielding() {
+        return round -> {
+            if (round < SPIN_ROUNDS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        };
+    }
+
+    /**
+     * @param maxParkNanos park 时间从 1 微秒起翻倍，不超过该值
+     */
+    static WaitStrategy parking(long maxParkNanos) {
+        if (maxParkNanos <= 0) {
+            throw new IllegalArgumentException("maxParkNanos 必须大于 0: " + maxParkNanos);
+        }
+        return round -> {
+            if (round < SPIN_ROUNDS) {
+                Thread.onSpinWait();
+            } else if (round < SPIN_ROUNDS + YIELD_ROUNDS) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(round - SPIN_ROUNDS - YIELD_ROUNDS, 30);
+                LockSupport.parkNanos(Math.min(1_000L << shift, maxParkNanos));
+            }
+        };
+    }
+}
@@ -0,0 +1,388 @@
+package com.turnip.thread.runtime;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * {@link TaskRuntime} 中的任务，兼容 Future 接口，可以像 Main 里的 FutureTask 一样 get()
+ *
+ * 依赖关系：
+ * - {@link #then(Function)} 在本任务成功后把后续计算推到当前工作线程的队列里执行；
+ * - {@link #allOf(List)} 全部成功后完成，任何一个失败或取消则立即失败并取消其余输入；
+ * - {@link #anyOf(List)} 第一个成功的结果胜出，并取消其余输入。
+ * 取消会沿依赖关系向下游传播：上游被取消或失败，所有后续任务随之取消或失败，不会再被调度。
+ *
+ * 在工作线程中 join/get 不会阻塞线程，而是一边等待一边执行其他任务。
+ */
+public class Task<T> implements Future<T> {
+
+    private static final VarHandle STATE;
+    private static final VarHandle CALLBACKS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATE = lookup.findVarHandle(Task.class, "state", int.class);
+            CALLBACKS = lookup.findVarHandle(Task.class, "callbacks", Callback.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    // 正在写入结果的过渡状态，防止两个线程同时完成时互相覆盖 result
+    private static final int COMPLETING = 2;
+    private static final int SUCCEEDED = 3;
+    private static final int FAILED = 4;
+    private static final int CANCELLED = 5;
+
+    // 回调链表的终止标记：任务完成后换成它，之后注册的回调直接执行
+    private static final Callback DONE = new Callback(null, null);
+
+    private final TaskRuntime runtime;
+    private Callable<? extends T> body;
+    private volatile int state;
+    private T result;
+    private Throwable failure;
+    private volatile Callback callbacks;
+
+    Task(TaskRuntime runtime, Callable<? extends T> body) {
+        this.runtime = runtime;
+        this.body = body;
+    }
+
+    private static final class Callback {
+        final Runnable action;
+        final Callback next;
+
+        Callback(Runnable action, Callback next) {
+            this.action = action;
+            this.next = next;
+        }
+    }
+
+    /**
+     * 由工作线程调用；已被取消或已完成的任务直接跳过
+     */
+    void run() {
+        if (!STATE.compareAndSet(this, NEW, RUNNING)) {
+            return;
+        }
+        Callable<? extends T> callable = body;
+        body = null;
+        try {
+            finish(SUCCEEDED, callable.call(), null);
+        } catch (Throwable t) {
+            finish(FAILED, null, t);
+        }
+    }
+
+    /**
+     * @return 是否由本次调用完成（状态只会从 NEW/RUNNING 变为终态一次）
+     */
+    private boolean finish(int finalState, T value, Throwable cause) {
+        int s;
+        do {
+            s = state;
+            if (s >= COMPLETING) {
+                return false;
+            }
+        } while (!STATE.compareAndSet(this, s, COMPLETING));
+        result = value;
+        failure = cause;
+        // volatile 写发布 result/failure
+        state = finalState;
+        fireCallbacks();
+        return true;
+    }
+
+    TaskRuntime runtime() {
+        return runtime;
+    }
+
+    boolean complete(T value) {
+        return finish(SUCCEEDED, value, null);
+    }
+
+    boolean fail(Throwable cause) {
+        return finish(FAILED, null, cause);
+    }
+
+    private void fireCallbacks() {
+        Callback c = (Callback) CALLBACKS.getAndSet(this, DONE);
+        // 链表是后进先出，反转后按注册顺序执行
+        List<Runnable> actions = new ArrayList<>();
+        for (; c != null && c != DONE; c = c.next) {
+            actions.add(c.action);
+        }
+        for (int i = actions.size() - 1; i >= 0; i--) {
+            // 一个回调抛异常不能让后面的回调（唤醒等待者、推进下游任务）丢失，异常交给线程的未捕获异常处理器
+            try {
+                actions.get(i).run();
+            } catch (Throwable t) {
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, t);
+            }
+        }
+    }
+
+    /**
+     * 注册完成回调；任务已完成时立即在当前线程执行
+     */
+    void onComplete(Runnable action) {
+        Callback c;
+        do {
+            c = callbacks;
+            if (c == DONE) {
+                action.run();
+                return;
+            }
+        } while (!CALLBACKS.compareAndSet(this, c, new Callback(action, c)));
+    }
+
+    /**
+     * 本任务成功后执行 fn，返回代表 fn 结果的新任务；运行时已关闭、无法调度时新任务以 RejectedExecutionException 失败
+     */
+    public <R> Task<R> then(Function<? super T, ? extends R> fn) {
+        Task<R> next = new Task<>(runtime, null);
+        onComplete(() -> {
+            switch (state) {
+                case SUCCEEDED -> {
+                    T value = result;
+                    // 运行时已关闭时 schedule 抛 RejectedExecutionException；异常不能抛给完成上游的线程，
+                    // 否则 next 永远不会完成，等它的线程会一直阻塞
+                    try {
+                        next.body = () -> fn.apply(value);
+                        runtime.schedule(next);
+                    } catch (Throwable t) {
+                        next.fail(t);
+                    }
+                }
+                case CANCELLED -> next.cancel(false);
+                default -> next.fail(failure);
+            }
+        });
+        return next;
+    }
+
+    /**
+     * 所有任务都成功后完成，结果按输入顺序排列
+     */
+    public static <T> Task<List<T>> allOf(List<? extends Task<? extends T>> tasks) {
+        TaskRuntime runtime = tasks.isEmpty() ? null : tasks.get(0).runtime();
+        Task<List<T>> all = new Task<>(runtime, null);
+        if (tasks.isEmpty()) {
+            all.complete(List.of());
+            return all;
+        }
+        Object[] results = new Object[tasks.size()];
+        AtomicInteger remaining = new AtomicInteger(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            final int index = i;
+            Task<? extends T> task = tasks.get(i);
+            task.onComplete(() -> {
+                switch (task.state) {
+                    case SUCCEEDED -> {
+                        results[index] = task.result;
+                        if (remaining.decrementAndGet() == 0) {
+                            all.complete(toList(results));
+                        }
+                    }
+                    case CANCELLED -> {
+                        if (all.cancel(false)) {
+                            cancelAll(tasks);
+                        }
+                    }
+                    default -> {
+                        if (all.fail(task.failure)) {
+                            cancelAll(tasks);
+                        }
+                    }
+                }
+            });
+        }
+        // 合并任务被外部取消时，取消所有输入
+        all.onComplete(() -> {
+            if (all.state == CANCELLED) {
+                cancelAll(tasks);
+            }
+        });
+        return all;
+    }
+
+    /**
+     * 第一个成功的任务决定结果，其余任务被取消；全部失败时以最后一个失败原因失败
+     */
+    public static <T> Task<T> anyOf(List<? extends Task<? extends T>> tasks) {
+        if (tasks.isEmpty()) {
+            throw new IllegalArgumentException("anyOf 至少需要一个任务");
+        }
+        Task<T> any = new Task<>(tasks.get(0).runtime(), null);
+        AtomicInteger remaining = new AtomicInteger(tasks.size());
+        for (Task<? extends T> task : tasks) {
+            task.onComplete(() -> {
+                if (task.state == SUCCEEDED) {
+                    if (any.complete(task.result)) {
+                        cancelAll(tasks);
+                    }
+                } else if (remaining.decrementAndGet() == 0) {
+                    if (task.state == CANCELLED) {
+                        any.cancel(false);
+                    } else {
+                        any.fail(task.failure);
+                    }
+                }
+            });
+        }
+        any.onComplete(() -> {
+            if (any.state == CANCELLED) {
+                cancelAll(tasks);
+            }
+        });
+        return any;
+    }
+
+    private static void cancelAll(List<? extends Task<?>> tasks) {
+        for (Task<?> task : tasks) {
+            task.cancel(false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> toList(Object[] results) {
+        return (List<T>) Arrays.asList(results);
+    }
+
+    /**
+     * 取消任务；尚未开始的任务不会再执行，正在执行的任务结果会被丢弃。
+     * 不支持中断正在运行的线程，mayInterruptIfRunning 被忽略。
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return finish(CANCELLED, null, null);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public boolean isDone() {
+        return state >= SUCCEEDED;
+    }
+
+    public boolean isCompletedExceptionally() {
+        return state >= FAILED;
+    }
+
+    /**
+     * 等待结果，失败时抛出 CompletionException 风格的非受检异常；等待中被中断时继续等，返回前恢复中断标志
+     */
+    public T join() {
+        awaitDone(false);
+        return reportUnchecked();
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        if (!awaitDone(true)) {
+            throw new InterruptedException();
+        }
+        return report();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        Thread waiter = Thread.currentThread();
+        onComplete(() -> LockSupport.unpark(waiter));
+        while (!isDone()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return report();
+    }
+
+    /**
+     * @param interruptible 为 true 时被中断立即返回 false（中断标志已清除）；
+     *                      否则忽略中断继续等待，完成后恢复中断标志
+     * @return 任务是否已完成
+     */
+    private boolean awaitDone(boolean interruptible) {
+        if (isDone()) {
+            return true;
+        }
+        TaskRuntime.Worker worker = runtime == null ? null : runtime.currentWorker();
+        if (worker != null) {
+            // 工作线程不能干等，否则所有工作线程都在 join 时整个运行时会卡死
+            worker.helpUntilDone(this);
+            return true;
+        }
+        Thread waiter = Thread.currentThread();
+        onComplete(() -> LockSupport.unpark(waiter));
+        boolean interrupted = false;
+        while (!isDone()) {
+            LockSupport.park(this);
+            // 中断标志不清除的话 park 会立即返回，变成空转
+            if (Thread.interrupted()) {
+                if (interruptible) {
+                    return false;
+                }
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            waiter.interrupt();
+        }
+        return true;
+    }
+
+    private T report() throws ExecutionException {
+        return switch (state) {
+            case SUCCEEDED -> result;
+            case CANCELLED -> throw new CancellationException();
+            default -> throw new ExecutionException(failure);
+        };
+    }
+
+    private T reportUnchecked() {
+        return switch (state) {
+            case SUCCEEDED -> result;
+            case CANCELLED -> throw new CancellationException();
+            default -> throw new CompletionException(failure);
+        };
+    }
+
+    @Override
+    public String toString() {
+        String s = switch (state) {
+            case NEW -> "NEW";
+            case RUNNING, COMPLETING -> "RUNNING";
+            case SUCCEEDED -> "SUCCEEDED";
+            case FAILED -> "FAILED";
+            default -> "CANCELLED";
+        };
+        return super.toString() + "[" + s + "]";
+    }
+}
@@ -0,0 +1,366 @@
+package com.turnip.thread.runtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 工作窃取任务运行时
+ *
+ * 固定数量的工作线程在启动时创建，之后提交任务不会再创建线程：
+ * - 每个工作线程有一个 {@link WorkStealingDeque}，自己产生的任务（then 的后续任务等）压入自己的队列底部；
+ * - 外部线程提交的任务进入各工作线程的收件箱，批量提交时按块均匀分配，每个工作线程只唤醒一次；
+ * - 工作线程空闲时先处理自己的收件箱，再随机挑选其他工作线程窃取，都没有任务才挂起。
+ *
+ * 与 Main 里"每个任务 new Thread / FutureTask"的写法相比，省掉了线程创建和销毁的开销。
+ */
+public class TaskRuntime implements AutoCloseable {
+
+    // 空闲工作线程在挂起前的扫描轮数
+    private static final int IDLE_SCANS = 64;
+    // 挂起的超时时间，作为丢失唤醒的兜底
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final AtomicInteger runtimeIds = new AtomicInteger();
+
+    private final Worker[] workers;
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private final AtomicLong submitCursor = new AtomicLong();
+    private volatile boolean shutdown;
+
+    public TaskRuntime() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public TaskRuntime(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism必须大于0: " + parallelism);
+        }
+        int id = runtimeIds.incrementAndGet();
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i, "task-runtime-" + id + "-worker-" + i);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    public <T> Task<T> submit(Callable<T> callable) {
+        Task<T> task = new Task<>(this, callable);
+        schedule(task);
+        return task;
+    }
+
+    public Task<Void> submit(Runnable runnable) {
+        return submit(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 批量提交：按块分配到各工作线程的收件箱，每块只触发一次唤醒
+     */
+    public <T> List<Task<T>> submitAll(Collection<? extends Callable<T>> callables) {
+        checkRunning();
+        List<Task<T>> tasks = new ArrayList<>(callables.size());
+        for (Callable<T> callable : callables) {
+            tasks.add(new Task<>(this, callable));
+        }
+        Worker self = currentWorker();
+        if (self != null) {
+            for (Task<T> task : tasks) {
+                self.pushLocal(task);
+            }
+            signalWork(tasks.size());
+            return tasks;
+        }
+        int chunk = Math.max(1, (tasks.size() + workers.length - 1) / workers.length);
+        int start = (int) (submitCursor.getAndIncrement() % workers.length);
+        for (int i = 0, w = start; i < tasks.size(); i += chunk, w = (w + 1) % workers.length) {
+            Worker worker = workers[w];
+            worker.inbox.addAll(tasks.subList(i, Math.min(tasks.size(), i + chunk)));
+            worker.wake();
+        }
+        return tasks;
+    }
+
+    /**
+     * 调度一个已创建的任务：工作线程内压入自己的队列，外部线程放入某个工作线程的收件箱
+     */
+    void schedule(Task<?> task) {
+        checkRunning();
+        Worker self = currentWorker();
+        if (self != null) {
+            self.pushLocal(task);
+            signalWork(1);
+        } else {
+            Worker worker = workers[(int) (submitCursor.getAndIncrement() % workers.length)];
+            worker.inbox.add(task);
+            if (!worker.wake()) {
+                signalWork(1);
+            }
+        }
+    }
+
+    Worker currentWorker() {
+        return currentWorker.get();
+    }
+
+    /**
+     * 有空闲工作线程时唤醒最多 count 个
+     */
+    private void signalWork(int count) {
+        if (idleWorkers.get() == 0) {
+            return;
+        }
+        for (Worker worker : workers) {
+            if (count <= 0) {
+                return;
+            }
+            if (worker.wake()) {
+                count--;
+            }
+        }
+    }
+
+    private void checkRunning() {
+        if (shutdown) {
+            throw new RejectedExecutionException("TaskRuntime已关闭");
+        }
+    }
+
+    /**
+     * 各工作线程的队列指标快照
+     */
+    public List<WorkerMetrics> metrics() {
+        List<WorkerMetrics> list = new ArrayList<>(workers.length);
+        for (Worker w : workers) {
+            list.add(new WorkerMetrics(w.index, w.executed.get(), w.stolen.get(), w.stealAttempts.get(),
+                    w.parks.get(), w.deque.size(), w.inbox.size(), w.maxQueueSize));
+        }
+        return list;
+    }
+
+    /**
+     * @param executed      执行的任务数
+     * @param stolen        从其他工作线程偷到的任务数
+     * @param stealAttempts 尝试窃取的次数
+     * @param parks         因为没有任务而挂起的次数
+     * @param queueSize     当前本地队列长度
+     * @param inboxSize     当前收件箱长度
+     * @param maxQueueSize  观察到的本地队列最大长度
+     */
+    public record WorkerMetrics(int worker, long executed, long stolen, long stealAttempts, long parks,
+                                int queueSize, int inboxSize, int maxQueueSize) {
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker worker : workers) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            worker.thread.join(remaining);
+            if (worker.thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        shutdown();
+        awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    final class Worker implements Runnable {
+        final int index;
+        final Thread thread;
+        final WorkStealingDeque deque = new WorkStealingDeque();
+        final ConcurrentLinkedQueue<Task<?>> inbox = new ConcurrentLinkedQueue<>();
+        // 只在 parked 为 true 时才需要 unpark，避免每次提交都做系统调用
+        final AtomicInteger parked = new AtomicInteger();
+
+        // 指标只由所属线程写入
+        final AtomicLong executed = new AtomicLong();
+        final AtomicLong stolen = new AtomicLong();
+        final AtomicLong stealAttempts = new AtomicLong();
+        final AtomicLong parks = new AtomicLong();
+        volatile int maxQueueSize;
+
+        Worker(int index, String name) {
+            this.index = index;
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            currentWorker.set(this);
+            int idleScans = 0;
+            while (!shutdown || hasLocalWork()) {
+                Task<?> task = findTask();
+                if (task != null) {
+                    execute(task);
+                    idleScans = 0;
+                } else if (++idleScans < IDLE_SCANS) {
+                    Thread.onSpinWait();
+                } else {
+                    park();
+                    idleScans = 0;
+                }
+            }
+        }
+
+        void pushLocal(Task<?> task) {
+            deque.push(task);
+            int size = deque.size();
+            if (size > maxQueueSize) {
+                maxQueueSize = size;
+            }
+        }
+
+        private boolean hasLocalWork() {
+            return !deque.isEmpty() || !inbox.isEmpty();
+        }
+
+        private void execute(Task<?> task) {
+            task.run();
+            executed.lazySet(executed.get() + 1);
+        }
+
+        /**
+         * 本地队列 -> 收件箱 -> 窃取
+         */
+        private Task<?> findTask() {
+            Task<?> task = deque.pop();
+            if (task != null) {
+                return task;
+            }
+            task = drainInbox();
+            if (task != null) {
+                return task;
+            }
+            return steal();
+        }
+
+        /**
+         * 把收件箱里的任务一次性搬进本地队列，返回其中一个直接执行
+         */
+        private Task<?> drainInbox() {
+            Task<?> first = inbox.poll();
+            if (first == null) {
+                return null;
+            }
+            Task<?> next;
+            int moved = 0;
+            while ((next = inbox.poll()) != null) {
+                pushLocal(next);
+                moved++;
+            }
+            if (moved > 0) {
+                // 本地队列里有了多余的任务，让空闲的同伴来偷
+                signalWork(Math.min(moved, workers.length - 1));
+            }
+            return first;
+        }
+
+        private Task<?> steal() {
+            int n = workers.length;
+            if (n == 1) {
+                return null;
+            }
+            int start = ThreadLocalRandom.current().nextInt(n);
+            for (int i = 0; i < n; i++) {
+                Worker victim = workers[(start + i) % n];
+                if (victim == this) {
+                    continue;
+                }
+                stealAttempts.lazySet(stealAttempts.get() + 1);
+                Task<?> task = victim.deque.steal();
+                if (task == null) {
+                    // 外部提交的任务可能堆在对方收件箱里，对方又正忙于长任务
+                    task = victim.inbox.poll();
+                }
+                if (task != null) {
+                    stolen.lazySet(stolen.get() + 1);
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        private void park() {
+            parked.set(1);
+            idleWorkers.incrementAndGet();
+            try {
+                // 设置 parked 之后再检查一次，避免提交者在检查前后错过唤醒
+                if (!shutdown && !hasLocalWork() && !anyStealable()) {
+                    parks.lazySet(parks.get() + 1);
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+            } finally {
+                parked.set(0);
+                idleWorkers.decrementAndGet();
+            }
+        }
+
+        private boolean anyStealable() {
+            for (Worker w : workers) {
+                if (w != this && w.hasLocalWork()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return 该工作线程之前处于挂起状态并被本次调用唤醒
+         */
+        boolean wake() {
+            if (parked.get() == 1 && parked.compareAndSet(1, 0)) {
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 在工作线程里等待某个任务时，继续执行其他任务
+         */
+        void helpUntilDone(Task<?> awaited) {
+            int idleScans = 0;
+            while (!awaited.isDone()) {
+                Task<?> task = findTask();
+                if (task != null) {
+                    execute(task);
+                    idleScans = 0;
+                } else if (++idleScans < IDLE_SCANS) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+}
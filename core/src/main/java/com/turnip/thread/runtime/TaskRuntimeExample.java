@@ -0,0 +1,62 @@
+package com.turnip.thread.runtime;
+
+import com.turnip.thread.MyThread1;
+import com.turnip.thread.MyThread2;
+import com.turnip.thread.MyThread3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+/**
+ * 用 TaskRuntime 改写 Main 中"每个任务一个线程"的启动方式
+ * MyThread1 虽然继承了 Thread，但它同时也是 Runnable，这里只调用它的 run()，不会启动新线程。
+ */
+public class TaskRuntimeExample {
+
+    public static void main(String[] args) throws Exception {
+        try (TaskRuntime runtime = new TaskRuntime(4)) {
+            Task<Void> t1 = runtime.submit(new MyThread1());
+            Task<Void> t2 = runtime.submit(new MyThread2());
+            // 后续任务：排序结果出来后再加工，不需要阻塞等待
+            Task<String> t3 = runtime.submit(new MyThread3()).then(sorted -> "返回的结果：" + sorted);
+            System.out.println(t3.get());
+            Task.allOf(List.of(t1, t2)).join();
+
+            // 批量提交 + 全部完成
+            List<Callable<Long>> batch = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                final long n = i;
+                batch.add(() -> n * n);
+            }
+            long sum = Task.allOf(runtime.submitAll(batch)).join().stream().mapToLong(Long::longValue).sum();
+            System.out.println("批量任务平方和: " + sum);
+
+            // 任意一个完成：最快的胜出，其余被取消
+            List<Task<String>> replicas = List.of(
+                    runtime.submit(() -> slow("副本A", 300)),
+                    runtime.submit(() -> slow("副本B", 50)),
+                    runtime.submit(() -> slow("副本C", 200)));
+            System.out.println("最先返回: " + Task.anyOf(replicas).join());
+
+            // 取消向下游传播
+            Task<String> upstream = runtime.submit(() -> slow("上游", 200));
+            Task<Integer> downstream = upstream.then(String::length).then(len -> len * 2);
+            upstream.cancel(false);
+            try {
+                downstream.join();
+            } catch (CancellationException e) {
+                System.out.println("上游取消后下游状态: " + (downstream.isCancelled() ? "已取消" : "未取消"));
+            }
+
+            System.out.println("\n=== 工作线程指标 ===");
+            runtime.metrics().forEach(System.out::println);
+        }
+    }
+
+    private static String slow(String name, long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return name;
+    }
+}
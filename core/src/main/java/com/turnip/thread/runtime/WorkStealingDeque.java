@@ -0,0 +1,103 @@
+package com.turnip.thread.runtime;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Chase-Lev 工作窃取双端队列
+ * 所属工作线程在底部 push/pop（LIFO，缓存友好），其他线程从顶部 steal（FIFO，偷走最早、通常最大的任务）。
+ * top/bottom 都是 volatile，保证 pop 与 steal 争抢最后一个元素时的顺序一致性。
+ * 只有所属线程会扩容；扩容后旧数组保持不变，正在读旧数组的窃取者仍能拿到正确元素。
+ */
+final class WorkStealingDeque {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class, "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long top;
+    private volatile long bottom;
+    private volatile Object[] array = new Object[64];
+
+    /**
+     * 只能由所属线程调用
+     */
+    void push(Task<?> task) {
+        long b = bottom;
+        long t = top;
+        Object[] a = array;
+        if (b - t >= a.length - 1) {
+            a = grow(a, t, b);
+        }
+        SLOTS.setRelease(a, (int) (b & (a.length - 1)), task);
+        bottom = b + 1;
+    }
+
+    /**
+     * 只能由所属线程调用
+     */
+    Task<?> pop() {
+        long b = bottom - 1;
+        Object[] a = array;
+        bottom = b;
+        long t = top;
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+        int index = (int) (b & (a.length - 1));
+        Task<?> task = (Task<?>) SLOTS.getAcquire(a, index);
+        if (t == b) {
+            // 只剩最后一个元素，与窃取者竞争
+            if (!TOP.compareAndSet(this, t, t + 1)) {
+                task = null;
+            }
+            bottom = b + 1;
+        } else {
+            SLOTS.setRelease(a, index, null);
+        }
+        return task;
+    }
+
+    /**
+     * 任意线程调用；与其他窃取者或所属线程竞争失败时返回 null
+     */
+    Task<?> steal() {
+        long t = top;
+        long b = bottom;
+        if (t >= b) {
+            return null;
+        }
+        Object[] a = array;
+        Task<?> task = (Task<?>) SLOTS.getAcquire(a, (int) (t & (a.length - 1)));
+        if (task == null || !TOP.compareAndSet(this, t, t + 1)) {
+            return null;
+        }
+        return task;
+    }
+
+    int size() {
+        long n = bottom - top;
+        return n < 0 ? 0 : (int) n;
+    }
+
+    boolean isEmpty() {
+        return bottom <= top;
+    }
+
+    private Object[] grow(Object[] old, long t, long b) {
+        Object[] grown = new Object[old.length << 1];
+        for (long i = t; i < b; i++) {
+            grown[(int) (i & (grown.length - 1))] = old[(int) (i & (old.length - 1))];
+        }
+        array = grown;
+        return grown;
+    }
+}
@@ -0,0 +1,372 @@
+package com.turnip.thread.sort;
+
+import com.turnip.thread.sort.RunIo.Counter;
+import com.turnip.thread.sort.RunIo.LineReader;
+import com.turnip.thread.sort.RunIo.LineWriter;
+import com.turnip.thread.sort.RunIo.LongReader;
+import com.turnip.thread.sort.RunIo.LongWriter;
+import com.turnip.thread.sort.RunIo.RunReader;
+import com.turnip.thread.sort.RunIo.RunWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 外部归并排序：排序比内存大得多的文件
+ *
+ * 1. 按内存预算分批读入输入文件，每批在内存中并行排序（long 用 RadixSort，行用 Arrays.parallelSort）后写成一个临时有序段（run）；
+ * 2. 段数超过 fanIn 时，先把最早的若干段合并成一个新段，直到剩下不超过 fanIn 段；
+ * 3. 用败者树把剩下的段 k 路归并到输出文件。
+ *
+ * 支持两种输入：大端 8 字节 long 的二进制文件，以及按 '\n' 分隔的行（按字节无符号字典序排序）。
+ * 所有读写都通过 FileChannel 和直接缓冲区完成。切分阶段只分配一个读缓冲区和一个写缓冲区，其余预算都给排序数组；
+ * 排序数组释放后，归并阶段才补齐其余读缓冲区，任何时刻占用都不超过内存预算。
+ */
+public class ExternalSort {
+
+    private static final int MIN_BUFFER = 64 * 1024;
+    private static final int MAX_BUFFER = 8 * 1024 * 1024;
+    // 每行除内容外的估算开销：byte[] 对象头 + 列表中的引用 + 排序时的临时引用
+    private static final int LINE_OVERHEAD = 32;
+    private static final Comparator<byte[]> UNSIGNED = (a, b) -> Arrays.compareUnsigned(a, b);
+
+    private final long memoryBytes;
+    private final int fanIn;
+    private final Path tempDir;
+    private final int bufferSize;
+
+    public ExternalSort(long memoryBytes, int fanIn) {
+        this(memoryBytes, fanIn, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * @param memoryBytes 内存预算，包括排序数组和所有 I/O 缓冲区
+     * @param fanIn       一次归并最多同时打开的段数
+     * @param tempDir     临时段文件所在目录
+     */
+    public ExternalSort(long memoryBytes, int fanIn, Path tempDir) {
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("fanIn至少为2: " + fanIn);
+        }
+        long perBuffer = memoryBytes / (fanIn + 1);
+        if (perBuffer < MIN_BUFFER || memoryBytes - 2L * Math.min(perBuffer, MAX_BUFFER) < MIN_BUFFER) {
+            throw new IllegalArgumentException("内存预算" + memoryBytes + "不足以支持fanIn=" + fanIn);
+        }
+        this.memoryBytes = memoryBytes;
+        this.fanIn = fanIn;
+        this.tempDir = tempDir;
+        this.bufferSize = (int) Math.min(perBuffer, MAX_BUFFER) & ~4095;
+    }
+
+    /**
+     * @param name         阶段名称
+     * @param bytesRead    读取的字节数
+     * @param bytesWritten 写出的字节数
+     * @param nanos        耗时
+     */
+    public record Phase(String name, long bytesRead, long bytesWritten, long nanos) {
+        @Override
+        public String toString() {
+            double seconds = nanos / 1e9;
+            double mb = (bytesRead + bytesWritten) / (1024.0 * 1024.0);
+            return String.format("%-14s 读 %,15d B  写 %,15d B  %9.1f ms  %8.1f MB/s",
+                    name, bytesRead, bytesWritten, nanos / 1e6, seconds > 0 ? mb / seconds : 0);
+        }
+    }
+
+    /**
+     * @param records 排序的记录数
+     * @param runs    第一阶段生成的段数
+     * @param merges  归并次数（中间归并 + 最终归并）
+     * @param phases  各阶段的 I/O 与耗时
+     */
+    public record Report(long records, int runs, int merges, List<Phase> phases) {
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder()
+                    .append("记录数: ").append(records)
+                    .append("，段数: ").append(runs)
+                    .append("，归并次数: ").append(merges);
+            for (Phase phase : phases) {
+                sb.append('\n').append(phase);
+            }
+            return sb.toString();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReaderFactory {
+        RunReader open(FileChannel channel, ByteBuffer buf, Counter counter);
+    }
+
+    @FunctionalInterface
+    private interface WriterFactory {
+        RunWriter open(FileChannel channel, ByteBuffer buf, Counter counter);
+    }
+
+    /**
+     * 排序大端 8 字节 long 组成的二进制文件
+     */
+    public Report sortLongs(Path input, Path output) throws IOException {
+        return sort(input, output, LongReader::new, LongWriter::new, new LongRuns());
+    }
+
+    /**
+     * 按字节无符号字典序排序文本行，输出的每一行都以 '\n' 结尾
+     */
+    public Report sortLines(Path input, Path output) throws IOException {
+        return sort(input, output, LineReader::new, LineWriter::new, new LineRuns());
+    }
+
+    private Report sort(Path input, Path output, ReaderFactory readers, WriterFactory writers,
+                        RunBuilder builder) throws IOException {
+        // buffers[0] 和 buffers[fanIn] 是切分阶段的读、写缓冲区，归并时分别作第一个读缓冲区和写缓冲区
+        ByteBuffer[] buffers = new ByteBuffer[fanIn + 1];
+        buffers[0] = ByteBuffer.allocateDirect(bufferSize);
+        buffers[fanIn] = ByteBuffer.allocateDirect(bufferSize);
+        List<Phase> phases = new ArrayList<>();
+        List<Path> runs = new ArrayList<>();
+        try {
+            long records = spillRuns(input, readers, writers, builder, buffers, runs, phases);
+            int initialRuns = runs.size();
+            // 排序数组已释放，按需要同时打开的段数补齐读缓冲区
+            for (int i = 1; i < Math.min(fanIn, initialRuns); i++) {
+                buffers[i] = ByteBuffer.allocateDirect(bufferSize);
+            }
+            int merges = mergeRuns(runs, output, readers, writers, buffers, phases);
+            return new Report(records, initialRuns, merges, phases);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * 第一阶段：按内存预算切分输入，排序后写成临时段
+     */
+    private long spillRuns(Path input, ReaderFactory readers, WriterFactory writers, RunBuilder builder,
+                           ByteBuffer[] buffers, List<Path> runs, List<Phase> phases) throws IOException {
+        Counter readCounter = new Counter();
+        Counter spillCounter = new Counter();
+        long sortNanos = 0;
+        long spillNanos = 0;
+        long records = 0;
+        long start = System.nanoTime();
+        // 排序数组可用的内存：扣掉此时仅有的输入、输出两块缓冲区，其余读缓冲区到归并阶段才分配
+        builder.init(memoryBytes - 2L * bufferSize);
+        try (RunReader in = readers.open(FileChannel.open(input, StandardOpenOption.READ), buffers[0], readCounter)) {
+            in.advance();
+            while (!in.exhausted) {
+                int n = builder.fill(in);
+                records += n;
+                long t0 = System.nanoTime();
+                builder.sort();
+                long t1 = System.nanoTime();
+                Path run = Files.createTempFile(tempDir, "run-", ".tmp");
+                runs.add(run);
+                try (RunWriter out = writers.open(openForWrite(run), buffers[fanIn], spillCounter)) {
+                    builder.writeTo(out);
+                }
+                long t2 = System.nanoTime();
+                sortNanos += t1 - t0;
+                spillNanos += t2 - t1;
+            }
+        }
+        builder.release();
+        long total = System.nanoTime() - start;
+        phases.add(new Phase("read", readCounter.bytesRead, 0, total - sortNanos - spillNanos));
+        phases.add(new Phase("sort", 0, 0, sortNanos));
+        phases.add(new Phase("spill", 0, spillCounter.bytesWritten, spillNanos));
+        return records;
+    }
+
+    /**
+     * 第二、三阶段：多于 fanIn 段时先合并最早的段，最后一次 k 路归并到输出
+     *
+     * @return 归并次数
+     */
+    private int mergeRuns(List<Path> runs, Path output, ReaderFactory readers, WriterFactory writers,
+                          ByteBuffer[] buffers, List<Phase> phases) throws IOException {
+        int merges = 0;
+        if (runs.size() > fanIn) {
+            Counter counter = new Counter();
+            long start = System.nanoTime();
+            while (runs.size() > fanIn) {
+                // 第一次只合并刚好够用的段数，使之后每次都能满 fanIn 归并，减少重复读写的数据量
+                int take = Math.min(fanIn, runs.size() - fanIn + 1);
+                List<Path> group = new ArrayList<>(runs.subList(0, take));
+                Path merged = Files.createTempFile(tempDir, "run-", ".tmp");
+                runs.add(merged);
+                merge(group, merged, readers, writers, buffers, counter);
+                for (Path run : group) {
+                    Files.delete(run);
+                }
+                runs.subList(0, take).clear();
+                merges++;
+            }
+            phases.add(new Phase("merge-inter", counter.bytesRead, counter.bytesWritten, System.nanoTime() - start));
+        }
+        Counter counter = new Counter();
+        long start = System.nanoTime();
+        if (runs.isEmpty()) {
+            openForWrite(output).close();
+        } else if (runs.size() == 1) {
+            Files.move(runs.get(0), output, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            merge(runs, output, readers, writers, buffers, counter);
+        }
+        runs.clear();
+        phases.add(new Phase("merge-final", counter.bytesRead, counter.bytesWritten, System.nanoTime() - start));
+        return merges + 1;
+    }
+
+    private void merge(List<Path> group, Path output, ReaderFactory readers, WriterFactory writers,
+                       ByteBuffer[] buffers, Counter counter) throws IOException {
+        RunReader[] in = new RunReader[group.size()];
+        try (RunWriter out = writers.open(openForWrite(output), buffers[fanIn], counter)) {
+            for (int i = 0; i < in.length; i++) {
+                in[i] = readers.open(FileChannel.open(group.get(i), StandardOpenOption.READ), buffers[i], counter);
+                in[i].advance();
+            }
+            LoserTree tree = new LoserTree(in);
+            for (int w = tree.winner(); !in[w].exhausted; w = tree.winner()) {
+                in[w].writeHead(out);
+                in[w].advance();
+                tree.replay(w);
+            }
+        } finally {
+            for (RunReader reader : in) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static FileChannel openForWrite(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * 第一阶段中一个段在内存里的表示
+     */
+    private interface RunBuilder {
+        void init(long budgetBytes);
+
+        /**
+         * 从 in 的当前记录开始读，直到内存预算用完或输入读完
+         *
+         * @return 本段的记录数
+         */
+        int fill(RunReader in) throws IOException;
+
+        void sort();
+
+        void writeTo(RunWriter out) throws IOException;
+
+        void release();
+    }
+
+    private static final class LongRuns implements RunBuilder {
+        private long[] records;
+        private long[] scratch;
+        private int size;
+
+        @Override
+        public void init(long budgetBytes) {
+            // 基数排序需要同样大小的缓冲区，各段复用
+            long capacity = Math.min(budgetBytes / (2 * Long.BYTES), Integer.MAX_VALUE - 8);
+            records = new long[(int) capacity];
+            scratch = new long[(int) capacity];
+        }
+
+        @Override
+        public int fill(RunReader in) throws IOException {
+            LongReader reader = (LongReader) in;
+            size = 0;
+            while (size < records.length && !reader.exhausted) {
+                records[size++] = reader.head;
+                reader.advance();
+            }
+            return size;
+        }
+
+        @Override
+        public void sort() {
+            RadixSort.sort(records, size, null, scratch, ForkJoinPool.commonPool());
+        }
+
+        @Override
+        public void writeTo(RunWriter out) throws IOException {
+            LongWriter writer = (LongWriter) out;
+            for (int i = 0; i < size; i++) {
+                writer.write(records[i]);
+            }
+        }
+
+        @Override
+        public void release() {
+            records = null;
+            scratch = null;
+        }
+    }
+
+    private static final class LineRuns implements RunBuilder {
+        private long budget;
+        private byte[][] lines = new byte[1024][];
+        private int size;
+
+        @Override
+        public void init(long budgetBytes) {
+            budget = budgetBytes;
+        }
+
+        @Override
+        public int fill(RunReader in) throws IOException {
+            LineReader reader = (LineReader) in;
+            Arrays.fill(lines, 0, size, null);
+            size = 0;
+            long used = 0;
+            // 至少放一行，避免单行超过预算时死循环
+            while (!reader.exhausted && (size == 0 || used + reader.head.length + LINE_OVERHEAD <= budget)) {
+                if (size == lines.length) {
+                    lines = Arrays.copyOf(lines, size * 2);
+                }
+                used += reader.head.length + LINE_OVERHEAD;
+                lines[size++] = reader.head;
+                reader.advance();
+            }
+            return size;
+        }
+
+        @Override
+        public void sort() {
+            Arrays.parallelSort(lines, 0, size, UNSIGNED);
+        }
+
+        @Override
+        public void writeTo(RunWriter out) throws IOException {
+            LineWriter writer = (LineWriter) out;
+            for (int i = 0; i < size; i++) {
+                writer.write(lines[i]);
+            }
+        }
+
+        @Override
+        public void release() {
+            lines = null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.turnip.thread.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * 用很小的内存预算排序一个较大的文件，观察分段、中间归并和最终归并各阶段的 I/O 与耗时
+ * 参数：[long 记录数] [内存预算 MB] [fanIn]，默认 20000000 条（160 MB）、16 MB、8 路。
+ */
+public class ExternalSortExample {
+
+    public static void main(String[] args) throws IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000L;
+        long memory = (args.length > 1 ? Long.parseLong(args[1]) : 16) * 1024 * 1024;
+        int fanIn = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        ExternalSort sorter = new ExternalSort(memory, fanIn);
+
+        Path dir = Files.createTempDirectory("external-sort");
+        Path longs = dir.resolve("longs.bin");
+        Path sortedLongs = dir.resolve("longs.sorted");
+        Path lines = dir.resolve("lines.txt");
+        Path sortedLines = dir.resolve("lines.sorted");
+        try {
+            SplittableRandom random = new SplittableRandom(42);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(longs), 1 << 16))) {
+                for (long i = 0; i < count; i++) {
+                    out.writeLong(random.nextLong());
+                }
+            }
+            System.out.println("=== long 二进制文件 ===");
+            System.out.println(sorter.sortLongs(longs, sortedLongs));
+            System.out.println("输出有序: " + checkLongs(sortedLongs, count));
+
+            long lineCount = count / 10;
+            try (BufferedWriter out = Files.newBufferedWriter(lines, StandardCharsets.UTF_8)) {
+                for (long i = 0; i < lineCount; i++) {
+                    String hex = Long.toHexString(random.nextLong());
+                    out.write(hex, 0, Math.min(hex.length(), 1 + random.nextInt(16)));
+                    out.write('\n');
+                }
+            }
+            System.out.println("\n=== 文本行 ===");
+            System.out.println(sorter.sortLines(lines, sortedLines));
+            System.out.println("输出有序: " + checkLines(sortedLines, lineCount));
+        } finally {
+            for (Path p : new Path[]{longs, sortedLongs, lines, sortedLines, dir}) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    private static boolean checkLongs(Path file, long expected) throws IOException {
+        long n = 0;
+        long prev = Long.MIN_VALUE;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                long v;
+                try {
+                    v = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (v < prev) {
+                    return false;
+                }
+                prev = v;
+                n++;
+            }
+        }
+        return n == expected;
+    }
+
+    private static boolean checkLines(Path file, long expected) throws IOException {
+        long n = 0;
+        String prev = "";
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (line.compareTo(prev) < 0) {
+                    return false;
+                }
+                prev = line;
+                n++;
+            }
+        }
+        return n == expected;
+    }
+}
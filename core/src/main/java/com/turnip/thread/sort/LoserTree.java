@@ -0,0 +1,64 @@
+package com.turnip.thread.sort;
+
+import com.turnip.thread.sort.RunIo.RunReader;
+
+import java.util.Arrays;
+
+/**
+ * k 路归并用的败者树
+ *
+ * 内部节点记录比赛的败者，tree[0] 记录总冠军。当前冠军输出并前进一条记录后，
+ * 只需沿它的叶子到根重赛一遍，每条记录 log2(k) 次比较，比堆的下沉少一半左右的比较。
+ * 已读完的输入视为无穷大；记录相等时下标小的胜出，保证归并稳定。
+ */
+final class LoserTree {
+
+    private final RunReader[] readers;
+    private final int[] tree;
+    private final int k;
+
+    LoserTree(RunReader[] readers) {
+        this.readers = readers;
+        this.k = readers.length;
+        this.tree = new int[k];
+        // 下标 k 表示一个比所有记录都小的虚拟选手，建树时逐个把它淘汰
+        Arrays.fill(tree, k);
+        for (int i = k - 1; i >= 0; i--) {
+            replay(i);
+        }
+    }
+
+    int winner() {
+        return tree[0];
+    }
+
+    /**
+     * 选手 s 的当前记录变化后，从它的叶子向上重赛
+     */
+    void replay(int s) {
+        for (int t = (s + k) >>> 1; t > 0; t >>>= 1) {
+            if (beats(tree[t], s)) {
+                int loser = s;
+                s = tree[t];
+                tree[t] = loser;
+            }
+        }
+        tree[0] = s;
+    }
+
+    private boolean beats(int a, int b) {
+        if (a == k) {
+            return true;
+        }
+        if (b == k) {
+            return false;
+        }
+        RunReader ra = readers[a];
+        RunReader rb = readers[b];
+        if (ra.exhausted || rb.exhausted) {
+            return rb.exhausted && (!ra.exhausted || a < b);
+        }
+        int c = ra.compareHead(rb);
+        return c < 0 || (c == 0 && a < b);
+    }
+}
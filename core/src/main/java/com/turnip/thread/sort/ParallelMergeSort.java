@@ -0,0 +1,302 @@
+package com.turnip.thread.sort;
+
+import com.turnip.thread.MyThread3;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 基于 fork-join 的并行归并排序
+ *
+ * - 整个数组不超过 {@link #SHELL_THRESHOLD} 时用 MyThread3 的希尔排序；
+ * - 不超过 {@link #SEQUENTIAL_THRESHOLD} 时用 Arrays.sort（双轴快排）顺序排序，fork-join 的叶子区间也是如此；
+ * - 更大的区间拆成两半并行排序，再并行归并。
+ * 叶子区间不再拆成希尔排序的小块：实测先按 64 个一块希尔排序再逐层归并，比直接 Arrays.sort 慢 1.5 倍以上。
+ *
+ * 排序结果和缓冲区在每一层交替使用（乒乓），整个排序只分配一个与输入等长的缓冲区，不需要每层拷贝回原数组。
+ */
+public final class ParallelMergeSort {
+
+    static final int SHELL_THRESHOLD = 64;
+    static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    // 小于该长度的归并不再拆分
+    static final int MERGE_THRESHOLD = 1 << 13;
+
+    private ParallelMergeSort() {
+    }
+
+    public static void sort(int[] a) {
+        sort(a, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(int[] a, ForkJoinPool pool) {
+        if (a.length <= SEQUENTIAL_THRESHOLD) {
+            sortSequential(a, 0, a.length);
+            return;
+        }
+        pool.invoke(new IntSorter(a, new int[a.length], 0, a.length, false));
+    }
+
+    public static void sort(long[] a) {
+        sort(a, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(long[] a, ForkJoinPool pool) {
+        if (a.length <= SEQUENTIAL_THRESHOLD) {
+            Arrays.sort(a);
+            return;
+        }
+        pool.invoke(new LongSorter(a, new long[a.length], 0, a.length, false));
+    }
+
+    /**
+     * 顺序排序 a[from, to)，供 RadixSort 等处理小数组时使用
+     */
+    static void sortSequential(int[] a, int from, int to) {
+        if (to - from <= SHELL_THRESHOLD) {
+            MyThread3.shellSort(a, from, to);
+        } else {
+            Arrays.sort(a, from, to);
+        }
+    }
+
+    /**
+     * 排序 src[lo, hi)；intoBuf 为 true 时结果写入 buf 的同一区间，否则留在 src
+     */
+    private static final class IntSorter extends RecursiveAction {
+        private final int[] src;
+        private final int[] buf;
+        private final int lo;
+        private final int hi;
+        private final boolean intoBuf;
+
+        IntSorter(int[] src, int[] buf, int lo, int hi, boolean intoBuf) {
+            this.src = src;
+            this.buf = buf;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoBuf = intoBuf;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SEQUENTIAL_THRESHOLD) {
+                Arrays.sort(src, lo, hi);
+                if (intoBuf) {
+                    System.arraycopy(src, lo, buf, lo, hi - lo);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // 子区间的结果放到另一个数组，本层再归并回目标数组
+            invokeAll(new IntSorter(src, buf, lo, mid, !intoBuf),
+                    new IntSorter(src, buf, mid, hi, !intoBuf));
+            int[] from = intoBuf ? src : buf;
+            int[] to = intoBuf ? buf : src;
+            if (from[mid - 1] <= from[mid]) {
+                // 两半已经首尾相接（已排序输入很常见），不必归并
+                System.arraycopy(from, lo, to, lo, hi - lo);
+            } else {
+                new IntMerger(from, lo, mid, mid, hi, to, lo).compute();
+            }
+        }
+    }
+
+    /**
+     * 把 a[lo1, hi1) 与 a[lo2, hi2) 归并到 dst[d, ...)；较长的一段取中点，在另一段中二分定位后拆成两个独立的归并
+     */
+    private static final class IntMerger extends RecursiveAction {
+        private final int[] a;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int[] dst;
+        private final int d;
+
+        IntMerger(int[] a, int lo1, int hi1, int lo2, int hi2, int[] dst, int d) {
+            this.a = a;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= MERGE_THRESHOLD) {
+                merge();
+                return;
+            }
+            int m1;
+            int m2;
+            if (n1 >= n2) {
+                m1 = (lo1 + hi1) >>> 1;
+                m2 = lowerBound(a, lo2, hi2, a[m1]);
+            } else {
+                m2 = (lo2 + hi2) >>> 1;
+                // 第一段里等于 a[m2] 的元素必须排在前面，保证稳定
+                m1 = upperBound(a, lo1, hi1, a[m2]);
+            }
+            int dm = d + (m1 - lo1) + (m2 - lo2);
+            invokeAll(new IntMerger(a, lo1, m1, lo2, m2, dst, d),
+                    new IntMerger(a, m1, hi1, m2, hi2, dst, dm));
+        }
+
+        private void merge() {
+            int i = lo1;
+            int j = lo2;
+            int k = d;
+            while (i < hi1 && j < hi2) {
+                dst[k++] = a[j] < a[i] ? a[j++] : a[i++];
+            }
+            System.arraycopy(a, i, dst, k, hi1 - i);
+            k += hi1 - i;
+            System.arraycopy(a, j, dst, k, hi2 - j);
+        }
+    }
+
+    private static int lowerBound(int[] a, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(int[] a, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class LongSorter extends RecursiveAction {
+        private final long[] src;
+        private final long[] buf;
+        private final int lo;
+        private final int hi;
+        private final boolean intoBuf;
+
+        LongSorter(long[] src, long[] buf, int lo, int hi, boolean intoBuf) {
+            this.src = src;
+            this.buf = buf;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoBuf = intoBuf;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SEQUENTIAL_THRESHOLD) {
+                Arrays.sort(src, lo, hi);
+                if (intoBuf) {
+                    System.arraycopy(src, lo, buf, lo, hi - lo);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new LongSorter(src, buf, lo, mid, !intoBuf),
+                    new LongSorter(src, buf, mid, hi, !intoBuf));
+            long[] from = intoBuf ? src : buf;
+            long[] to = intoBuf ? buf : src;
+            if (from[mid - 1] <= from[mid]) {
+                System.arraycopy(from, lo, to, lo, hi - lo);
+            } else {
+                new LongMerger(from, lo, mid, mid, hi, to, lo).compute();
+            }
+        }
+    }
+
+    private static final class LongMerger extends RecursiveAction {
+        private final long[] a;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final long[] dst;
+        private final int d;
+
+        LongMerger(long[] a, int lo1, int hi1, int lo2, int hi2, long[] dst, int d) {
+            this.a = a;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= MERGE_THRESHOLD) {
+                merge();
+                return;
+            }
+            int m1;
+            int m2;
+            if (n1 >= n2) {
+                m1 = (lo1 + hi1) >>> 1;
+                m2 = lowerBound(a, lo2, hi2, a[m1]);
+            } else {
+                m2 = (lo2 + hi2) >>> 1;
+                m1 = upperBound(a, lo1, hi1, a[m2]);
+            }
+            int dm = d + (m1 - lo1) + (m2 - lo2);
+            invokeAll(new LongMerger(a, lo1, m1, lo2, m2, dst, d),
+                    new LongMerger(a, m1, hi1, m2, hi2, dst, dm));
+        }
+
+        private void merge() {
+            int i = lo1;
+            int j = lo2;
+            int k = d;
+            while (i < hi1 && j < hi2) {
+                dst[k++] = a[j] < a[i] ? a[j++] : a[i++];
+            }
+            System.arraycopy(a, i, dst, k, hi1 - i);
+            k += hi1 - i;
+            System.arraycopy(a, j, dst, k, hi2 - j);
+        }
+    }
+
+    private static int lowerBound(long[] a, int lo, int hi, long key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(long[] a, int lo, int hi, long key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,88 @@
+package com.turnip.thread.sort;
+
+import com.turnip.thread.MyThread3;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * 在几种典型输入上校验并粗略比较各种排序：均匀随机、已排序、逆序、大量重复
+ * 参数：[元素个数]，默认 10^7；精确对比见 benchmarks 模块的 ParallelSortBenchmark。
+ */
+public class ParallelSortExample {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        System.out.println("元素个数: " + n + "，并行度: " + ForkJoinPool.commonPool().getParallelism());
+
+        int[] small = {3, 2, 4, 5, 9, 1, 10, 6, 7, 8};
+        MyThread3.shellSort(small, 2, 8);
+        System.out.println("希尔排序 [2, 8) 区间: " + Arrays.toString(small));
+
+        for (String distribution : new String[]{"uniform", "sorted", "reversed", "duplicates"}) {
+            int[] source = generate(distribution, n, 42);
+            int[] expected = source.clone();
+            Arrays.sort(expected);
+            System.out.println("\n=== " + distribution + " ===");
+            run("Arrays.sort", source, expected, Arrays::sort);
+            run("Arrays.parallelSort", source, expected, Arrays::parallelSort);
+            run("ParallelMergeSort", source, expected, ParallelMergeSort::sort);
+            run("RadixSort", source, expected, RadixSort::sort);
+        }
+
+        // 带 payload：按 key 排序下标，校验下标指向的 key 有序且相同 key 保持原顺序
+        int[] keys = generate("duplicates", n, 7);
+        int[] index = RadixSort.sortedIndices(keys);
+        boolean stable = true;
+        for (int i = 1; i < n && stable; i++) {
+            int a = keys[index[i - 1]];
+            int b = keys[index[i]];
+            stable = a < b || (a == b && index[i - 1] < index[i]);
+        }
+        System.out.println("\nsortedIndices 有序且稳定: " + stable);
+
+        long[] longs = new SplittableRandom(1).longs(n).toArray();
+        long[] longExpected = longs.clone();
+        Arrays.sort(longExpected);
+        long[] l1 = longs.clone();
+        RadixSort.sort(l1);
+        long[] l2 = longs.clone();
+        ParallelMergeSort.sort(l2);
+        System.out.println("long[] 基数排序正确: " + Arrays.equals(l1, longExpected)
+                + "，归并排序正确: " + Arrays.equals(l2, longExpected));
+    }
+
+    static int[] generate(String distribution, int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] a = switch (distribution) {
+            case "duplicates" -> random.ints(n, 0, 16).toArray();
+            default -> random.ints(n).toArray();
+        };
+        if (distribution.equals("sorted") || distribution.equals("reversed")) {
+            Arrays.sort(a);
+        }
+        if (distribution.equals("reversed")) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        }
+        return a;
+    }
+
+    private static void run(String name, int[] source, int[] expected, Consumer<int[]> sorter) {
+        long best = Long.MAX_VALUE;
+        boolean correct = true;
+        for (int round = 0; round < 3; round++) {
+            int[] work = source.clone();
+            long start = System.nanoTime();
+            sorter.accept(work);
+            best = Math.min(best, System.nanoTime() - start);
+            correct &= Arrays.equals(work, expected);
+        }
+        System.out.printf("%-22s %8.1f ms  %s%n", name, best / 1e6, correct ? "正确" : "错误!");
+    }
+}
@@ -0,0 +1,321 @@
+package com.turnip.thread.sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行 LSD 基数排序，每趟处理 8 位（int 4 趟，long 8 趟）
+ *
+ * 每一趟：
+ * 1. 把数组切成若干块，各块并行统计本块的数字直方图；
+ * 2. 按（数字, 块号）顺序做前缀和，得到每块每个数字的起始写入位置；
+ * 3. 各块并行把元素分发到缓冲区，块内保持原有顺序，所以排序是稳定的。
+ * 某一趟所有元素的数字都相同时（已排序或大量重复的数据常见）直接跳过这一趟。
+ * 最高位字节翻转符号位，负数排在正数前面。
+ *
+ * 带 payload 的版本按 key 排序的同时同步移动 payload，例如传入下标数组即可得到排序后的原始位置。
+ */
+public final class RadixSort {
+
+    private static final int BITS = 8;
+    private static final int RADIX = 1 << BITS;
+    private static final int MASK = RADIX - 1;
+    // 每块至少这么多元素，块太小时直方图本身的开销占比过高
+    private static final int MIN_BLOCK = 1 << 16;
+    // 小于该长度时基数排序的常数开销不划算
+    static final int SMALL_THRESHOLD = 1 << 10;
+
+    private RadixSort() {
+    }
+
+    public static void sort(int[] keys) {
+        sort(keys, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 按 keys 排序，payload 随之移动；payload 为 null 时只排 keys
+     */
+    public static void sort(int[] keys, int[] payload) {
+        sort(keys, payload, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(int[] keys, int[] payload, ForkJoinPool pool) {
+        int n = keys.length;
+        checkPayload(n, payload);
+        if (n <= SMALL_THRESHOLD) {
+            if (payload == null) {
+                ParallelMergeSort.sortSequential(keys, 0, n);
+            } else {
+                insertionSort(keys, payload);
+            }
+            return;
+        }
+        int blocks = blocks(n, pool);
+        int[][] counts = new int[blocks][RADIX];
+        int[] srcKeys = keys;
+        int[] dstKeys = new int[n];
+        int[] srcPayload = payload;
+        int[] dstPayload = payload == null ? null : new int[n];
+        for (int shift = 0; shift < Integer.SIZE; shift += BITS) {
+            // 最高字节异或 0x80 翻转符号位
+            int flip = shift == Integer.SIZE - BITS ? 0x80 : 0;
+            pool.invoke(forEachBlock(blocks, n, histogram(srcKeys, counts, shift, flip)));
+            if (!prefixSum(counts, n)) {
+                continue;
+            }
+            pool.invoke(forEachBlock(blocks, n, scatter(srcKeys, dstKeys, srcPayload, dstPayload, counts, shift, flip)));
+            int[] t = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = t;
+            t = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = t;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, 0, payload, 0, n);
+            }
+        }
+    }
+
+    public static void sort(long[] keys) {
+        sort(keys, null, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(long[] keys, int[] payload) {
+        sort(keys, payload, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(long[] keys, int[] payload, ForkJoinPool pool) {
+        checkPayload(keys.length, payload);
+        sort(keys, keys.length, payload, null, pool);
+    }
+
+    /**
+     * 只排序 keys 的前 n 个元素；scratch 为调用方复用的缓冲区，长度至少为 n，为 null 时内部分配
+     */
+    static void sort(long[] keys, int n, int[] payload, long[] scratch, ForkJoinPool pool) {
+        if (n <= SMALL_THRESHOLD) {
+            if (payload == null) {
+                Arrays.sort(keys, 0, n);
+            } else {
+                insertionSort(keys, payload, n);
+            }
+            return;
+        }
+        int blocks = blocks(n, pool);
+        int[][] counts = new int[blocks][RADIX];
+        long[] srcKeys = keys;
+        long[] dstKeys = scratch != null ? scratch : new long[n];
+        int[] srcPayload = payload;
+        int[] dstPayload = payload == null ? null : new int[n];
+        for (int shift = 0; shift < Long.SIZE; shift += BITS) {
+            int flip = shift == Long.SIZE - BITS ? 0x80 : 0;
+            pool.invoke(forEachBlock(blocks, n, histogram(srcKeys, counts, shift, flip)));
+            if (!prefixSum(counts, n)) {
+                continue;
+            }
+            pool.invoke(forEachBlock(blocks, n, scatter(srcKeys, dstKeys, srcPayload, dstPayload, counts, shift, flip)));
+            long[] t = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = t;
+            int[] p = srcPayload;
+            srcPayload = dstPayload;
+            dstPayload = p;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, 0, payload, 0, n);
+            }
+        }
+    }
+
+    /**
+     * 返回使 keys 有序的下标排列，keys 本身不变
+     */
+    public static int[] sortedIndices(int[] keys) {
+        int[] copy = keys.clone();
+        int[] index = new int[keys.length];
+        Arrays.setAll(index, i -> i);
+        sort(copy, index);
+        return index;
+    }
+
+    public static int[] sortedIndices(long[] keys) {
+        long[] copy = keys.clone();
+        int[] index = new int[keys.length];
+        Arrays.setAll(index, i -> i);
+        sort(copy, index);
+        return index;
+    }
+
+    private static void checkPayload(int n, int[] payload) {
+        if (payload != null && payload.length != n) {
+            throw new IllegalArgumentException("payload长度" + payload.length + "与keys长度" + n + "不一致");
+        }
+    }
+
+    private static int blocks(int n, ForkJoinPool pool) {
+        return Math.max(1, Math.min(pool.getParallelism() * 4, n / MIN_BLOCK));
+    }
+
+    /**
+     * 把 counts[block][digit] 原地改成写入起点
+     *
+     * @return 这一趟是否需要分发；所有元素落在同一个数字上时返回 false
+     */
+    private static boolean prefixSum(int[][] counts, int n) {
+        int offset = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int total = 0;
+            for (int[] block : counts) {
+                total += block[digit];
+            }
+            if (total == n) {
+                return false;
+            }
+            for (int[] block : counts) {
+                int c = block[digit];
+                block[digit] = offset;
+                offset += c;
+            }
+        }
+        return true;
+    }
+
+    private static void insertionSort(int[] keys, int[] payload) {
+        for (int i = 1; i < keys.length; i++) {
+            int k = keys[i];
+            int p = payload[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > k) {
+                keys[j + 1] = keys[j];
+                payload[j + 1] = payload[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            payload[j + 1] = p;
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] payload, int n) {
+        for (int i = 1; i < n; i++) {
+            long k = keys[i];
+            int p = payload[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > k) {
+                keys[j + 1] = keys[j];
+                payload[j + 1] = payload[j];
+                j--;
+            }
+            keys[j + 1] = k;
+            payload[j + 1] = p;
+        }
+    }
+
+    /**
+     * 按块号 b 处理 [lo, hi) 区间
+     */
+    @FunctionalInterface
+    private interface BlockBody {
+        void block(int b, int lo, int hi);
+    }
+
+    /**
+     * 把 [fromBlock, toBlock) 这些块二分拆给 fork-join 线程，每块覆盖数组中连续的一段
+     */
+    private static final class BlockAction extends RecursiveAction {
+        private final BlockBody body;
+        private final int blocks;
+        private final int length;
+        private final int fromBlock;
+        private final int toBlock;
+
+        BlockAction(BlockBody body, int blocks, int length, int fromBlock, int toBlock) {
+            this.body = body;
+            this.blocks = blocks;
+            this.length = length;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock == 1) {
+                int b = fromBlock;
+                body.block(b, (int) ((long) length * b / blocks), (int) ((long) length * (b + 1) / blocks));
+                return;
+            }
+            int mid = (fromBlock + toBlock) >>> 1;
+            invokeAll(new BlockAction(body, blocks, length, fromBlock, mid),
+                    new BlockAction(body, blocks, length, mid, toBlock));
+        }
+    }
+
+    private static BlockAction forEachBlock(int blocks, int length, BlockBody body) {
+        return new BlockAction(body, blocks, length, 0, blocks);
+    }
+
+    private static BlockBody histogram(int[] src, int[][] counts, int shift, int flip) {
+        return (b, lo, hi) -> {
+            int[] c = counts[b];
+            Arrays.fill(c, 0);
+            for (int i = lo; i < hi; i++) {
+                c[((src[i] >>> shift) & MASK) ^ flip]++;
+            }
+        };
+    }
+
+    private static BlockBody scatter(int[] src, int[] dst, int[] srcPayload, int[] dstPayload,
+                                     int[][] counts, int shift, int flip) {
+        return (b, lo, hi) -> {
+            int[] pos = counts[b];
+            if (srcPayload == null) {
+                for (int i = lo; i < hi; i++) {
+                    int k = src[i];
+                    dst[pos[((k >>> shift) & MASK) ^ flip]++] = k;
+                }
+            } else {
+                for (int i = lo; i < hi; i++) {
+                    int k = src[i];
+                    int p = pos[((k >>> shift) & MASK) ^ flip]++;
+                    dst[p] = k;
+                    dstPayload[p] = srcPayload[i];
+                }
+            }
+        };
+    }
+
+    private static BlockBody histogram(long[] src, int[][] counts, int shift, int flip) {
+        return (b, lo, hi) -> {
+            int[] c = counts[b];
+            Arrays.fill(c, 0);
+            for (int i = lo; i < hi; i++) {
+                c[((int) (src[i] >>> shift) & MASK) ^ flip]++;
+            }
+        };
+    }
+
+    private static BlockBody scatter(long[] src, long[] dst, int[] srcPayload, int[] dstPayload,
+                                     int[][] counts, int shift, int flip) {
+        return (b, lo, hi) -> {
+            int[] pos = counts[b];
+            if (srcPayload == null) {
+                for (int i = lo; i < hi; i++) {
+                    long k = src[i];
+                    dst[pos[((int) (k >>> shift) & MASK) ^ flip]++] = k;
+                }
+            } else {
+                for (int i = lo; i < hi; i++) {
+                    long k = src[i];
+                    int p = pos[((int) (k >>> shift) & MASK) ^ flip]++;
+                    dst[p] = k;
+                    dstPayload[p] = srcPayload[i];
+                }
+            }
+        };
+    }
+}
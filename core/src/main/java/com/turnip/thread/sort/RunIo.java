@@ -0,0 +1,247 @@
+package com.turnip.thread.sort;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * 外部排序用到的顺序读写：每个读写器独占一块大缓冲区，直接对 FileChannel 做整块读写
+ */
+final class RunIo {
+
+    private RunIo() {
+    }
+
+    /**
+     * 一个阶段累计读写的字节数
+     */
+    static final class Counter {
+        long bytesRead;
+        long bytesWritten;
+    }
+
+    abstract static class RunReader implements Closeable {
+        final FileChannel channel;
+        final ByteBuffer buf;
+        final Counter counter;
+        boolean exhausted;
+
+        RunReader(FileChannel channel, ByteBuffer buf, Counter counter) {
+            this.channel = channel;
+            this.buf = buf;
+            this.counter = counter;
+            buf.clear().flip();
+        }
+
+        /**
+         * 读入下一条记录作为当前记录
+         *
+         * @return 文件已读完时返回 false，并标记 exhausted
+         */
+        abstract boolean advance() throws IOException;
+
+        abstract int compareHead(RunReader other);
+
+        abstract void writeHead(RunWriter out) throws IOException;
+
+        /**
+         * 保证缓冲区中至少有 n 个字节可读；每次都尽量把缓冲区读满，保证大块顺序读
+         */
+        boolean fill(int n) throws IOException {
+            if (buf.remaining() >= n) {
+                return true;
+            }
+            buf.compact();
+            while (buf.position() < n) {
+                int r = channel.read(buf);
+                if (r < 0) {
+                    break;
+                }
+                counter.bytesRead += r;
+            }
+            buf.flip();
+            return buf.remaining() >= n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    abstract static class RunWriter implements Closeable {
+        final FileChannel channel;
+        final ByteBuffer buf;
+        final Counter counter;
+
+        RunWriter(FileChannel channel, ByteBuffer buf, Counter counter) {
+            this.channel = channel;
+            this.buf = buf;
+            this.counter = counter;
+            buf.clear();
+        }
+
+        void ensure(int n) throws IOException {
+            if (buf.remaining() < n) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            writeFully(buf);
+            buf.clear();
+        }
+
+        void writeFully(ByteBuffer src) throws IOException {
+            while (src.hasRemaining()) {
+                counter.bytesWritten += channel.write(src);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * 定长记录：大端 8 字节 long
+     */
+    static final class LongReader extends RunReader {
+        long head;
+
+        LongReader(FileChannel channel, ByteBuffer buf, Counter counter) {
+            super(channel, buf, counter);
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (!fill(Long.BYTES)) {
+                if (buf.hasRemaining()) {
+                    throw new IOException("文件长度不是" + Long.BYTES + "的倍数");
+                }
+                exhausted = true;
+                return false;
+            }
+            head = buf.getLong();
+            return true;
+        }
+
+        @Override
+        int compareHead(RunReader other) {
+            return Long.compare(head, ((LongReader) other).head);
+        }
+
+        @Override
+        void writeHead(RunWriter out) throws IOException {
+            ((LongWriter) out).write(head);
+        }
+    }
+
+    static final class LongWriter extends RunWriter {
+
+        LongWriter(FileChannel channel, ByteBuffer buf, Counter counter) {
+            super(channel, buf, counter);
+        }
+
+        void write(long value) throws IOException {
+            ensure(Long.BYTES);
+            buf.putLong(value);
+        }
+    }
+
+    /**
+     * 以 '\n' 分隔的行，按字节无符号字典序比较（对 UTF-8 即按码点排序），全程不解码成 String
+     */
+    static final class LineReader extends RunReader {
+        byte[] head;
+        // 跨缓冲区的行先攒在这里
+        private byte[] pending = new byte[256];
+        private int pendingLength;
+
+        LineReader(FileChannel channel, ByteBuffer buf, Counter counter) {
+            super(channel, buf, counter);
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            pendingLength = 0;
+            while (true) {
+                int start = buf.position();
+                int limit = buf.limit();
+                for (int i = start; i < limit; i++) {
+                    if (buf.get(i) == '\n') {
+                        head = take(start, i);
+                        buf.position(i + 1);
+                        return true;
+                    }
+                }
+                append(start, limit);
+                buf.position(limit);
+                if (!fill(1)) {
+                    if (pendingLength > 0) {
+                        // 最后一行没有换行符
+                        head = Arrays.copyOf(pending, pendingLength);
+                        pendingLength = 0;
+                        return true;
+                    }
+                    exhausted = true;
+                    return false;
+                }
+            }
+        }
+
+        private byte[] take(int from, int to) {
+            byte[] line = new byte[pendingLength + to - from];
+            System.arraycopy(pending, 0, line, 0, pendingLength);
+            buf.get(from, line, pendingLength, to - from);
+            return line;
+        }
+
+        private void append(int from, int to) {
+            int n = to - from;
+            if (pendingLength + n > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + n));
+            }
+            buf.get(from, pending, pendingLength, n);
+            pendingLength += n;
+        }
+
+        @Override
+        int compareHead(RunReader other) {
+            return Arrays.compareUnsigned(head, ((LineReader) other).head);
+        }
+
+        @Override
+        void writeHead(RunWriter out) throws IOException {
+            ((LineWriter) out).write(head);
+        }
+    }
+
+    static final class LineWriter extends RunWriter {
+
+        LineWriter(FileChannel channel, ByteBuffer buf, Counter counter) {
+            super(channel, buf, counter);
+        }
+
+        void write(byte[] line) throws IOException {
+            if (line.length + 1 > buf.capacity()) {
+                // 比缓冲区还长的行直接写出
+                flush();
+                writeFully(ByteBuffer.wrap(line));
+            } else {
+                ensure(line.length + 1);
+                buf.put(line);
+            }
+            ensure(1);
+            buf.put((byte) '\n');
+        }
+    }
+}